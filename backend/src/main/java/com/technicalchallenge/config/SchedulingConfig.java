@@ -0,0 +1,10 @@
+package com.technicalchallenge.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables background jobs such as the trade outbox dispatcher
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
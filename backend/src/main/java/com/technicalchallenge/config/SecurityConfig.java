@@ -56,6 +56,12 @@ public class SecurityConfig {
                         .frameOptions(frame -> frame.sameOrigin())) // for H2 console access
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(new AntPathRequestMatcher("/h2-console/**")).permitAll()
+                        // Traces carry request paths and errors, so they are kept to administrators
+                        .requestMatchers(new AntPathRequestMatcher("/actuator/traces/**")).hasAnyRole("SUPERUSER","ADMIN")
+                        // Flight recordings cost CPU while running and their files expose the heap and threads
+                        .requestMatchers(new AntPathRequestMatcher("/actuator/jfr/**")).hasAnyRole("SUPERUSER","ADMIN")
+                        // Slow statements are shown with the values they were bound with
+                        .requestMatchers(new AntPathRequestMatcher("/actuator/slowqueries/**")).hasAnyRole("SUPERUSER","ADMIN")
                         .requestMatchers(
                                 new AntPathRequestMatcher("/api/login/**"),
                                 new AntPathRequestMatcher("/swagger-ui/**"),
@@ -0,0 +1,37 @@
+package com.technicalchallenge.config;
+
+import com.technicalchallenge.service.metrics.SlowQueryLog;
+import com.technicalchallenge.service.metrics.SqlCountingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Counts the SQL of each HTTP request for SqlBudgetFilter by wrapping the data source before JPA and JDBC use it,
+// recording the slow statements in the SlowQueryLog on the way
+@Configuration
+public class SqlInstrumentationConfig {
+
+    @Bean
+    public static SlowQueryLog slowQueryLog(@Value("${trade.sql.slow-query.threshold-ms:100}") long thresholdMillis,
+                                            @Value("${trade.sql.slow-query.max-fingerprints:200}") int maxFingerprints,
+                                            @Value("${trade.sql.slow-query.explain:true}") boolean explain) {
+        return new SlowQueryLog(thresholdMillis, maxFingerprints, explain);
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlCountingDataSourcePostProcessor(
+            @Value("${trade.sql.instrumentation.enabled:true}") boolean enabled,
+            @Value("${trade.sql.slow-query.enabled:true}") boolean slowQueriesEnabled,
+            SlowQueryLog slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return enabled && bean instanceof DataSource dataSource
+                        ? SqlCountingDataSource.wrap(dataSource, slowQueriesEnabled ? slowQueryLog : null) : bean;
+            }
+        };
+    }
+}
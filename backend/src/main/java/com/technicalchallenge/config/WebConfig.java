@@ -1,10 +1,18 @@
 package com.technicalchallenge.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.service.encoding.TradeBinaryHttpMessageConverter;
+import com.technicalchallenge.service.ratelimit.RateLimitInterceptor;
+import com.technicalchallenge.service.ratelimit.UserRateLimiter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig {
     @Bean
@@ -20,5 +28,27 @@ public class WebConfig {
             }
         };
     }
-}
 
+    // Per-user rate limits, applied after authentication so the user and profile are known
+    @Bean
+    public WebMvcConfigurer rateLimitConfigurer(UserRateLimiter userRateLimiter, ObjectMapper objectMapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new RateLimitInterceptor(userRateLimiter, objectMapper))
+                        .addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    // Binary trade lists for clients that ask for them, added last so JSON stays the default
+    @Bean
+    public WebMvcConfigurer tradeBinaryConfigurer() {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+                converters.add(new TradeBinaryHttpMessageConverter());
+            }
+        };
+    }
+}
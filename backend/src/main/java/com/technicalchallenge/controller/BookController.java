@@ -43,7 +43,7 @@ public class BookController {
 
     @PostMapping
     public ResponseEntity<?> createBook(@Valid @RequestBody BookDTO bookDTO) {
-        logger.info("Creating new book: {}", bookDTO);
+        logger.info("Creating new book: {}", bookDTO.getBookName());
         if (bookDTO.getBookName() == null || bookDTO.getBookName().isBlank()) {
             return ResponseEntity.badRequest().body("Book name is required");
         }
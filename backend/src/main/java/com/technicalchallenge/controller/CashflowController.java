@@ -2,10 +2,19 @@ package com.technicalchallenge.controller;
 
 import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.dto.CashflowGenerationRequest;
+import com.technicalchallenge.dto.CashflowLadderDTO;
 import com.technicalchallenge.mapper.CashflowMapper;
 import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.DayCountConvention;
 import com.technicalchallenge.service.CashflowService;
+import com.technicalchallenge.service.accrual.AccrualEngine;
+import com.technicalchallenge.service.accrual.AccrualScheduleService;
+import com.technicalchallenge.service.calendar.BusinessDayCalendarService;
+import com.technicalchallenge.service.hierarchy.OrgHierarchyIndex;
+import com.technicalchallenge.service.liquidity.CashflowLadderService;
+import com.technicalchallenge.service.liquidity.LadderBuckets;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -42,6 +51,14 @@ public class CashflowController {
     private CashflowService cashflowService;
     @Autowired
     private CashflowMapper cashflowMapper;
+    @Autowired
+    private BusinessDayCalendarService businessDayCalendarService;
+    @Autowired
+    private AccrualScheduleService accrualScheduleService;
+    @Autowired
+    private CashflowLadderService cashflowLadderService;
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
 
     @GetMapping
     @Operation(summary = "Get all cashflows",
@@ -59,6 +76,34 @@ public class CashflowController {
                 .toList();
     }
 
+    @GetMapping("/ladder")
+    @Operation(summary = "Get cashflow ladder",
+               description = "Aggregates future cashflows of live trades by currency and value-date bucket. Amounts are signed: pay negative, receive positive")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Cashflow ladder built successfully",
+                    content = @Content(mediaType = "application/json",
+                                     schema = @Schema(implementation = CashflowLadderDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid bucket tenors or unknown desk, sub-desk or cost centre")
+    })
+    public CashflowLadderDTO getCashflowLadder(
+            @Parameter(description = "Book ids to include, all books when omitted")
+            @RequestParam(name = "books", required = false) List<Long> books,
+            @Parameter(description = "Only books under this desk")
+            @RequestParam(name = "desk", required = false) Long desk,
+            @Parameter(description = "Only books under this sub-desk")
+            @RequestParam(name = "subDesk", required = false) Long subDesk,
+            @Parameter(description = "Only books under this cost centre")
+            @RequestParam(name = "costCenter", required = false) Long costCenter,
+            @Parameter(description = "Increasing bucket tenors, e.g. 1W,1M,3M,1Y", example = LadderBuckets.DEFAULT_TENORS)
+            @RequestParam(name = "buckets", required = false) String buckets,
+            @Parameter(description = "First value date included, today when omitted")
+            @RequestParam(name = "asOf", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate asOf) {
+        logger.info("Building cashflow ladder for books {}, desk {}, sub-desk {}, cost centre {} with buckets {} as of {}",
+                books, desk, subDesk, costCenter, buckets, asOf);
+        List<Long> scope = orgHierarchyIndex.resolveBooks(books, desk, subDesk, costCenter);
+        return cashflowLadderService.getLadder(scope, buckets, asOf);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get cashflow by ID",
                description = "Retrieves a specific cashflow by its unique identifier")
@@ -90,7 +135,7 @@ public class CashflowController {
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<?> createCashflow(@Valid @RequestBody CashflowDTO cashflowDTO) {
-        logger.info("Creating new cashflow: {}", cashflowDTO);
+        logger.info("Creating new cashflow for leg {} on {}", cashflowDTO.getLegId(), cashflowDTO.getValueDate());
         // Validation: value > 0, valueDate not null
         if (cashflowDTO.getPaymentValue() == null || cashflowDTO.getPaymentValue().signum() <= 0) {
             return ResponseEntity.badRequest().body("Cashflow value must be positive");
@@ -141,7 +186,9 @@ public class CashflowController {
             if (months <= 0) {
                 continue;
             }
-            // Assumes that a 30/360 day-count applies and that each month is 30 days
+            // Without a day count this assumes 30/360 with whole months, i.e. months / 12 per period
+            long[] dayCountAccruals = calculateDayCountAccruals(leg, startDate, maturityDate, months);
+            int period = 0;
             LocalDate valueDate = startDate;
             while (valueDate.isBefore(maturityDate)) {
                 LocalDate nextValueDate = valueDate.plusMonths(months);
@@ -149,14 +196,16 @@ public class CashflowController {
                     nextValueDate = maturityDate;
                 }
                 BigDecimal paymentValue = BigDecimal.ZERO;
-                if ("Fixed".equalsIgnoreCase(leg.getLegType())) {
+                if (dayCountAccruals != null) {
+                    paymentValue = BigDecimal.valueOf(dayCountAccruals[period], 2);
+                } else if ("Fixed".equalsIgnoreCase(leg.getLegType())) {
                     double rate = leg.getRate() != null ? leg.getRate() : 0.0;
                     BigDecimal decimalRate = BigDecimal.valueOf(rate).divide(BigDecimal.valueOf(100),10, RoundingMode.HALF_EVEN);
                     paymentValue = leg.getNotional().multiply(decimalRate).multiply(BigDecimal.valueOf(months)).divide(BigDecimal.valueOf(12), 2, BigDecimal.ROUND_HALF_UP);
                 }
                 // For floating, paymentValue remains 0
                 CashflowDTO cf = new CashflowDTO();
-                cf.setValueDate(nextValueDate);
+                cf.setValueDate(businessDayCalendarService.adjust(nextValueDate, leg.getHolidayCalendar(), leg.getPaymentBusinessDayConvention()));
                 cf.setPaymentValue(paymentValue);
                 cf.setPayRec(leg.getPayReceiveFlag());
                 cf.setPaymentType(leg.getLegType());
@@ -164,11 +213,26 @@ public class CashflowController {
                 cf.setRate(leg.getRate());
                 allCashflows.add(cf);
                 valueDate = nextValueDate;
+                period++;
             }
         }
         return ResponseEntity.ok(allCashflows);
     }
 
+    private long[] calculateDayCountAccruals(CashflowGenerationRequest.TradeLegDTO leg, LocalDate startDate,
+                                             LocalDate maturityDate, int months) {
+        DayCountConvention dayCount = DayCountConvention.fromName(leg.getDayCountConvention());
+        if (dayCount == null || !"Fixed".equalsIgnoreCase(leg.getLegType())) {
+            return null;
+        }
+        double[] yearFractions = accrualScheduleService.getSchedule(startDate, maturityDate, months, dayCount, true).getYearFractions();
+        long[] accruals = new long[yearFractions.length];
+        long notionalInCents = leg.getNotional().movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+        double rate = leg.getRate() != null ? leg.getRate() / 100 : 0.0;
+        AccrualEngine.accrueScaled(notionalInCents, rate, yearFractions, accruals);
+        return accruals;
+    }
+
     private int scheduleToMonths(String schedule) {
         if (schedule == null) return 0;
         schedule = schedule.toLowerCase();
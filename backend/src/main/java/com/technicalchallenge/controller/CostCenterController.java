@@ -47,7 +47,7 @@ public class CostCenterController {
 
     @PostMapping
     public ResponseEntity<?> createCostCenter(@Valid @RequestBody CostCenterDTO costCenterDTO) {
-        logger.info("Creating new cost center: {}", costCenterDTO);
+        logger.info("Creating new cost center: {}", costCenterDTO.getCostCenterName());
         if (costCenterDTO.getCostCenterName() == null || costCenterDTO.getCostCenterName().isBlank()) {
             return ResponseEntity.badRequest().body("Cost center name is required");
         }
@@ -43,7 +43,7 @@ public class CurrencyController {
 
     @PostMapping
     public CurrencyDTO create(@RequestBody CurrencyDTO currencyDTO) {
-        logger.info("Creating new currency: {}", currencyDTO);
+        logger.info("Creating new currency: {}", currencyDTO.getCurrency());
         Currency entity = currencyMapper.toEntity(currencyDTO);
         return currencyMapper.toDto(currencyService.save(entity));
     }
@@ -47,7 +47,7 @@ public class DeskController {
 
     @PostMapping
     public ResponseEntity<?> createDesk(@Valid @RequestBody DeskDTO deskDTO) {
-        logger.info("Creating new desk: {}", deskDTO);
+        logger.info("Creating new desk: {}", deskDTO.getDeskName());
         if (deskDTO.getDeskName() == null || deskDTO.getDeskName().isBlank()) {
             return ResponseEntity.badRequest().body("Desk name is required");
         }
@@ -0,0 +1,53 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.TradeExportManifestDTO;
+import com.technicalchallenge.dto.TradeExportRunDTO;
+import com.technicalchallenge.service.export.TradeExportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    @Autowired
+    private TradeExportService tradeExportService;
+
+    // Exports everything touched since the last export, the same as the nightly run, in the background
+    @PostMapping
+    @PreAuthorize("hasAnyRole('SUPERUSER', 'ADMIN')")
+    public ResponseEntity<?> export() {
+        logger.info("Starting trade export");
+        return tradeExportService.startExport()
+                .<ResponseEntity<?>>map(run -> ResponseEntity.status(HttpStatus.ACCEPTED).body(run))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body("A trade export is already running"));
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<TradeExportRunDTO> getRun(@PathVariable Long id) {
+        logger.debug("Fetching trade export run {}", id);
+        return tradeExportService.getRun(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/latest")
+    public ResponseEntity<TradeExportManifestDTO> getLatest() throws IOException {
+        logger.debug("Fetching latest trade export manifest");
+        return tradeExportService.getLatestManifest()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
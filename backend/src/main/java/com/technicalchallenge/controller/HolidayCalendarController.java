@@ -1,13 +1,19 @@
 package com.technicalchallenge.controller;
 
+import com.technicalchallenge.dto.BusinessDayAdjustmentDTO;
 import com.technicalchallenge.dto.HolidayCalendarDTO;
+import com.technicalchallenge.dto.HolidayDTO;
 import com.technicalchallenge.mapper.HolidayCalendarMapper;
+import com.technicalchallenge.mapper.HolidayMapper;
 import com.technicalchallenge.model.HolidayCalendar;
 import com.technicalchallenge.service.HolidayCalendarService;
+import com.technicalchallenge.service.calendar.BusinessDayCalendarService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -24,6 +30,12 @@ public class HolidayCalendarController {
     @Autowired
     private HolidayCalendarMapper holidayCalendarMapper;
 
+    @Autowired
+    private BusinessDayCalendarService businessDayCalendarService;
+
+    @Autowired
+    private HolidayMapper holidayMapper;
+
     @GetMapping
     public List<HolidayCalendarDTO> getAll() {
         logger.info("Fetching all holiday calendars");
@@ -43,7 +55,7 @@ public class HolidayCalendarController {
 
     @PostMapping
     public HolidayCalendarDTO create(@RequestBody HolidayCalendarDTO holidayCalendarDTO) {
-        logger.info("Creating new holiday calendar: {}", holidayCalendarDTO);
+        logger.info("Creating new holiday calendar: {}", holidayCalendarDTO.getHolidayCalendar());
         HolidayCalendar entity = holidayCalendarMapper.toEntity(holidayCalendarDTO);
         return holidayCalendarMapper.toDto(holidayCalendarService.save(entity));
     }
@@ -76,4 +88,43 @@ public class HolidayCalendarController {
                 .map(HolidayCalendar::getHolidayCalendar)
                 .toList();
     }
+
+    @GetMapping("/{id}/holidays")
+    public ResponseEntity<List<HolidayDTO>> getHolidays(@PathVariable Long id) {
+        logger.debug("Fetching holidays for holiday calendar id: {}", id);
+        if (holidayCalendarService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(businessDayCalendarService.getHolidays(id).stream()
+                .map(holidayMapper::toDto)
+                .toList());
+    }
+
+    @PostMapping("/{id}/holidays")
+    public ResponseEntity<List<HolidayDTO>> addHolidays(@PathVariable Long id, @RequestBody List<HolidayDTO> holidays) {
+        logger.info("Adding {} holidays to holiday calendar id: {}", holidays.size(), id);
+        return businessDayCalendarService.addHolidays(id, holidays)
+                .map(saved -> ResponseEntity.ok(saved.stream().map(holidayMapper::toDto).toList()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}/holidays/{holidayId}")
+    public ResponseEntity<Void> deleteHoliday(@PathVariable Long id, @PathVariable Long holidayId) {
+        logger.warn("Deleting holiday {} from holiday calendar id: {}", holidayId, id);
+        if (businessDayCalendarService.deleteHoliday(id, holidayId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // calendars accepts joint calendars such as "NY,LON"
+    @GetMapping("/adjust")
+    public BusinessDayAdjustmentDTO adjust(@RequestParam String calendars,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+                                           @RequestParam(required = false) String convention) {
+        logger.debug("Adjusting {} on {} using {}", date, calendars, convention);
+        return new BusinessDayAdjustmentDTO(calendars, convention, date,
+                businessDayCalendarService.adjust(date, calendars, convention),
+                businessDayCalendarService.isBusinessDay(date, calendars));
+    }
 }
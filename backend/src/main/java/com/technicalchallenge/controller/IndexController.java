@@ -1,13 +1,19 @@
 package com.technicalchallenge.controller;
 
 import com.technicalchallenge.dto.IndexDTO;
+import com.technicalchallenge.dto.IndexFixingDTO;
+import com.technicalchallenge.mapper.IndexFixingMapper;
 import com.technicalchallenge.mapper.IndexMapper;
 import com.technicalchallenge.model.Index;
 import com.technicalchallenge.service.IndexService;
+import com.technicalchallenge.service.curve.IndexCurveService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -24,6 +30,12 @@ public class IndexController {
     @Autowired
     private IndexMapper indexMapper;
 
+    @Autowired
+    private IndexCurveService indexCurveService;
+
+    @Autowired
+    private IndexFixingMapper indexFixingMapper;
+
     @GetMapping
     public List<IndexDTO> getAll() {
         logger.info("Fetching all indexes");
@@ -43,7 +55,7 @@ public class IndexController {
 
     @PostMapping
     public ResponseEntity<IndexDTO> createIndex(@RequestBody IndexDTO indexDTO) {
-        logger.info("Creating new index: {}", indexDTO);
+        logger.info("Creating new index: {}", indexDTO.getIndex());
         Index saved = indexService.save(indexMapper.toEntity(indexDTO));
         return ResponseEntity.ok(indexMapper.toDto(saved));
     }
@@ -76,4 +88,35 @@ public class IndexController {
                 .map(Index::getIndex)
                 .toList();
     }
+
+    @GetMapping("/{id}/fixings")
+    public ResponseEntity<List<IndexFixingDTO>> getFixings(@PathVariable Long id) {
+        logger.debug("Fetching fixings for index id: {}", id);
+        if (indexService.findById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(indexCurveService.getFixings(id).stream()
+                .map(indexFixingMapper::toDto)
+                .toList());
+    }
+
+    // Upserts fixings / curve points by date; floating cashflows on the index are re-projected once this commits
+    @PostMapping("/{id}/fixings")
+    @PreAuthorize("hasAnyRole('SUPERUSER', 'ADMIN')")
+    public ResponseEntity<List<IndexFixingDTO>> uploadFixings(@PathVariable Long id, @RequestBody List<IndexFixingDTO> fixings) {
+        logger.info("Uploading {} fixings for index id: {}", fixings.size(), id);
+        return indexCurveService.uploadFixings(id, fixings)
+                .map(saved -> ResponseEntity.ok(saved.stream().map(indexFixingMapper::toDto).toList()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/rate")
+    public ResponseEntity<Double> getRate(@PathVariable Long id,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        logger.debug("Fetching rate for index id: {} on {}", id, date);
+        return indexService.findById(id)
+                .flatMap(index -> indexCurveService.getCurve(index.getIndex()))
+                .map(curve -> ResponseEntity.ok(curve.rateOn(date)))
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
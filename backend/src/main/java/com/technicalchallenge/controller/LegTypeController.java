@@ -43,7 +43,7 @@ public class LegTypeController {
 
     @PostMapping
     public LegTypeDTO create(@RequestBody LegTypeDTO legTypeDTO) {
-        logger.info("Creating new leg type: {}", legTypeDTO);
+        logger.info("Creating new leg type: {}", legTypeDTO.getType());
         LegType entity = legTypeMapper.toEntity(legTypeDTO);
         return legTypeMapper.toDto(legTypeService.save(entity));
     }
@@ -43,7 +43,7 @@ public class PayRecController {
 
     @PostMapping
     public PayRecDTO create(@RequestBody PayRecDTO payRecDTO) {
-        logger.info("Creating new pay rec: {}", payRecDTO);
+        logger.info("Creating new pay rec: {}", payRecDTO.getPayRec());
         PayRec entity = payRecMapper.toEntity(payRecDTO);
         return payRecMapper.toDto(payRecService.save(entity));
     }
@@ -47,7 +47,7 @@ public class PrivilegeController {
 
     @PostMapping
     public ResponseEntity<PrivilegeDTO> createPrivilege(@Valid @RequestBody PrivilegeDTO privilegeDTO) {
-        logger.info("Creating new privilege: {}", privilegeDTO);
+        logger.info("Creating new privilege: {}", privilegeDTO.getName());
         Privilege savedPrivilege = privilegeService.savePrivilege(privilegeMapper.toEntity(privilegeDTO));
         return ResponseEntity.created(URI.create("/api/privileges/" + savedPrivilege.getId())).body(privilegeMapper.toDto(savedPrivilege));
     }
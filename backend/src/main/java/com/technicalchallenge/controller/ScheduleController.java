@@ -43,7 +43,7 @@ public class ScheduleController {
 
     @PostMapping
     public ScheduleDTO create(@RequestBody ScheduleDTO scheduleDTO) {
-        logger.info("Creating new schedule: {}", scheduleDTO);
+        logger.info("Creating new schedule: {}", scheduleDTO.getSchedule());
         Schedule entity = scheduleMapper.toEntity(scheduleDTO);
         return scheduleMapper.toDto(scheduleService.save(entity));
     }
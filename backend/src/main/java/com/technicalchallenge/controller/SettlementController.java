@@ -0,0 +1,58 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.SettlementNetDTO;
+import com.technicalchallenge.dto.SettlementNettingResultDTO;
+import com.technicalchallenge.mapper.SettlementMapper;
+import com.technicalchallenge.service.settlement.SettlementNettingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/settlements")
+public class SettlementController {
+    private static final Logger logger = LoggerFactory.getLogger(SettlementController.class);
+
+    @Autowired
+    private SettlementNettingService settlementNettingService;
+
+    @Autowired
+    private SettlementMapper settlementMapper;
+
+    // Nets every live cashflow valued in the window, replacing the stored nets for it
+    @PostMapping("/net")
+    @PreAuthorize("hasAnyRole('SUPERUSER', 'ADMIN')")
+    public SettlementNettingResultDTO net(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        logger.info("Netting settlements from {} to {}", from, to);
+        return settlementNettingService.netWindow(from, to);
+    }
+
+    @GetMapping("/nets")
+    public List<SettlementNetDTO> getNets(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long counterpartyId) {
+        logger.debug("Fetching settlement nets from {} to {} for counterparty {}", from, to, counterpartyId);
+        return settlementNettingService.getNets(from, to, counterpartyId).stream()
+                .map(settlementMapper::toDto)
+                .toList();
+    }
+
+    // Ids of the cashflows netted into the settlement, see /api/cashflows/{id} for each
+    @GetMapping("/nets/{id}/cashflows")
+    public ResponseEntity<List<Long>> getNetCashflowIds(@PathVariable Long id) {
+        logger.debug("Fetching cashflow ids of settlement net {}", id);
+        return settlementNettingService.getNetCashflowIds(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
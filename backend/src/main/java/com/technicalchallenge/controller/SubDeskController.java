@@ -47,7 +47,7 @@ public class SubDeskController {
 
     @PostMapping
     public ResponseEntity<?> createSubDesk(@Valid @RequestBody SubDeskDTO subDeskDTO) {
-        logger.info("Creating new subdesk: {}", subDeskDTO);
+        logger.info("Creating new subdesk: {}", subDeskDTO.getSubdeskName());
         if (subDeskDTO.getSubdeskName() == null || subDeskDTO.getSubdeskName().isBlank()) {
             return ResponseEntity.badRequest().body("Sub desk name is required");
         }
@@ -5,26 +5,38 @@ import com.technicalchallenge.dto.AdditionalInfoDTO;
 import com.technicalchallenge.dto.SettlementInstructionsUpdateDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeFilterDTO;
+import com.technicalchallenge.dto.TradeImportResultDTO;
 import com.technicalchallenge.dto.TradeSummaryDTO;
+import com.technicalchallenge.exception.TradeLockTimeoutException;
 import com.technicalchallenge.exception.TradeValidationException;
+import com.technicalchallenge.exception.TradeVersionConflictException;
 import com.technicalchallenge.exception.UserPrivilegeValidationException;
 import com.technicalchallenge.mapper.SettlementInstructionsMapper;
 import com.technicalchallenge.mapper.TradeMapper;
 import com.technicalchallenge.model.Trade;
-import com.technicalchallenge.service.AdditionalInfoService;
+import com.technicalchallenge.service.IdempotencyService;
+import com.technicalchallenge.service.TradeLockManager;
 import com.technicalchallenge.service.TradeService;
+import com.technicalchallenge.service.TradeVersionPrecondition;
 import com.technicalchallenge.service.TradeReportingService;
+import com.technicalchallenge.service.bulkimport.TradeImportService;
+import com.technicalchallenge.service.hierarchy.OrgHierarchyIndex;
+import com.technicalchallenge.service.journal.TradeBlotterReadModel;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -36,9 +48,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,13 +75,18 @@ public class TradeController {
     @Autowired
     TradeReportingService tradeReportingService;
 
-    private final AdditionalInfoService additionalInfoService;
     @Autowired
     private SettlementInstructionsMapper settlementInstructionsMapper;
-
-    public TradeController(AdditionalInfoService additionalInfoService) {
-        this.additionalInfoService = additionalInfoService;
-    }
+    @Autowired
+    private TradeBlotterReadModel tradeBlotterReadModel;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private TradeLockManager tradeLockManager;
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+    @Autowired
+    private TradeImportService tradeImportService;
 
     @PreAuthorize("hasAnyRole('TRADER_SALES', 'SUPERUSER', 'MO', 'SUPPORT')")
     @GetMapping
@@ -164,8 +187,7 @@ public class TradeController {
             @PathVariable(name = "id") Long id) {
         logger.debug("Fetching trade by id: {}", id);
         return tradeService.getTradeById(id)
-                .map(tradeMapper::toDto)
-                .map(ResponseEntity::ok)
+                .map(trade -> ResponseEntity.ok().eTag(TradeVersionPrecondition.eTagOf(trade)).body(tradeMapper.toDto(trade)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -227,6 +249,46 @@ public class TradeController {
         return ResponseEntity.ok(tradeSummaryDTO);
     }
 
+    // Handler for desk-wide blotter summary served from the journal-backed read model
+    @PreAuthorize("hasAnyRole('TRADER_SALES', 'SUPERUSER', 'MO', 'SUPPORT')")
+    @GetMapping("/blotter/summary")
+    @Operation(summary = "Get blotter summary statistics",
+            description = "Retrieves summary statistics across all trades from the in-memory blotter rebuilt from the trade event journal, without querying the database.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved blotter summary statistics"),
+            @ApiResponse(responseCode = "401", description = "Authentication required to view data"),
+            @ApiResponse(responseCode = "403", description = "Insufficient privileges to view data"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<TradeSummaryDTO> getBlotterSummary() {
+        logger.info("Fetching blotter summary");
+        return ResponseEntity.ok(tradeBlotterReadModel.getSummary());
+    }
+
+    // Handler for desk, sub-desk or cost centre rollups of active trades
+    @PreAuthorize("hasAnyRole('TRADER_SALES', 'SUPERUSER', 'MO', 'SUPPORT')")
+    @GetMapping("/hierarchy/summary")
+    @Operation(summary = "Get trade summary for a desk, sub-desk or cost centre",
+            description = "Retrieves summary statistics across the active trades of every book under the given desk, sub-desk and cost centre, or of all books when none is given.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved trade summary statistics"),
+            @ApiResponse(responseCode = "400", description = "Unknown desk, sub-desk or cost centre"),
+            @ApiResponse(responseCode = "401", description = "Authentication required to view data"),
+            @ApiResponse(responseCode = "403", description = "Insufficient privileges to view data"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    public ResponseEntity<TradeSummaryDTO> getHierarchySummary(
+            @Parameter(description = "Desk id") @RequestParam(name = "desk", required = false) Long desk,
+            @Parameter(description = "Sub-desk id") @RequestParam(name = "subDesk", required = false) Long subDesk,
+            @Parameter(description = "Cost centre id") @RequestParam(name = "costCenter", required = false) Long costCenter) {
+        logger.info("Fetching trade summary for desk {}, sub-desk {}, cost centre {}", desk, subDesk, costCenter);
+        List<Long> books = orgHierarchyIndex.resolveBooks(desk, subDesk, costCenter);
+        if (books == null) {
+            books = orgHierarchyIndex.getHierarchy().getAllBookIds();
+        }
+        return ResponseEntity.ok(tradeReportingService.summaryForBooks(books));
+    }
+
     // Handler for daily summary
     @GetMapping("/daily-summary")
     public ResponseEntity<DailySummaryDTO> getDailySummary(@AuthenticationPrincipal UserDetails userDetails) {
@@ -249,12 +311,68 @@ public class TradeController {
                                      schema = @Schema(implementation = TradeDTO.class))),
         @ApiResponse(responseCode = "400", description = "Invalid trade data or business rule violation"),
             @ApiResponse(responseCode = "403", description = "Insufficient privileges to create a trade"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different request"),
         @ApiResponse(responseCode = "500", description = "Internal server error during trade creation")
     })
     public ResponseEntity<?> createTrade(
             @Parameter(description = "Trade details for creation", required = true)
-            @Valid @RequestBody TradeDTO tradeDTO) {
-        logger.info("Creating new trade: {}", tradeDTO);
+            @Valid @RequestBody TradeDTO tradeDTO,
+            @Parameter(description = "Client-generated key that makes retries of this request return the original response instead of booking again")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return bookTrade(tradeDTO);
+        }
+
+        String loginId = userDetails != null ? userDetails.getUsername() : "anonymous";
+        Optional<TradeDTO> storedResponse = idempotencyService.begin(loginId, idempotencyKey, idempotencyService.hash(tradeDTO));
+        if (storedResponse.isPresent()) {
+            logger.info("Replaying stored response for Idempotency-Key: {}", idempotencyKey);
+            return ResponseEntity.status(HttpStatus.CREATED).header("Idempotent-Replayed", "true").body(storedResponse.get());
+        }
+
+        ResponseEntity<?> response = bookTrade(tradeDTO);
+        if (response.getStatusCode() == HttpStatus.CREATED) {
+            // The trade is booked whatever happens here; a claim left in progress frees its key when its lease ends
+            try {
+                idempotencyService.complete(loginId, idempotencyKey, (TradeDTO) response.getBody());
+            } catch (RuntimeException e) {
+                logger.error("Unable to record outcome of Idempotency-Key {} for booked trade {}", idempotencyKey,
+                        ((TradeDTO) response.getBody()).getTradeId(), e);
+            }
+        } else {
+            // Failed requests are not stored so the client can correct the request and retry with the same key
+            idempotencyService.release(loginId, idempotencyKey);
+        }
+        return response;
+    }
+
+    // Handler for bulk booking from a CSV file, streamed from the upload rather than loaded whole
+    @PreAuthorize("hasAnyRole('TRADER_SALES', 'SUPERUSER')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import trades from a CSV file",
+               description = "Books every valid trade in a CSV file with one row per trade. Trade columns are named after the trade fields and leg columns are prefixed with leg1. or leg2., e.g. leg1.notional. Rows failing validation are reported by line and do not stop the import.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File processed, with the row errors and import statistics",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TradeImportResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Empty file or unknown columns"),
+            @ApiResponse(responseCode = "403", description = "Insufficient privileges to create trades"),
+            @ApiResponse(responseCode = "500", description = "Internal server error during the import")
+    })
+    public ResponseEntity<TradeImportResultDTO> importTrades(
+            @Parameter(description = "UTF-8 CSV file with a header row", required = true)
+            @RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Importing trades from file {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        try (Reader reader = new BufferedReader(Channels.newReader(Channels.newChannel(file.getInputStream()),
+                StandardCharsets.UTF_8), 64 * 1024)) {
+            return ResponseEntity.ok(tradeImportService.importCsv(reader, file.getOriginalFilename()));
+        }
+    }
+
+    private ResponseEntity<?> bookTrade(TradeDTO tradeDTO) {
+        logger.info("Creating new trade in book {} with counterparty {}", tradeDTO.getBookName(), tradeDTO.getCounterpartyName());
         try {
             Trade trade = tradeMapper.toEntity(tradeDTO);
             tradeService.populateReferenceDataByName(trade, tradeDTO);
@@ -283,25 +401,36 @@ public class TradeController {
                                      schema = @Schema(implementation = TradeDTO.class))),
         @ApiResponse(responseCode = "404", description = "Trade not found"),
         @ApiResponse(responseCode = "400", description = "Invalid trade data or business rule violation"),
-        @ApiResponse(responseCode = "403", description = "Insufficient privileges to update trade")
+        @ApiResponse(responseCode = "403", description = "Insufficient privileges to update trade"),
+        @ApiResponse(responseCode = "409", description = "Trade is being modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "Trade has changed since the version given in If-Match")
     })
     public ResponseEntity<?> updateTrade(
             @Parameter(description = "Unique identifier of the trade to update", required = true)
             @PathVariable Long id,
             @Parameter(description = "Updated trade details", required = true)
-            @Valid @RequestBody TradeDTO tradeDTO) {
+            @Valid @RequestBody TradeDTO tradeDTO,
+            @Parameter(description = "ETag of the trade version this change is based on; the request fails with 412 if the trade has since changed")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Updating trade with id: {}", id);
+        TradeVersionPrecondition expectedVersion = TradeVersionPrecondition.fromIfMatch(ifMatch);
         try {
             if(!Objects.equals(id,tradeDTO.getTradeId())) {
                 return  ResponseEntity.badRequest().body("Trade ID in path must match Trade ID in request body");
             }
             tradeDTO.setTradeId(id); // Ensure the ID matches
-            Trade amendedTrade = tradeService.amendTrade(id, tradeDTO);
+            Trade amendedTrade = tradeLockManager.withTradeLock(id, () -> tradeService.amendTrade(id, tradeDTO, expectedVersion));
             TradeDTO responseDTO = tradeMapper.toDto(amendedTrade);
-            return ResponseEntity.ok(responseDTO);
+            return ResponseEntity.ok().eTag(TradeVersionPrecondition.eTagOf(amendedTrade)).body(responseDTO);
         } catch (UserPrivilegeValidationException e) {
             logger.error("Insufficient user privileges", e);
             return ResponseEntity.status(403).body(e.getMessage());
+        } catch (TradeVersionConflictException e) {
+            logger.warn("Trade version precondition failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (OptimisticLockingFailureException | TradeLockTimeoutException e) {
+            logger.warn("Concurrent modification while amending trade {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Trade " + id + " was modified concurrently, please reload and retry");
         } catch (Exception e) {
             logger.error("Error updating trade: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Error updating trade: " + e.getMessage());
@@ -336,7 +465,7 @@ public class TradeController {
 
             request.setEntityId(id);
             AdditionalInfoDTO dto = settlementInstructionsMapper.toDto(request);
-            AdditionalInfoDTO amendedInstructions = additionalInfoService.updateAdditionalInfo(dto);
+            AdditionalInfoDTO amendedInstructions = tradeService.updateSettlementInstructions(id, dto);
             return ResponseEntity.ok(settlementInstructionsMapper.toRequest(amendedInstructions));
         } catch (Exception e) {
             logger.error("Error updating trade settlement instructions: {}", e.getMessage(), e);
@@ -352,15 +481,26 @@ public class TradeController {
         @ApiResponse(responseCode = "200", description = "Trade deleted successfully"),
         @ApiResponse(responseCode = "404", description = "Trade not found"),
         @ApiResponse(responseCode = "400", description = "Trade cannot be deleted in current status"),
-        @ApiResponse(responseCode = "403", description = "Insufficient privileges to delete trade")
+        @ApiResponse(responseCode = "403", description = "Insufficient privileges to delete trade"),
+        @ApiResponse(responseCode = "409", description = "Trade is being modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "Trade has changed since the version given in If-Match")
     })
     public ResponseEntity<?> deleteTrade(
             @Parameter(description = "Unique identifier of the trade to delete", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "ETag of the trade version this change is based on; the request fails with 412 if the trade has since changed")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Deleting trade with id: {}", id);
+        TradeVersionPrecondition expectedVersion = TradeVersionPrecondition.fromIfMatch(ifMatch);
         try {
-            tradeService.deleteTrade(id);
+            tradeLockManager.withTradeLock(id, () -> tradeService.deleteTrade(id, expectedVersion));
             return ResponseEntity.ok().body("Trade cancelled successfully");
+        } catch (TradeVersionConflictException e) {
+            logger.warn("Trade version precondition failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (OptimisticLockingFailureException | TradeLockTimeoutException e) {
+            logger.warn("Concurrent modification while deleting trade {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Trade " + id + " was modified concurrently, please reload and retry");
         } catch (Exception e) {
             logger.error("Error deleting trade: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Error deleting trade: " + e.getMessage());
@@ -377,16 +517,27 @@ public class TradeController {
                                      schema = @Schema(implementation = TradeDTO.class))),
         @ApiResponse(responseCode = "404", description = "Trade not found"),
         @ApiResponse(responseCode = "400", description = "Trade cannot be terminated in current status"),
-        @ApiResponse(responseCode = "403", description = "Insufficient privileges to terminate trade")
+        @ApiResponse(responseCode = "403", description = "Insufficient privileges to terminate trade"),
+        @ApiResponse(responseCode = "409", description = "Trade is being modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "Trade has changed since the version given in If-Match")
     })
     public ResponseEntity<?> terminateTrade(
             @Parameter(description = "Unique identifier of the trade to terminate", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "ETag of the trade version this change is based on; the request fails with 412 if the trade has since changed")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Terminating trade with id: {}", id);
+        TradeVersionPrecondition expectedVersion = TradeVersionPrecondition.fromIfMatch(ifMatch);
         try {
-            Trade terminatedTrade = tradeService.terminateTrade(id);
+            Trade terminatedTrade = tradeLockManager.withTradeLock(id, () -> tradeService.terminateTrade(id, expectedVersion));
             TradeDTO responseDTO = tradeMapper.toDto(terminatedTrade);
-            return ResponseEntity.ok(responseDTO);
+            return ResponseEntity.ok().eTag(TradeVersionPrecondition.eTagOf(terminatedTrade)).body(responseDTO);
+        } catch (TradeVersionConflictException e) {
+            logger.warn("Trade version precondition failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (OptimisticLockingFailureException | TradeLockTimeoutException e) {
+            logger.warn("Concurrent modification while terminating trade {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Trade " + id + " was modified concurrently, please reload and retry");
         } catch (Exception e) {
             logger.error("Error terminating trade: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Error terminating trade: " + e.getMessage());
@@ -403,16 +554,27 @@ public class TradeController {
                                      schema = @Schema(implementation = TradeDTO.class))),
         @ApiResponse(responseCode = "404", description = "Trade not found"),
         @ApiResponse(responseCode = "400", description = "Trade cannot be cancelled in current status"),
-        @ApiResponse(responseCode = "403", description = "Insufficient privileges to cancel trade")
+        @ApiResponse(responseCode = "403", description = "Insufficient privileges to cancel trade"),
+        @ApiResponse(responseCode = "409", description = "Trade is being modified concurrently"),
+        @ApiResponse(responseCode = "412", description = "Trade has changed since the version given in If-Match")
     })
     public ResponseEntity<?> cancelTrade(
             @Parameter(description = "Unique identifier of the trade to cancel", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @Parameter(description = "ETag of the trade version this change is based on; the request fails with 412 if the trade has since changed")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Cancelling trade with id: {}", id);
+        TradeVersionPrecondition expectedVersion = TradeVersionPrecondition.fromIfMatch(ifMatch);
         try {
-            Trade cancelledTrade = tradeService.cancelTrade(id);
+            Trade cancelledTrade = tradeLockManager.withTradeLock(id, () -> tradeService.cancelTrade(id, expectedVersion));
             TradeDTO responseDTO = tradeMapper.toDto(cancelledTrade);
-            return ResponseEntity.ok(responseDTO);
+            return ResponseEntity.ok().eTag(TradeVersionPrecondition.eTagOf(cancelledTrade)).body(responseDTO);
+        } catch (TradeVersionConflictException e) {
+            logger.warn("Trade version precondition failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(e.getMessage());
+        } catch (OptimisticLockingFailureException | TradeLockTimeoutException e) {
+            logger.warn("Concurrent modification while cancelling trade {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Trade " + id + " was modified concurrently, please reload and retry");
         } catch (Exception e) {
             logger.error("Error cancelling trade: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body("Error cancelling trade: " + e.getMessage());
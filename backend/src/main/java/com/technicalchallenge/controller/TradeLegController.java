@@ -47,7 +47,7 @@ public class TradeLegController {
 
     @PostMapping
     public ResponseEntity<?> createTradeLeg(@Valid @RequestBody TradeLegDTO tradeLegDTO) {
-        logger.info("Creating new trade leg: {}", tradeLegDTO);
+        logger.info("Creating new trade leg: {} {}", tradeLegDTO.getLegType(), tradeLegDTO.getPayReceiveFlag());
         // Validation: notional > 0, trade, currency, legRateType required
         if (tradeLegDTO.getNotional() == null || tradeLegDTO.getNotional().signum() <= 0) {
             return ResponseEntity.badRequest().body("Notional must be positive");
@@ -43,7 +43,7 @@ public class TradeStatusController {
 
     @PostMapping
     public TradeStatusDTO create(@RequestBody TradeStatusDTO tradeStatusDTO) {
-        logger.info("Creating new trade status: {}", tradeStatusDTO);
+        logger.info("Creating new trade status: {}", tradeStatusDTO.getTradeStatus());
         TradeStatus entity = tradeStatusMapper.toEntity(tradeStatusDTO);
         return tradeStatusMapper.toDto(tradeStatusService.save(entity));
     }
@@ -43,7 +43,7 @@ public class TradeTypeController {
 
     @PostMapping
     public TradeTypeDTO create(@RequestBody TradeTypeDTO tradeTypeDTO) {
-        logger.info("Creating new trade type: {}", tradeTypeDTO);
+        logger.info("Creating new trade type: {}", tradeTypeDTO.getTradeType());
         TradeType entity = tradeTypeMapper.toEntity(tradeTypeDTO);
         return tradeTypeMapper.toDto(tradeTypeService.save(entity));
     }
@@ -106,7 +106,7 @@ public class UserController {
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<UserDTO> createUser(@Valid @RequestBody UserDTO userDto) {
-        logger.info("Creating new user: {}", userDto);
+        logger.info("Creating new user: {}", userDto.getLoginId());
         ApplicationUser user = applicationUserMapper.toEntity(userDto);
         ApplicationUser savedUser = applicationUserService.saveUser(user);
         UserDTO savedUserDto = applicationUserMapper.toDto(savedUser);
@@ -47,7 +47,7 @@ public class UserPrivilegeController {
 
     @PostMapping
     public ResponseEntity<UserPrivilegeDTO> createUserPrivilege(@Valid @RequestBody UserPrivilegeDTO userPrivilegeDTO) {
-        logger.info("Creating new user privilege: {}", userPrivilegeDTO);
+        logger.info("Creating new user privilege {} for user {}", userPrivilegeDTO.getPrivilegeId(), userPrivilegeDTO.getUserId());
         UserPrivilege createdUserPrivilege = userPrivilegeService.saveUserPrivilege(userPrivilegeMapper.toEntity(userPrivilegeDTO));
         return ResponseEntity.created(URI.create("/api/userPrivileges/" + createdUserPrivilege.getUserId()))
                 .body(userPrivilegeMapper.toDto(createdUserPrivilege));
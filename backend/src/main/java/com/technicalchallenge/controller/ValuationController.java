@@ -0,0 +1,78 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.BookValuationDTO;
+import com.technicalchallenge.dto.TradeValuationDTO;
+import com.technicalchallenge.dto.ValuationRunDTO;
+import com.technicalchallenge.mapper.ValuationMapper;
+import com.technicalchallenge.service.hierarchy.OrgHierarchyIndex;
+import com.technicalchallenge.service.valuation.RevaluationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/valuations")
+public class ValuationController {
+    private static final Logger logger = LoggerFactory.getLogger(ValuationController.class);
+
+    @Autowired
+    private RevaluationService revaluationService;
+
+    @Autowired
+    private ValuationMapper valuationMapper;
+
+    @Autowired
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    // Starts a revaluation in the background; progress is on /actuator/revaluation
+    @PostMapping("/runs")
+    @PreAuthorize("hasAnyRole('SUPERUSER', 'ADMIN')")
+    public ResponseEntity<?> startRun(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate valuationDate = date != null ? date : LocalDate.now();
+        logger.info("Starting revaluation for {}", valuationDate);
+        return revaluationService.startRun(valuationDate)
+                .<ResponseEntity<?>>map(run -> ResponseEntity.status(HttpStatus.ACCEPTED).body(valuationMapper.toDto(run)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body("A revaluation run is already in progress"));
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<ValuationRunDTO> getRun(@PathVariable Long id) {
+        logger.debug("Fetching valuation run {}", id);
+        return revaluationService.getRun(id)
+                .map(valuationMapper::toDto)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Book valuations, optionally only those under a desk, sub-desk or cost centre
+    @GetMapping("/books")
+    public List<BookValuationDTO> getBookValuations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) Long desk,
+            @RequestParam(required = false) Long subDesk,
+            @RequestParam(required = false) Long costCenter) {
+        logger.debug("Fetching book valuations for {}", date != null ? date : "latest date");
+        List<Long> books = orgHierarchyIndex.resolveBooks(desk, subDesk, costCenter);
+        return (books == null ? revaluationService.getBookValuations(date)
+                : revaluationService.getBookValuations(date, books)).stream()
+                .map(valuationMapper::toDto)
+                .toList();
+    }
+
+    @GetMapping("/trades/{tradeId}")
+    public List<TradeValuationDTO> getTradeValuations(@PathVariable Long tradeId) {
+        logger.debug("Fetching valuation history for trade {}", tradeId);
+        return revaluationService.getTradeValuations(tradeId).stream()
+                .map(valuationMapper::toDto)
+                .toList();
+    }
+}
@@ -0,0 +1,17 @@
+package com.technicalchallenge.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class BookValuationDTO {
+    private Long bookId;
+    private String bookName;
+    private LocalDate valuationDate;
+    private BigDecimal presentValue;
+    private Integer tradeCount;
+    private Long cashflowCount;
+    private Long elapsedMs;
+}
@@ -0,0 +1,18 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessDayAdjustmentDTO {
+    private String calendars;
+    private String convention;
+    private LocalDate date;
+    private LocalDate adjustedDate;
+    private boolean businessDay;
+}
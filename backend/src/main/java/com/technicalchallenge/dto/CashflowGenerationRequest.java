@@ -19,6 +19,8 @@ public class CashflowGenerationRequest {
         private String index; // for floating
         private String calculationPeriodSchedule; // e.g. "Monthly", "Quarterly", "Annually"
         private String paymentBusinessDayConvention;
+        private String holidayCalendar; // e.g. "NY", or "NY+LON" for a joint calendar
+        private String dayCountConvention; // e.g. "ACT/360"; without one coupons are months / 12
         private String payReceiveFlag; // "Pay" or "Rec"
     }
 }
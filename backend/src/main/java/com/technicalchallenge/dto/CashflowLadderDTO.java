@@ -0,0 +1,38 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+// Future cash by currency and value-date bucket; amounts are signed, pay negative and receive positive
+@Data
+public class CashflowLadderDTO {
+    private LocalDate asOf;
+    private List<Long> books;
+    private List<Bucket> buckets;
+    private List<CurrencyLadder> currencies;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private String label;
+        private LocalDate startDate;
+        // Exclusive; null for the open bucket after the last tenor
+        private LocalDate endDate;
+    }
+
+    @Data
+    public static class CurrencyLadder {
+        private String currency;
+        // One entry per bucket, in bucket order
+        private List<BigDecimal> amounts;
+        private List<BigDecimal> cumulativeAmounts;
+        private List<Long> cashflowCounts;
+        private BigDecimal total;
+    }
+}
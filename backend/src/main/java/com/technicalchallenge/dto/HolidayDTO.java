@@ -0,0 +1,13 @@
+package com.technicalchallenge.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class HolidayDTO {
+    private Long id;
+    private String holidayCalendar;
+    private LocalDate holidayDate;
+    private String description;
+}
@@ -0,0 +1,13 @@
+package com.technicalchallenge.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class IndexFixingDTO {
+    private Long id;
+    private String index;
+    private LocalDate fixingDate;
+    private Double rate;
+}
@@ -0,0 +1,22 @@
+package com.technicalchallenge.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class SettlementNetDTO {
+    private Long id;
+    private Long counterpartyId;
+    private String counterpartyName;
+    private String currency;
+    private LocalDate valueDate;
+    private BigDecimal netAmount;
+    private BigDecimal grossPay;
+    private BigDecimal grossReceive;
+    private String direction;
+    private Integer cashflowCount;
+    private LocalDateTime nettedAt;
+}
@@ -0,0 +1,14 @@
+package com.technicalchallenge.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class SettlementNettingResultDTO {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Integer netCount;
+    private Long cashflowCount;
+    private Long elapsedMs;
+}
@@ -0,0 +1,47 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One columnar export of trades, legs and cashflows; written as manifest.json next to the files it describes
+@Data
+public class TradeExportManifestDTO {
+    private Long sequence;
+    // FULL for the first export, then INCREMENTAL
+    private String mode;
+    // Trades touched after this (exclusive, null for a full export) and up to changedUpTo (inclusive)
+    private LocalDateTime changedAfter;
+    private LocalDateTime changedUpTo;
+    private LocalDateTime startedAt;
+    private Long elapsedMs;
+    // Null when no trade changed and nothing was written
+    private String directory;
+    private Long tradeCount;
+    private Long legCount;
+    private Long cashflowCount;
+    private List<ExportFile> files;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExportFile {
+        private String name;
+        private Long rows;
+        private Long bytes;
+        private List<ExportColumn> columns;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExportColumn {
+        private String name;
+        private String type;
+        // Decimal places of DECIMAL columns
+        private Integer scale;
+    }
+}
@@ -0,0 +1,22 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One export started on request; a new instance replaces it as the run moves on, so readers never see it half updated
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeExportRunDTO {
+    private Long id;
+    // RUNNING, COMPLETED or FAILED
+    private String status;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    // Set once the run has completed
+    private TradeExportManifestDTO manifest;
+}
@@ -0,0 +1,15 @@
+package com.technicalchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TradeImportErrorDTO {
+    private Long line;
+    private Long tradeId;
+    private String field;
+    private String message;
+}
@@ -0,0 +1,24 @@
+package com.technicalchallenge.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TradeImportResultDTO {
+    private String source;
+    private Long rowCount;
+    private Long importedCount;
+    private Long rejectedCount;
+    private Long cashflowCount;
+    private Integer chunkCount;
+    private Long elapsedMs;
+    private Long rowsPerSecond;
+    private Long prepareMs;
+    private Long writeMs;
+    private Long chunkWriteP50Ms;
+    private Long chunkWriteP95Ms;
+    private Long chunkWriteMaxMs;
+    private List<TradeImportErrorDTO> errors;
+    private Boolean errorsTruncated;
+}
@@ -51,6 +51,9 @@ public class TradeLegDTO {
     private Long fixingBdcId;
     private String fixingBusinessDayConvention;
 
+    // Day count convention, e.g. "30/360", "ACT/360", "ACT/365F", "ACT/ACT"
+    private String dayCountConvention;
+
     // Pay/Receive reference
     private Long payRecId;
     private String payReceiveFlag;
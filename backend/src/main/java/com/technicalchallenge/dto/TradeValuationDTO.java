@@ -0,0 +1,15 @@
+package com.technicalchallenge.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class TradeValuationDTO {
+    private Long tradeId;
+    private Long bookId;
+    private LocalDate valuationDate;
+    private BigDecimal presentValue;
+    private Integer cashflowCount;
+}
@@ -0,0 +1,19 @@
+package com.technicalchallenge.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class ValuationRunDTO {
+    private Long id;
+    private LocalDate valuationDate;
+    private String status;
+    private Integer bookCount;
+    private Long tradeCount;
+    private Long cashflowCount;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
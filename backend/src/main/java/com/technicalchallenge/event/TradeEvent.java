@@ -0,0 +1,97 @@
+package com.technicalchallenge.event;
+
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of a trade taken at the point a lifecycle operation was applied.
+ * It is built inside the service transaction so listeners never touch lazy JPA associations.
+ */
+@Getter
+@ToString
+public class TradeEvent {
+
+    private final TradeEventType type;
+    private final Long tradeId;
+    private final Integer version;
+    private final String tradeStatus;
+    private final String tradeType;
+    private final String bookName;
+    private final String counterpartyName;
+    private final String traderLoginId;
+    private final LocalDate tradeDate;
+    private final LocalDate maturityDate;
+    private final List<Leg> legs;
+    private final String detail;
+    private final LocalDateTime occurredAt;
+
+    public TradeEvent(TradeEventType type, Long tradeId, Integer version, String tradeStatus, String tradeType,
+                      String bookName, String counterpartyName, String traderLoginId, LocalDate tradeDate,
+                      LocalDate maturityDate, List<Leg> legs, String detail, LocalDateTime occurredAt) {
+        this.type = type;
+        this.tradeId = tradeId;
+        this.version = version;
+        this.tradeStatus = tradeStatus;
+        this.tradeType = tradeType;
+        this.bookName = bookName;
+        this.counterpartyName = counterpartyName;
+        this.traderLoginId = traderLoginId;
+        this.tradeDate = tradeDate;
+        this.maturityDate = maturityDate;
+        this.legs = legs == null ? Collections.emptyList() : Collections.unmodifiableList(legs);
+        this.detail = detail;
+        this.occurredAt = occurredAt;
+    }
+
+    public static TradeEvent of(TradeEventType type, Trade trade, List<TradeLeg> tradeLegs, String detail) {
+        List<Leg> legs = new ArrayList<>();
+        if (tradeLegs != null) {
+            for (TradeLeg tradeLeg : tradeLegs) {
+                legs.add(new Leg(
+                        tradeLeg.getCurrency() != null ? tradeLeg.getCurrency().getCurrency() : null,
+                        tradeLeg.getNotional(),
+                        tradeLeg.getLegRateType() != null ? tradeLeg.getLegRateType().getType() : null,
+                        tradeLeg.getPayReceiveFlag() != null ? tradeLeg.getPayReceiveFlag().getPayRec() : null));
+            }
+        }
+        return new TradeEvent(
+                type,
+                trade.getTradeId(),
+                trade.getVersion(),
+                trade.getTradeStatus() != null ? trade.getTradeStatus().getTradeStatus() : null,
+                trade.getTradeType() != null ? trade.getTradeType().getTradeType() : null,
+                trade.getBook() != null ? trade.getBook().getBookName() : null,
+                trade.getCounterparty() != null ? trade.getCounterparty().getName() : null,
+                trade.getTraderUser() != null ? trade.getTraderUser().getLoginId() : null,
+                trade.getTradeDate(),
+                trade.getTradeMaturityDate(),
+                legs,
+                detail,
+                LocalDateTime.now());
+    }
+
+    @Getter
+    @ToString
+    public static class Leg {
+        private final String currency;
+        private final BigDecimal notional;
+        private final String legType;
+        private final String payRec;
+
+        public Leg(String currency, BigDecimal notional, String legType, String payRec) {
+            this.currency = currency;
+            this.notional = notional;
+            this.legType = legType;
+            this.payRec = payRec;
+        }
+    }
+}
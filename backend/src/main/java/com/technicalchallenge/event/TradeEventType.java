@@ -0,0 +1,32 @@
+package com.technicalchallenge.event;
+
+/**
+ * Lifecycle operations recorded against a trade. The code is the single byte written to the journal,
+ * so existing values must never be renumbered.
+ */
+public enum TradeEventType {
+    CREATED((byte) 1),
+    AMENDED((byte) 2),
+    CANCELLED((byte) 3),
+    TERMINATED((byte) 4),
+    SETTLEMENT_INSTRUCTIONS_UPDATED((byte) 5);
+
+    private final byte code;
+
+    TradeEventType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    public static TradeEventType fromCode(byte code) {
+        for (TradeEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown trade event type code: " + code);
+    }
+}
@@ -6,6 +6,7 @@ import io.github.perplexhub.rsql.UnknownPropertyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -43,7 +44,7 @@ public class GlobalExceptionHandler {
             }
         }
 
-        return new ResponseEntity<>(errorMap, HttpStatus.BAD_REQUEST);
+        return json(errorMap, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(UnknownOperatorException.class)
@@ -53,7 +54,7 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
                 e.getMessage(),
                 OffsetDateTime.now());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return json(response, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(DateTimeParseException.class)
@@ -63,7 +64,7 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
                 "Invalid date format: " + e.getParsedString(),
                 OffsetDateTime.now());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return json(response, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(UnknownPropertyException.class)
@@ -73,7 +74,7 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
                 "Invalid query parameter: " + e.getName(),
                 OffsetDateTime.now());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return json(response, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(ParseException.class)
@@ -83,7 +84,7 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
                 "Invalid query format: " + e.currentToken,
                 OffsetDateTime.now());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return json(response, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
@@ -93,7 +94,7 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
                 "Invalid parameter: " + e.getName(),
                 OffsetDateTime.now());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return json(response, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(UserPrivilegeValidationException.class)
@@ -103,7 +104,7 @@ public class GlobalExceptionHandler {
                 HttpStatus.FORBIDDEN.getReasonPhrase(),
                 "Insufficient privileges: " + e.getMessage(),
                 OffsetDateTime.now());
-        return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
+        return json(response, HttpStatus.FORBIDDEN);
     }
 
     @ExceptionHandler({ UsernameNotFoundException.class, BadCredentialsException.class})
@@ -113,7 +114,27 @@ public class GlobalExceptionHandler {
                 HttpStatus.UNAUTHORIZED.getReasonPhrase(),
                 "Username or password is incorrect",
                 OffsetDateTime.now());
-        return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+        return json(response, HttpStatus.UNAUTHORIZED);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReuseException(IdempotencyKeyReuseException e) {
+        logger.info("Idempotency key reused - message={}", e.getMessage());
+        ErrorResponse response = new ErrorResponse(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase(),
+                e.getMessage(),
+                OffsetDateTime.now());
+        return json(response, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotentRequestInProgressException(IdempotentRequestInProgressException e) {
+        logger.info("Idempotent request in progress - message={}", e.getMessage());
+        ErrorResponse response = new ErrorResponse(HttpStatus.CONFLICT.value(),
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                e.getMessage(),
+                OffsetDateTime.now());
+        return json(response, HttpStatus.CONFLICT);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -123,6 +144,12 @@ public class GlobalExceptionHandler {
                 HttpStatus.BAD_REQUEST.getReasonPhrase(),
                 e.getMessage(),
                 OffsetDateTime.now());
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        return json(response, HttpStatus.BAD_REQUEST);
+    }
+
+    // A preset content type skips Accept negotiation, so a client that only accepts the binary trade format still
+    // gets the error as JSON rather than a bare 406
+    private static <T> ResponseEntity<T> json(T body, HttpStatus status) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
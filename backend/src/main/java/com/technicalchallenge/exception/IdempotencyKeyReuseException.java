@@ -0,0 +1,10 @@
+package com.technicalchallenge.exception;
+
+/**
+ * Custom exception thrown when an Idempotency-Key is reused with a different request body.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
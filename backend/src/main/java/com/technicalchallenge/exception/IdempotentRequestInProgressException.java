@@ -0,0 +1,10 @@
+package com.technicalchallenge.exception;
+
+/**
+ * Custom exception thrown when a request arrives while another request with the same Idempotency-Key is still running.
+ */
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException(String message) {
+        super(message);
+    }
+}
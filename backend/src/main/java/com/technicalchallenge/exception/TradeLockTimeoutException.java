@@ -0,0 +1,10 @@
+package com.technicalchallenge.exception;
+
+/**
+ * Custom exception thrown when another operation on the same trade holds its lock for longer than the configured timeout.
+ */
+public class TradeLockTimeoutException extends RuntimeException {
+    public TradeLockTimeoutException(String message) {
+        super(message);
+    }
+}
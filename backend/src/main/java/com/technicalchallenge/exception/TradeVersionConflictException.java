@@ -0,0 +1,10 @@
+package com.technicalchallenge.exception;
+
+/**
+ * Custom exception thrown when a lifecycle request's expected trade version (If-Match) does not match the current trade.
+ */
+public class TradeVersionConflictException extends RuntimeException {
+    public TradeVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.technicalchallenge.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * {@link AsyncAppender} that leaves formatting the message to its worker thread. The logging thread only captures
+ * what cannot be read later, its name and MDC, then hands the event to the bounded queue. Arguments must therefore
+ * be values that do not change after the call, such as ids and names, rather than entities or DTOs.
+ */
+public class LazyAsyncAppender extends AsyncAppender {
+
+    @Override
+    protected void preprocess(ILoggingEvent event) {
+        event.getThreadName();
+        event.getMDCPropertyMap();
+    }
+}
@@ -0,0 +1,19 @@
+package com.technicalchallenge.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Markers that change how an event is logged.
+ */
+public final class LogMarkers {
+
+    /**
+     * Marks a message logged once per row, e.g. per cashflow or per reference data lookup. Each such message is
+     * sampled by {@link PerRowSamplingTurboFilter} so that a large booking or import cannot flood the log.
+     */
+    public static final Marker PER_ROW = MarkerFactory.getMarker("PER_ROW");
+
+    private LogMarkers() {
+    }
+}
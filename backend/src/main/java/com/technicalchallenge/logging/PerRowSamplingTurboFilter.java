@@ -0,0 +1,53 @@
+package com.technicalchallenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lets through at most {@code limit} events per {@code intervalMs} of each message marked
+ * {@link LogMarkers#PER_ROW}, telling messages apart by their format string, and drops the rest before they are
+ * formatted. Other events are left to the level checks.
+ */
+public class PerRowSamplingTurboFilter extends TurboFilter {
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private int limit = 10;
+    private long intervalMs = 1000;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || format == null || !marker.contains(LogMarkers.PER_ROW) || !logger.isEnabledFor(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(format, key -> new Window());
+        return window.tryAcquire(System.currentTimeMillis(), limit, intervalMs) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    // Fixed window; a race at the window boundary can let a handful more through, which sampling can live with
+    private static final class Window {
+        private volatile long start;
+        private int count;
+
+        synchronized boolean tryAcquire(long now, int limit, long intervalMs) {
+            if (now - start >= intervalMs) {
+                start = now;
+                count = 0;
+            }
+            return ++count <= limit;
+        }
+    }
+}
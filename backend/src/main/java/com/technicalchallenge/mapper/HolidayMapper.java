@@ -0,0 +1,18 @@
+package com.technicalchallenge.mapper;
+
+import com.technicalchallenge.dto.HolidayDTO;
+import com.technicalchallenge.model.Holiday;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HolidayMapper {
+
+    public HolidayDTO toDto(Holiday entity) {
+        HolidayDTO dto = new HolidayDTO();
+        dto.setId(entity.getId());
+        dto.setHolidayCalendar(entity.getHolidayCalendar() != null ? entity.getHolidayCalendar().getHolidayCalendar() : null);
+        dto.setHolidayDate(entity.getHolidayDate());
+        dto.setDescription(entity.getDescription());
+        return dto;
+    }
+}
@@ -0,0 +1,18 @@
+package com.technicalchallenge.mapper;
+
+import com.technicalchallenge.dto.IndexFixingDTO;
+import com.technicalchallenge.model.IndexFixing;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IndexFixingMapper {
+
+    public IndexFixingDTO toDto(IndexFixing entity) {
+        IndexFixingDTO dto = new IndexFixingDTO();
+        dto.setId(entity.getId());
+        dto.setIndex(entity.getIndex() != null ? entity.getIndex().getIndex() : null);
+        dto.setFixingDate(entity.getFixingDate());
+        dto.setRate(entity.getRate());
+        return dto;
+    }
+}
@@ -0,0 +1,25 @@
+package com.technicalchallenge.mapper;
+
+import com.technicalchallenge.dto.SettlementNetDTO;
+import com.technicalchallenge.model.SettlementNet;
+import org.springframework.stereotype.Component;
+
+@Component
+public class SettlementMapper {
+
+    public SettlementNetDTO toDto(SettlementNet entity) {
+        SettlementNetDTO dto = new SettlementNetDTO();
+        dto.setId(entity.getId());
+        dto.setCounterpartyId(entity.getCounterpartyId());
+        dto.setCounterpartyName(entity.getCounterpartyName());
+        dto.setCurrency(entity.getCurrency());
+        dto.setValueDate(entity.getValueDate());
+        dto.setNetAmount(entity.getNetAmount());
+        dto.setGrossPay(entity.getGrossPay());
+        dto.setGrossReceive(entity.getGrossReceive());
+        dto.setDirection(entity.getDirection());
+        dto.setCashflowCount(entity.getCashflowCount());
+        dto.setNettedAt(entity.getNettedAt());
+        return dto;
+    }
+}
@@ -1,6 +1,7 @@
 package com.technicalchallenge.mapper;
 
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.model.DayCountConvention;
 import com.technicalchallenge.model.Schedule;
 import com.technicalchallenge.model.TradeLeg;
 import com.technicalchallenge.repository.*;
@@ -41,6 +42,7 @@ public class TradeLegMapper {
         dto.setPaymentBusinessDayConvention(entity.getPaymentBusinessDayConvention() != null ? entity.getPaymentBusinessDayConvention().getBdc() : null);
         dto.setFixingBusinessDayConvention(entity.getFixingBusinessDayConvention() != null ? entity.getFixingBusinessDayConvention().getBdc() : null);
         dto.setPayReceiveFlag(entity.getPayReceiveFlag() != null ? entity.getPayReceiveFlag().getPayRec() : null);
+        dto.setDayCountConvention(entity.getDayCountConvention() != null ? entity.getDayCountConvention().getDisplayName() : null);
         if (entity.getCashflows() != null) {
             dto.setCashflows(entity.getCashflows().stream().map(cashflowMapper::toDto).collect(Collectors.toList()));
         }
@@ -52,6 +54,7 @@ public class TradeLegMapper {
         entity.setLegId(dto.getLegId());
         entity.setNotional(dto.getNotional());
         entity.setRate(dto.getRate());
+        entity.setDayCountConvention(DayCountConvention.fromName(dto.getDayCountConvention()));
         if (dto.getCurrency() != null) {
             entity.setCurrency(currencyRepository.findByCurrency(dto.getCurrency()).orElse(null));
         }
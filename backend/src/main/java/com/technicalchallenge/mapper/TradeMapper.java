@@ -4,6 +4,7 @@ import com.technicalchallenge.dto.AdditionalInfoDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
 import com.technicalchallenge.dto.CashflowDTO;
+import com.technicalchallenge.model.DayCountConvention;
 import com.technicalchallenge.model.EntityType;
 import com.technicalchallenge.model.Trade;
 import com.technicalchallenge.model.TradeLeg;
@@ -170,6 +171,10 @@ public class TradeMapper {
             dto.setPayReceiveFlag(leg.getPayReceiveFlag().getPayRec());
         }
 
+        if (leg.getDayCountConvention() != null) {
+            dto.setDayCountConvention(leg.getDayCountConvention().getDisplayName());
+        }
+
         // Map cashflows
         if (leg.getCashflows() != null) {
             List<CashflowDTO> cashflowDTOs = leg.getCashflows().stream()
@@ -190,7 +195,7 @@ public class TradeMapper {
         leg.setLegId(dto.getLegId());
         leg.setNotional(dto.getNotional());
         leg.setRate(dto.getRate());
-
+        leg.setDayCountConvention(DayCountConvention.fromName(dto.getDayCountConvention()));
 
         return leg;
     }
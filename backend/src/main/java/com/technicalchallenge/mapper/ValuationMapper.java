@@ -0,0 +1,49 @@
+package com.technicalchallenge.mapper;
+
+import com.technicalchallenge.dto.BookValuationDTO;
+import com.technicalchallenge.dto.TradeValuationDTO;
+import com.technicalchallenge.dto.ValuationRunDTO;
+import com.technicalchallenge.model.BookValuation;
+import com.technicalchallenge.model.TradeValuation;
+import com.technicalchallenge.model.ValuationRun;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ValuationMapper {
+
+    public TradeValuationDTO toDto(TradeValuation entity) {
+        TradeValuationDTO dto = new TradeValuationDTO();
+        dto.setTradeId(entity.getTradeId());
+        dto.setBookId(entity.getBookId());
+        dto.setValuationDate(entity.getValuationDate());
+        dto.setPresentValue(entity.getPresentValue());
+        dto.setCashflowCount(entity.getCashflowCount());
+        return dto;
+    }
+
+    public BookValuationDTO toDto(BookValuation entity) {
+        BookValuationDTO dto = new BookValuationDTO();
+        dto.setBookId(entity.getBookId());
+        dto.setBookName(entity.getBookName());
+        dto.setValuationDate(entity.getValuationDate());
+        dto.setPresentValue(entity.getPresentValue());
+        dto.setTradeCount(entity.getTradeCount());
+        dto.setCashflowCount(entity.getCashflowCount());
+        dto.setElapsedMs(entity.getElapsedMs());
+        return dto;
+    }
+
+    public ValuationRunDTO toDto(ValuationRun entity) {
+        ValuationRunDTO dto = new ValuationRunDTO();
+        dto.setId(entity.getId());
+        dto.setValuationDate(entity.getValuationDate());
+        dto.setStatus(entity.getStatus() != null ? entity.getStatus().name() : null);
+        dto.setBookCount(entity.getBookCount());
+        dto.setTradeCount(entity.getTradeCount());
+        dto.setCashflowCount(entity.getCashflowCount());
+        dto.setErrorMessage(entity.getErrorMessage());
+        dto.setStartedAt(entity.getStartedAt());
+        dto.setFinishedAt(entity.getFinishedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,54 @@
+package com.technicalchallenge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Total present value of a book for a valuation date, with the timing of the partition that produced it
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "book_valuation", indexes = {
+        @jakarta.persistence.Index(name = "idx_book_valuation_date_book", columnList = "valuation_date, book_id")
+})
+public class BookValuation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "valuation_date", nullable = false)
+    private LocalDate valuationDate;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "book_name")
+    private String bookName;
+
+    @Column(name = "present_value", precision = 19, scale = 2, nullable = false)
+    private BigDecimal presentValue;
+
+    @Column(name = "trade_count", nullable = false)
+    private Integer tradeCount;
+
+    @Column(name = "cashflow_count", nullable = false)
+    private Long cashflowCount;
+
+    @Column(name = "elapsed_ms", nullable = false)
+    private Long elapsedMs;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+}
@@ -14,13 +14,14 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "cashflow")
+@Table(name = "cashflow", indexes = @jakarta.persistence.Index(name = "idx_cashflow_value_date", columnList = "value_date"))
 public class Cashflow {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id; // Changed from 'id' to match DTO
 
     private BigDecimal paymentValue;
+    @Column(name = "value_date")
     private LocalDate valueDate;
     private Double rate;
 
@@ -0,0 +1,91 @@
+package com.technicalchallenge.model;
+
+import java.time.LocalDate;
+import java.time.Year;
+
+/**
+ * Day count conventions used to turn an accrual period into a year fraction. Stored on the trade leg by name;
+ * a leg without one keeps the original months / 12 coupon calculation.
+ */
+public enum DayCountConvention {
+    THIRTY_360("30/360") {
+        // 30/360 bond basis: day 31 becomes 30, and an end date of 31 only rolls back if the start is on 30 or 31
+        @Override
+        public double yearFraction(LocalDate start, LocalDate end) {
+            int d1 = Math.min(start.getDayOfMonth(), 30);
+            int d2 = end.getDayOfMonth() == 31 && d1 == 30 ? 30 : end.getDayOfMonth();
+            int days = 360 * (end.getYear() - start.getYear()) + 30 * (end.getMonthValue() - start.getMonthValue()) + (d2 - d1);
+            return days / 360.0;
+        }
+    },
+    ACT_360("ACT/360") {
+        @Override
+        public double yearFraction(LocalDate start, LocalDate end) {
+            return (end.toEpochDay() - start.toEpochDay()) / 360.0;
+        }
+    },
+    ACT_365F("ACT/365F") {
+        @Override
+        public double yearFraction(LocalDate start, LocalDate end) {
+            return (end.toEpochDay() - start.toEpochDay()) / 365.0;
+        }
+    },
+    ACT_ACT("ACT/ACT") {
+        // ACT/ACT ISDA: days falling in a leap year count over 366, the rest over 365
+        @Override
+        public double yearFraction(LocalDate start, LocalDate end) {
+            if (end.isBefore(start)) {
+                return -yearFraction(end, start);
+            }
+            double fraction = 0.0;
+            LocalDate periodStart = start;
+            while (periodStart.getYear() < end.getYear()) {
+                LocalDate nextYear = LocalDate.of(periodStart.getYear() + 1, 1, 1);
+                fraction += (nextYear.toEpochDay() - periodStart.toEpochDay()) / (double) Year.of(periodStart.getYear()).length();
+                periodStart = nextYear;
+            }
+            return fraction + (end.toEpochDay() - periodStart.toEpochDay()) / (double) Year.of(end.getYear()).length();
+        }
+    };
+
+    private final String displayName;
+
+    DayCountConvention(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public abstract double yearFraction(LocalDate start, LocalDate end);
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public static DayCountConvention fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String normalised = name.trim().toUpperCase().replace("ACTUAL", "ACT").replace(" ", "");
+        switch (normalised) {
+            case "30/360":
+            case "30/360US":
+            case "BOND":
+                return THIRTY_360;
+            case "ACT/360":
+                return ACT_360;
+            case "ACT/365F":
+            case "ACT/365":
+            case "ACT/365FIXED":
+                return ACT_365F;
+            case "ACT/ACT":
+            case "ACT/ACTISDA":
+                return ACT_ACT;
+            default:
+                for (DayCountConvention convention : values()) {
+                    if (convention.name().equals(normalised)) {
+                        return convention;
+                    }
+                }
+                throw new IllegalArgumentException("Unsupported day count convention: " + name);
+        }
+    }
+}
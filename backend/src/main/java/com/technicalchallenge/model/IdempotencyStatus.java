@@ -0,0 +1,6 @@
+package com.technicalchallenge.model;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
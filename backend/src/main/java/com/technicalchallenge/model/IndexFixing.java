@@ -0,0 +1,37 @@
+package com.technicalchallenge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Rate of an index on a date: published fixings for past dates, forward curve points for future ones. Rates are in percent like TradeLeg.rate
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "index_fixing", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_index_fixing_index_date", columnNames = {"index_id", "fixing_date"})
+})
+public class IndexFixing {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "index_id", referencedColumnName = "id")
+    private Index index;
+
+    @Column(name = "fixing_date", nullable = false)
+    private LocalDate fixingDate;
+
+    @Column(nullable = false)
+    private Double rate;
+
+    private LocalDateTime lastTouchTimestamp;
+}
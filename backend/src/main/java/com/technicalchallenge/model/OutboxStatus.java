@@ -0,0 +1,7 @@
+package com.technicalchallenge.model;
+
+public enum OutboxStatus {
+    PENDING,
+    DISPATCHED,
+    FAILED
+}
@@ -0,0 +1,63 @@
+package com.technicalchallenge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One net settlement per counterparty, currency and value date; amounts are signed, pay negative and receive positive
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "settlement_net",
+        uniqueConstraints = @UniqueConstraint(name = "uk_settlement_net_key", columnNames = {"counterparty_id", "currency", "value_date"}),
+        indexes = @jakarta.persistence.Index(name = "idx_settlement_net_value_date", columnList = "value_date"))
+public class SettlementNet {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "counterparty_id", nullable = false)
+    private Long counterpartyId;
+
+    @Column(name = "counterparty_name")
+    private String counterpartyName;
+
+    @Column(name = "currency", nullable = false)
+    private String currency;
+
+    @Column(name = "value_date", nullable = false)
+    private LocalDate valueDate;
+
+    @Column(name = "net_amount", precision = 19, scale = 2, nullable = false)
+    private BigDecimal netAmount;
+
+    @Column(name = "gross_pay", precision = 19, scale = 2, nullable = false)
+    private BigDecimal grossPay;
+
+    @Column(name = "gross_receive", precision = 19, scale = 2, nullable = false)
+    private BigDecimal grossReceive;
+
+    // Pay, Receive or Flat, from our side
+    @Column(name = "direction", nullable = false)
+    private String direction;
+
+    @Column(name = "cashflow_count", nullable = false)
+    private Integer cashflowCount;
+
+    // Ids of the contributing cashflows, comma separated in ascending order
+    @Lob
+    @Column(name = "cashflow_ids", nullable = false)
+    private String cashflowIds;
+
+    @Column(name = "netted_at", nullable = false)
+    private LocalDateTime nettedAt;
+}
@@ -14,15 +14,23 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "trade")
+@Table(name = "trade", indexes = {
+        @jakarta.persistence.Index(name = "idx_trade_trade_id", columnList = "trade_id"),
+        @jakarta.persistence.Index(name = "idx_trade_last_touch", columnList = "last_touch_timestamp")})
 public class Trade {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "trade_id")
     private Long tradeId;
     private Integer version;
 
+    // Optimistic lock on the row, separate from the business version which only changes on amendment
+    @Version
+    @Column(name = "lock_version", columnDefinition = "bigint default 0 not null")
+    private Long lockVersion;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", referencedColumnName = "id")
     private Book book;
@@ -61,6 +69,7 @@ public class Trade {
 
     @Column(name = "additional_fields_id")
     private Long additionalFieldsId;
+    @Column(name = "last_touch_timestamp")
     private LocalDateTime lastTouchTimestamp;
     private LocalDate validityStartDate;
     private LocalDate validityEndDate;
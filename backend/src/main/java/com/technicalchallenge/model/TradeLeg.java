@@ -59,6 +59,10 @@ public class TradeLeg {
     @JoinColumn(name = "pay_rec_id", referencedColumnName = "id")
     private PayRec payReceiveFlag;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "day_count_convention")
+    private DayCountConvention dayCountConvention;
+
     // Audit fields
     private Boolean active = true;
     private LocalDateTime createdDate;
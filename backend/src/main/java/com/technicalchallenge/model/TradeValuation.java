@@ -0,0 +1,49 @@
+package com.technicalchallenge.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Present value of one trade's remaining cashflows; rows are written in JDBC batches by the revaluation job
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "trade_valuation", indexes = {
+        @jakarta.persistence.Index(name = "idx_trade_valuation_date_book", columnList = "valuation_date, book_id"),
+        @jakarta.persistence.Index(name = "idx_trade_valuation_trade_date", columnList = "trade_id, valuation_date")
+})
+public class TradeValuation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "valuation_date", nullable = false)
+    private LocalDate valuationDate;
+
+    @Column(name = "trade_id", nullable = false)
+    private Long tradeId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "present_value", precision = 19, scale = 2, nullable = false)
+    private BigDecimal presentValue;
+
+    @Column(name = "cashflow_count", nullable = false)
+    private Integer cashflowCount;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+}
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,4 +23,8 @@ public interface ApplicationUserRepository extends JpaRepository<ApplicationUser
             "LEFT JOIN FETCH u.userProfile WHERE u.loginId = :loginId ")
     Optional<ApplicationUser> findByLoginIdWithPrivileges(@Param("loginId") String loginId);
 
+    // Profiles fetched in the same query, for checking the privileges of many users at once
+    @Query("SELECT u FROM ApplicationUser u LEFT JOIN FETCH u.userProfile WHERE u.loginId IN :loginIds")
+    List<ApplicationUser> findByLoginIdInWithProfile(@Param("loginIds") Collection<String> loginIds);
+
 }
@@ -0,0 +1,32 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.BookValuation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Reads only see rows of completed runs; a run writes its rows next to the ones it replaces until it completes
+@Repository
+public interface BookValuationRepository extends JpaRepository<BookValuation, Long> {
+
+    @Query("SELECT b FROM BookValuation b WHERE b.valuationDate = :valuationDate AND b.runId IN " +
+            "(SELECT r.id FROM ValuationRun r WHERE r.status = com.technicalchallenge.model.ValuationRunStatus.COMPLETED) " +
+            "ORDER BY b.bookId")
+    List<BookValuation> findCompletedByValuationDate(@Param("valuationDate") LocalDate valuationDate);
+
+    @Query("SELECT b FROM BookValuation b WHERE b.valuationDate = :valuationDate AND b.bookId IN :bookIds AND b.runId IN " +
+            "(SELECT r.id FROM ValuationRun r WHERE r.status = com.technicalchallenge.model.ValuationRunStatus.COMPLETED) " +
+            "ORDER BY b.bookId")
+    List<BookValuation> findCompletedByValuationDateAndBookIds(@Param("valuationDate") LocalDate valuationDate,
+                                                               @Param("bookIds") Collection<Long> bookIds);
+
+    @Query("SELECT MAX(b.valuationDate) FROM BookValuation b WHERE b.runId IN " +
+            "(SELECT r.id FROM ValuationRun r WHERE r.status = com.technicalchallenge.model.ValuationRunStatus.COMPLETED)")
+    Optional<LocalDate> findLatestCompletedValuationDate();
+}
@@ -4,7 +4,10 @@ import com.technicalchallenge.model.Cashflow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CashflowRepository extends JpaRepository<Cashflow, Long> {
-    // Custom query methods if needed
+
+    List<Cashflow> findByTradeLegLegIdAndActiveTrueOrderByValueDate(Long legId);
 }
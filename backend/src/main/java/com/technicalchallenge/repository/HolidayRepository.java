@@ -0,0 +1,21 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+
+    List<Holiday> findByHolidayCalendarIdOrderByHolidayDate(Long holidayCalendarId);
+
+    @Query("SELECT h.holidayDate FROM Holiday h WHERE h.holidayCalendar.holidayCalendar = :calendar")
+    List<LocalDate> findHolidayDatesByCalendar(@Param("calendar") String calendar);
+
+    boolean existsByHolidayCalendarIdAndHolidayDate(Long holidayCalendarId, LocalDate holidayDate);
+}
@@ -0,0 +1,22 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.IndexFixing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IndexFixingRepository extends JpaRepository<IndexFixing, Long> {
+
+    List<IndexFixing> findByIndexIdOrderByFixingDate(Long indexId);
+
+    Optional<IndexFixing> findByIndexIdAndFixingDate(Long indexId, LocalDate fixingDate);
+
+    @Query("SELECT f FROM IndexFixing f WHERE f.index.index = :index ORDER BY f.fixingDate")
+    List<IndexFixing> findCurvePoints(@Param("index") String index);
+}
@@ -0,0 +1,38 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.OutboxEvent;
+import com.technicalchallenge.model.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Due pending events in outbox order, skipping any trade held back by an earlier event that is waiting to retry or parked
+    @Query("SELECT o FROM OutboxEvent o WHERE o.status = com.technicalchallenge.model.OutboxStatus.PENDING AND o.nextAttemptAt <= :now " +
+            "AND NOT EXISTS (SELECT p FROM OutboxEvent p WHERE p.tradeId = o.tradeId AND p.id < o.id " +
+            "AND (p.status = com.technicalchallenge.model.OutboxStatus.FAILED " +
+            "OR (p.status = com.technicalchallenge.model.OutboxStatus.PENDING AND p.nextAttemptAt > :now))) " +
+            "ORDER BY o.id")
+    List<OutboxEvent> findDispatchBatch(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.status = com.technicalchallenge.model.OutboxStatus.DISPATCHED, o.dispatchedDate = :dispatchedDate, " +
+            "o.attempts = o.attempts + 1 WHERE o.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedDate") LocalDateTime dispatchedDate);
+
+    long countByStatus(OutboxStatus status);
+
+    @Query("SELECT MIN(o.createdDate) FROM OutboxEvent o WHERE o.status = com.technicalchallenge.model.OutboxStatus.PENDING")
+    LocalDateTime findOldestPendingCreatedDate();
+}
@@ -0,0 +1,16 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.SettlementNet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SettlementNetRepository extends JpaRepository<SettlementNet, Long> {
+
+    List<SettlementNet> findByValueDateBetweenOrderByValueDateAscCounterpartyNameAscCurrencyAsc(LocalDate from, LocalDate to);
+
+    List<SettlementNet> findByCounterpartyIdAndValueDateBetweenOrderByValueDateAscCurrencyAsc(Long counterpartyId, LocalDate from, LocalDate to);
+}
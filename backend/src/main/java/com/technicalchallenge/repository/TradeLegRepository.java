@@ -2,7 +2,19 @@ package com.technicalchallenge.repository;
 
 import com.technicalchallenge.model.TradeLeg;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface TradeLegRepository extends JpaRepository<TradeLeg, Long> {}
+public interface TradeLegRepository extends JpaRepository<TradeLeg, Long> {
+
+    // Floating legs of active trades that are still live, i.e. not cancelled or terminated
+    @Query("SELECT l.legId FROM TradeLeg l WHERE l.active = true AND l.trade.active = true "
+            + "AND l.legRateType.type = 'Floating' AND l.index IS NOT NULL "
+            + "AND l.trade.tradeStatus.tradeStatus NOT IN ('CANCELLED', 'TERMINATED') "
+            + "AND (:index IS NULL OR l.index.index = :index) ORDER BY l.legId")
+    List<Long> findLiveFloatingLegIds(@Param("index") String index);
+}
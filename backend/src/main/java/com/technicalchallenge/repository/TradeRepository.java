@@ -3,6 +3,7 @@ package com.technicalchallenge.repository;
 import com.technicalchallenge.model.Trade;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -60,6 +61,21 @@ public interface TradeRepository extends JpaRepository<Trade, Long>, JpaSpecific
     long countTradeByTraderAndTradeDate(@Param("loginId") String loginId, @Param("tradeDate") LocalDate tradeDate);
 
 
+    // Active trade counts by status across the given books
+    @Query("SELECT s.tradeStatus, COUNT(t) FROM Trade t JOIN t.tradeStatus s " +
+            "WHERE t.active = true AND t.book.id IN :bookIds GROUP BY s.tradeStatus")
+    List<Object[]> countActiveByStatusForBooks(@Param("bookIds") Collection<Long> bookIds);
+
+    // Active notional by leg currency across the given books
+    @Query("SELECT c.currency, SUM(l.notional) FROM TradeLeg l JOIN l.trade t JOIN l.currency c " +
+            "WHERE t.active = true AND t.book.id IN :bookIds GROUP BY c.currency")
+    List<Object[]> sumActiveNotionalByCurrencyForBooks(@Param("bookIds") Collection<Long> bookIds);
+
+    // Active trade counts by trade type and counterparty across the given books
+    @Query("SELECT tt.tradeType, cp.name, COUNT(t) FROM Trade t JOIN t.tradeType tt JOIN t.counterparty cp " +
+            "WHERE t.active = true AND t.book.id IN :bookIds GROUP BY tt.tradeType, cp.name")
+    List<Object[]> countActiveByTradeTypeAndCounterpartyForBooks(@Param("bookIds") Collection<Long> bookIds);
+
     // Method for searching trades by settlement instructions. LIKE is used to ensure partial matches are found
     @Query("SELECT t FROM Trade t, AdditionalInfo a WHERE t.tradeId = a.entityId " +
             "AND a.entityType = 'TRADE' AND a.fieldName = 'SETTLEMENT_INSTRUCTIONS' " +
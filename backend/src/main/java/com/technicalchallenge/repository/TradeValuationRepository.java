@@ -0,0 +1,19 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.TradeValuation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// Reads only see rows of completed runs; a run writes its rows next to the ones it replaces until it completes
+@Repository
+public interface TradeValuationRepository extends JpaRepository<TradeValuation, Long> {
+
+    @Query("SELECT v FROM TradeValuation v WHERE v.tradeId = :tradeId AND v.runId IN " +
+            "(SELECT r.id FROM ValuationRun r WHERE r.status = com.technicalchallenge.model.ValuationRunStatus.COMPLETED) " +
+            "ORDER BY v.valuationDate DESC")
+    List<TradeValuation> findCompletedByTradeId(@Param("tradeId") Long tradeId);
+}
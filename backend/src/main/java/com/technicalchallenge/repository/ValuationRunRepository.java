@@ -0,0 +1,9 @@
+package com.technicalchallenge.repository;
+
+import com.technicalchallenge.model.ValuationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ValuationRunRepository extends JpaRepository<ValuationRun, Long> {
+}
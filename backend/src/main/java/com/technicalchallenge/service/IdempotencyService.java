@@ -0,0 +1,201 @@
+package com.technicalchallenge.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.mapper.TradeMapper;
+import com.technicalchallenge.exception.IdempotencyKeyReuseException;
+import com.technicalchallenge.exception.IdempotentRequestInProgressException;
+import com.technicalchallenge.model.IdempotencyRecord;
+import com.technicalchallenge.model.IdempotencyStatus;
+import com.technicalchallenge.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks requests made with an Idempotency-Key so a client retry returns the original response instead of
+ * booking again. Completed outcomes are persisted for the configured TTL and kept in a bounded in-memory cache,
+ * so most replays never reach the database. A claim still in progress only holds its key for a short lease,
+ * so a request that died mid-way does not lock the key out for the whole TTL.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final TradeService tradeService;
+    private final TradeMapper tradeMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Cache<String, CompletedRequest> completedRequests;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              TradeService tradeService,
+                              TradeMapper tradeMapper,
+                              @Value("${trade.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${trade.idempotency.lease-seconds:120}") long leaseSeconds,
+                              @Value("${trade.idempotency.cache-size:10000}") long cacheSize) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.tradeService = tradeService;
+        this.tradeMapper = tradeMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.completedRequests = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttlHours, TimeUnit.HOURS)
+                .build();
+    }
+
+    // SHA-256 of the request as JSON, used to detect a key being reused for a different request
+    public String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to hash request", e);
+        }
+    }
+
+    /**
+     * Claims the key for a new request, or returns the stored response if the request has already completed.
+     * A claim whose lease has run out without completing is taken over.
+     *
+     * @return the stored response for a replay, or empty if the caller now owns the key and should process the request
+     * @throws IdempotencyKeyReuseException if the key was used for a different request
+     * @throws IdempotentRequestInProgressException if another request with the key has not finished yet
+     */
+    public Optional<TradeDTO> begin(String loginId, String idempotencyKey, String requestHash) {
+        String key = scopedKey(loginId, idempotencyKey);
+
+        CompletedRequest completed = completedRequests.getIfPresent(key);
+        if (completed != null) {
+            checkHash(idempotencyKey, completed.requestHash, requestHash);
+            return Optional.of(completed.response);
+        }
+
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+        if (stored.isPresent()) {
+            IdempotencyRecord record = stored.get();
+            if (record.getExpiresAt().isBefore(LocalDateTime.now())) {
+                idempotencyRecordRepository.delete(record);
+            } else {
+                checkHash(idempotencyKey, record.getRequestHash(), requestHash);
+                if (record.getStatus() == IdempotencyStatus.IN_PROGRESS) {
+                    throw new IdempotentRequestInProgressException("A request with Idempotency-Key " + idempotencyKey + " is already in progress");
+                }
+                TradeDTO response = storedResponse(record);
+                completedRequests.put(key, new CompletedRequest(record.getRequestHash(), response));
+                return Optional.of(response);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setIdempotencyKey(key);
+        claim.setRequestHash(requestHash);
+        claim.setStatus(IdempotencyStatus.IN_PROGRESS);
+        claim.setCreatedDate(now);
+        claim.setExpiresAt(now.plus(lease));
+        claim.setNewRecord(true);
+        try {
+            idempotencyRecordRepository.saveAndFlush(claim);
+        } catch (DataIntegrityViolationException e) {
+            throw new IdempotentRequestInProgressException("A request with Idempotency-Key " + idempotencyKey + " is already in progress");
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Records the outcome of a request claimed by begin(), keeping it for the TTL. The trade id is always stored;
+     * a response that cannot be serialised is left out and rebuilt from the trade on replay.
+     */
+    public void complete(String loginId, String idempotencyKey, TradeDTO response) {
+        String key = scopedKey(loginId, idempotencyKey);
+        IdempotencyRecord record = idempotencyRecordRepository.findById(key)
+                .orElseThrow(() -> new IllegalStateException("No claim found for Idempotency-Key " + idempotencyKey));
+        try {
+            record.setResponseBody(objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            logger.warn("Unable to store response for Idempotency-Key {}, replays will be rebuilt from trade {}",
+                    idempotencyKey, response.getTradeId(), e);
+            record.setResponseBody(null);
+        }
+        record.setTradeId(response.getTradeId());
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setExpiresAt(LocalDateTime.now().plus(ttl));
+        idempotencyRecordRepository.save(record);
+        completedRequests.put(key, new CompletedRequest(record.getRequestHash(), response));
+    }
+
+    // Drops the claim of a request that failed so the client can correct it and retry with the same key
+    public void release(String loginId, String idempotencyKey) {
+        String key = scopedKey(loginId, idempotencyKey);
+        completedRequests.invalidate(key);
+        idempotencyRecordRepository.deleteById(key);
+    }
+
+    @Scheduled(fixedDelayString = "${trade.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private String scopedKey(String loginId, String idempotencyKey) {
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        return loginId + ":" + idempotencyKey;
+    }
+
+    private void checkHash(String idempotencyKey, String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key " + idempotencyKey + " has already been used for a different request");
+        }
+    }
+
+    private TradeDTO storedResponse(IdempotencyRecord record) {
+        if (record.getResponseBody() == null) {
+            return tradeService.getTradeById(record.getTradeId())
+                    .map(tradeMapper::toDto)
+                    .orElseThrow(() -> new IllegalStateException("Trade " + record.getTradeId()
+                            + " of a completed idempotent request no longer exists"));
+        }
+        try {
+            return objectMapper.readValue(record.getResponseBody(), TradeDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read stored idempotent response", e);
+        }
+    }
+
+    private static class CompletedRequest {
+        private final String requestHash;
+        private final TradeDTO response;
+
+        private CompletedRequest(String requestHash, TradeDTO response) {
+            this.requestHash = requestHash;
+            this.response = response;
+        }
+    }
+}
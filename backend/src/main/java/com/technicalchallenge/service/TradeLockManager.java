@@ -0,0 +1,53 @@
+package com.technicalchallenge.service;
+
+import com.google.common.util.concurrent.Striped;
+import com.technicalchallenge.exception.TradeLockTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * Serialises lifecycle operations on the same trade within this instance using a fixed set of striped locks,
+ * so operations on different trades run in parallel without a global lock. Callers must take the lock outside
+ * the service transaction so it is held until the transaction has committed. Optimistic locking on
+ * {@link com.technicalchallenge.model.Trade} still protects against writers in other instances.
+ */
+@Component
+public class TradeLockManager {
+
+    private final Striped<Lock> locks;
+    private final long timeoutMs;
+
+    public TradeLockManager(@Value("${trade.locking.stripes:1024}") int stripes,
+                            @Value("${trade.locking.timeout-ms:5000}") long timeoutMs) {
+        this.locks = Striped.lock(stripes);
+        this.timeoutMs = timeoutMs;
+    }
+
+    public <T> T withTradeLock(Long tradeId, Supplier<T> action) {
+        Lock lock = locks.get(tradeId);
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new TradeLockTimeoutException("Trade " + tradeId + " is being modified by another request, please retry");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TradeLockTimeoutException("Interrupted while waiting to modify trade " + tradeId);
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withTradeLock(Long tradeId, Runnable action) {
+        withTradeLock(tradeId, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -1,7 +1,9 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.dto.TradeSummaryDTO;
 import com.technicalchallenge.model.*;
 import com.technicalchallenge.repository.TradeRepository;
+import com.technicalchallenge.service.diagnostics.TradeReportEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,6 +11,8 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -40,42 +44,84 @@ public class TradeReportingService {
     // Total number of active trades by status
     public Map<String, Long> totalTradesByStatus(UserDetails userDetails) {
         logger.info("Counting trades by trade status for: {}", userDetails.getUsername());
+        TradeReportEvent event = TradeReportEvent.started("totalTradesByStatus");
         List<Trade> userTrades = tradeRepository.findByTraderAndActiveTrue(userDetails.getUsername());
-        return userTrades.stream()
+        Map<String, Long> result = userTrades.stream()
                 .collect(Collectors.groupingBy(trade -> trade.getTradeStatus().getTradeStatus(), Collectors.counting()));
+        event.complete(userTrades.size());
+        return result;
     }
 
     // Total notional amounts by currency
     public Map<String, BigDecimal> totalNotionalAmountsByCurrency(UserDetails userDetails) {
         logger.info("Retrieving total notional amounts by currency for: {} ", userDetails.getUsername());
+        TradeReportEvent event = TradeReportEvent.started("totalNotionalAmountsByCurrency");
         List<Trade> userTrades = tradeRepository.findByTraderAndActiveTrue(userDetails.getUsername());
-        return userTrades.stream().flatMap( trade -> trade.getTradeLegs().stream())
+        Map<String, BigDecimal> result = userTrades.stream().flatMap( trade -> trade.getTradeLegs().stream())
                 .collect(Collectors.groupingBy(leg -> leg.getCurrency().getCurrency(),
                         Collectors.reducing(BigDecimal.ZERO,TradeLeg::getNotional, BigDecimal::add)));
+        event.complete(userTrades.size());
+        return result;
     }
 
     // Breakdown count of trades by trade type and counterparty
     public Map<String, Map<String, Long>> totalTradesByTradeTypeAndCounterparty(UserDetails userDetails) {
         logger.info("Retrieving breakdown count of trades by trade type and counterparty for: {} ", userDetails.getUsername());
+        TradeReportEvent event = TradeReportEvent.started("totalTradesByTradeTypeAndCounterparty");
         List<Trade> userTrades = tradeRepository.findByTraderAndActiveTrue(userDetails.getUsername());
-        return userTrades.stream()
+        Map<String, Map<String, Long>> result = userTrades.stream()
                 .collect(Collectors.groupingBy(trade -> trade.getTradeType().getTradeType(),
                         Collectors.groupingBy(trade -> trade.getCounterparty().getName(), Collectors.counting())));
+        event.complete(userTrades.size());
+        return result;
     }
 
     // Trade counter for daily summary
     public long tradeCountForDate(UserDetails userDetails, LocalDate tradeDate) {
         logger.info("Retrieving trade count for {} for: {}",tradeDate, userDetails.getUsername());
-        return tradeRepository.countTradeByTraderAndTradeDate(userDetails.getUsername(), tradeDate);
+        TradeReportEvent event = TradeReportEvent.started("tradeCountForDate");
+        long count = tradeRepository.countTradeByTraderAndTradeDate(userDetails.getUsername(), tradeDate);
+        event.complete(count);
+        return count;
     }
 
     // Total sum of notional amounts for daily summary
     public BigDecimal notionalAmountForDate(UserDetails userDetails, LocalDate tradeDate) {
         logger.info("Retrieving total notional amount for {} for: {}",tradeDate, userDetails.getUsername());
+        TradeReportEvent event = TradeReportEvent.started("notionalAmountForDate");
         List<Trade> userTrades = tradeRepository.findByTraderAndActiveTrue(userDetails.getUsername());
-        return userTrades.stream().filter(trade -> trade.getTradeDate().equals(tradeDate))
+        BigDecimal result = userTrades.stream().filter(trade -> trade.getTradeDate().equals(tradeDate))
                 .flatMap(trade -> trade.getTradeLegs().stream())
                 .map(TradeLeg::getNotional)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
+        event.complete(userTrades.size());
+        return result;
+    }
+
+    // Trade summary across a set of books, e.g. everything under a desk, aggregated in the database
+    public TradeSummaryDTO summaryForBooks(Collection<Long> bookIds) {
+        logger.info("Building trade summary for {} books", bookIds.size());
+        TradeReportEvent event = TradeReportEvent.started("summaryForBooks");
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, BigDecimal> notionalByCurrency = new HashMap<>();
+        Map<String, Map<String, Long>> byTypeAndCounterparty = new HashMap<>();
+        if (!bookIds.isEmpty()) {
+            for (Object[] row : tradeRepository.countActiveByStatusForBooks(bookIds)) {
+                byStatus.put((String) row[0], (Long) row[1]);
+            }
+            for (Object[] row : tradeRepository.sumActiveNotionalByCurrencyForBooks(bookIds)) {
+                notionalByCurrency.put((String) row[0], (BigDecimal) row[1]);
+            }
+            for (Object[] row : tradeRepository.countActiveByTradeTypeAndCounterpartyForBooks(bookIds)) {
+                byTypeAndCounterparty.computeIfAbsent((String) row[0], type -> new HashMap<>())
+                        .put((String) row[1], (Long) row[2]);
+            }
+        }
+        TradeSummaryDTO summary = new TradeSummaryDTO();
+        summary.setTotalTradesByStatus(byStatus);
+        summary.setTotalNotionalByCurrency(notionalByCurrency);
+        summary.setTradesByTypeByCounterparty(byTypeAndCounterparty);
+        event.complete(byStatus.values().stream().mapToLong(Long::longValue).sum());
+        return summary;
     }
 }
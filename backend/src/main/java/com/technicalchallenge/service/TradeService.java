@@ -1,17 +1,31 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.dto.AdditionalInfoDTO;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeFilterDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.event.TradeEvent;
+import com.technicalchallenge.event.TradeEventType;
 import com.technicalchallenge.exception.TradeValidationException;
 import com.technicalchallenge.exception.UserPrivilegeValidationException;
 import com.technicalchallenge.model.*;
 import com.technicalchallenge.repository.*;
+import com.technicalchallenge.service.accrual.AccrualEngine;
+import com.technicalchallenge.service.accrual.AccrualScheduleService;
+import com.technicalchallenge.service.calendar.BusinessDayCalendarService;
+import com.technicalchallenge.service.curve.FloatingCashflowsReprojectedEvent;
+import com.technicalchallenge.service.curve.IndexCurve;
+import com.technicalchallenge.service.curve.IndexCurveService;
+import com.technicalchallenge.service.diagnostics.CashflowGenerationEvent;
+import com.technicalchallenge.service.diagnostics.TradeLifecycleEvent;
+import com.technicalchallenge.service.metrics.TradeMetrics;
+import com.technicalchallenge.service.tracing.Tracer;
 import com.technicalchallenge.service.validation.UserPrivilegeValidator;
 import com.technicalchallenge.specification.TradeSpecification;
 import com.technicalchallenge.service.validation.TradeValidator;
 import com.technicalchallenge.service.validation.ValidationResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -25,15 +39,22 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
+import static com.technicalchallenge.logging.LogMarkers.PER_ROW;
 import static io.github.perplexhub.rsql.RSQLJPASupport.toSpecification;
 
 @Service
 @Transactional
 public class TradeService {
     private static final Logger logger = LoggerFactory.getLogger(TradeService.class);
+    private static final long FIRST_TRADE_ID = 10000L;
+
+    private final AtomicLong lastGeneratedTradeId = new AtomicLong();
 
     @Autowired
     private TradeRepository tradeRepository;
@@ -73,6 +94,16 @@ public class TradeService {
     private TradeValidator tradeValidator;
     @Autowired
     private UserPrivilegeValidator userPrivilegeValidator;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private BusinessDayCalendarService businessDayCalendarService;
+    @Autowired
+    private AccrualScheduleService accrualScheduleService;
+    @Autowired
+    private IndexCurveService indexCurveService;
+    @Autowired
+    private TradeMetrics tradeMetrics;
 
     public List<Trade> getAllTrades() {
         logger.info("Retrieving all trades");
@@ -107,14 +138,18 @@ public class TradeService {
 
     @Transactional
     public Trade createTrade(TradeDTO tradeDTO) {
-        logger.info("Creating new trade with ID: {}", tradeDTO.getTradeId());
+        return timed("create", event -> createNewTrade(tradeDTO, event));
+    }
+
+    private Trade createNewTrade(TradeDTO tradeDTO, TradeLifecycleEvent event) {
+        logger.debug("Creating new trade with ID: {}", tradeDTO.getTradeId());
 
         // Generate trade ID if not provided
         if (tradeDTO.getTradeId() == null) {
             // Generate sequential trade ID starting from 10000
             Long generatedTradeId = generateNextTradeId();
             tradeDTO.setTradeId(generatedTradeId);
-            logger.info("Generated trade ID: {}", generatedTradeId);
+            logger.debug("Generated trade ID: {}", generatedTradeId);
         }
 
         // Validate business rules
@@ -133,7 +168,9 @@ public class TradeService {
         }
 
         // Populate reference data
-        populateReferenceDataByName(trade, tradeDTO);
+        try (Tracer.Scope ignored = Tracer.span("service", "TradeService.referenceData")) {
+            populateReferenceDataByName(trade, tradeDTO);
+        }
 
         // Ensure we have essential reference data
         validateReferenceData(trade);
@@ -141,7 +178,8 @@ public class TradeService {
         Trade savedTrade = tradeRepository.save(trade);
 
         // Create trade legs and cashflows
-        createTradeLegsWithCashflows(tradeDTO, savedTrade);
+        List<TradeLeg> savedLegs = createTradeLegsWithCashflows(tradeDTO, savedTrade, event);
+        publishTradeEvent(TradeEventType.CREATED, savedTrade, savedLegs, null);
 
         logger.info("Successfully created trade with ID: {}", savedTrade.getTradeId());
         return savedTrade;
@@ -153,21 +191,23 @@ public class TradeService {
 
         // Grace: added validation checks here as this is the service method invoked by createTrade() in TradeController
 
-        logger.info("Validating user privileges trade");
+        logger.debug("Validating user privileges trade");
 
         boolean hasSufficientPrivileges = userPrivilegeValidator.validateUserPrivileges(tradeDTO.getInputterUserName(),"CREATE",tradeDTO);
         if(!hasSufficientPrivileges) {
+            tradeMetrics.recordPrivilegeFailure("CREATE");
             throw new UserPrivilegeValidationException("This account lacks the required privileges for this operation");
         }
 
-        logger.info("Validating trade");
+        logger.debug("Validating trade");
 
         ValidationResult validationResult = tradeValidator.validateTradeBusinessRules(tradeDTO);
         if(!validationResult.isValid()) {
+            tradeMetrics.recordValidationFailure("CREATE", validationResult);
             throw new TradeValidationException("Invalid trade: ", validationResult.getErrors());
         }
 
-        logger.info("Saving trade with ID: {}", trade.getTradeId());
+        logger.debug("Saving trade with ID: {}", trade.getTradeId());
 
         // If this is an existing trade (has ID), handle as amendment
         if (trade.getId() != null) {
@@ -183,28 +223,28 @@ public class TradeService {
 
         // Populate Book
         if (tradeDTO.getBookName() != null) {
-            bookRepository.findByBookName(tradeDTO.getBookName())
+            lookedUp("book", bookRepository.findByBookName(tradeDTO.getBookName()))
                     .ifPresent(trade::setBook);
         } else if (tradeDTO.getBookId() != null) {
-            bookRepository.findById(tradeDTO.getBookId())
+            lookedUp("book", bookRepository.findById(tradeDTO.getBookId()))
                     .ifPresent(trade::setBook);
         }
 
         // Populate Counterparty
         if (tradeDTO.getCounterpartyName() != null) {
-            counterpartyRepository.findByName(tradeDTO.getCounterpartyName())
+            lookedUp("counterparty", counterpartyRepository.findByName(tradeDTO.getCounterpartyName()))
                     .ifPresent(trade::setCounterparty);
         } else if (tradeDTO.getCounterpartyId() != null) {
-            counterpartyRepository.findById(tradeDTO.getCounterpartyId())
+            lookedUp("counterparty", counterpartyRepository.findById(tradeDTO.getCounterpartyId()))
                     .ifPresent(trade::setCounterparty);
         }
 
         // Populate TradeStatus
         if (tradeDTO.getTradeStatus() != null) {
-            tradeStatusRepository.findByTradeStatus(tradeDTO.getTradeStatus())
+            lookedUp("tradeStatus", tradeStatusRepository.findByTradeStatus(tradeDTO.getTradeStatus()))
                     .ifPresent(trade::setTradeStatus);
         } else if (tradeDTO.getTradeStatusId() != null) {
-            tradeStatusRepository.findById(tradeDTO.getTradeStatusId())
+            lookedUp("tradeStatus", tradeStatusRepository.findById(tradeDTO.getTradeStatusId()))
                     .ifPresent(trade::setTradeStatus);
         }
 
@@ -216,78 +256,78 @@ public class TradeService {
     private void populateUserReferences(Trade trade, TradeDTO tradeDTO) {
         // Handle trader user by name or ID with enhanced logging
         if (tradeDTO.getTraderUserName() != null) {
-            logger.debug("Looking up trader user by name: {}", tradeDTO.getTraderUserName());
+            logger.debug(PER_ROW, "Looking up trader user by name: {}", tradeDTO.getTraderUserName());
             String[] nameParts = tradeDTO.getTraderUserName().trim().split("\\s+");
             if (nameParts.length >= 1) {
                 String firstName = nameParts[0];
-                logger.debug("Searching for user with firstName: {}", firstName);
-                Optional<ApplicationUser> userOpt = applicationUserRepository.findByFirstName(firstName);
+                logger.debug(PER_ROW, "Searching for user with firstName: {}", firstName);
+                Optional<ApplicationUser> userOpt = lookedUp("applicationUser", applicationUserRepository.findByFirstName(firstName));
                 if (userOpt.isPresent()) {
                     trade.setTraderUser(userOpt.get());
-                    logger.debug("Found trader user: {} {}", userOpt.get().getFirstName(), userOpt.get().getLastName());
+                    logger.debug(PER_ROW, "Found trader user: {} {}", userOpt.get().getFirstName(), userOpt.get().getLastName());
                 } else {
-                    logger.warn("Trader user not found with firstName: {}", firstName);
+                    logger.warn(PER_ROW, "Trader user not found with firstName: {}", firstName);
                     // Try with loginId as fallback
-                    Optional<ApplicationUser> byLoginId = applicationUserRepository.findByLoginId(tradeDTO.getTraderUserName().toLowerCase());
+                    Optional<ApplicationUser> byLoginId = lookedUp("applicationUser", applicationUserRepository.findByLoginId(tradeDTO.getTraderUserName().toLowerCase()));
                     if (byLoginId.isPresent()) {
                         trade.setTraderUser(byLoginId.get());
-                        logger.debug("Found trader user by loginId: {}", tradeDTO.getTraderUserName());
+                        logger.debug(PER_ROW, "Found trader user by loginId: {}", tradeDTO.getTraderUserName());
                     } else {
-                        logger.warn("Trader user not found by loginId either: {}", tradeDTO.getTraderUserName());
+                        logger.warn(PER_ROW, "Trader user not found by loginId either: {}", tradeDTO.getTraderUserName());
                     }
                 }
             }
         } else if (tradeDTO.getTraderUserId() != null) {
-            applicationUserRepository.findById(tradeDTO.getTraderUserId())
+            lookedUp("applicationUser", applicationUserRepository.findById(tradeDTO.getTraderUserId()))
                     .ifPresent(trade::setTraderUser);
         }
 
         // Handle inputter user by name or ID with enhanced logging
         if (tradeDTO.getInputterUserName() != null) {
-            logger.debug("Looking up inputter user by name: {}", tradeDTO.getInputterUserName());
+            logger.debug(PER_ROW, "Looking up inputter user by name: {}", tradeDTO.getInputterUserName());
             String[] nameParts = tradeDTO.getInputterUserName().trim().split("\\s+");
             if (nameParts.length >= 1) {
                 String firstName = nameParts[0];
-                logger.debug("Searching for inputter with firstName: {}", firstName);
-                Optional<ApplicationUser> userOpt = applicationUserRepository.findByFirstName(firstName);
+                logger.debug(PER_ROW, "Searching for inputter with firstName: {}", firstName);
+                Optional<ApplicationUser> userOpt = lookedUp("applicationUser", applicationUserRepository.findByFirstName(firstName));
                 if (userOpt.isPresent()) {
                     trade.setTradeInputterUser(userOpt.get());
-                    logger.debug("Found inputter user: {} {}", userOpt.get().getFirstName(), userOpt.get().getLastName());
+                    logger.debug(PER_ROW, "Found inputter user: {} {}", userOpt.get().getFirstName(), userOpt.get().getLastName());
                 } else {
-                    logger.warn("Inputter user not found with firstName: {}", firstName);
+                    logger.warn(PER_ROW, "Inputter user not found with firstName: {}", firstName);
                     // Try with loginId as fallback
-                    Optional<ApplicationUser> byLoginId = applicationUserRepository.findByLoginId(tradeDTO.getInputterUserName().toLowerCase());
+                    Optional<ApplicationUser> byLoginId = lookedUp("applicationUser", applicationUserRepository.findByLoginId(tradeDTO.getInputterUserName().toLowerCase()));
                     if (byLoginId.isPresent()) {
                         trade.setTradeInputterUser(byLoginId.get());
-                        logger.debug("Found inputter user by loginId: {}", tradeDTO.getInputterUserName());
+                        logger.debug(PER_ROW, "Found inputter user by loginId: {}", tradeDTO.getInputterUserName());
                     } else {
-                        logger.warn("Inputter user not found by loginId either: {}", tradeDTO.getInputterUserName());
+                        logger.warn(PER_ROW, "Inputter user not found by loginId either: {}", tradeDTO.getInputterUserName());
                     }
                 }
             }
         } else if (tradeDTO.getTradeInputterUserId() != null) {
-            applicationUserRepository.findById(tradeDTO.getTradeInputterUserId())
+            lookedUp("applicationUser", applicationUserRepository.findById(tradeDTO.getTradeInputterUserId()))
                     .ifPresent(trade::setTradeInputterUser);
         }
     }
 
     private void populateTradeTypeReferences(Trade trade, TradeDTO tradeDTO) {
         if (tradeDTO.getTradeType() != null) {
-            logger.debug("Looking up trade type: {}", tradeDTO.getTradeType());
-            Optional<TradeType> tradeTypeOpt = tradeTypeRepository.findByTradeType(tradeDTO.getTradeType());
+            logger.debug(PER_ROW, "Looking up trade type: {}", tradeDTO.getTradeType());
+            Optional<TradeType> tradeTypeOpt = lookedUp("tradeType", tradeTypeRepository.findByTradeType(tradeDTO.getTradeType()));
             if (tradeTypeOpt.isPresent()) {
                 trade.setTradeType(tradeTypeOpt.get());
-                logger.debug("Found trade type: {} with ID: {}", tradeTypeOpt.get().getTradeType(), tradeTypeOpt.get().getId());
+                logger.debug(PER_ROW, "Found trade type: {} with ID: {}", tradeTypeOpt.get().getTradeType(), tradeTypeOpt.get().getId());
             } else {
-                logger.warn("Trade type not found: {}", tradeDTO.getTradeType());
+                logger.warn(PER_ROW, "Trade type not found: {}", tradeDTO.getTradeType());
             }
         } else if (tradeDTO.getTradeTypeId() != null) {
-            tradeTypeRepository.findById(tradeDTO.getTradeTypeId())
+            lookedUp("tradeType", tradeTypeRepository.findById(tradeDTO.getTradeTypeId()))
                     .ifPresent(trade::setTradeType);
         }
 
         if (tradeDTO.getTradeSubType() != null) {
-            Optional<TradeSubType> tradeSubTypeOpt = tradeSubTypeRepository.findByTradeSubType(tradeDTO.getTradeSubType());
+            Optional<TradeSubType> tradeSubTypeOpt = lookedUp("tradeSubType", tradeSubTypeRepository.findByTradeSubType(tradeDTO.getTradeSubType()));
             if (tradeSubTypeOpt.isPresent()) {
                 trade.setTradeSubType(tradeSubTypeOpt.get());
             } else {
@@ -300,7 +340,7 @@ public class TradeService {
                 }
             }
         } else if (tradeDTO.getTradeSubTypeId() != null) {
-            tradeSubTypeRepository.findById(tradeDTO.getTradeSubTypeId())
+            lookedUp("tradeSubType", tradeSubTypeRepository.findById(tradeDTO.getTradeSubTypeId()))
                     .ifPresent(trade::setTradeSubType);
         }
     }
@@ -308,12 +348,27 @@ public class TradeService {
     // NEW METHOD: Delete trade (mark as cancelled)
     @Transactional
     public void deleteTrade(Long tradeId) {
+        deleteTrade(tradeId, null);
+    }
+
+    @Transactional
+    public void deleteTrade(Long tradeId, TradeVersionPrecondition expectedVersion) {
         logger.info("Deleting (cancelling) trade with ID: {}", tradeId);
-        cancelTrade(tradeId);
+        cancelTrade(tradeId, expectedVersion);
     }
 
     @Transactional
     public Trade amendTrade(Long tradeId, TradeDTO tradeDTO) {
+        return amendTrade(tradeId, tradeDTO, null);
+    }
+
+    @Transactional
+    public Trade amendTrade(Long tradeId, TradeDTO tradeDTO, TradeVersionPrecondition expectedVersion) {
+        return timed("amend", event -> amendActiveTrade(tradeId, tradeDTO, expectedVersion, event));
+    }
+
+    private Trade amendActiveTrade(Long tradeId, TradeDTO tradeDTO, TradeVersionPrecondition expectedVersion,
+                                   TradeLifecycleEvent event) {
         logger.info("Amending trade with ID: {}", tradeId);
 
         Optional<Trade> existingTradeOpt = getTradeById(tradeId);
@@ -326,14 +381,19 @@ public class TradeService {
 
         boolean hasSufficientPrivileges = userPrivilegeValidator.validateUserPrivileges(tradeDTO.getInputterUserName(),"AMEND",tradeDTO);
         if(!hasSufficientPrivileges) {
+            tradeMetrics.recordPrivilegeFailure("AMEND");
             throw new UserPrivilegeValidationException("This account lacks the required privileges for this operation");
         }
 
         Trade existingTrade = existingTradeOpt.get();
+        if (expectedVersion != null) {
+            expectedVersion.check(existingTrade);
+        }
 
-        // Deactivate existing trade
+        // Deactivate existing trade, touching it so incremental exports pick up the old version too
         existingTrade.setActive(false);
         existingTrade.setDeactivatedDate(LocalDateTime.now());
+        existingTrade.setLastTouchTimestamp(LocalDateTime.now());
         tradeRepository.save(existingTrade);
 
         // Create new version
@@ -345,7 +405,9 @@ public class TradeService {
         amendedTrade.setLastTouchTimestamp(LocalDateTime.now());
 
         // Populate reference data
-        populateReferenceDataByName(amendedTrade, tradeDTO);
+        try (Tracer.Scope ignored = Tracer.span("service", "TradeService.referenceData")) {
+            populateReferenceDataByName(amendedTrade, tradeDTO);
+        }
 
         // Set status to AMENDED
         TradeStatus amendedStatus = tradeStatusRepository.findByTradeStatus("AMENDED")
@@ -355,7 +417,8 @@ public class TradeService {
         Trade savedTrade = tradeRepository.save(amendedTrade);
 
         // Create new trade legs and cashflows
-        createTradeLegsWithCashflows(tradeDTO, savedTrade);
+        List<TradeLeg> savedLegs = createTradeLegsWithCashflows(tradeDTO, savedTrade, event);
+        publishTradeEvent(TradeEventType.AMENDED, savedTrade, savedLegs, null);
 
         logger.info("Successfully amended trade with ID: {}", savedTrade.getTradeId());
         return savedTrade;
@@ -363,6 +426,15 @@ public class TradeService {
 
     @Transactional
     public Trade terminateTrade(Long tradeId) {
+        return terminateTrade(tradeId, null);
+    }
+
+    @Transactional
+    public Trade terminateTrade(Long tradeId, TradeVersionPrecondition expectedVersion) {
+        return timed("terminate", event -> terminateActiveTrade(tradeId, expectedVersion));
+    }
+
+    private Trade terminateActiveTrade(Long tradeId, TradeVersionPrecondition expectedVersion) {
         logger.info("Terminating trade with ID: {}", tradeId);
 
         Optional<Trade> tradeOpt = getTradeById(tradeId);
@@ -371,17 +443,31 @@ public class TradeService {
         }
 
         Trade trade = tradeOpt.get();
+        if (expectedVersion != null) {
+            expectedVersion.check(trade);
+        }
         TradeStatus terminatedStatus = tradeStatusRepository.findByTradeStatus("TERMINATED")
                 .orElseThrow(() -> new RuntimeException("TERMINATED status not found"));
 
         trade.setTradeStatus(terminatedStatus);
         trade.setLastTouchTimestamp(LocalDateTime.now());
 
-        return tradeRepository.save(trade);
+        Trade savedTrade = tradeRepository.save(trade);
+        publishTradeEvent(TradeEventType.TERMINATED, savedTrade, trade.getTradeLegs(), null);
+        return savedTrade;
     }
 
     @Transactional
     public Trade cancelTrade(Long tradeId) {
+        return cancelTrade(tradeId, null);
+    }
+
+    @Transactional
+    public Trade cancelTrade(Long tradeId, TradeVersionPrecondition expectedVersion) {
+        return timed("cancel", event -> cancelActiveTrade(tradeId, expectedVersion));
+    }
+
+    private Trade cancelActiveTrade(Long tradeId, TradeVersionPrecondition expectedVersion) {
         logger.info("Cancelling trade with ID: {}", tradeId);
 
         Optional<Trade> tradeOpt = getTradeById(tradeId);
@@ -390,13 +476,57 @@ public class TradeService {
         }
 
         Trade trade = tradeOpt.get();
+        if (expectedVersion != null) {
+            expectedVersion.check(trade);
+        }
         TradeStatus cancelledStatus = tradeStatusRepository.findByTradeStatus("CANCELLED")
                 .orElseThrow(() -> new RuntimeException("CANCELLED status not found"));
 
         trade.setTradeStatus(cancelledStatus);
         trade.setLastTouchTimestamp(LocalDateTime.now());
 
-        return tradeRepository.save(trade);
+        Trade savedTrade = tradeRepository.save(trade);
+        publishTradeEvent(TradeEventType.CANCELLED, savedTrade, trade.getTradeLegs(), null);
+        return savedTrade;
+    }
+
+    // Tagged with the trade type the trade was booked with, so a request naming an unknown type cannot add a tag
+    private Trade timed(String operation, Function<TradeLifecycleEvent, Trade> action) {
+        long start = System.nanoTime();
+        TradeLifecycleEvent event = new TradeLifecycleEvent(operation);
+        event.begin();
+        Trade trade = null;
+        Throwable failure = null;
+        try {
+            trade = action.apply(event);
+            return trade;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            String tradeType = trade != null && trade.getTradeType() != null ? trade.getTradeType().getTradeType() : null;
+            tradeMetrics.recordLifecycleOnCompletion(operation, tradeType, failure, start);
+            event.complete(trade != null ? trade.getTradeId() : null, tradeType, failure);
+        }
+    }
+
+    @Transactional
+    public AdditionalInfoDTO updateSettlementInstructions(Long tradeId, AdditionalInfoDTO settlementInstructions) {
+        logger.info("Updating settlement instructions for trade with ID: {}", tradeId);
+
+        Trade trade = getTradeById(tradeId)
+                .orElseThrow(() -> new RuntimeException("Trade not found: " + tradeId));
+
+        AdditionalInfoDTO savedInstructions = additionalInfoService.updateAdditionalInfo(settlementInstructions);
+        publishTradeEvent(TradeEventType.SETTLEMENT_INSTRUCTIONS_UPDATED, trade, trade.getTradeLegs(), savedInstructions.getFieldValue());
+        return savedInstructions;
+    }
+
+    // Published inside the transaction; the journal only records it once the transaction commits
+    private void publishTradeEvent(TradeEventType type, Trade trade, List<TradeLeg> legs, String detail) {
+        try (Tracer.Scope ignored = Tracer.span("service", "TradeService.publishEvent")) {
+            eventPublisher.publishEvent(TradeEvent.of(type, trade, legs, detail));
+        }
     }
 
     private void validateTradeCreation(TradeDTO tradeDTO) {
@@ -431,109 +561,157 @@ public class TradeService {
         return trade;
     }
 
-    private void createTradeLegsWithCashflows(TradeDTO tradeDTO, Trade savedTrade) {
-        for (int i = 0; i < tradeDTO.getTradeLegs().size(); i++) {
-            var legDTO = tradeDTO.getTradeLegs().get(i);
-
-            TradeLeg tradeLeg = new TradeLeg();
-            tradeLeg.setTrade(savedTrade);
-            tradeLeg.setNotional(legDTO.getNotional());
-            tradeLeg.setRate(legDTO.getRate());
-            tradeLeg.setActive(true);
-            tradeLeg.setCreatedDate(LocalDateTime.now());
-
-            // Populate reference data for leg
-            populateLegReferenceData(tradeLeg, legDTO);
-
-            TradeLeg savedLeg = tradeLegRepository.save(tradeLeg);
-
-            // Generate cashflows for this leg
-            if (tradeDTO.getTradeStartDate() != null && tradeDTO.getTradeMaturityDate() != null) {
-                generateCashflows(savedLeg, tradeDTO.getTradeStartDate(), tradeDTO.getTradeMaturityDate());
+    private List<TradeLeg> createTradeLegsWithCashflows(TradeDTO tradeDTO, Trade savedTrade, TradeLifecycleEvent event) {
+        try (Tracer.Scope ignored = Tracer.span("service", "TradeService.tradeLegs")) {
+            List<TradeLeg> savedLegs = new ArrayList<>();
+            for (int i = 0; i < tradeDTO.getTradeLegs().size(); i++) {
+                var legDTO = tradeDTO.getTradeLegs().get(i);
+
+                TradeLeg tradeLeg = new TradeLeg();
+                tradeLeg.setTrade(savedTrade);
+                tradeLeg.setNotional(legDTO.getNotional());
+                tradeLeg.setRate(legDTO.getRate());
+                tradeLeg.setActive(true);
+                tradeLeg.setCreatedDate(LocalDateTime.now());
+
+                // Populate reference data for leg
+                populateLegReferenceData(tradeLeg, legDTO);
+
+                TradeLeg savedLeg = tradeLegRepository.save(tradeLeg);
+                savedLegs.add(savedLeg);
+
+                // Generate cashflows for this leg
+                int cashflows = 0;
+                if (tradeDTO.getTradeStartDate() != null && tradeDTO.getTradeMaturityDate() != null) {
+                    cashflows = generateCashflows(savedLeg, tradeDTO.getTradeStartDate(), tradeDTO.getTradeMaturityDate());
+                }
+                event.addLeg(cashflows);
             }
+            return savedLegs;
         }
     }
 
     private void populateLegReferenceData(TradeLeg leg, TradeLegDTO legDTO) {
         // Populate currency by name or ID
         if (legDTO.getCurrency() != null) {
-            currencyRepository.findByCurrency(legDTO.getCurrency())
+            lookedUp("currency", currencyRepository.findByCurrency(legDTO.getCurrency()))
                     .ifPresent(leg::setCurrency);
         } else if (legDTO.getCurrencyId() != null) {
-            currencyRepository.findById(legDTO.getCurrencyId())
+            lookedUp("currency", currencyRepository.findById(legDTO.getCurrencyId()))
                     .ifPresent(leg::setCurrency);
         }
 
         // Populate leg type by name or ID
         if (legDTO.getLegType() != null) {
-            legTypeRepository.findByType(legDTO.getLegType())
+            lookedUp("legType", legTypeRepository.findByType(legDTO.getLegType()))
                     .ifPresent(leg::setLegRateType);
         } else if (legDTO.getLegTypeId() != null) {
-            legTypeRepository.findById(legDTO.getLegTypeId())
+            lookedUp("legType", legTypeRepository.findById(legDTO.getLegTypeId()))
                     .ifPresent(leg::setLegRateType);
         }
 
         // Populate index by name or ID
         if (legDTO.getIndexName() != null) {
-            indexRepository.findByIndex(legDTO.getIndexName())
+            lookedUp("index", indexRepository.findByIndex(legDTO.getIndexName()))
                     .ifPresent(leg::setIndex);
         } else if (legDTO.getIndexId() != null) {
-            indexRepository.findById(legDTO.getIndexId())
+            lookedUp("index", indexRepository.findById(legDTO.getIndexId()))
                     .ifPresent(leg::setIndex);
         }
 
+        leg.setDayCountConvention(DayCountConvention.fromName(legDTO.getDayCountConvention()));
+
         // Populate holiday calendar by name or ID
         if (legDTO.getHolidayCalendar() != null) {
-            holidayCalendarRepository.findByHolidayCalendar(legDTO.getHolidayCalendar())
+            lookedUp("holidayCalendar", holidayCalendarRepository.findByHolidayCalendar(legDTO.getHolidayCalendar()))
                     .ifPresent(leg::setHolidayCalendar);
         } else if (legDTO.getHolidayCalendarId() != null) {
-            holidayCalendarRepository.findById(legDTO.getHolidayCalendarId())
+            lookedUp("holidayCalendar", holidayCalendarRepository.findById(legDTO.getHolidayCalendarId()))
                     .ifPresent(leg::setHolidayCalendar);
         }
 
         // Populate schedule by name or ID
         if (legDTO.getCalculationPeriodSchedule() != null) {
-            scheduleRepository.findBySchedule(legDTO.getCalculationPeriodSchedule())
+            lookedUp("schedule", scheduleRepository.findBySchedule(legDTO.getCalculationPeriodSchedule()))
                     .ifPresent(leg::setCalculationPeriodSchedule);
         } else if (legDTO.getScheduleId() != null) {
-            scheduleRepository.findById(legDTO.getScheduleId())
+            lookedUp("schedule", scheduleRepository.findById(legDTO.getScheduleId()))
                     .ifPresent(leg::setCalculationPeriodSchedule);
         }
 
         // Populate payment business day convention by name or ID
         if (legDTO.getPaymentBusinessDayConvention() != null) {
-            businessDayConventionRepository.findByBdc(legDTO.getPaymentBusinessDayConvention())
+            lookedUp("businessDayConvention", businessDayConventionRepository.findByBdc(legDTO.getPaymentBusinessDayConvention()))
                     .ifPresent(leg::setPaymentBusinessDayConvention);
         } else if (legDTO.getPaymentBdcId() != null) {
-            businessDayConventionRepository.findById(legDTO.getPaymentBdcId())
+            lookedUp("businessDayConvention", businessDayConventionRepository.findById(legDTO.getPaymentBdcId()))
                     .ifPresent(leg::setPaymentBusinessDayConvention);
         }
 
         // Populate fixing business day convention by name or ID
         if (legDTO.getFixingBusinessDayConvention() != null) {
-            businessDayConventionRepository.findByBdc(legDTO.getFixingBusinessDayConvention())
+            lookedUp("businessDayConvention", businessDayConventionRepository.findByBdc(legDTO.getFixingBusinessDayConvention()))
                     .ifPresent(leg::setFixingBusinessDayConvention);
         } else if (legDTO.getFixingBdcId() != null) {
-            businessDayConventionRepository.findById(legDTO.getFixingBdcId())
+            lookedUp("businessDayConvention", businessDayConventionRepository.findById(legDTO.getFixingBdcId()))
                     .ifPresent(leg::setFixingBusinessDayConvention);
         }
 
         // Populate pay/receive flag by name or ID
         if (legDTO.getPayReceiveFlag() != null) {
-            payRecRepository.findByPayRec(legDTO.getPayReceiveFlag())
+            lookedUp("payRec", payRecRepository.findByPayRec(legDTO.getPayReceiveFlag()))
                     .ifPresent(leg::setPayReceiveFlag);
         } else if (legDTO.getPayRecId() != null) {
-            payRecRepository.findById(legDTO.getPayRecId())
+            lookedUp("payRec", payRecRepository.findById(legDTO.getPayRecId()))
                     .ifPresent(leg::setPayReceiveFlag);
         }
     }
 
+    private <T> Optional<T> lookedUp(String entity, Optional<T> found) {
+        tradeMetrics.recordLookup(entity, found.isPresent());
+        return found;
+    }
+
     /**
      * FIXED: Generate cashflows based on schedule and maturity date
      */
-    private void generateCashflows(TradeLeg leg, LocalDate startDate, LocalDate maturityDate) {
-        logger.info("Generating cashflows for leg {} from {} to {}", leg.getLegId(), startDate, maturityDate);
+    private int generateCashflows(TradeLeg leg, LocalDate startDate, LocalDate maturityDate) {
+        logger.debug(PER_ROW, "Generating cashflows for leg {} from {} to {}", leg.getLegId(), startDate, maturityDate);
+
+        long start = System.nanoTime();
+        CashflowGenerationEvent event = new CashflowGenerationEvent();
+        event.begin();
+        Tracer.Scope span = Tracer.span("service", "TradeService.cashflows");
+        List<Cashflow> cashflows = List.of();
+        Throwable failure = null;
+        try {
+            cashflows = buildCashflows(leg, startDate, maturityDate);
+            for (Cashflow cashflow : cashflows) {
+                cashflowRepository.save(cashflow);
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+            String legType = leg.getLegRateType() != null ? leg.getLegRateType().getType() : null;
+            tradeMetrics.recordCashflowGeneration(legType, cashflows.size(), failure, System.nanoTime() - start);
+            if (failure == null) {
+                event.complete(leg.getTrade() != null ? leg.getTrade().getTradeId() : null, leg.getLegId(), legType,
+                        cashflows.size());
+            }
+        }
 
+        logger.debug(PER_ROW, "Generated {} cashflows for leg {}", cashflows.size(), leg.getLegId());
+        return cashflows.size();
+    }
+
+    /**
+     * Builds, without saving, the cashflows of a leg from its schedule, calendar and rate. The leg only needs its
+     * reference data populated, not to be persisted, so bulk writers can generate cashflows off the database.
+     */
+    public List<Cashflow> buildCashflows(TradeLeg leg, LocalDate startDate, LocalDate maturityDate) {
         // Use default schedule if not set
         String schedule = "3M"; // Default to quarterly
         if (leg.getCalculationPeriodSchedule() != null) {
@@ -543,14 +721,26 @@ public class TradeService {
         int monthsInterval = parseSchedule(schedule);
         List<LocalDate> paymentDates = calculatePaymentDates(startDate, maturityDate, monthsInterval);
 
-        for (LocalDate paymentDate : paymentDates) {
+        // Payment dates roll on the leg's holiday calendar; the schedule itself stays on the unadjusted dates
+        String calendar = leg.getHolidayCalendar() != null ? leg.getHolidayCalendar().getHolidayCalendar() : null;
+        String paymentConvention = leg.getPaymentBusinessDayConvention() != null ? leg.getPaymentBusinessDayConvention().getBdc() : null;
+
+        // Fixed legs with a day count and floating legs with an index curve are accrued per period, otherwise months / 12
+        double[] periodRates = new double[paymentDates.size()];
+        long[] couponAccruals = calculateCouponAccruals(leg, startDate, maturityDate, monthsInterval, paymentDates, periodRates);
+
+        List<Cashflow> cashflows = new ArrayList<>(paymentDates.size());
+        for (int i = 0; i < paymentDates.size(); i++) {
+            LocalDate paymentDate = paymentDates.get(i);
             Cashflow cashflow = new Cashflow();
             cashflow.setTradeLeg(leg); // Fixed field name
-            cashflow.setValueDate(paymentDate);
-            cashflow.setRate(leg.getRate());
+            cashflow.setValueDate(businessDayCalendarService.adjust(paymentDate, calendar, paymentConvention));
+            cashflow.setRate(couponAccruals != null ? Double.valueOf(periodRates[i]) : leg.getRate());
 
             // Calculate value based on leg type
-            BigDecimal cashflowValue = calculateCashflowValue(leg, monthsInterval);
+            BigDecimal cashflowValue = couponAccruals != null
+                    ? BigDecimal.valueOf(couponAccruals[i], 2)
+                    : calculateCashflowValue(leg, monthsInterval);
             cashflow.setPaymentValue(cashflowValue);
 
             cashflow.setPayRec(leg.getPayReceiveFlag());
@@ -558,10 +748,9 @@ public class TradeService {
             cashflow.setCreatedDate(LocalDateTime.now());
             cashflow.setActive(true);
 
-            cashflowRepository.save(cashflow);
+            cashflows.add(cashflow);
         }
-
-        logger.info("Generated {} cashflows for leg {}", paymentDates.size(), leg.getLegId());
+        return cashflows;
     }
 
     private int parseSchedule(String schedule) {
@@ -609,6 +798,115 @@ public class TradeService {
         return dates;
     }
 
+    /**
+     * Re-projects the remaining floating cashflows of a live leg from the current index curve.
+     * Cashflows with a value date before asOf are left alone. When any changed, a
+     * {@link FloatingCashflowsReprojectedEvent} is published for the trade.
+     *
+     * @return the number of cashflows whose value or rate changed
+     */
+    public int reprojectFloatingCashflows(Long legId, LocalDate asOf) {
+        TradeLeg leg = tradeLegRepository.findById(legId).orElse(null);
+        if (leg == null || !Boolean.TRUE.equals(leg.getActive()) || leg.getLegRateType() == null
+                || !"Floating".equals(leg.getLegRateType().getType())) {
+            return 0;
+        }
+        Trade trade = leg.getTrade();
+        if (trade == null || !Boolean.TRUE.equals(trade.getActive())
+                || trade.getTradeStartDate() == null || trade.getTradeMaturityDate() == null) {
+            return 0;
+        }
+
+        String schedule = leg.getCalculationPeriodSchedule() != null ? leg.getCalculationPeriodSchedule().getSchedule() : "3M";
+        int monthsInterval = parseSchedule(schedule);
+        List<LocalDate> paymentDates = calculatePaymentDates(trade.getTradeStartDate(), trade.getTradeMaturityDate(), monthsInterval);
+        double[] periodRates = new double[paymentDates.size()];
+        long[] couponAccruals = calculateCouponAccruals(leg, trade.getTradeStartDate(), trade.getTradeMaturityDate(),
+                monthsInterval, paymentDates, periodRates);
+        if (couponAccruals == null) {
+            return 0;
+        }
+
+        List<Cashflow> cashflows = cashflowRepository.findByTradeLegLegIdAndActiveTrueOrderByValueDate(legId);
+        if (cashflows.isEmpty()) {
+            return 0;
+        }
+        if (cashflows.size() != paymentDates.size()) {
+            logger.warn(PER_ROW, "Skipping re-projection of leg {}: {} cashflows for {} schedule periods", legId, cashflows.size(), paymentDates.size());
+            return 0;
+        }
+        int updated = 0;
+        for (int i = 0; i < cashflows.size(); i++) {
+            Cashflow cashflow = cashflows.get(i);
+            if (cashflow.getValueDate() != null && cashflow.getValueDate().isBefore(asOf)) {
+                continue;
+            }
+            BigDecimal projectedValue = BigDecimal.valueOf(couponAccruals[i], 2);
+            if (cashflow.getPaymentValue() == null || projectedValue.compareTo(cashflow.getPaymentValue()) != 0
+                    || !Double.valueOf(periodRates[i]).equals(cashflow.getRate())) {
+                cashflow.setPaymentValue(projectedValue);
+                cashflow.setRate(periodRates[i]);
+                updated++;
+            }
+        }
+        if (updated > 0) {
+            trade.setLastTouchTimestamp(LocalDateTime.now());
+            eventPublisher.publishEvent(new FloatingCashflowsReprojectedEvent(trade.getTradeId()));
+        }
+        return updated;
+    }
+
+    // Coupons in cents per period, with the rate used for each period in percent written to periodRates.
+    // Returns null when the leg keeps the months / 12 calculation: fixed legs without a day count, and
+    // floating legs whose index has no curve.
+    private long[] calculateCouponAccruals(TradeLeg leg, LocalDate startDate, LocalDate maturityDate, int monthsInterval,
+                                           List<LocalDate> paymentDates, double[] periodRates) {
+        if (leg.getLegRateType() == null || leg.getNotional() == null || paymentDates.isEmpty()) {
+            return null;
+        }
+        String legType = leg.getLegRateType().getType();
+        if ("Fixed".equals(legType)) {
+            if (leg.getDayCountConvention() == null || leg.getRate() == null) {
+                return null;
+            }
+            Arrays.fill(periodRates, leg.getRate());
+        } else if ("Floating".equals(legType)) {
+            Optional<IndexCurve> curve = indexCurveService.getCurve(leg.getIndex() != null ? leg.getIndex().getIndex() : null);
+            if (curve.isEmpty()) {
+                return null;
+            }
+            // Rates are fixed in advance, at the start of each period
+            long[] fixingDays = new long[paymentDates.size()];
+            fixingDays[0] = startDate.toEpochDay();
+            for (int i = 1; i < fixingDays.length; i++) {
+                fixingDays[i] = paymentDates.get(i - 1).toEpochDay();
+            }
+            curve.get().ratesOn(fixingDays, periodRates);
+        } else {
+            return null;
+        }
+
+        double[] yearFractions;
+        if (leg.getDayCountConvention() != null) {
+            yearFractions = accrualScheduleService
+                    .getSchedule(startDate, maturityDate, monthsInterval, leg.getDayCountConvention(), false)
+                    .getYearFractions();
+        } else {
+            yearFractions = new double[paymentDates.size()];
+            Arrays.fill(yearFractions, monthsInterval / 12.0);
+        }
+
+        double[] decimalRates = new double[periodRates.length];
+        for (int i = 0; i < decimalRates.length; i++) {
+            decimalRates[i] = periodRates[i] / 100;
+        }
+        long[] notionals = new long[periodRates.length];
+        Arrays.fill(notionals, leg.getNotional().movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValueExact());
+        long[] accruals = new long[periodRates.length];
+        AccrualEngine.accrueScaled(notionals, decimalRates, yearFractions, accruals);
+        return accruals;
+    }
+
     private BigDecimal calculateCashflowValue(TradeLeg leg, int monthsInterval) {
         if (leg.getLegRateType() == null) {
             return BigDecimal.ZERO;
@@ -645,9 +943,19 @@ public class TradeService {
         logger.debug("Reference data validation passed for trade");
     }
 
-    // NEW METHOD: Generate the next trade ID (sequential)
+    // Generate the next trade ID (sequential). The counter only moves forward and is re-based on the highest
+    // trade ID in the database, so concurrent bookings and explicitly supplied IDs never produce a duplicate.
     private Long generateNextTradeId() {
-        // For simplicity, using a static variable. In real scenario, this should be atomic and thread-safe.
-        return 10000L + tradeRepository.count();
+        return allocateTradeIds(1);
+    }
+
+    /**
+     * Reserves a block of consecutive trade IDs, for bulk bookings that assign IDs themselves.
+     *
+     * @return the first ID of the block
+     */
+    public long allocateTradeIds(int count) {
+        long maxTradeId = tradeRepository.findMaxTradeId().orElse(0L);
+        return lastGeneratedTradeId.updateAndGet(last -> Math.max(Math.max(last, maxTradeId), FIRST_TRADE_ID - 1) + count) - count + 1;
     }
 }
@@ -0,0 +1,58 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.exception.TradeVersionConflictException;
+import com.technicalchallenge.model.Trade;
+
+/**
+ * Expected trade version taken from an If-Match header.
+ * <p>
+ * A trade's ETag is {@code "<version>.<lockVersion>"}: the business version, which changes on amendment, and the
+ * row lock version, which changes on every update including cancel and terminate. Clients may also send just the
+ * business version from the TradeDTO, in which case only that is checked.
+ */
+public final class TradeVersionPrecondition {
+
+    private final Integer version;
+    private final Long lockVersion;
+
+    public TradeVersionPrecondition(Integer version, Long lockVersion) {
+        this.version = version;
+        this.lockVersion = lockVersion;
+    }
+
+    /**
+     * Parses an If-Match header value, returning null when there is no precondition (absent or {@code *}).
+     */
+    public static TradeVersionPrecondition fromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        value = value.replace("\"", "");
+        try {
+            int separator = value.indexOf('.');
+            if (separator < 0) {
+                return new TradeVersionPrecondition(Integer.valueOf(value), null);
+            }
+            return new TradeVersionPrecondition(Integer.valueOf(value.substring(0, separator)), Long.valueOf(value.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    public static String eTagOf(Trade trade) {
+        return "\"" + (trade.getVersion() != null ? trade.getVersion() : 0) + "." + (trade.getLockVersion() != null ? trade.getLockVersion() : 0L) + "\"";
+    }
+
+    public void check(Trade trade) {
+        boolean versionMatches = version.equals(trade.getVersion());
+        boolean lockVersionMatches = lockVersion == null || lockVersion.equals(trade.getLockVersion());
+        if (!versionMatches || !lockVersionMatches) {
+            throw new TradeVersionConflictException("Trade " + trade.getTradeId() + " has been modified: current version is "
+                    + eTagOf(trade) + " but the request expected \"" + version + (lockVersion != null ? "." + lockVersion : "") + "\"");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.technicalchallenge.service.accrual;
+
+/**
+ * Batch accrual over primitive arrays for large runs (end-of-day accruals, cashflow generation), avoiding a
+ * BigDecimal chain per period. Rates are decimals (0.05 for 5%). The scaled variants work in minor units
+ * (e.g. cents) and round half-even, so results can be turned back into money with BigDecimal.valueOf(value, scale).
+ */
+public final class AccrualEngine {
+
+    private AccrualEngine() {
+    }
+
+    public static void accrue(double[] notionals, double[] rates, double[] yearFractions, double[] accruals) {
+        checkLengths(notionals.length, rates.length, yearFractions.length, accruals.length);
+        for (int i = 0; i < accruals.length; i++) {
+            accruals[i] = notionals[i] * rates[i] * yearFractions[i];
+        }
+    }
+
+    public static void accrueScaled(long[] notionals, double[] rates, double[] yearFractions, long[] accruals) {
+        checkLengths(notionals.length, rates.length, yearFractions.length, accruals.length);
+        for (int i = 0; i < accruals.length; i++) {
+            accruals[i] = (long) Math.rint(notionals[i] * rates[i] * yearFractions[i]);
+        }
+    }
+
+    /**
+     * Accrual of a single notional and rate over every period of a schedule.
+     */
+    public static void accrueScaled(long notional, double rate, double[] yearFractions, long[] accruals) {
+        checkLengths(yearFractions.length, yearFractions.length, yearFractions.length, accruals.length);
+        double notionalTimesRate = notional * rate;
+        for (int i = 0; i < accruals.length; i++) {
+            accruals[i] = (long) Math.rint(notionalTimesRate * yearFractions[i]);
+        }
+    }
+
+    public static long sum(long[] values) {
+        long total = 0;
+        for (long value : values) {
+            total = Math.addExact(total, value);
+        }
+        return total;
+    }
+
+    private static void checkLengths(int notionals, int rates, int yearFractions, int accruals) {
+        if (notionals != accruals || rates != accruals || yearFractions != accruals) {
+            throw new IllegalArgumentException("Accrual arrays must have the same length");
+        }
+    }
+}
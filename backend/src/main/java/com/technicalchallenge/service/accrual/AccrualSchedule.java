@@ -0,0 +1,95 @@
+package com.technicalchallenge.service.accrual;
+
+import com.technicalchallenge.model.DayCountConvention;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable accrual schedule: unadjusted period boundaries as epoch days and the year fraction of every period,
+ * computed once when the schedule is built. The arrays are shared with callers, who must not modify them.
+ */
+public final class AccrualSchedule {
+
+    private final DayCountConvention dayCountConvention;
+    private final long[] periodStartDays;
+    private final long[] periodEndDays;
+    private final double[] yearFractions;
+
+    private AccrualSchedule(DayCountConvention dayCountConvention, long[] periodStartDays, long[] periodEndDays) {
+        this.dayCountConvention = dayCountConvention;
+        this.periodStartDays = periodStartDays;
+        this.periodEndDays = periodEndDays;
+        this.yearFractions = new double[periodEndDays.length];
+        for (int i = 0; i < yearFractions.length; i++) {
+            yearFractions[i] = dayCountConvention.yearFraction(LocalDate.ofEpochDay(periodStartDays[i]), LocalDate.ofEpochDay(periodEndDays[i]));
+        }
+    }
+
+    /**
+     * Builds the schedule by stepping monthsInterval from the start date.
+     *
+     * @param finalStub when true a short final period ends on the maturity date; when false only whole periods
+     *                  ending on or before maturity are generated
+     */
+    public static AccrualSchedule build(LocalDate startDate, LocalDate maturityDate, int monthsInterval,
+                                        DayCountConvention dayCountConvention, boolean finalStub) {
+        if (monthsInterval <= 0) {
+            throw new IllegalArgumentException("Schedule interval must be positive: " + monthsInterval);
+        }
+        long[] starts = new long[16];
+        long[] ends = new long[16];
+        int count = 0;
+        LocalDate periodStart = startDate;
+        LocalDate periodEnd = startDate.plusMonths(monthsInterval);
+        while (finalStub ? periodStart.isBefore(maturityDate) : !periodEnd.isAfter(maturityDate)) {
+            if (periodEnd.isAfter(maturityDate)) {
+                periodEnd = maturityDate;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = periodStart.toEpochDay();
+            ends[count] = periodEnd.toEpochDay();
+            count++;
+            periodStart = periodEnd;
+            periodEnd = periodEnd.plusMonths(monthsInterval);
+        }
+        return new AccrualSchedule(dayCountConvention, Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+    }
+
+    public DayCountConvention getDayCountConvention() {
+        return dayCountConvention;
+    }
+
+    public int size() {
+        return yearFractions.length;
+    }
+
+    public LocalDate getPeriodStart(int period) {
+        return LocalDate.ofEpochDay(periodStartDays[period]);
+    }
+
+    public LocalDate getPeriodEnd(int period) {
+        return LocalDate.ofEpochDay(periodEndDays[period]);
+    }
+
+    public double[] getYearFractions() {
+        return yearFractions;
+    }
+
+    /**
+     * Year fraction accrued in the period containing asOf, or 0 when asOf is outside the schedule.
+     */
+    public double accruedYearFraction(LocalDate asOf) {
+        long day = asOf.toEpochDay();
+        int period = Arrays.binarySearch(periodEndDays, day);
+        // An exact hit on a period end means that period has just paid, so accrual restarts in the next one
+        period = period >= 0 ? period + 1 : -period - 1;
+        if (period >= periodEndDays.length || day < periodStartDays[period]) {
+            return 0.0;
+        }
+        return dayCountConvention.yearFraction(LocalDate.ofEpochDay(periodStartDays[period]), asOf);
+    }
+}
@@ -0,0 +1,69 @@
+package com.technicalchallenge.service.accrual;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.technicalchallenge.model.DayCountConvention;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Caches accrual schedules so the year fractions of a given start, maturity, frequency and day count are computed
+ * once and shared by every leg and generation request that uses them.
+ */
+@Service
+public class AccrualScheduleService {
+
+    private final Cache<ScheduleKey, AccrualSchedule> schedules;
+
+    public AccrualScheduleService(@Value("${trade.accrual.schedule-cache-size:10000}") long cacheSize) {
+        this.schedules = CacheBuilder.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public AccrualSchedule getSchedule(LocalDate startDate, LocalDate maturityDate, int monthsInterval,
+                                       DayCountConvention dayCountConvention, boolean finalStub) {
+        ScheduleKey key = new ScheduleKey(startDate, maturityDate, monthsInterval, dayCountConvention, finalStub);
+        try {
+            return schedules.get(key, () -> AccrualSchedule.build(startDate, maturityDate, monthsInterval, dayCountConvention, finalStub));
+        } catch (ExecutionException e) {
+            throw new IllegalArgumentException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static final class ScheduleKey {
+        private final LocalDate startDate;
+        private final LocalDate maturityDate;
+        private final int monthsInterval;
+        private final DayCountConvention dayCountConvention;
+        private final boolean finalStub;
+
+        private ScheduleKey(LocalDate startDate, LocalDate maturityDate, int monthsInterval,
+                            DayCountConvention dayCountConvention, boolean finalStub) {
+            this.startDate = startDate;
+            this.maturityDate = maturityDate;
+            this.monthsInterval = monthsInterval;
+            this.dayCountConvention = dayCountConvention;
+            this.finalStub = finalStub;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ScheduleKey)) return false;
+            ScheduleKey that = (ScheduleKey) o;
+            return monthsInterval == that.monthsInterval && finalStub == that.finalStub
+                    && startDate.equals(that.startDate) && maturityDate.equals(that.maturityDate)
+                    && dayCountConvention == that.dayCountConvention;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(startDate, maturityDate, monthsInterval, dayCountConvention, finalStub);
+        }
+    }
+}
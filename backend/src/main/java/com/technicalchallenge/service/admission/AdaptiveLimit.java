@@ -0,0 +1,62 @@
+package com.technicalchallenge.service.admission;
+
+/**
+ * Concurrency limit that follows the latency of the requests it admits, after the gradient algorithm of Netflix's
+ * concurrency-limits. A short average of the latency is compared with a long one standing for the latency when
+ * not overloaded: while the short one stays within {@code TOLERANCE} of it the limit grows by about its square
+ * root per sample, and as the short one climbs past it, requests queueing somewhere downstream, the limit shrinks
+ * in proportion. The limit is only raised while it is actually being reached, so a quiet period does not let it
+ * drift up unchecked.
+ */
+final class AdaptiveLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double LONG_WEIGHT = 0.002;
+
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, boolean adaptive) {
+        this.adaptive = adaptive;
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.limit = adaptive ? Math.max(minLimit, Math.min(this.maxLimit, initialLimit)) : initialLimit;
+    }
+
+    synchronized int get() {
+        return (int) limit;
+    }
+
+    /**
+     * @param rttNanos how long an admitted request took
+     * @param inflight requests in flight as it finished, itself included
+     */
+    synchronized void onSample(long rttNanos, int inflight) {
+        if (!adaptive) {
+            return;
+        }
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) * SHORT_WEIGHT;
+        longRttNanos += (shortRttNanos - longRttNanos) * LONG_WEIGHT;
+        // Once the overload has passed, let the long average come back down quickly
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        if (inflight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+}
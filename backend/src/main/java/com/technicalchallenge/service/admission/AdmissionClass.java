@@ -0,0 +1,63 @@
+package com.technicalchallenge.service.admission;
+
+import java.util.Locale;
+
+/**
+ * The classes of trade requests admitted under their own concurrency limit, so a burst of one kind, say bookings,
+ * cannot take the threads and connections the others need. Bulk requests, imports and the jobs run over the whole
+ * portfolio, take minutes rather than milliseconds: their limit stays fixed, as their latency says nothing about
+ * overload.
+ */
+public enum AdmissionClass {
+    BOOKING(true),
+    AMENDMENT(true),
+    REPORTING(true),
+    SEARCH(true),
+    BULK(false);
+
+    private static final String TRADES = "/api/trades";
+
+    private final boolean adaptive;
+
+    AdmissionClass(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * @param method HTTP method of the request
+     * @param path request path, without the context path
+     * @return the class the request is admitted under, or null when it is not limited
+     */
+    public static AdmissionClass of(String method, String path) {
+        if (method.equals("POST") && (path.equals(TRADES + "/import") || path.startsWith("/api/exports")
+                || path.equals("/api/settlements/net") || path.equals("/api/valuations/runs"))) {
+            return BULK;
+        }
+        if (path.startsWith("/api/valuations") || path.startsWith("/api/settlements")
+                || path.startsWith("/api/exports") || path.equals("/api/cashflows/ladder")) {
+            return REPORTING;
+        }
+        if (!path.equals(TRADES) && !path.startsWith(TRADES + "/")) {
+            return null;
+        }
+        String rest = path.substring(TRADES.length());
+        return switch (method) {
+            case "POST" -> rest.isEmpty() ? BOOKING : AMENDMENT;
+            case "PUT", "DELETE", "PATCH" -> AMENDMENT;
+            case "GET" -> rest.endsWith("summary") || rest.equals("/my-trades") || rest.startsWith("/book/")
+                    ? REPORTING : SEARCH;
+            default -> null;
+        };
+    }
+
+    /**
+     * Whether the limit of the class follows the latency of its requests, when adaptive limits are on.
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
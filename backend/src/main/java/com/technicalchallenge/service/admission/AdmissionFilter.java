@@ -0,0 +1,179 @@
+package com.technicalchallenge.service.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.technicalchallenge.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the trade endpoints. Each {@link AdmissionClass} of request runs under its own
+ * {@link AdmissionLimiter}; a request it cannot admit gets a {@code 429} with a {@code Retry-After} header at once,
+ * before authentication or any other work is spent on it. Requests outside the classes are not limited.
+ * <p>
+ * Per class, the limit, requests in flight and requests queued are exported as the {@code admission.limit},
+ * {@code admission.inflight} and {@code admission.queue.depth} gauges, time spent queued as
+ * {@code admission.queue.wait} and rejections, by reason, as {@code admission.rejected}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionFilter.class);
+
+    private static final int DEFAULT_LIMIT = 8;
+
+    private final boolean enabled;
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final Map<AdmissionClass, AdmissionLimiter> limiters = new EnumMap<>(AdmissionClass.class);
+    private final Map<AdmissionClass, Timer> queueWaits = new EnumMap<>(AdmissionClass.class);
+    private final Map<AdmissionClass, Map<AdmissionLimiter.Rejection, Counter>> rejections =
+            new EnumMap<>(AdmissionClass.class);
+
+    // Web slices have no meter registry, the global one stands in there
+    public AdmissionFilter(ObjectProvider<MeterRegistry> meterRegistry,
+                           ObjectProvider<ObjectMapper> objectMapper,
+                           @Value("${trade.admission.enabled:true}") boolean enabled,
+                           @Value("${trade.admission.adaptive:true}") boolean adaptive,
+                           @Value("${trade.admission.limits:}") String limits,
+                           @Value("${trade.admission.min-limit:2}") int minLimit,
+                           @Value("${trade.admission.max-limit:64}") int maxLimit,
+                           @Value("${trade.admission.queue-size:16}") int queueSize,
+                           @Value("${trade.admission.queue-timeout-ms:1000}") long queueTimeoutMillis,
+                           @Value("${trade.admission.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.objectMapper = objectMapper.getIfAvailable(() -> JsonMapper.builder().findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Map<AdmissionClass, Integer> initialLimits = parseLimits(limits);
+        for (AdmissionClass admissionClass : AdmissionClass.values()) {
+            AdmissionLimiter limiter = new AdmissionLimiter(admissionClass,
+                    new AdaptiveLimit(initialLimits.getOrDefault(admissionClass, DEFAULT_LIMIT), minLimit, maxLimit,
+                            adaptive && admissionClass.isAdaptive()),
+                    queueSize, queueTimeoutMillis);
+            limiters.put(admissionClass, limiter);
+            String tag = admissionClass.key();
+            Gauge.builder("admission.limit", limiter, AdmissionLimiter::getLimit)
+                    .description("Requests admitted at once")
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("admission.inflight", limiter, AdmissionLimiter::getInflight)
+                    .description("Requests admitted and not yet finished")
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("admission.queue.depth", limiter, AdmissionLimiter::getQueued)
+                    .description("Requests waiting to be admitted")
+                    .tag("class", tag)
+                    .register(registry);
+            queueWaits.put(admissionClass, Timer.builder("admission.queue.wait")
+                    .description("Time requests waited to be admitted or rejected")
+                    .tag("class", tag)
+                    .register(registry));
+            Map<AdmissionLimiter.Rejection, Counter> counters = new EnumMap<>(AdmissionLimiter.Rejection.class);
+            for (AdmissionLimiter.Rejection reason : AdmissionLimiter.Rejection.values()) {
+                counters.put(reason, Counter.builder("admission.rejected")
+                        .description("Requests turned away with 429")
+                        .tag("class", tag)
+                        .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                        .register(registry));
+            }
+            rejections.put(admissionClass, counters);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || admissionClass(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdmissionLimiter limiter = limiters.get(admissionClass(request));
+        long start = System.nanoTime();
+        AdmissionLimiter.Rejection rejection;
+        try {
+            rejection = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejection = AdmissionLimiter.Rejection.QUEUE_TIMEOUT;
+        }
+        long admitted = System.nanoTime();
+        queueWaits.get(limiter.getAdmissionClass()).record(admitted - start, TimeUnit.NANOSECONDS);
+        if (rejection != null) {
+            reject(request, response, limiter, rejection);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - admitted);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, AdmissionLimiter limiter,
+                        AdmissionLimiter.Rejection rejection) throws IOException {
+        rejections.get(limiter.getAdmissionClass()).get(rejection).increment();
+        logger.debug("Rejected {} {} ({}): limit {}, {} in flight, {} queued", request.getMethod(),
+                request.getRequestURI(), rejection, limiter.getLimit(), limiter.getInflight(), limiter.getQueued());
+
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(), status.getReasonPhrase(),
+                "Too many " + limiter.getAdmissionClass().key() + " requests in progress, please retry",
+                OffsetDateTime.now()));
+    }
+
+    private static AdmissionClass admissionClass(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return AdmissionClass.of(request.getMethod(), path);
+    }
+
+    // booking=8;amendment=8;reporting=4;search=16;bulk=2
+    private static Map<AdmissionClass, Integer> parseLimits(String limits) {
+        Map<AdmissionClass, Integer> parsed = new EnumMap<>(AdmissionClass.class);
+        for (String entry : limits.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid admission limit '" + entry + "', expected class=limit");
+            }
+            parsed.put(AdmissionClass.valueOf(entry.substring(0, separator).trim().toUpperCase(Locale.ROOT)),
+                    Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,110 @@
+package com.technicalchallenge.service.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits the requests of one {@link AdmissionClass} up to its current limit. Requests over the limit wait, in a
+ * queue of bounded size and for a bounded time, for one in flight to finish; when the queue is full or the wait
+ * runs out they are rejected, so a burst is turned away straight off instead of piling up on threads and
+ * connections until everything times out together.
+ */
+public class AdmissionLimiter {
+
+    public enum Rejection {
+        QUEUE_FULL,
+        QUEUE_TIMEOUT
+    }
+
+    private final AdmissionClass admissionClass;
+    private final AdaptiveLimit limit;
+    private final int queueSize;
+    private final long queueTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private int inflight;
+    private int queued;
+
+    AdmissionLimiter(AdmissionClass admissionClass, AdaptiveLimit limit, int queueSize, long queueTimeoutMillis) {
+        this.admissionClass = admissionClass;
+        this.limit = limit;
+        this.queueSize = queueSize;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+    }
+
+    /**
+     * Admits a request, waiting in the queue if the limit is reached. An admitted request must be released.
+     * @return null once admitted, or why the request was rejected
+     */
+    public Rejection acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            if (inflight < limit.get()) {
+                inflight++;
+                return null;
+            }
+            if (queued >= queueSize) {
+                return Rejection.QUEUE_FULL;
+            }
+            queued++;
+            try {
+                long remaining = queueTimeoutNanos;
+                while (inflight >= limit.get()) {
+                    if (remaining <= 0) {
+                        return Rejection.QUEUE_TIMEOUT;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inflight++;
+                return null;
+            } finally {
+                queued--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases an admitted request, feeding how long it took into the limit. Every queued request is woken, as the
+     * limit may have grown since they were queued and have room for more than one of them.
+     */
+    public void release(long elapsedNanos) {
+        int load;
+        lock.lock();
+        try {
+            load = inflight--;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        limit.onSample(elapsedNanos, load);
+    }
+
+    public AdmissionClass getAdmissionClass() {
+        return admissionClass;
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInflight() {
+        lock.lock();
+        try {
+            return inflight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.technicalchallenge.service.bulkimport;
+
+import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts new trades with their legs and cashflows as JDBC batches.
+ * <p>
+ * Going through JPA costs a round trip per row for the identity of every trade, leg and cashflow, which dominates
+ * a bulk load. Here each table is written in batches instead, reading the generated ids back from each batch so
+ * the legs can reference their trade and the cashflows their leg. The generated ids are set on the entities,
+ * which stay detached. Runs in the caller's transaction.
+ */
+@Component
+public class TradeBulkWriter {
+
+    private static final String INSERT_TRADE_SQL = "INSERT INTO trade "
+            + "(trade_id, version, lock_version, book_id, counterparty_id, trader_user_id, inputter_user_id, "
+            + "trade_type_id, trade_sub_type_id, trade_status_id, uti_code, trade_date, trade_start_date, "
+            + "trade_maturity_date, trade_execution_date, last_touch_timestamp, validity_start_date, active, created_date) "
+            + "VALUES (?, ?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LEG_SQL = "INSERT INTO trade_leg "
+            + "(trade_id, notional, rate, currency_id, leg_rate_type_id, index_id, holiday_calendar_id, "
+            + "calculation_period_schedule_id, payment_business_day_convention_id, fixing_business_day_convention_id, "
+            + "pay_rec_id, day_count_convention, active, created_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CASHFLOW_SQL = "INSERT INTO cashflow "
+            + "(leg_id, payment_value, value_date, rate, pay_rec_id, payment_type_id, payment_business_day_convention_id, "
+            + "active, created_date, validity_start_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public TradeBulkWriter(DataSource dataSource,
+                           @Value("${trade.import.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts the trades, their {@link Trade#getTradeLegs() legs} and the legs' {@link TradeLeg#getCashflows()
+     * cashflows}. Reference data only needs its id.
+     *
+     * @return the number of cashflows inserted
+     */
+    public int write(List<Trade> trades) {
+        List<TradeLeg> legs = new ArrayList<>();
+        List<Cashflow> cashflows = new ArrayList<>();
+        for (Trade trade : trades) {
+            for (TradeLeg leg : trade.getTradeLegs()) {
+                legs.add(leg);
+                if (leg.getCashflows() != null) {
+                    cashflows.addAll(leg.getCashflows());
+                }
+            }
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            insert(connection, INSERT_TRADE_SQL, "id", trades, TradeBulkWriter::bindTrade, Trade::setId);
+            insert(connection, INSERT_LEG_SQL, "leg_id", legs, TradeBulkWriter::bindLeg, TradeLeg::setLegId);
+            insert(connection, INSERT_CASHFLOW_SQL, "id", cashflows, TradeBulkWriter::bindCashflow, Cashflow::setId);
+            return null;
+        });
+        return cashflows.size();
+    }
+
+    private <T> void insert(Connection connection, String sql, String keyColumn, List<T> rows, Binder<T> binder,
+                            IdSetter<T> idSetter) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql, new String[]{keyColumn})) {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                List<T> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+                for (T row : batch) {
+                    binder.bind(statement, row);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (T row : batch) {
+                        if (!keys.next()) {
+                            throw new SQLException("Missing generated key for " + keyColumn);
+                        }
+                        idSetter.set(row, keys.getLong(1));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void bindTrade(PreparedStatement statement, Trade trade) throws SQLException {
+        int i = 1;
+        statement.setLong(i++, trade.getTradeId());
+        statement.setInt(i++, trade.getVersion());
+        setId(statement, i++, trade.getBook() != null ? trade.getBook().getId() : null);
+        setId(statement, i++, trade.getCounterparty() != null ? trade.getCounterparty().getId() : null);
+        setId(statement, i++, trade.getTraderUser() != null ? trade.getTraderUser().getId() : null);
+        setId(statement, i++, trade.getTradeInputterUser() != null ? trade.getTradeInputterUser().getId() : null);
+        setId(statement, i++, trade.getTradeType() != null ? trade.getTradeType().getId() : null);
+        setId(statement, i++, trade.getTradeSubType() != null ? trade.getTradeSubType().getId() : null);
+        setId(statement, i++, trade.getTradeStatus() != null ? trade.getTradeStatus().getId() : null);
+        statement.setString(i++, trade.getUtiCode());
+        setDate(statement, i++, trade.getTradeDate());
+        setDate(statement, i++, trade.getTradeStartDate());
+        setDate(statement, i++, trade.getTradeMaturityDate());
+        setDate(statement, i++, trade.getTradeExecutionDate());
+        setTimestamp(statement, i++, trade.getLastTouchTimestamp());
+        setDate(statement, i++, trade.getValidityStartDate());
+        statement.setBoolean(i++, !Boolean.FALSE.equals(trade.getActive()));
+        setTimestamp(statement, i, trade.getCreatedDate());
+    }
+
+    private static void bindLeg(PreparedStatement statement, TradeLeg leg) throws SQLException {
+        int i = 1;
+        statement.setLong(i++, leg.getTrade().getId());
+        statement.setBigDecimal(i++, leg.getNotional());
+        if (leg.getRate() != null) {
+            statement.setDouble(i++, leg.getRate());
+        } else {
+            statement.setNull(i++, Types.DOUBLE);
+        }
+        setId(statement, i++, leg.getCurrency() != null ? leg.getCurrency().getId() : null);
+        setId(statement, i++, leg.getLegRateType() != null ? leg.getLegRateType().getId() : null);
+        setId(statement, i++, leg.getIndex() != null ? leg.getIndex().getId() : null);
+        setId(statement, i++, leg.getHolidayCalendar() != null ? leg.getHolidayCalendar().getId() : null);
+        setId(statement, i++, leg.getCalculationPeriodSchedule() != null ? leg.getCalculationPeriodSchedule().getId() : null);
+        setId(statement, i++, leg.getPaymentBusinessDayConvention() != null ? leg.getPaymentBusinessDayConvention().getId() : null);
+        setId(statement, i++, leg.getFixingBusinessDayConvention() != null ? leg.getFixingBusinessDayConvention().getId() : null);
+        setId(statement, i++, leg.getPayReceiveFlag() != null ? leg.getPayReceiveFlag().getId() : null);
+        statement.setString(i++, leg.getDayCountConvention() != null ? leg.getDayCountConvention().name() : null);
+        statement.setBoolean(i++, !Boolean.FALSE.equals(leg.getActive()));
+        setTimestamp(statement, i, leg.getCreatedDate());
+    }
+
+    private static void bindCashflow(PreparedStatement statement, Cashflow cashflow) throws SQLException {
+        int i = 1;
+        statement.setLong(i++, cashflow.getTradeLeg().getLegId());
+        statement.setBigDecimal(i++, cashflow.getPaymentValue());
+        setDate(statement, i++, cashflow.getValueDate());
+        if (cashflow.getRate() != null) {
+            statement.setDouble(i++, cashflow.getRate());
+        } else {
+            statement.setNull(i++, Types.DOUBLE);
+        }
+        setId(statement, i++, cashflow.getPayRec() != null ? cashflow.getPayRec().getId() : null);
+        setId(statement, i++, cashflow.getPaymentType() != null ? cashflow.getPaymentType().getId() : null);
+        setId(statement, i++, cashflow.getPaymentBusinessDayConvention() != null ? cashflow.getPaymentBusinessDayConvention().getId() : null);
+        statement.setBoolean(i++, !Boolean.FALSE.equals(cashflow.getActive()));
+        setTimestamp(statement, i++, cashflow.getCreatedDate());
+        setDate(statement, i, cashflow.getValidityStartDate());
+    }
+
+    private static void setId(PreparedStatement statement, int index, Long id) throws SQLException {
+        if (id != null) {
+            statement.setLong(index, id);
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static void setDate(PreparedStatement statement, int index, LocalDate date) throws SQLException {
+        if (date != null) {
+            statement.setDate(index, Date.valueOf(date));
+        } else {
+            statement.setNull(index, Types.DATE);
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement statement, int index, LocalDateTime timestamp) throws SQLException {
+        if (timestamp != null) {
+            statement.setTimestamp(index, Timestamp.valueOf(timestamp));
+        } else {
+            statement.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Binder<T> {
+        void bind(PreparedStatement statement, T row) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface IdSetter<T> {
+        void set(T row, long id);
+    }
+}
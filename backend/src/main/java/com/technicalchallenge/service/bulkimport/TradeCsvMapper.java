@@ -0,0 +1,155 @@
+package com.technicalchallenge.service.bulkimport;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Maps CSV records to {@link TradeDTO}s by header name. Each record is one trade: trade columns are named after
+ * the DTO properties, e.g. {@code bookName}, and leg columns carry a {@code leg1.} or {@code leg2.} prefix,
+ * e.g. {@code leg1.notional}. Dates are ISO dates and empty cells leave the property unset.
+ */
+public class TradeCsvMapper {
+
+    public static final String LEG_PREFIX = "leg";
+    public static final int LEG_COUNT = 2;
+
+    private static final Map<String, BiConsumer<TradeDTO, String>> TRADE_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, BiConsumer<TradeLegDTO, String>> LEG_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        TRADE_COLUMNS.put("tradeId", (trade, value) -> trade.setTradeId(Long.valueOf(value)));
+        TRADE_COLUMNS.put("tradeDate", (trade, value) -> trade.setTradeDate(LocalDate.parse(value)));
+        TRADE_COLUMNS.put("tradeStartDate", (trade, value) -> trade.setTradeStartDate(LocalDate.parse(value)));
+        TRADE_COLUMNS.put("tradeMaturityDate", (trade, value) -> trade.setTradeMaturityDate(LocalDate.parse(value)));
+        TRADE_COLUMNS.put("tradeExecutionDate", (trade, value) -> trade.setTradeExecutionDate(LocalDate.parse(value)));
+        TRADE_COLUMNS.put("utiCode", TradeDTO::setUtiCode);
+        TRADE_COLUMNS.put("bookName", TradeDTO::setBookName);
+        TRADE_COLUMNS.put("counterpartyName", TradeDTO::setCounterpartyName);
+        TRADE_COLUMNS.put("traderUserName", TradeDTO::setTraderUserName);
+        TRADE_COLUMNS.put("inputterUserName", TradeDTO::setInputterUserName);
+        TRADE_COLUMNS.put("tradeType", TradeDTO::setTradeType);
+        TRADE_COLUMNS.put("tradeSubType", TradeDTO::setTradeSubType);
+        TRADE_COLUMNS.put("tradeStatus", TradeDTO::setTradeStatus);
+
+        LEG_COLUMNS.put("notional", (leg, value) -> leg.setNotional(new BigDecimal(value)));
+        LEG_COLUMNS.put("rate", (leg, value) -> leg.setRate(Double.valueOf(value)));
+        LEG_COLUMNS.put("currency", TradeLegDTO::setCurrency);
+        LEG_COLUMNS.put("legType", TradeLegDTO::setLegType);
+        LEG_COLUMNS.put("indexName", TradeLegDTO::setIndexName);
+        LEG_COLUMNS.put("holidayCalendar", TradeLegDTO::setHolidayCalendar);
+        LEG_COLUMNS.put("calculationPeriodSchedule", TradeLegDTO::setCalculationPeriodSchedule);
+        LEG_COLUMNS.put("paymentBusinessDayConvention", TradeLegDTO::setPaymentBusinessDayConvention);
+        LEG_COLUMNS.put("fixingBusinessDayConvention", TradeLegDTO::setFixingBusinessDayConvention);
+        LEG_COLUMNS.put("dayCountConvention", TradeLegDTO::setDayCountConvention);
+        LEG_COLUMNS.put("payReceiveFlag", TradeLegDTO::setPayReceiveFlag);
+    }
+
+    private final String[] names;
+    private final List<BiConsumer<TradeDTO, String>> tradeSetters;
+    private final List<BiConsumer<TradeLegDTO, String>> legSetters;
+    private final int[] legIndexes;
+
+    /**
+     * @throws IllegalArgumentException when a column is unknown or repeated
+     */
+    public TradeCsvMapper(String[] header) {
+        names = new String[header.length];
+        tradeSetters = new ArrayList<>(header.length);
+        legSetters = new ArrayList<>(header.length);
+        legIndexes = new int[header.length];
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i].trim();
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            if (!seen.add(name)) {
+                throw new IllegalArgumentException("Duplicate column: " + name);
+            }
+            names[i] = name;
+            legIndexes[i] = -1;
+            tradeSetters.add(TRADE_COLUMNS.get(name));
+            if (tradeSetters.get(i) != null) {
+                legSetters.add(null);
+                continue;
+            }
+            int dot = name.indexOf('.');
+            if (name.startsWith(LEG_PREFIX) && dot > LEG_PREFIX.length()) {
+                String property = name.substring(dot + 1);
+                int leg = parseLegNumber(name.substring(LEG_PREFIX.length(), dot));
+                if (leg >= 1 && leg <= LEG_COUNT && LEG_COLUMNS.containsKey(property)) {
+                    legSetters.add(LEG_COLUMNS.get(property));
+                    legIndexes[i] = leg - 1;
+                    continue;
+                }
+            }
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+    }
+
+    /**
+     * @throws InvalidValueException when a cell cannot be converted to its property type
+     */
+    public TradeDTO map(String[] values) {
+        TradeDTO trade = new TradeDTO();
+        List<TradeLegDTO> legs = new ArrayList<>(LEG_COUNT);
+        for (int i = 0; i < LEG_COUNT; i++) {
+            legs.add(new TradeLegDTO());
+        }
+        if (values.length > names.length) {
+            throw new InvalidValueException(null, "Expected " + names.length + " columns but found " + values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i].trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                if (tradeSetters.get(i) != null) {
+                    tradeSetters.get(i).accept(trade, value);
+                } else {
+                    legSetters.get(i).accept(legs.get(legIndexes[i]), value);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new InvalidValueException(names[i], "Invalid value '" + value + "' for " + names[i]);
+            }
+        }
+        trade.setTradeLegs(legs);
+        return trade;
+    }
+
+    private static int parseLegNumber(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A cell that does not convert to its property type.
+     */
+    public static class InvalidValueException extends IllegalArgumentException {
+        private final String column;
+
+        public InvalidValueException(String column, String message) {
+            super(message);
+            this.column = column;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+    }
+}
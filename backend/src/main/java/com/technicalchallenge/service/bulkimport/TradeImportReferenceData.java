@@ -0,0 +1,188 @@
+package com.technicalchallenge.service.bulkimport;
+
+import com.technicalchallenge.model.*;
+import com.technicalchallenge.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Loads the reference data an import resolves names against. Each import takes one {@link Snapshot} up front,
+ * so rows are resolved from memory on any thread instead of with a repository lookup per name.
+ */
+@Component
+public class TradeImportReferenceData {
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private CounterpartyRepository counterpartyRepository;
+    @Autowired
+    private TradeStatusRepository tradeStatusRepository;
+    @Autowired
+    private ApplicationUserRepository applicationUserRepository;
+    @Autowired
+    private TradeTypeRepository tradeTypeRepository;
+    @Autowired
+    private TradeSubTypeRepository tradeSubTypeRepository;
+    @Autowired
+    private CurrencyRepository currencyRepository;
+    @Autowired
+    private LegTypeRepository legTypeRepository;
+    @Autowired
+    private IndexRepository indexRepository;
+    @Autowired
+    private HolidayCalendarRepository holidayCalendarRepository;
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+    @Autowired
+    private BusinessDayConventionRepository businessDayConventionRepository;
+    @Autowired
+    private PayRecRepository payRecRepository;
+
+    @Transactional(readOnly = true)
+    public Snapshot load() {
+        List<ApplicationUser> users = applicationUserRepository.findAll();
+        List<TradeSubType> subTypes = tradeSubTypeRepository.findAll();
+        return new Snapshot(
+                index(bookRepository.findAll(), Book::getBookName),
+                index(counterpartyRepository.findAll(), Counterparty::getName),
+                index(tradeStatusRepository.findAll(), TradeStatus::getTradeStatus),
+                index(users, ApplicationUser::getFirstName),
+                index(users, ApplicationUser::getLoginId),
+                index(tradeTypeRepository.findAll(), TradeType::getTradeType),
+                index(subTypes, TradeSubType::getTradeSubType),
+                index(subTypes, subType -> lowerCase(subType.getTradeSubType())),
+                index(currencyRepository.findAll(), Currency::getCurrency),
+                index(legTypeRepository.findAll(), LegType::getType),
+                index(indexRepository.findAll(), Index::getIndex),
+                index(holidayCalendarRepository.findAll(), HolidayCalendar::getHolidayCalendar),
+                index(scheduleRepository.findAll(), Schedule::getSchedule),
+                index(businessDayConventionRepository.findAll(), BusinessDayConvention::getBdc),
+                index(payRecRepository.findAll(), PayRec::getPayRec));
+    }
+
+    // The first entity wins when names repeat, which is what a lookup by name would return
+    private static <T> Map<String, T> index(List<T> entities, Function<T, String> name) {
+        Map<String, T> result = new HashMap<>();
+        for (T entity : entities) {
+            String key = name.apply(entity);
+            if (key != null) {
+                result.putIfAbsent(key, entity);
+            }
+        }
+        return Map.copyOf(result);
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable name lookups, resolving the same way as {@code TradeService} does when booking a single trade.
+     * Every lookup returns null for an unknown name.
+     */
+    public static final class Snapshot {
+        private final Map<String, Book> books;
+        private final Map<String, Counterparty> counterparties;
+        private final Map<String, TradeStatus> tradeStatuses;
+        private final Map<String, ApplicationUser> usersByFirstName;
+        private final Map<String, ApplicationUser> usersByLoginId;
+        private final Map<String, TradeType> tradeTypes;
+        private final Map<String, TradeSubType> tradeSubTypes;
+        private final Map<String, TradeSubType> tradeSubTypesIgnoringCase;
+        private final Map<String, Currency> currencies;
+        private final Map<String, LegType> legTypes;
+        private final Map<String, Index> indexes;
+        private final Map<String, HolidayCalendar> holidayCalendars;
+        private final Map<String, Schedule> schedules;
+        private final Map<String, BusinessDayConvention> businessDayConventions;
+        private final Map<String, PayRec> payRecs;
+
+        Snapshot(Map<String, Book> books, Map<String, Counterparty> counterparties,
+                 Map<String, TradeStatus> tradeStatuses, Map<String, ApplicationUser> usersByFirstName,
+                 Map<String, ApplicationUser> usersByLoginId, Map<String, TradeType> tradeTypes,
+                 Map<String, TradeSubType> tradeSubTypes, Map<String, TradeSubType> tradeSubTypesIgnoringCase,
+                 Map<String, Currency> currencies, Map<String, LegType> legTypes, Map<String, Index> indexes,
+                 Map<String, HolidayCalendar> holidayCalendars, Map<String, Schedule> schedules,
+                 Map<String, BusinessDayConvention> businessDayConventions, Map<String, PayRec> payRecs) {
+            this.books = books;
+            this.counterparties = counterparties;
+            this.tradeStatuses = tradeStatuses;
+            this.usersByFirstName = usersByFirstName;
+            this.usersByLoginId = usersByLoginId;
+            this.tradeTypes = tradeTypes;
+            this.tradeSubTypes = tradeSubTypes;
+            this.tradeSubTypesIgnoringCase = tradeSubTypesIgnoringCase;
+            this.currencies = currencies;
+            this.legTypes = legTypes;
+            this.indexes = indexes;
+            this.holidayCalendars = holidayCalendars;
+            this.schedules = schedules;
+            this.businessDayConventions = businessDayConventions;
+            this.payRecs = payRecs;
+        }
+
+        public Book book(String name) {
+            return books.get(name);
+        }
+
+        public Counterparty counterparty(String name) {
+            return counterparties.get(name);
+        }
+
+        public TradeStatus tradeStatus(String name) {
+            return tradeStatuses.get(name);
+        }
+
+        // By first name, then by login id, as user names are given either way
+        public ApplicationUser user(String name) {
+            String firstName = name.trim().split("\\s+")[0];
+            ApplicationUser user = usersByFirstName.get(firstName);
+            return user != null ? user : usersByLoginId.get(lowerCase(name));
+        }
+
+        public TradeType tradeType(String name) {
+            return tradeTypes.get(name);
+        }
+
+        public TradeSubType tradeSubType(String name) {
+            TradeSubType subType = tradeSubTypes.get(name);
+            return subType != null ? subType : tradeSubTypesIgnoringCase.get(lowerCase(name));
+        }
+
+        public Currency currency(String name) {
+            return currencies.get(name);
+        }
+
+        public LegType legType(String name) {
+            return legTypes.get(name);
+        }
+
+        public Index index(String name) {
+            return indexes.get(name);
+        }
+
+        public HolidayCalendar holidayCalendar(String name) {
+            return holidayCalendars.get(name);
+        }
+
+        public Schedule schedule(String name) {
+            return schedules.get(name);
+        }
+
+        public BusinessDayConvention businessDayConvention(String name) {
+            return businessDayConventions.get(name);
+        }
+
+        public PayRec payRec(String name) {
+            return payRecs.get(name);
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.technicalchallenge.service.bulkimport;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeImportErrorDTO;
+import com.technicalchallenge.dto.TradeImportResultDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.event.TradeEvent;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.model.DayCountConvention;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.service.TradeService;
+import com.technicalchallenge.service.tracing.Tracer;
+import com.technicalchallenge.service.validation.TradeBatchValidator;
+import com.technicalchallenge.service.validation.ValidationResult;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.technicalchallenge.logging.LogMarkers.PER_ROW;
+
+/**
+ * Books trades in bulk from a CSV file laid out as described in {@link TradeCsvMapper}.
+ * <p>
+ * The file is read forward in chunks. Each chunk is mapped on a fork-join pool, one row per task, then validated
+ * with the same privilege and business rule checks as a single booking by {@link TradeBatchValidator}, which costs
+ * a fixed number of queries per chunk, and its trades, legs and cashflows are built off the database. Valid trades
+ * are then written by {@link TradeBulkWriter} in one transaction per chunk, which also publishes their
+ * {@code CREATED} events. The next chunk is validated while the previous one is written, so only a couple of chunks
+ * are ever in memory. Invalid rows are reported line by line and do not stop the import.
+ * <p>
+ * Trades are not booked through {@link TradeService#createTrade}. Their {@code CREATED} events still drive the
+ * outbox, the journal and settlement netting as a single booking does, but the per-booking lifecycle and cashflow
+ * generation metrics and flight recorder events are not recorded; the import result reports its own throughput
+ * and chunk write latencies instead.
+ */
+@Service
+public class TradeImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeImportService.class);
+
+    private static final String EXISTING_TRADE_IDS_SQL = "SELECT trade_id FROM trade WHERE trade_id IN (:tradeIds)";
+
+    private final TradeImportReferenceData referenceData;
+    private final TradeBulkWriter bulkWriter;
+    private final TradeService tradeService;
+    private final TradeBatchValidator tradeBatchValidator;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final ForkJoinPool pool;
+
+    public TradeImportService(TradeImportReferenceData referenceData,
+                              TradeBulkWriter bulkWriter,
+                              TradeService tradeService,
+                              TradeBatchValidator tradeBatchValidator,
+                              Validator validator,
+                              ApplicationEventPublisher eventPublisher,
+                              DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${trade.import.chunk-size:1000}") int chunkSize,
+                              @Value("${trade.import.parallelism:0}") int parallelism,
+                              @Value("${trade.import.max-errors:1000}") int maxErrors) {
+        this.referenceData = referenceData;
+        this.bulkWriter = bulkWriter;
+        this.tradeService = tradeService;
+        this.tradeBatchValidator = tradeBatchValidator;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(), forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("trade-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Imports every trade in the CSV input. Trades without a {@code tradeId} are given the next free ones.
+     *
+     * @param source name of the input, recorded on the trade events
+     * @throws IllegalArgumentException when the input is empty or its header is not valid
+     */
+    public TradeImportResultDTO importCsv(Reader input, String source) throws IOException {
+        long start = System.nanoTime();
+        TradeCsvReader csv = new TradeCsvReader(input);
+        String[] header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("The file is empty");
+        }
+        TradeCsvMapper mapper = new TradeCsvMapper(header);
+        TradeImportReferenceData.Snapshot snapshot = referenceData.load();
+        logger.info("Importing trades from {}", source);
+
+        Import state = new Import(source);
+        CompletableFuture<List<Row>> pending = null;
+        List<Row> chunk;
+        while (!(chunk = readChunk(csv, state)).isEmpty()) {
+            CompletableFuture<List<Row>> prepared = prepare(chunk, mapper, snapshot, state);
+            if (pending != null) {
+                write(join(pending), state);
+            }
+            pending = prepared;
+        }
+        if (pending != null) {
+            write(join(pending), state);
+        }
+
+        TradeImportResultDTO result = state.toResult(System.nanoTime() - start);
+        logger.info("Imported {} of {} trades from {} in {} ms, {} rejected", result.getImportedCount(),
+                result.getRowCount(), source, result.getElapsedMs(), result.getRejectedCount());
+        return result;
+    }
+
+    // A quote left open runs to the end of the input, so it ends the import after the rows read so far
+    private List<Row> readChunk(TradeCsvReader csv, Import state) throws IOException {
+        List<Row> rows = new ArrayList<>(chunkSize);
+        if (state.endOfInput) {
+            return rows;
+        }
+        try {
+            String[] values;
+            while (rows.size() < chunkSize && (values = csv.next()) != null) {
+                rows.add(new Row(csv.getLineNumber(), values));
+            }
+            if (rows.size() < chunkSize) {
+                state.endOfInput = true;
+            }
+        } catch (IllegalArgumentException e) {
+            state.endOfInput = true;
+            state.rowCount++;
+            state.reject(List.of(new TradeImportErrorDTO(csv.getLineNumber(), null, null, e.getMessage())));
+        }
+        return rows;
+    }
+
+    private CompletableFuture<List<Row>> prepare(List<Row> chunk, TradeCsvMapper mapper,
+                                                 TradeImportReferenceData.Snapshot snapshot, Import state) {
+        return CompletableFuture.supplyAsync(Tracer.wrapSupplier("TradeImportService.prepare", () -> {
+            long start = System.nanoTime();
+            chunk.parallelStream().forEach(row -> guard(row, state, () -> map(row, mapper)));
+
+            List<Row> mapped = chunk.stream().filter(row -> row.dto != null && row.errors.isEmpty()).toList();
+            List<ValidationResult> results;
+            try {
+                results = tradeBatchValidator.validateTrades(mapped.stream().map(row -> row.dto).toList(), "CREATE");
+            } catch (RuntimeException e) {
+                logger.warn("Failed to validate {} lines of {}", mapped.size(), state.source, e);
+                mapped.forEach(row -> row.addError(null, "Could not be processed: " + e.getMessage()));
+                results = List.of();
+            }
+            List<ValidationResult> validationResults = results;
+            IntStream.range(0, validationResults.size()).parallel().forEach(i -> {
+                Row row = mapped.get(i);
+                guard(row, state, () -> build(row, validationResults.get(i), snapshot));
+            });
+            state.prepareNanos.addAndGet(System.nanoTime() - start);
+            return chunk;
+        }), pool);
+    }
+
+    // A row that fails unexpectedly is rejected on its own rather than failing the chunk
+    private static void guard(Row row, Import state, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            logger.warn(PER_ROW, "Failed to prepare line {} of {}", row.line, state.source, e);
+            row.trade = null;
+            row.addError(null, "Could not be processed: " + e.getMessage());
+        }
+    }
+
+    private static List<Row> join(CompletableFuture<List<Row>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Maps one row, recording why it was rejected instead when a value is missing or does not convert
+    private void map(Row row, TradeCsvMapper mapper) {
+        TradeDTO dto;
+        try {
+            dto = mapper.map(row.values);
+        } catch (TradeCsvMapper.InvalidValueException e) {
+            row.errors.add(new TradeImportErrorDTO(row.line, null, e.getColumn(), e.getMessage()));
+            return;
+        }
+        row.dto = dto;
+        checkRequired(row, dto);
+    }
+
+    // Builds the trade of a validated row, or records why it was rejected
+    private void build(Row row, ValidationResult validationResult, TradeImportReferenceData.Snapshot snapshot) {
+        if (!validationResult.isValid()) {
+            validationResult.getErrors().forEach(row::addError);
+            return;
+        }
+
+        TradeDTO dto = row.dto;
+        Trade trade = buildTrade(row, dto, snapshot);
+        if (!row.errors.isEmpty()) {
+            return;
+        }
+        try {
+            for (TradeLeg leg : trade.getTradeLegs()) {
+                leg.setCashflows(tradeService.buildCashflows(leg, dto.getTradeStartDate(), dto.getTradeMaturityDate()));
+            }
+        } catch (RuntimeException e) {
+            row.addError("tradeLegs", "Cannot generate cashflows: " + e.getMessage());
+            return;
+        }
+        row.trade = trade;
+    }
+
+    // Bean validation of the trade and its legs, plus the leg values the validators and cashflows rely on
+    private void checkRequired(Row row, TradeDTO dto) {
+        for (ConstraintViolation<TradeDTO> violation : validator.validate(dto)) {
+            row.addError(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (dto.getTradeStartDate() == null) {
+            row.addError("tradeStartDate", "Start date is required");
+        }
+        if (dto.getTradeMaturityDate() == null) {
+            row.addError("tradeMaturityDate", "Maturity date is required");
+        }
+        for (int i = 0; i < dto.getTradeLegs().size(); i++) {
+            TradeLegDTO leg = dto.getTradeLegs().get(i);
+            String prefix = TradeCsvMapper.LEG_PREFIX + (i + 1) + ".";
+            for (ConstraintViolation<TradeLegDTO> violation : validator.validate(leg)) {
+                row.addError(prefix + violation.getPropertyPath(), violation.getMessage());
+            }
+            if (leg.getLegType() == null) {
+                row.addError(prefix + "legType", "Leg type is required");
+            }
+            if (leg.getPayReceiveFlag() == null) {
+                row.addError(prefix + "payReceiveFlag", "Pay/receive flag is required");
+            }
+            if (leg.getCurrency() == null) {
+                row.addError(prefix + "currency", "Currency is required");
+            }
+        }
+    }
+
+    private Trade buildTrade(Row row, TradeDTO dto, TradeImportReferenceData.Snapshot snapshot) {
+        LocalDateTime now = LocalDateTime.now();
+        Trade trade = new Trade();
+        trade.setTradeId(dto.getTradeId());
+        trade.setTradeDate(dto.getTradeDate());
+        trade.setTradeStartDate(dto.getTradeStartDate());
+        trade.setTradeMaturityDate(dto.getTradeMaturityDate());
+        trade.setTradeExecutionDate(dto.getTradeExecutionDate());
+        trade.setUtiCode(dto.getUtiCode());
+        trade.setVersion(1);
+        trade.setActive(true);
+        trade.setCreatedDate(now);
+        trade.setLastTouchTimestamp(now);
+
+        trade.setBook(resolve(row, "bookName", dto.getBookName(), snapshot::book));
+        trade.setCounterparty(resolve(row, "counterpartyName", dto.getCounterpartyName(), snapshot::counterparty));
+        trade.setTradeStatus(resolve(row, "tradeStatus", dto.getTradeStatus() != null ? dto.getTradeStatus() : "NEW",
+                snapshot::tradeStatus));
+        trade.setTraderUser(resolve(row, "traderUserName", dto.getTraderUserName(), snapshot::user));
+        trade.setTradeInputterUser(resolve(row, "inputterUserName", dto.getInputterUserName(), snapshot::user));
+        trade.setTradeType(resolve(row, "tradeType", dto.getTradeType(), snapshot::tradeType));
+        trade.setTradeSubType(resolve(row, "tradeSubType", dto.getTradeSubType(), snapshot::tradeSubType));
+
+        List<TradeLeg> legs = new ArrayList<>(dto.getTradeLegs().size());
+        for (int i = 0; i < dto.getTradeLegs().size(); i++) {
+            TradeLegDTO legDTO = dto.getTradeLegs().get(i);
+            String prefix = TradeCsvMapper.LEG_PREFIX + (i + 1) + ".";
+            TradeLeg leg = new TradeLeg();
+            leg.setTrade(trade);
+            leg.setNotional(legDTO.getNotional());
+            leg.setRate(legDTO.getRate());
+            leg.setActive(true);
+            leg.setCreatedDate(now);
+            leg.setCurrency(resolve(row, prefix + "currency", legDTO.getCurrency(), snapshot::currency));
+            leg.setLegRateType(resolve(row, prefix + "legType", legDTO.getLegType(), snapshot::legType));
+            leg.setIndex(resolve(row, prefix + "indexName", legDTO.getIndexName(), snapshot::index));
+            leg.setHolidayCalendar(resolve(row, prefix + "holidayCalendar", legDTO.getHolidayCalendar(),
+                    snapshot::holidayCalendar));
+            leg.setCalculationPeriodSchedule(resolve(row, prefix + "calculationPeriodSchedule",
+                    legDTO.getCalculationPeriodSchedule(), snapshot::schedule));
+            leg.setPaymentBusinessDayConvention(resolve(row, prefix + "paymentBusinessDayConvention",
+                    legDTO.getPaymentBusinessDayConvention(), snapshot::businessDayConvention));
+            leg.setFixingBusinessDayConvention(resolve(row, prefix + "fixingBusinessDayConvention",
+                    legDTO.getFixingBusinessDayConvention(), snapshot::businessDayConvention));
+            leg.setPayReceiveFlag(resolve(row, prefix + "payReceiveFlag", legDTO.getPayReceiveFlag(), snapshot::payRec));
+            try {
+                leg.setDayCountConvention(DayCountConvention.fromName(legDTO.getDayCountConvention()));
+            } catch (IllegalArgumentException e) {
+                row.addError(prefix + "dayCountConvention", e.getMessage());
+            }
+            legs.add(leg);
+        }
+        trade.setTradeLegs(legs);
+        return trade;
+    }
+
+    // Names left empty stay unset, but a name that does not resolve rejects the row
+    private static <T> T resolve(Row row, String field, String name, Function<String, T> lookup) {
+        if (name == null) {
+            return null;
+        }
+        T value = lookup.apply(name);
+        if (value == null) {
+            row.addError(field, "Unknown value: " + name);
+        }
+        return value;
+    }
+
+    private void write(List<Row> chunk, Import state) {
+        state.rowCount += chunk.size();
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.trade == null) {
+                state.reject(row.errors);
+            } else {
+                accepted.add(row);
+            }
+        }
+        accepted = assignTradeIds(accepted, state);
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        List<Trade> trades = accepted.stream().map(row -> row.trade).toList();
+        long start = System.nanoTime();
+        try {
+            int cashflows = transactionTemplate.execute(status -> {
+                int written = bulkWriter.write(trades);
+                for (Trade trade : trades) {
+                    eventPublisher.publishEvent(TradeEvent.of(TradeEventType.CREATED, trade, trade.getTradeLegs(),
+                            "Imported from " + state.source));
+                }
+                return written;
+            });
+            state.importedCount += trades.size();
+            state.cashflowCount += cashflows;
+        } catch (RuntimeException e) {
+            logger.error("Failed to write {} imported trades from {}", trades.size(), state.source, e);
+            for (Row row : accepted) {
+                row.addError(null, "Could not be saved: " + e.getMessage());
+                state.reject(row.errors);
+            }
+        }
+        state.chunkWriteNanos.add(System.nanoTime() - start);
+    }
+
+    // Rejects trade ids repeated in the file or already booked, then numbers the trades that have none
+    private List<Row> assignTradeIds(List<Row> rows, Import state) {
+        List<Long> given = rows.stream().map(row -> row.trade.getTradeId()).filter(Objects::nonNull).toList();
+        Set<Long> existing = given.isEmpty() ? Set.of() : new HashSet<>(namedJdbcTemplate.queryForList(
+                EXISTING_TRADE_IDS_SQL, Map.of("tradeIds", given), Long.class));
+
+        List<Row> accepted = new ArrayList<>(rows.size());
+        List<Row> unnumbered = new ArrayList<>();
+        for (Row row : rows) {
+            Long tradeId = row.trade.getTradeId();
+            if (tradeId == null) {
+                unnumbered.add(row);
+            } else if (existing.contains(tradeId)) {
+                row.addError("tradeId", "Trade ID already exists: " + tradeId);
+                state.reject(row.errors);
+            } else if (!state.tradeIds.add(tradeId)) {
+                row.addError("tradeId", "Duplicate trade ID in file: " + tradeId);
+                state.reject(row.errors);
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (!unnumbered.isEmpty()) {
+            long next = tradeService.allocateTradeIds(unnumbered.size());
+            for (Row row : unnumbered) {
+                // Skip past any id the file gives explicitly further up
+                long tradeId = next++;
+                while (!state.tradeIds.add(tradeId)) {
+                    tradeId = tradeService.allocateTradeIds(1);
+                }
+                row.trade.setTradeId(tradeId);
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+
+    private static class Row {
+        private final long line;
+        private final String[] values;
+        private final List<TradeImportErrorDTO> errors = new ArrayList<>(0);
+        private TradeDTO dto;
+        private Trade trade;
+
+        Row(long line, String[] values) {
+            this.line = line;
+            this.values = values;
+        }
+
+        void addError(String field, String message) {
+            errors.add(new TradeImportErrorDTO(line, dto != null ? dto.getTradeId() : null, field, message));
+        }
+    }
+
+    // Running totals of one import, only touched by the importing thread apart from the prepare time
+    private class Import {
+        private final String source;
+        private final Set<Long> tradeIds = new HashSet<>();
+        private final List<TradeImportErrorDTO> errors = new ArrayList<>();
+        private final List<Long> chunkWriteNanos = new ArrayList<>();
+        private final AtomicLong prepareNanos = new AtomicLong();
+        private long rowCount;
+        private long importedCount;
+        private long rejectedCount;
+        private long cashflowCount;
+        private boolean errorsTruncated;
+        private boolean endOfInput;
+
+        Import(String source) {
+            this.source = source;
+        }
+
+        void reject(List<TradeImportErrorDTO> rowErrors) {
+            rejectedCount++;
+            for (TradeImportErrorDTO error : rowErrors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(error);
+                } else {
+                    errorsTruncated = true;
+                }
+            }
+        }
+
+        TradeImportResultDTO toResult(long elapsedNanos) {
+            long[] writes = chunkWriteNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+            TradeImportResultDTO result = new TradeImportResultDTO();
+            result.setSource(source);
+            result.setRowCount(rowCount);
+            result.setImportedCount(importedCount);
+            result.setRejectedCount(rejectedCount);
+            result.setCashflowCount(cashflowCount);
+            result.setChunkCount(writes.length);
+            result.setElapsedMs(elapsedMs);
+            result.setRowsPerSecond(elapsedNanos > 0 ? rowCount * 1_000_000_000L / elapsedNanos : 0L);
+            result.setPrepareMs(TimeUnit.NANOSECONDS.toMillis(prepareNanos.get()));
+            result.setWriteMs(TimeUnit.NANOSECONDS.toMillis(Arrays.stream(writes).sum()));
+            result.setChunkWriteP50Ms(percentileMs(writes, 50));
+            result.setChunkWriteP95Ms(percentileMs(writes, 95));
+            result.setChunkWriteMaxMs(writes.length > 0 ? TimeUnit.NANOSECONDS.toMillis(writes[writes.length - 1]) : 0L);
+            result.setErrors(errors);
+            result.setErrorsTruncated(errorsTruncated);
+            return result;
+        }
+
+        // Nearest-rank percentile of the sorted values
+        private long percentileMs(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0L;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(rank, 1) - 1]);
+        }
+    }
+}
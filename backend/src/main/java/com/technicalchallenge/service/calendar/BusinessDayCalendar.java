@@ -0,0 +1,194 @@
+package com.technicalchallenge.service.calendar;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Immutable business day calendar compiled into one 366-bit bitset per year.
+ * <p>
+ * A set bit marks a non-business day (weekend or holiday) at index dayOfYear - 1, and the unused tail bits of each
+ * year are set as well so a scan never lands on them. {@link #isBusinessDay} is a single array lookup and bit test,
+ * and rolling a date scans whole 64-day words with {@link Long#numberOfTrailingZeros}, so neither allocates anything
+ * apart from the returned date. Joint calendars are the bitwise OR of their members.
+ * <p>
+ * Dates outside the compiled year range only have their weekend checked.
+ */
+public final class BusinessDayCalendar {
+
+    public static final Set<DayOfWeek> SATURDAY_SUNDAY = Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    private static final int WORDS_PER_YEAR = 6;
+    private static final int BITS_PER_YEAR = WORDS_PER_YEAR * Long.SIZE;
+
+    private final String name;
+    private final int firstYear;
+    private final long[][] nonBusinessDays;
+    private final int weekendMask;
+
+    private BusinessDayCalendar(String name, int firstYear, long[][] nonBusinessDays, int weekendMask) {
+        this.name = name;
+        this.firstYear = firstYear;
+        this.nonBusinessDays = nonBusinessDays;
+        this.weekendMask = weekendMask;
+    }
+
+    public static BusinessDayCalendar compile(String name, int firstYear, int lastYear,
+                                              Set<DayOfWeek> weekendDays, Collection<LocalDate> holidays) {
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("Calendar year range is empty: " + firstYear + "-" + lastYear);
+        }
+        int weekendMask = 0;
+        for (DayOfWeek day : weekendDays) {
+            weekendMask |= 1 << day.getValue();
+        }
+
+        long[][] years = new long[lastYear - firstYear + 1][];
+        for (int index = 0; index < years.length; index++) {
+            int year = firstYear + index;
+            long[] words = new long[WORDS_PER_YEAR];
+            int daysInYear = Year.isLeap(year) ? 366 : 365;
+            // Day-of-week of 1 January, 1 = Monday, stepped forward rather than recomputed per day
+            int dayOfWeek = LocalDate.of(year, 1, 1).getDayOfWeek().getValue();
+            for (int day = 0; day < BITS_PER_YEAR; day++) {
+                if (day >= daysInYear || (weekendMask & (1 << dayOfWeek)) != 0) {
+                    words[day >>> 6] |= 1L << day;
+                }
+                dayOfWeek = dayOfWeek == 7 ? 1 : dayOfWeek + 1;
+            }
+            years[index] = words;
+        }
+
+        for (LocalDate holiday : holidays) {
+            int index = holiday.getYear() - firstYear;
+            if (index >= 0 && index < years.length) {
+                int day = holiday.getDayOfYear() - 1;
+                years[index][day >>> 6] |= 1L << day;
+            }
+        }
+        return new BusinessDayCalendar(name, firstYear, years, weekendMask);
+    }
+
+    public static BusinessDayCalendar weekendsOnly(String name, int firstYear, int lastYear) {
+        return compile(name, firstYear, lastYear, SATURDAY_SUNDAY, Set.of());
+    }
+
+    /**
+     * Joint calendar: a date is a business day only if it is one in both calendars.
+     */
+    public BusinessDayCalendar join(BusinessDayCalendar other) {
+        if (other.firstYear != firstYear || other.nonBusinessDays.length != nonBusinessDays.length) {
+            throw new IllegalArgumentException("Cannot join calendars " + name + " and " + other.name
+                    + " compiled over different year ranges");
+        }
+        long[][] joined = new long[nonBusinessDays.length][WORDS_PER_YEAR];
+        for (int index = 0; index < joined.length; index++) {
+            for (int word = 0; word < WORDS_PER_YEAR; word++) {
+                joined[index][word] = nonBusinessDays[index][word] | other.nonBusinessDays[index][word];
+            }
+        }
+        return new BusinessDayCalendar(name + "+" + other.name, firstYear, joined, weekendMask | other.weekendMask);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isBusinessDay(LocalDate date) {
+        int index = date.getYear() - firstYear;
+        if (index < 0 || index >= nonBusinessDays.length) {
+            return (weekendMask & (1 << date.getDayOfWeek().getValue())) == 0;
+        }
+        int day = date.getDayOfYear() - 1;
+        return (nonBusinessDays[index][day >>> 6] & (1L << day)) == 0;
+    }
+
+    public LocalDate adjust(LocalDate date, DateRollConvention convention) {
+        if (date == null) {
+            return null;
+        }
+        switch (convention) {
+            case FOLLOWING:
+                return following(date);
+            case PRECEDING:
+                return preceding(date);
+            case MODIFIED_FOLLOWING: {
+                LocalDate adjusted = following(date);
+                return adjusted.getMonthValue() == date.getMonthValue() ? adjusted : preceding(date);
+            }
+            case MODIFIED_PRECEDING: {
+                LocalDate adjusted = preceding(date);
+                return adjusted.getMonthValue() == date.getMonthValue() ? adjusted : following(date);
+            }
+            default:
+                return date;
+        }
+    }
+
+    /**
+     * First business day on or after the given date.
+     */
+    public LocalDate following(LocalDate date) {
+        int index = date.getYear() - firstYear;
+        if (index < 0 || index >= nonBusinessDays.length) {
+            return stepUntilBusinessDay(date, 1);
+        }
+        int day = date.getDayOfYear() - 1;
+        while (index < nonBusinessDays.length) {
+            long[] words = nonBusinessDays[index];
+            for (int word = day >>> 6; word < WORDS_PER_YEAR; word++) {
+                long free = ~words[word];
+                if (word == day >>> 6) {
+                    free &= -1L << day;
+                }
+                if (free != 0) {
+                    return LocalDate.ofYearDay(firstYear + index, (word << 6) + Long.numberOfTrailingZeros(free) + 1);
+                }
+            }
+            index++;
+            day = 0;
+        }
+        return stepUntilBusinessDay(LocalDate.of(firstYear + index, 1, 1), 1);
+    }
+
+    /**
+     * Last business day on or before the given date.
+     */
+    public LocalDate preceding(LocalDate date) {
+        int index = date.getYear() - firstYear;
+        if (index < 0 || index >= nonBusinessDays.length) {
+            return stepUntilBusinessDay(date, -1);
+        }
+        int day = date.getDayOfYear() - 1;
+        while (index >= 0) {
+            long[] words = nonBusinessDays[index];
+            for (int word = day >>> 6; word >= 0; word--) {
+                long free = ~words[word];
+                if (word == day >>> 6) {
+                    free &= -1L >>> (63 - (day & 63));
+                }
+                if (free != 0) {
+                    return LocalDate.ofYearDay(firstYear + index, (word << 6) + 63 - Long.numberOfLeadingZeros(free) + 1);
+                }
+            }
+            index--;
+            day = BITS_PER_YEAR - 1;
+        }
+        return stepUntilBusinessDay(LocalDate.of(firstYear - 1, 12, 31), -1);
+    }
+
+    private LocalDate stepUntilBusinessDay(LocalDate date, int step) {
+        LocalDate current = date;
+        while (!isBusinessDay(current)) {
+            current = current.plusDays(step);
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return "BusinessDayCalendar{" + name + ", " + firstYear + "-" + (firstYear + nonBusinessDays.length - 1) + "}";
+    }
+}
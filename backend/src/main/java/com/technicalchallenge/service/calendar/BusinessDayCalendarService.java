@@ -0,0 +1,157 @@
+package com.technicalchallenge.service.calendar;
+
+import com.technicalchallenge.dto.HolidayDTO;
+import com.technicalchallenge.model.Holiday;
+import com.technicalchallenge.model.HolidayCalendar;
+import com.technicalchallenge.repository.HolidayCalendarRepository;
+import com.technicalchallenge.repository.HolidayRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles holiday calendars into {@link BusinessDayCalendar} bitsets and caches them by name.
+ * <p>
+ * Joint calendars are requested as "NY+LON" (or "NY,LON"), normalised to a sorted key and built by OR-ing the
+ * cached members, so each distinct combination is compiled once. Any holiday change clears the whole cache.
+ */
+@Service
+public class BusinessDayCalendarService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessDayCalendarService.class);
+    private static final Pattern CALENDAR_SEPARATOR = Pattern.compile("[+,\\s]+");
+    private static final String WEEKENDS_ONLY = "WEEKENDS";
+
+    @Autowired
+    private HolidayRepository holidayRepository;
+
+    @Autowired
+    private HolidayCalendarRepository holidayCalendarRepository;
+
+    @Value("${trade.calendar.first-year:1990}")
+    private int firstYear = 1990;
+
+    @Value("${trade.calendar.last-year:2100}")
+    private int lastYear = 2100;
+
+    private final Map<String, BusinessDayCalendar> calendars = new ConcurrentHashMap<>();
+
+    public LocalDate adjust(LocalDate date, String calendarNames, String businessDayConvention) {
+        if (date == null) {
+            return null;
+        }
+        return getCalendar(calendarNames).adjust(date, DateRollConvention.fromName(businessDayConvention));
+    }
+
+    public boolean isBusinessDay(LocalDate date, String calendarNames) {
+        return getCalendar(calendarNames).isBusinessDay(date);
+    }
+
+    public BusinessDayCalendar getCalendar(String calendarNames) {
+        String key = normaliseKey(calendarNames);
+        BusinessDayCalendar calendar = calendars.get(key);
+        if (calendar != null) {
+            return calendar;
+        }
+        String[] members = key.split("\\+");
+        if (members.length == 1) {
+            return calendars.computeIfAbsent(key, this::compile);
+        }
+        BusinessDayCalendar joint = getCalendar(members[0]);
+        for (int i = 1; i < members.length; i++) {
+            joint = joint.join(getCalendar(members[i]));
+        }
+        BusinessDayCalendar existing = calendars.putIfAbsent(key, joint);
+        return existing != null ? existing : joint;
+    }
+
+    public List<Holiday> getHolidays(Long holidayCalendarId) {
+        return holidayRepository.findByHolidayCalendarIdOrderByHolidayDate(holidayCalendarId);
+    }
+
+    @Transactional
+    public Optional<List<Holiday>> addHolidays(Long holidayCalendarId, List<HolidayDTO> holidays) {
+        Optional<HolidayCalendar> holidayCalendar = holidayCalendarRepository.findById(holidayCalendarId);
+        if (holidayCalendar.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Holiday> saved = new ArrayList<>();
+        for (HolidayDTO dto : holidays) {
+            if (dto.getHolidayDate() == null) {
+                throw new IllegalArgumentException("Holiday date is required");
+            }
+            if (holidayRepository.existsByHolidayCalendarIdAndHolidayDate(holidayCalendarId, dto.getHolidayDate())) {
+                continue;
+            }
+            saved.add(holidayRepository.save(new Holiday(null, holidayCalendar.get(), dto.getHolidayDate(), dto.getDescription())));
+        }
+        logger.info("Added {} holidays to calendar {}", saved.size(), holidayCalendar.get().getHolidayCalendar());
+        evictAfterCommit();
+        return Optional.of(saved);
+    }
+
+    @Transactional
+    public boolean deleteHoliday(Long holidayCalendarId, Long holidayId) {
+        Optional<Holiday> holiday = holidayRepository.findById(holidayId)
+                .filter(h -> h.getHolidayCalendar().getId().equals(holidayCalendarId));
+        holiday.ifPresent(holidayRepository::delete);
+        holiday.ifPresent(h -> evictAfterCommit());
+        return holiday.isPresent();
+    }
+
+    public void evictAll() {
+        logger.info("Clearing {} compiled business day calendars", calendars.size());
+        calendars.clear();
+    }
+
+    // Evicting before commit would let a concurrent lookup recompile the old holiday set
+    private void evictAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAll();
+                }
+            });
+        } else {
+            evictAll();
+        }
+    }
+
+    private BusinessDayCalendar compile(String name) {
+        if (WEEKENDS_ONLY.equals(name)) {
+            return BusinessDayCalendar.weekendsOnly(name, firstYear, lastYear);
+        }
+        List<LocalDate> holidays = holidayRepository.findHolidayDatesByCalendar(name);
+        if (holidays.isEmpty() && holidayCalendarRepository.findByHolidayCalendar(name).isEmpty()) {
+            logger.warn("Unknown holiday calendar {}, only weekends will be treated as non-business days", name);
+        }
+        logger.info("Compiled business day calendar {} with {} holidays", name, holidays.size());
+        return BusinessDayCalendar.compile(name, firstYear, lastYear, BusinessDayCalendar.SATURDAY_SUNDAY, holidays);
+    }
+
+    private static String normaliseKey(String calendarNames) {
+        if (calendarNames == null || calendarNames.isBlank()) {
+            return WEEKENDS_ONLY;
+        }
+        return String.join("+", Arrays.stream(CALENDAR_SEPARATOR.split(calendarNames.trim()))
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .sorted()
+                .toList());
+    }
+}
@@ -0,0 +1,37 @@
+package com.technicalchallenge.service.calendar;
+
+/**
+ * Business day conventions supported by {@link BusinessDayCalendar#adjust}. The display names match the
+ * values stored in the business_day_convention reference table.
+ */
+public enum DateRollConvention {
+    UNADJUSTED("Unadjusted"),
+    FOLLOWING("Following"),
+    MODIFIED_FOLLOWING("Modified Following"),
+    PRECEDING("Preceding"),
+    MODIFIED_PRECEDING("Modified Preceding");
+
+    private final String displayName;
+
+    DateRollConvention(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    // A missing convention leaves the date unadjusted, matching how cashflows were generated before calendars existed
+    public static DateRollConvention fromName(String name) {
+        if (name == null || name.isBlank()) {
+            return UNADJUSTED;
+        }
+        String normalised = name.trim().replace('_', ' ').replace('-', ' ');
+        for (DateRollConvention convention : values()) {
+            if (convention.displayName.equalsIgnoreCase(normalised)) {
+                return convention;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported business day convention: " + name);
+    }
+}
@@ -0,0 +1,122 @@
+package com.technicalchallenge.service.cashflow;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the legs of live trades, those active and neither cancelled nor terminated, into {@link LiveLegs}, for
+ * services that aggregate cashflows by streaming the cashflow table.
+ */
+public final class LiveLegLoader {
+
+    public static final String UNKNOWN_CURRENCY = "UNKNOWN";
+
+    private static final String LIVE_LEGS_SQL = "SELECT l.leg_id, t.counterparty_id, cp.name, cur.currency, pr.pay_rec "
+            + "FROM trade_leg l "
+            + "JOIN trade t ON t.id = l.trade_id "
+            + "LEFT JOIN trade_status s ON s.id = t.trade_status_id "
+            + "LEFT JOIN counterparty cp ON cp.id = t.counterparty_id "
+            + "LEFT JOIN currency cur ON cur.id = l.currency_id "
+            + "LEFT JOIN pay_rec pr ON pr.id = l.pay_rec_id "
+            + "WHERE t.active = TRUE AND l.active = TRUE "
+            + "AND (s.trade_status IS NULL OR s.trade_status NOT IN ('CANCELLED', 'TERMINATED')) ";
+
+    private static final String BOOK_FILTER = "AND t.book_id IN (:books) ";
+
+    private static final String HAS_COUNTERPARTY_FILTER = "AND t.counterparty_id IS NOT NULL ";
+
+    private static final String COUNTERPARTY_FILTER = "AND t.counterparty_id = :counterparty ";
+
+    private static final String ORDER_BY_LEG = "ORDER BY l.leg_id";
+
+    private static final String PAY_REC_SQL = "SELECT id, pay_rec FROM pay_rec";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public LiveLegLoader(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * @param bookIds books to include, all books when null; an empty list, e.g. a desk without books, matches no legs
+     */
+    public LiveLegs loadForBooks(List<Long> bookIds) {
+        if (bookIds == null) {
+            return load(LIVE_LEGS_SQL, new MapSqlParameterSource());
+        }
+        if (bookIds.isEmpty()) {
+            return load(null, null);
+        }
+        return load(LIVE_LEGS_SQL + BOOK_FILTER, new MapSqlParameterSource("books", bookIds));
+    }
+
+    /**
+     * Legs of trades with a counterparty.
+     *
+     * @param counterpartyId counterparty to include, all counterparties when null
+     */
+    public LiveLegs loadForCounterparty(Long counterpartyId) {
+        if (counterpartyId == null) {
+            return load(LIVE_LEGS_SQL + HAS_COUNTERPARTY_FILTER, new MapSqlParameterSource());
+        }
+        return load(LIVE_LEGS_SQL + COUNTERPARTY_FILTER, new MapSqlParameterSource("counterparty", counterpartyId));
+    }
+
+    public static String currencyOrUnknown(String currency) {
+        return currency != null ? currency : UNKNOWN_CURRENCY;
+    }
+
+    private LiveLegs load(String sql, MapSqlParameterSource parameters) {
+        List<long[]> rows = new ArrayList<>();
+        List<Long> counterpartyIds = new ArrayList<>();
+        List<String> counterpartyNames = new ArrayList<>();
+        List<String> currencies = new ArrayList<>();
+        Map<Long, Integer> counterparties = new HashMap<>();
+        Map<String, Integer> currencyIndexes = new HashMap<>();
+        if (sql != null) {
+            namedJdbcTemplate.query(sql + ORDER_BY_LEG, parameters, (RowCallbackHandler) rs -> {
+                long counterparty = rs.getLong(2);
+                String counterpartyName = rs.getString(3);
+                int counterpartyIndex = counterparties.computeIfAbsent(counterparty, id -> {
+                    counterpartyIds.add(id);
+                    counterpartyNames.add(counterpartyName);
+                    return counterpartyIds.size() - 1;
+                });
+                int currencyIndex = currencyIndexes.computeIfAbsent(currencyOrUnknown(rs.getString(4)), currency -> {
+                    currencies.add(currency);
+                    return currencies.size() - 1;
+                });
+                rows.add(new long[]{rs.getLong(1), counterpartyIndex, currencyIndex,
+                        "PAY".equalsIgnoreCase(rs.getString(5)) ? 1 : 0});
+            });
+        }
+
+        int size = rows.size();
+        long[] legIds = new long[size];
+        int[] counterpartyIndex = new int[size];
+        int[] currencyIndex = new int[size];
+        boolean[] pay = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            long[] row = rows.get(i);
+            legIds[i] = row[0];
+            counterpartyIndex[i] = (int) row[1];
+            currencyIndex[i] = (int) row[2];
+            pay[i] = row[3] == 1;
+        }
+        return new LiveLegs(legIds, counterpartyIndex, currencyIndex, pay, counterpartyIds, counterpartyNames,
+                currencies, loadPayRecs());
+    }
+
+    private Map<Long, Boolean> loadPayRecs() {
+        Map<Long, Boolean> payRecIsPay = new HashMap<>();
+        namedJdbcTemplate.getJdbcTemplate().query(PAY_REC_SQL, (RowCallbackHandler) rs ->
+                payRecIsPay.put(rs.getLong(1), "PAY".equalsIgnoreCase(rs.getString(2))));
+        return payRecIsPay;
+    }
+}
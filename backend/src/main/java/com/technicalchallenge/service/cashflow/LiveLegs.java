@@ -0,0 +1,87 @@
+package com.technicalchallenge.service.cashflow;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Legs of live trades as parallel arrays sorted by leg id, with counterparties and currencies held once by index.
+ * Cashflows streamed off the cashflow table alone are matched to their leg with {@link #indexOf(long)}, so the
+ * large table never has to be joined. Built by {@link LiveLegLoader}.
+ */
+public final class LiveLegs {
+
+    private final long[] legIds;
+    private final int[] counterpartyIndex;
+    private final int[] currencyIndex;
+    private final boolean[] pay;
+    private final List<Long> counterpartyIds;
+    private final List<String> counterpartyNames;
+    private final List<String> currencies;
+    private final Map<Long, Boolean> payRecIsPay;
+
+    LiveLegs(long[] legIds, int[] counterpartyIndex, int[] currencyIndex, boolean[] pay, List<Long> counterpartyIds,
+             List<String> counterpartyNames, List<String> currencies, Map<Long, Boolean> payRecIsPay) {
+        this.legIds = legIds;
+        this.counterpartyIndex = counterpartyIndex;
+        this.currencyIndex = currencyIndex;
+        this.pay = pay;
+        this.counterpartyIds = counterpartyIds;
+        this.counterpartyNames = counterpartyNames;
+        this.currencies = currencies;
+        this.payRecIsPay = payRecIsPay;
+    }
+
+    public int size() {
+        return legIds.length;
+    }
+
+    /**
+     * Position of the leg, or a negative number when it is not a live leg in scope.
+     */
+    public int indexOf(long legId) {
+        return Arrays.binarySearch(legIds, legId);
+    }
+
+    /**
+     * Whether a cashflow on the leg at this position is paid rather than received: the cashflow's own pay/receive
+     * flag when it has one, otherwise its leg's.
+     *
+     * @param cashflowPayRecId the cashflow's pay_rec_id, 0 when it has none as {@code ResultSet.getLong} reads NULL
+     */
+    public boolean isPay(int leg, long cashflowPayRecId) {
+        if (cashflowPayRecId == 0) {
+            return pay[leg];
+        }
+        return payRecIsPay.getOrDefault(cashflowPayRecId, pay[leg]);
+    }
+
+    /**
+     * Index of the leg's currency into {@link #getCurrencies()}.
+     */
+    public int currencyIndex(int leg) {
+        return currencyIndex[leg];
+    }
+
+    /**
+     * Index of the leg's counterparty into {@link #counterpartyId(int)} and {@link #counterpartyName(int)}.
+     */
+    public int counterpartyIndex(int leg) {
+        return counterpartyIndex[leg];
+    }
+
+    public long counterpartyId(int counterparty) {
+        return counterpartyIds.get(counterparty);
+    }
+
+    public String counterpartyName(int counterparty) {
+        return counterpartyNames.get(counterparty);
+    }
+
+    /**
+     * Currencies of the legs in order of first appearance, {@link LiveLegLoader#UNKNOWN_CURRENCY} for legs without one.
+     */
+    public List<String> getCurrencies() {
+        return currencies;
+    }
+}
@@ -0,0 +1,18 @@
+package com.technicalchallenge.service.curve;
+
+/**
+ * Published when re-projection from the index curves changes floating cashflows of a trade, so what is derived from
+ * them, such as its settlement nets, can be recomputed once the change commits.
+ */
+public class FloatingCashflowsReprojectedEvent {
+
+    private final Long tradeId;
+
+    public FloatingCashflowsReprojectedEvent(Long tradeId) {
+        this.tradeId = tradeId;
+    }
+
+    public Long getTradeId() {
+        return tradeId;
+    }
+}
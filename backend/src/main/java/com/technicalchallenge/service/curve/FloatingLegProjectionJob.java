@@ -0,0 +1,158 @@
+package com.technicalchallenge.service.curve;
+
+import com.technicalchallenge.repository.TradeLegRepository;
+import com.technicalchallenge.service.TradeService;
+import com.technicalchallenge.service.tracing.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Re-projects floating cashflows of live trades from the index curves.
+ * <p>
+ * Runs nightly for every index, and for a single index after its fixings are uploaded. Live floating leg ids are
+ * split into chunks that are projected in parallel; each leg is re-projected in its own transaction so one bad
+ * leg does not roll back the rest. Runs are serialised so two uploads never project the same leg concurrently.
+ */
+@Component
+public class FloatingLegProjectionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(FloatingLegProjectionJob.class);
+
+    private final TradeService tradeService;
+    private final TradeLegRepository tradeLegRepository;
+    private final IndexCurveService indexCurveService;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final ExecutorService workers;
+    private final ExecutorService trigger;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private final Timer runTimer;
+    private final Counter updatedCounter;
+    private final Counter failedCounter;
+
+    public FloatingLegProjectionJob(TradeService tradeService,
+                                    TradeLegRepository tradeLegRepository,
+                                    IndexCurveService indexCurveService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${trade.projection.enabled:true}") boolean enabled,
+                                    @Value("${trade.projection.parallelism:4}") int parallelism,
+                                    @Value("${trade.projection.chunk-size:200}") int chunkSize) {
+        this.tradeService = tradeService;
+        this.tradeLegRepository = tradeLegRepository;
+        this.indexCurveService = indexCurveService;
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "floating-projection-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.trigger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "floating-projection-trigger");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.runTimer = meterRegistry.timer("trade.projection.run");
+        this.updatedCounter = meterRegistry.counter("trade.projection.cashflows.updated");
+        this.failedCounter = meterRegistry.counter("trade.projection.legs.failed");
+    }
+
+    @Scheduled(cron = "${trade.projection.cron:0 30 6 * * MON-FRI}")
+    public void reprojectAll() {
+        if (enabled) {
+            reproject(null);
+        }
+    }
+
+    // Runs after the upload commits, off the request thread
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIndexCurveUpdated(IndexCurveUpdatedEvent event) {
+        indexCurveService.evict(event.getIndex());
+        if (enabled) {
+            trigger.submit(Tracer.wrap("FloatingLegProjectionJob.reproject", () -> reproject(event.getIndex())));
+        }
+    }
+
+    /**
+     * Re-projects every live floating leg on the given index, or on all indices when index is null.
+     *
+     * @return the number of cashflows updated
+     */
+    public int reproject(String index) {
+        runLock.lock();
+        try {
+            long start = System.nanoTime();
+            List<Long> legIds = tradeLegRepository.findLiveFloatingLegIds(index);
+            LocalDate asOf = LocalDate.now();
+
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int from = 0; from < legIds.size(); from += chunkSize) {
+                List<Long> chunk = legIds.subList(from, Math.min(from + chunkSize, legIds.size()));
+                results.add(workers.submit(Tracer.wrap("FloatingLegProjectionJob.reprojectChunk", () -> reprojectChunk(chunk, asOf))));
+            }
+
+            int updated = 0;
+            for (Future<Integer> result : results) {
+                try {
+                    updated += result.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    logger.error("Floating leg projection chunk failed: {}", e.getCause().getMessage(), e.getCause());
+                }
+            }
+
+            long elapsed = System.nanoTime() - start;
+            runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Re-projected {} floating legs on {}: {} cashflows updated in {} ms",
+                    legIds.size(), index != null ? index : "all indices", updated, elapsed / 1_000_000);
+            return updated;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private int reprojectChunk(List<Long> legIds, LocalDate asOf) {
+        int updated = 0;
+        for (Long legId : legIds) {
+            try {
+                updated += tradeService.reprojectFloatingCashflows(legId, asOf);
+            } catch (RuntimeException e) {
+                failedCounter.increment();
+                logger.warn("Failed to re-project floating leg {}: {}", legId, e.getMessage());
+            }
+        }
+        updatedCounter.increment(updated);
+        return updated;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        trigger.shutdownNow();
+        workers.shutdownNow();
+    }
+}
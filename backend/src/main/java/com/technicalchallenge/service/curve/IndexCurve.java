@@ -0,0 +1,75 @@
+package com.technicalchallenge.service.curve;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Immutable fixings and forward curve of one index held as two parallel sorted arrays: epoch days and rates
+ * in percent. Lookups binary-search the dates and interpolate linearly between the surrounding points; dates
+ * before the first or after the last point take the nearest rate.
+ */
+public final class IndexCurve {
+
+    private final String index;
+    private final long[] days;
+    private final double[] rates;
+
+    /**
+     * @param days  strictly increasing epoch days
+     * @param rates rate in percent for each day
+     */
+    public IndexCurve(String index, long[] days, double[] rates) {
+        if (days.length == 0 || days.length != rates.length) {
+            throw new IllegalArgumentException("Index curve " + index + " needs matching, non-empty dates and rates");
+        }
+        for (int i = 1; i < days.length; i++) {
+            if (days[i] <= days[i - 1]) {
+                throw new IllegalArgumentException("Index curve " + index + " dates must be strictly increasing");
+            }
+        }
+        this.index = index;
+        this.days = days.clone();
+        this.rates = rates.clone();
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public int size() {
+        return days.length;
+    }
+
+    public double rateOn(LocalDate date) {
+        return rateOn(date.toEpochDay());
+    }
+
+    public double rateOn(long epochDay) {
+        int position = Arrays.binarySearch(days, epochDay);
+        if (position >= 0) {
+            return rates[position];
+        }
+        int upper = -position - 1;
+        if (upper == 0) {
+            return rates[0];
+        }
+        if (upper == days.length) {
+            return rates[days.length - 1];
+        }
+        int lower = upper - 1;
+        double weight = (double) (epochDay - days[lower]) / (days[upper] - days[lower]);
+        return rates[lower] + weight * (rates[upper] - rates[lower]);
+    }
+
+    /**
+     * Batch lookup for a whole schedule: writes the rate for every epoch day into rates, in percent.
+     */
+    public void ratesOn(long[] epochDays, double[] rates) {
+        if (epochDays.length != rates.length) {
+            throw new IllegalArgumentException("Curve lookup arrays must have the same length");
+        }
+        for (int i = 0; i < epochDays.length; i++) {
+            rates[i] = rateOn(epochDays[i]);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.technicalchallenge.service.curve;
+
+import com.technicalchallenge.dto.IndexFixingDTO;
+import com.technicalchallenge.model.Index;
+import com.technicalchallenge.model.IndexFixing;
+import com.technicalchallenge.repository.IndexFixingRepository;
+import com.technicalchallenge.repository.IndexRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads index fixings into {@link IndexCurve}s and caches them by index name. Indices without any points are
+ * cached as empty so bookings on them do not query the table every time.
+ */
+@Service
+public class IndexCurveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexCurveService.class);
+
+    @Autowired
+    private IndexFixingRepository indexFixingRepository;
+
+    @Autowired
+    private IndexRepository indexRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, Optional<IndexCurve>> curves = new ConcurrentHashMap<>();
+
+    public Optional<IndexCurve> getCurve(String index) {
+        if (index == null) {
+            return Optional.empty();
+        }
+        return curves.computeIfAbsent(index, this::load);
+    }
+
+    public List<IndexFixing> getFixings(Long indexId) {
+        return indexFixingRepository.findByIndexIdOrderByFixingDate(indexId);
+    }
+
+    /**
+     * Inserts or overwrites the given points. Cached curves are dropped and an {@link IndexCurveUpdatedEvent}
+     * is published once the transaction commits.
+     */
+    @Transactional
+    public Optional<List<IndexFixing>> uploadFixings(Long indexId, List<IndexFixingDTO> fixings) {
+        Optional<Index> index = indexRepository.findById(indexId);
+        if (index.isEmpty()) {
+            return Optional.empty();
+        }
+        List<IndexFixing> saved = new ArrayList<>();
+        for (IndexFixingDTO dto : fixings) {
+            if (dto.getFixingDate() == null || dto.getRate() == null) {
+                throw new IllegalArgumentException("Fixing date and rate are required");
+            }
+            IndexFixing fixing = indexFixingRepository.findByIndexIdAndFixingDate(indexId, dto.getFixingDate())
+                    .orElseGet(() -> new IndexFixing(null, index.get(), dto.getFixingDate(), null, null));
+            fixing.setRate(dto.getRate());
+            fixing.setLastTouchTimestamp(LocalDateTime.now());
+            saved.add(indexFixingRepository.save(fixing));
+        }
+        String indexName = index.get().getIndex();
+        logger.info("Uploaded {} fixings for index {}", saved.size(), indexName);
+        evictAfterCommit(indexName);
+        eventPublisher.publishEvent(new IndexCurveUpdatedEvent(indexName));
+        return Optional.of(saved);
+    }
+
+    public void evict(String index) {
+        curves.remove(index);
+    }
+
+    private void evictAfterCommit(String index) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(index);
+                }
+            });
+        } else {
+            evict(index);
+        }
+    }
+
+    private Optional<IndexCurve> load(String index) {
+        List<IndexFixing> points = indexFixingRepository.findCurvePoints(index);
+        if (points.isEmpty()) {
+            logger.debug("No fixings for index {}, floating cashflows on it will not be projected", index);
+            return Optional.empty();
+        }
+        long[] days = new long[points.size()];
+        double[] rates = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            days[i] = points.get(i).getFixingDate().toEpochDay();
+            rates[i] = points.get(i).getRate();
+        }
+        logger.info("Loaded curve for index {} with {} points", index, points.size());
+        return Optional.of(new IndexCurve(index, days, rates));
+    }
+}
@@ -0,0 +1,17 @@
+package com.technicalchallenge.service.curve;
+
+/**
+ * Published when fixings or curve points of an index change, so floating cashflows on it can be re-projected.
+ */
+public class IndexCurveUpdatedEvent {
+
+    private final String index;
+
+    public IndexCurveUpdatedEvent(String index) {
+        this.index = index;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+}
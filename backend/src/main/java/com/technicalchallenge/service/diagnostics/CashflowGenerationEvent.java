@@ -0,0 +1,41 @@
+package com.technicalchallenge.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the generation of the cashflows of one leg.
+ */
+@Name("com.technicalchallenge.CashflowGeneration")
+@Label("Cashflow Generation")
+@Category({"Trade Capture"})
+@Description("Cashflows built and saved for a trade leg")
+@StackTrace(false)
+public class CashflowGenerationEvent extends Event {
+
+    @Label("Trade Id")
+    private long tradeId;
+
+    @Label("Leg Id")
+    private long legId;
+
+    @Label("Leg Type")
+    private String legType;
+
+    @Label("Cashflow Count")
+    private int cashflowCount;
+
+    public void complete(Long tradeId, Long legId, String legType, int cashflowCount) {
+        if (shouldCommit()) {
+            this.tradeId = tradeId != null ? tradeId : 0L;
+            this.legId = legId != null ? legId : 0L;
+            this.legType = legType;
+            this.cashflowCount = cashflowCount;
+            commit();
+        }
+    }
+}
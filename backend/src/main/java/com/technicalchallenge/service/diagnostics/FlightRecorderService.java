@@ -0,0 +1,187 @@
+package com.technicalchallenge.service.diagnostics;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Starts and stops Java Flight Recorder recordings on demand, so a latency spike can be profiled without a restart.
+ * A recording uses one of the JDK's settings presets: {@code default}, cheap enough to leave running, or
+ * {@code profile}, which samples more often and records more. The trade events of this package are recorded by
+ * both. A stopped recording is written to {@code trade.jfr.directory} and kept there until it is deleted.
+ */
+@Service
+public class FlightRecorderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    public static final List<String> PRESETS = List.of("default", "profile");
+
+    private final Path directory;
+    private final Duration maxDuration;
+    private final int maxRecordings;
+    private final Map<Long, Recording> recordings = new ConcurrentHashMap<>();
+
+    public FlightRecorderService(@Value("${trade.jfr.directory:${java.io.tmpdir}/trade-jfr}") Path directory,
+                                 @Value("${trade.jfr.max-duration-seconds:1800}") long maxDurationSeconds,
+                                 @Value("${trade.jfr.max-recordings:4}") int maxRecordings) {
+        this.directory = directory;
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxRecordings = maxRecordings;
+    }
+
+    /**
+     * Starts a recording, which stops by itself after the given duration, capped at
+     * {@code trade.jfr.max-duration-seconds}.
+     * @param preset name of the JDK settings preset, one of {@link #PRESETS}
+     * @param durationSeconds how long to record for, or null for the longest allowed
+     * @throws IllegalArgumentException if the preset is unknown
+     * @throws IllegalStateException if {@code trade.jfr.max-recordings} recordings are already kept
+     */
+    public synchronized Recording start(String preset, Long durationSeconds) {
+        if (!PRESETS.contains(preset)) {
+            throw new IllegalArgumentException("Unknown JFR preset: " + preset + ", expected one of " + PRESETS);
+        }
+        if (recordings.size() >= maxRecordings) {
+            throw new IllegalStateException("Already keeping " + maxRecordings + " recordings, delete one first");
+        }
+        Duration duration = durationSeconds == null || durationSeconds <= 0
+                ? maxDuration : Duration.ofSeconds(Math.min(durationSeconds, maxDuration.getSeconds()));
+
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(preset));
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("JFR preset " + preset + " could not be read", e);
+        }
+        recording.setName("trade-" + preset + "-" + recording.getId());
+        recording.setToDisk(true);
+        recording.setDuration(duration);
+        try {
+            Files.createDirectories(directory);
+            recording.setDestination(file(recording));
+        } catch (IOException e) {
+            recording.close();
+            throw new UncheckedIOException(e);
+        }
+        recording.start();
+        recordings.put(recording.getId(), recording);
+        logger.info("Started JFR recording {} with the {} preset for {}", recording.getName(), preset, duration);
+        return recording;
+    }
+
+    /**
+     * Stops a running recording, which writes it to its file.
+     */
+    public Optional<Recording> stop(long id) {
+        Recording recording = recordings.get(id);
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            logger.info("Stopped JFR recording {}", recording.getName());
+        }
+        return Optional.ofNullable(recording);
+    }
+
+    /**
+     * The file holding a recording. For a running recording, what has been recorded so far is written to a
+     * snapshot file first, replacing the previous snapshot.
+     */
+    public Optional<Path> file(long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return Optional.empty();
+        }
+        // Once written to its destination a recording is closed, and only its file is left
+        if (recording.getState() != RecordingState.RUNNING) {
+            return Optional.of(file(recording)).filter(Files::exists);
+        }
+        try {
+            Path snapshot = directory.resolve(recording.getName() + "-snapshot.jfr");
+            recording.dump(snapshot);
+            return Optional.of(snapshot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops a recording if needed and deletes it with its files.
+     * @return false if there was no such recording
+     */
+    public boolean delete(long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        try {
+            Files.deleteIfExists(file(recording));
+            Files.deleteIfExists(directory.resolve(recording.getName() + "-snapshot.jfr"));
+        } catch (IOException e) {
+            logger.warn("Could not delete the files of JFR recording {}: {}", recording.getName(), e.getMessage());
+        }
+        logger.info("Deleted JFR recording {}", recording.getName());
+        return true;
+    }
+
+    public List<Map<String, Object>> list() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        recordings.values().stream()
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .forEach(recording -> list.add(describe(recording)));
+        return list;
+    }
+
+    public Map<String, Object> describe(Recording recording) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("id", recording.getId());
+        description.put("name", recording.getName());
+        description.put("state", recording.getState().name());
+        description.put("start", recording.getStartTime());
+        description.put("durationSeconds", recording.getDuration() != null ? recording.getDuration().getSeconds() : null);
+        description.put("sizeBytes", recording.getState() == RecordingState.CLOSED ? fileSize(recording) : recording.getSize());
+        return description;
+    }
+
+    // Running recordings are written out at shutdown, so what led up to a restart is not lost
+    @PreDestroy
+    public void close() {
+        for (Recording recording : recordings.values()) {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            recording.close();
+        }
+        recordings.clear();
+    }
+
+    private Path file(Recording recording) {
+        return directory.resolve(recording.getName() + ".jfr");
+    }
+
+    private Long fileSize(Recording recording) {
+        try {
+            return Files.exists(file(recording)) ? Files.size(file(recording)) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
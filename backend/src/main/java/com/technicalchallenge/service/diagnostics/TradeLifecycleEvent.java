@@ -0,0 +1,56 @@
+package com.technicalchallenge.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one booking, amendment, termination or cancellation, with the legs and
+ * cashflows it wrote. Recorded only while a recording is running, see {@link FlightRecorderService}.
+ */
+@Name("com.technicalchallenge.TradeLifecycle")
+@Label("Trade Lifecycle")
+@Category({"Trade Capture"})
+@Description("Booking, amendment, termination or cancellation of a trade")
+@StackTrace(false)
+public class TradeLifecycleEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Trade Id")
+    private long tradeId;
+
+    @Label("Trade Type")
+    private String tradeType;
+
+    @Label("Leg Count")
+    private int legCount;
+
+    @Label("Cashflow Count")
+    private int cashflowCount;
+
+    @Label("Error")
+    private String error;
+
+    public TradeLifecycleEvent(String operation) {
+        this.operation = operation;
+    }
+
+    public void addLeg(int cashflows) {
+        legCount++;
+        cashflowCount += cashflows;
+    }
+
+    public void complete(Long tradeId, String tradeType, Throwable failure) {
+        if (shouldCommit()) {
+            this.tradeId = tradeId != null ? tradeId : 0L;
+            this.tradeType = tradeType;
+            this.error = failure != null ? failure.getClass().getSimpleName() : null;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.technicalchallenge.service.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the computation of one report, with the number of trades it covered.
+ */
+@Name("com.technicalchallenge.TradeReport")
+@Label("Trade Report")
+@Category({"Trade Capture"})
+@Description("Computation of a trade report or summary")
+@StackTrace(false)
+public class TradeReportEvent extends Event {
+
+    @Label("Report")
+    private String report;
+
+    @Label("Trade Count")
+    private long tradeCount;
+
+    private TradeReportEvent(String report) {
+        this.report = report;
+    }
+
+    public static TradeReportEvent started(String report) {
+        TradeReportEvent event = new TradeReportEvent(report);
+        event.begin();
+        return event;
+    }
+
+    public void complete(long tradeCount) {
+        if (shouldCommit()) {
+            this.tradeCount = tradeCount;
+            commit();
+        }
+    }
+}
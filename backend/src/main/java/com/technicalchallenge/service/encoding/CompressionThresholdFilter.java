@@ -0,0 +1,123 @@
+package com.technicalchallenge.service.encoding;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lets the server's {@code server.compression.min-response-size} apply to the responses Spring MVC writes.
+ * <p>
+ * Spring MVC flushes the body once it is written, which commits the response without a length, and the
+ * server compresses any response it does not know the length of. For the compressible content types those flushes
+ * are held back while the response is uncommitted: a body that fits the server's buffer then goes out with its
+ * length, and is compressed only if that is over the minimum, while a larger one overflows the buffer and is
+ * streamed, compressed, as before.
+ */
+@Component
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final List<MediaType> mimeTypes;
+
+    // Web slices have no server properties, and so no compression
+    public CompressionThresholdFilter(ObjectProvider<ServerProperties> serverProperties) {
+        Compression compression = serverProperties.getIfAvailable(ServerProperties::new).getCompression();
+        this.enabled = compression.getEnabled();
+        this.mimeTypes = Arrays.stream(compression.getMimeTypes()).map(MediaType::parseMediaType).toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, enabled ? new HeldFlushResponse(response) : response);
+    }
+
+    // Whether a flush of the response waits for the server, the response being uncommitted and compressible
+    boolean isHeld(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        if (response.isCommitted() || contentType == null) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(mimeType -> mimeType.includes(mediaType));
+    }
+
+    private final class HeldFlushResponse extends HttpServletResponseWrapper {
+        private ServletOutputStream outputStream;
+
+        private HeldFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeldFlushOutputStream(this, super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (!isHeld(this)) {
+                super.flushBuffer();
+            }
+        }
+    }
+
+    private final class HeldFlushOutputStream extends ServletOutputStream {
+        private final HttpServletResponse response;
+        private final ServletOutputStream delegate;
+
+        private HeldFlushOutputStream(HttpServletResponse response, ServletOutputStream delegate) {
+            this.response = response;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!isHeld(response)) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
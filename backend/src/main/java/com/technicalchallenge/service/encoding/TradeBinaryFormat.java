@@ -0,0 +1,84 @@
+package com.technicalchallenge.service.encoding;
+
+import org.springframework.http.MediaType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact binary encoding of trade lists and pages, negotiated with {@code Accept: application/x-trade-binary}. A stream is
+ * the magic number and format version followed by the trades, each behind a 1 and the whole closed by a 0, so it
+ * can be written and read one trade at a time.
+ * <p>
+ * Fields are written in declaration order with no names. Integers and dates are variable-length, so most take one
+ * to three bytes, and null is folded into the value rather than costing a byte of its own. Strings go through a
+ * table: the first occurrence is written out and later ones refer back to it, which is where most of the size of
+ * the JSON goes, in the book, currency, convention and status names repeated on every trade and cashflow.
+ */
+public final class TradeBinaryFormat {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-trade-binary";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    // Where a page of trades sits in the whole, as the body only holds its trades
+    public static final String PAGE_NUMBER_HEADER = "X-Page-Number";
+    public static final String PAGE_SIZE_HEADER = "X-Page-Size";
+    public static final String TOTAL_ELEMENTS_HEADER = "X-Total-Elements";
+    public static final String TOTAL_PAGES_HEADER = "X-Total-Pages";
+
+    static final int MAGIC = 0x54524442;
+    static final int FORMAT_VERSION = 1;
+
+    static final int END = 0;
+    static final int TRADE = 1;
+
+    // Strings: 0 is null, 1 a new string written out, 2 + n the n-th string of the table
+    static final int STRING_NULL = 0;
+    static final int STRING_NEW = 1;
+    static final int STRING_REFERENCE = 2;
+    static final int MAX_STRINGS = 1 << 16;
+
+    private TradeBinaryFormat() {
+    }
+
+    // Nullable integers: 0 is null, otherwise the zigzag of the value plus one, so small magnitudes take few bytes
+    static void writeNullableLong(DataOutput out, Long value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, 0);
+        } else if (value == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Long.MIN_VALUE has no trade binary encoding");
+        } else {
+            writeVarLong(out, ((value << 1) ^ (value >> 63)) + 1);
+        }
+    }
+
+    static Long readNullableLong(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        if (value == 0) {
+            return null;
+        }
+        value--;
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
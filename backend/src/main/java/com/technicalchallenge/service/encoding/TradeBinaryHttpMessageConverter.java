@@ -0,0 +1,88 @@
+package com.technicalchallenge.service.encoding;
+
+import com.technicalchallenge.dto.TradeDTO;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes trade lists and pages in the {@link TradeBinaryFormat} when the client asks for it. A page is written as
+ * the list of its trades, with its position in the {@code X-Page-*} and {@code X-Total-*} headers. Registered after
+ * the JSON converter, so JSON stays the answer to clients that accept anything.
+ */
+public class TradeBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public TradeBinaryHttpMessageConverter() {
+        super(TradeBinaryFormat.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz) || Page.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = ResolvableType.forType(type != null ? type : clazz);
+        ResolvableType container = resolved.asCollection();
+        if (container == ResolvableType.NONE) {
+            container = resolved.as(Page.class);
+        }
+        Class<?> element = container.resolveGeneric(0);
+        return container != ResolvableType.NONE && element != null && TradeDTO.class.isAssignableFrom(element);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Collection<TradeDTO> trades;
+        if (value instanceof Page<?> page) {
+            // Headers go out with the first byte of the body, so they are set before it is opened
+            HttpHeaders headers = outputMessage.getHeaders();
+            headers.set(TradeBinaryFormat.PAGE_NUMBER_HEADER, Integer.toString(page.getNumber()));
+            headers.set(TradeBinaryFormat.PAGE_SIZE_HEADER, Integer.toString(page.getSize()));
+            headers.set(TradeBinaryFormat.TOTAL_ELEMENTS_HEADER, Long.toString(page.getTotalElements()));
+            headers.set(TradeBinaryFormat.TOTAL_PAGES_HEADER, Integer.toString(page.getTotalPages()));
+            trades = (Collection<TradeDTO>) page.getContent();
+        } else {
+            trades = (Collection<TradeDTO>) value;
+        }
+        TradeBinaryWriter writer = new TradeBinaryWriter(outputMessage.getBody());
+        for (TradeDTO trade : trades) {
+            writer.write(trade);
+        }
+        writer.finish();
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Trade binary requests are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Trade binary requests are not supported", inputMessage);
+    }
+}
@@ -0,0 +1,244 @@
+package com.technicalchallenge.service.encoding;
+
+import com.technicalchallenge.dto.AdditionalInfoDTO;
+import com.technicalchallenge.dto.CashflowDTO;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.model.EntityType;
+import com.technicalchallenge.model.FieldType;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.technicalchallenge.service.encoding.TradeBinaryFormat.*;
+
+/**
+ * Reads trades written by {@link TradeBinaryWriter}, one at a time, for Java clients of the binary encoding.
+ */
+public class TradeBinaryReader {
+
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+    private boolean ended;
+
+    public TradeBinaryReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(in, 8192));
+        int magic = this.in.readInt();
+        int version = this.in.readUnsignedByte();
+        if (magic != MAGIC) {
+            throw new IOException("Not a trade binary stream");
+        }
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported trade binary format version " + version);
+        }
+    }
+
+    /**
+     * @return the next trade, or null at the end of the stream
+     */
+    public TradeDTO read() throws IOException {
+        if (ended) {
+            return null;
+        }
+        long marker = readVarLong(in);
+        if (marker == END) {
+            ended = true;
+            return null;
+        }
+        if (marker != TRADE) {
+            throw new IOException("Malformed trade binary stream, unexpected marker " + marker);
+        }
+
+        TradeDTO trade = new TradeDTO();
+        trade.setId(readNullableLong(in));
+        trade.setTradeId(readNullableLong(in));
+        trade.setVersion(readInteger());
+        trade.setTradeDate(readDate());
+        trade.setTradeStartDate(readDate());
+        trade.setTradeMaturityDate(readDate());
+        trade.setTradeExecutionDate(readDate());
+        trade.setUtiCode(readString());
+        trade.setLastTouchTimestamp(readTimestamp());
+        trade.setValidityStartDate(readDate());
+        trade.setValidityEndDate(readDate());
+        trade.setActive(readBoolean());
+        trade.setCreatedDate(readTimestamp());
+        trade.setDeactivatedDate(readTimestamp());
+        trade.setBookId(readNullableLong(in));
+        trade.setBookName(readString());
+        trade.setCounterpartyId(readNullableLong(in));
+        trade.setCounterpartyName(readString());
+        trade.setTraderUserId(readNullableLong(in));
+        trade.setTraderUserName(readString());
+        trade.setTradeInputterUserId(readNullableLong(in));
+        trade.setInputterUserName(readString());
+        trade.setTradeTypeId(readNullableLong(in));
+        trade.setTradeType(readString());
+        trade.setTradeSubTypeId(readNullableLong(in));
+        trade.setTradeSubType(readString());
+        trade.setTradeStatusId(readNullableLong(in));
+        trade.setTradeStatus(readString());
+
+        Integer legCount = readInteger();
+        if (legCount != null) {
+            List<TradeLegDTO> legs = new ArrayList<>(legCount);
+            for (int i = 0; i < legCount; i++) {
+                legs.add(readLeg());
+            }
+            trade.setTradeLegs(legs);
+        }
+        Integer fieldCount = readInteger();
+        if (fieldCount != null) {
+            List<AdditionalInfoDTO> fields = new ArrayList<>(fieldCount);
+            for (int i = 0; i < fieldCount; i++) {
+                fields.add(readAdditionalInfo());
+            }
+            trade.setAdditionalFields(fields);
+        }
+        return trade;
+    }
+
+    public List<TradeDTO> readAll() throws IOException {
+        List<TradeDTO> trades = new ArrayList<>();
+        for (TradeDTO trade = read(); trade != null; trade = read()) {
+            trades.add(trade);
+        }
+        return trades;
+    }
+
+    private TradeLegDTO readLeg() throws IOException {
+        TradeLegDTO leg = new TradeLegDTO();
+        leg.setLegId(readNullableLong(in));
+        leg.setNotional(readDecimal());
+        leg.setRate(readDouble());
+        leg.setCurrencyId(readNullableLong(in));
+        leg.setCurrency(readString());
+        leg.setLegTypeId(readNullableLong(in));
+        leg.setLegType(readString());
+        leg.setIndexId(readNullableLong(in));
+        leg.setIndexName(readString());
+        leg.setHolidayCalendarId(readNullableLong(in));
+        leg.setHolidayCalendar(readString());
+        leg.setScheduleId(readNullableLong(in));
+        leg.setCalculationPeriodSchedule(readString());
+        leg.setPaymentBdcId(readNullableLong(in));
+        leg.setPaymentBusinessDayConvention(readString());
+        leg.setFixingBdcId(readNullableLong(in));
+        leg.setFixingBusinessDayConvention(readString());
+        leg.setDayCountConvention(readString());
+        leg.setPayRecId(readNullableLong(in));
+        leg.setPayReceiveFlag(readString());
+
+        Integer cashflowCount = readInteger();
+        if (cashflowCount != null) {
+            List<CashflowDTO> cashflows = new ArrayList<>(cashflowCount);
+            for (int i = 0; i < cashflowCount; i++) {
+                cashflows.add(readCashflow());
+            }
+            leg.setCashflows(cashflows);
+        }
+        return leg;
+    }
+
+    private CashflowDTO readCashflow() throws IOException {
+        CashflowDTO cashflow = new CashflowDTO();
+        cashflow.setId(readNullableLong(in));
+        cashflow.setLegId(readNullableLong(in));
+        cashflow.setPaymentValue(readDecimal());
+        cashflow.setValueDate(readDate());
+        cashflow.setRate(readDouble());
+        cashflow.setPayRec(readString());
+        cashflow.setPaymentType(readString());
+        cashflow.setPaymentBusinessDayConvention(readString());
+        cashflow.setCreatedDate(readTimestamp());
+        cashflow.setActive(readBoolean());
+        return cashflow;
+    }
+
+    private AdditionalInfoDTO readAdditionalInfo() throws IOException {
+        AdditionalInfoDTO field = new AdditionalInfoDTO();
+        field.setId(readNullableLong(in));
+        String entityType = readString();
+        field.setEntityType(entityType == null ? null : EntityType.valueOf(entityType));
+        field.setEntityId(readNullableLong(in));
+        field.setFieldName(readString());
+        field.setFieldValue(readString());
+        String fieldType = readString();
+        field.setFieldType(fieldType == null ? null : FieldType.valueOf(fieldType));
+        field.setActive(readBoolean());
+        field.setCreatedDate(readTimestamp());
+        field.setLastModifiedDate(readTimestamp());
+        field.setVersion(readInteger());
+        return field;
+    }
+
+    private String readString() throws IOException {
+        long tag = readVarLong(in);
+        if (tag == STRING_NULL) {
+            return null;
+        }
+        if (tag >= STRING_REFERENCE) {
+            long index = tag - STRING_REFERENCE;
+            if (index >= strings.size()) {
+                throw new IOException("Malformed trade binary stream, unknown string " + index);
+            }
+            return strings.get((int) index);
+        }
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        if (strings.size() < MAX_STRINGS) {
+            strings.add(value);
+        }
+        return value;
+    }
+
+    private Integer readInteger() throws IOException {
+        Long value = readNullableLong(in);
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    private LocalDate readDate() throws IOException {
+        Long value = readNullableLong(in);
+        return value == null ? null : LocalDate.ofEpochDay(value);
+    }
+
+    private LocalDateTime readTimestamp() throws IOException {
+        Long micros = readNullableLong(in);
+        return micros == null ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    private Boolean readBoolean() throws IOException {
+        int value = in.readUnsignedByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    private Double readDouble() throws IOException {
+        return in.readUnsignedByte() == 0 ? null : in.readDouble();
+    }
+
+    private BigDecimal readDecimal() throws IOException {
+        Long header = readNullableLong(in);
+        if (header == null) {
+            return null;
+        }
+        int scale = Math.toIntExact(header >> 1);
+        if ((header & 1) == 0) {
+            return BigDecimal.valueOf(readNullableLong(in), scale);
+        }
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+}
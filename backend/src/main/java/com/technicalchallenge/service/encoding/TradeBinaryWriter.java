@@ -0,0 +1,219 @@
+package com.technicalchallenge.service.encoding;
+
+import com.technicalchallenge.dto.AdditionalInfoDTO;
+import com.technicalchallenge.dto.CashflowDTO;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.technicalchallenge.service.encoding.TradeBinaryFormat.*;
+
+/**
+ * Writes trades in the {@link TradeBinaryFormat} straight from the DTOs to the stream, field by field, with no tree
+ * or intermediate document in between. Not thread safe; one writer per response.
+ */
+public class TradeBinaryWriter {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    public TradeBinaryWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out, 8192));
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(FORMAT_VERSION);
+    }
+
+    public void write(TradeDTO trade) throws IOException {
+        writeVarLong(out, TRADE);
+        writeNullableLong(out, trade.getId());
+        writeNullableLong(out, trade.getTradeId());
+        writeInteger(trade.getVersion());
+        writeDate(trade.getTradeDate());
+        writeDate(trade.getTradeStartDate());
+        writeDate(trade.getTradeMaturityDate());
+        writeDate(trade.getTradeExecutionDate());
+        writeString(trade.getUtiCode());
+        writeTimestamp(trade.getLastTouchTimestamp());
+        writeDate(trade.getValidityStartDate());
+        writeDate(trade.getValidityEndDate());
+        writeBoolean(trade.getActive());
+        writeTimestamp(trade.getCreatedDate());
+        writeTimestamp(trade.getDeactivatedDate());
+        writeNullableLong(out, trade.getBookId());
+        writeString(trade.getBookName());
+        writeNullableLong(out, trade.getCounterpartyId());
+        writeString(trade.getCounterpartyName());
+        writeNullableLong(out, trade.getTraderUserId());
+        writeString(trade.getTraderUserName());
+        writeNullableLong(out, trade.getTradeInputterUserId());
+        writeString(trade.getInputterUserName());
+        writeNullableLong(out, trade.getTradeTypeId());
+        writeString(trade.getTradeType());
+        writeNullableLong(out, trade.getTradeSubTypeId());
+        writeString(trade.getTradeSubType());
+        writeNullableLong(out, trade.getTradeStatusId());
+        writeString(trade.getTradeStatus());
+
+        List<TradeLegDTO> legs = trade.getTradeLegs();
+        writeSize(legs);
+        if (legs != null) {
+            for (TradeLegDTO leg : legs) {
+                writeLeg(leg);
+            }
+        }
+        List<AdditionalInfoDTO> additionalFields = trade.getAdditionalFields();
+        writeSize(additionalFields);
+        if (additionalFields != null) {
+            for (AdditionalInfoDTO field : additionalFields) {
+                writeAdditionalInfo(field);
+            }
+        }
+    }
+
+    /**
+     * Ends the stream and flushes it, leaving the underlying stream open.
+     */
+    public void finish() throws IOException {
+        writeVarLong(out, END);
+        out.flush();
+    }
+
+    private void writeLeg(TradeLegDTO leg) throws IOException {
+        writeNullableLong(out, leg.getLegId());
+        writeDecimal(leg.getNotional());
+        writeDouble(leg.getRate());
+        writeNullableLong(out, leg.getCurrencyId());
+        writeString(leg.getCurrency());
+        writeNullableLong(out, leg.getLegTypeId());
+        writeString(leg.getLegType());
+        writeNullableLong(out, leg.getIndexId());
+        writeString(leg.getIndexName());
+        writeNullableLong(out, leg.getHolidayCalendarId());
+        writeString(leg.getHolidayCalendar());
+        writeNullableLong(out, leg.getScheduleId());
+        writeString(leg.getCalculationPeriodSchedule());
+        writeNullableLong(out, leg.getPaymentBdcId());
+        writeString(leg.getPaymentBusinessDayConvention());
+        writeNullableLong(out, leg.getFixingBdcId());
+        writeString(leg.getFixingBusinessDayConvention());
+        writeString(leg.getDayCountConvention());
+        writeNullableLong(out, leg.getPayRecId());
+        writeString(leg.getPayReceiveFlag());
+
+        List<CashflowDTO> cashflows = leg.getCashflows();
+        writeSize(cashflows);
+        if (cashflows != null) {
+            for (CashflowDTO cashflow : cashflows) {
+                writeCashflow(cashflow);
+            }
+        }
+    }
+
+    private void writeCashflow(CashflowDTO cashflow) throws IOException {
+        writeNullableLong(out, cashflow.getId());
+        writeNullableLong(out, cashflow.getLegId());
+        writeDecimal(cashflow.getPaymentValue());
+        writeDate(cashflow.getValueDate());
+        writeDouble(cashflow.getRate());
+        writeString(cashflow.getPayRec());
+        writeString(cashflow.getPaymentType());
+        writeString(cashflow.getPaymentBusinessDayConvention());
+        writeTimestamp(cashflow.getCreatedDate());
+        writeBoolean(cashflow.getActive());
+    }
+
+    private void writeAdditionalInfo(AdditionalInfoDTO field) throws IOException {
+        writeNullableLong(out, field.getId());
+        writeString(field.getEntityType() == null ? null : field.getEntityType().name());
+        writeNullableLong(out, field.getEntityId());
+        writeString(field.getFieldName());
+        writeString(field.getFieldValue());
+        writeString(field.getFieldType() == null ? null : field.getFieldType().name());
+        writeBoolean(field.getActive());
+        writeTimestamp(field.getCreatedDate());
+        writeTimestamp(field.getLastModifiedDate());
+        writeInteger(field.getVersion());
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(out, STRING_NULL);
+            return;
+        }
+        Integer index = strings.get(value);
+        if (index != null) {
+            writeVarLong(out, STRING_REFERENCE + (long) index);
+            return;
+        }
+        if (strings.size() < MAX_STRINGS) {
+            strings.put(value, strings.size());
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, STRING_NEW);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeInteger(Integer value) throws IOException {
+        writeNullableLong(out, value == null ? null : value.longValue());
+    }
+
+    private void writeDate(LocalDate value) throws IOException {
+        writeNullableLong(out, value == null ? null : value.toEpochDay());
+    }
+
+    // Microseconds since the epoch, as the timestamps are stored
+    private void writeTimestamp(LocalDateTime value) throws IOException {
+        writeNullableLong(out, value == null ? null
+                : value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000);
+    }
+
+    // 0 null, 1 false, 2 true
+    private void writeBoolean(Boolean value) throws IOException {
+        out.writeByte(value == null ? 0 : value ? 2 : 1);
+    }
+
+    private void writeDouble(Double value) throws IOException {
+        if (value == null) {
+            out.writeByte(0);
+        } else {
+            out.writeByte(1);
+            out.writeDouble(value);
+        }
+    }
+
+    // The scale, with whether the unscaled value overflows a long, then the unscaled value
+    private void writeDecimal(BigDecimal value) throws IOException {
+        if (value == null) {
+            writeNullableLong(out, null);
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        boolean big = unscaled.bitLength() >= 63;
+        writeNullableLong(out, ((long) value.scale() << 1) | (big ? 1 : 0));
+        if (big) {
+            byte[] bytes = unscaled.toByteArray();
+            writeVarLong(out, bytes.length);
+            out.write(bytes);
+        } else {
+            writeNullableLong(out, unscaled.longValue());
+        }
+    }
+
+    private void writeSize(List<?> list) throws IOException {
+        writeNullableLong(out, list == null ? null : (long) list.size());
+    }
+}
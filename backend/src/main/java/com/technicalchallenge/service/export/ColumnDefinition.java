@@ -0,0 +1,24 @@
+package com.technicalchallenge.service.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Name and encoding of one column of a columnar file. Scale only applies to {@link ColumnType#DECIMAL} columns.
+ */
+@Getter
+@AllArgsConstructor
+public final class ColumnDefinition {
+
+    private final String name;
+    private final ColumnType type;
+    private final int scale;
+
+    public static ColumnDefinition of(String name, ColumnType type) {
+        return new ColumnDefinition(name, type, 0);
+    }
+
+    public static ColumnDefinition decimal(String name, int scale) {
+        return new ColumnDefinition(name, ColumnType.DECIMAL, scale);
+    }
+}
@@ -0,0 +1,40 @@
+package com.technicalchallenge.service.export;
+
+/**
+ * How a column of a {@link ColumnarFileWriter columnar file} is encoded.
+ */
+public enum ColumnType {
+    // Zigzag varint deltas from the previous value in the row group
+    LONG(1),
+    // Epoch days, delta encoded like LONG
+    DATE(2),
+    // Epoch microseconds (UTC), delta encoded like LONG
+    TIMESTAMP(3),
+    // Fixed point: the unscaled value at the column's scale, delta encoded like LONG
+    DECIMAL(4),
+    // Varint codes into a dictionary that grows across row groups, for names repeated on many rows
+    DICTIONARY(5),
+    // Length-prefixed UTF-8
+    STRING(6),
+    // One bit per value
+    BOOLEAN(7);
+
+    private final int code;
+
+    ColumnType(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public static ColumnType fromCode(int code) {
+        for (ColumnType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column type code: " + code);
+    }
+}
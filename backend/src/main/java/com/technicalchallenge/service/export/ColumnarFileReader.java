@@ -0,0 +1,219 @@
+package com.technicalchallenge.service.export;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Reads a file written by {@link ColumnarFileWriter} one row group at a time. Columns left out of the projection are
+ * skipped without being decoded. The checksum and row count are verified once the last row group has been read.
+ */
+public class ColumnarFileReader implements Closeable {
+
+    private final CheckedInputStream checked;
+    private final DataInputStream in;
+    private final List<ColumnDefinition> columns = new ArrayList<>();
+    private final boolean[] projected;
+    // Entries of DICTIONARY columns read so far, by column
+    private final List<List<String>> dictionaries = new ArrayList<>();
+    private long rowsRead;
+    private boolean finished;
+
+    public ColumnarFileReader(Path file) throws IOException {
+        this(file, null);
+    }
+
+    /**
+     * @param projection names of the columns to decode, all columns when null
+     */
+    public ColumnarFileReader(Path file, Collection<String> projection) throws IOException {
+        this.checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024), new CRC32C());
+        this.in = new DataInputStream(checked);
+        try {
+            if (in.readInt() != ColumnarEncoding.MAGIC) {
+                throw new IOException("Not a columnar export file: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != ColumnarEncoding.FORMAT_VERSION) {
+                throw new IOException("Unsupported columnar file version " + version);
+            }
+            int count = (int) ColumnarEncoding.readVarLong(in);
+            for (int i = 0; i < count; i++) {
+                String name = ColumnarEncoding.readString(in);
+                ColumnType type = ColumnType.fromCode(in.readUnsignedByte());
+                columns.add(new ColumnDefinition(name, type, in.readUnsignedByte()));
+                dictionaries.add(new ArrayList<>());
+            }
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+        this.projected = new boolean[columns.size()];
+        for (int i = 0; i < projected.length; i++) {
+            projected[i] = projection == null || projection.contains(columns.get(i).getName());
+        }
+    }
+
+    public List<ColumnDefinition> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return the position of the named column
+     * @throws IllegalArgumentException when the file has no such column
+     */
+    public int columnIndex(String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("No column named " + name);
+    }
+
+    /**
+     * @return the next row group, or null after the last one
+     * @throws IOException when the file is truncated or its checksum does not match
+     */
+    public RowGroup next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int rows = in.readInt();
+        if (rows == 0) {
+            finished = true;
+            long expectedRows = in.readLong();
+            long expectedChecksum = checked.getChecksum().getValue();
+            if (in.readLong() != expectedChecksum) {
+                throw new IOException("Checksum mismatch");
+            }
+            if (expectedRows != rowsRead) {
+                throw new IOException("Expected " + expectedRows + " rows but read " + rowsRead);
+            }
+            return null;
+        }
+        Object[][] values = new Object[columns.size()][];
+        for (int i = 0; i < values.length; i++) {
+            int length = in.readInt();
+            // Dictionary entries are needed by later row groups, so dictionary chunks are always decoded
+            if (projected[i]) {
+                values[i] = decode(i, rows);
+            } else if (columns.get(i).getType() == ColumnType.DICTIONARY) {
+                decode(i, rows);
+            } else {
+                in.skipNBytes(length);
+            }
+        }
+        rowsRead += rows;
+        return new RowGroup(rows, values);
+    }
+
+    private Object[] decode(int index, int rows) throws IOException {
+        ColumnDefinition definition = columns.get(index);
+        boolean[] nulls = in.readBoolean() ? readBits(rows) : new boolean[rows];
+        Object[] values = new Object[rows];
+        switch (definition.getType()) {
+            case LONG, DATE, TIMESTAMP, DECIMAL -> {
+                long previous = 0;
+                for (int i = 0; i < rows; i++) {
+                    if (!nulls[i]) {
+                        previous += ColumnarEncoding.readSignedVarLong(in);
+                        values[i] = toValue(definition, previous);
+                    }
+                }
+            }
+            case DICTIONARY -> {
+                List<String> dictionary = dictionaries.get(index);
+                long added = ColumnarEncoding.readVarLong(in);
+                for (long i = 0; i < added; i++) {
+                    dictionary.add(ColumnarEncoding.readString(in));
+                }
+                for (int i = 0; i < rows; i++) {
+                    if (!nulls[i]) {
+                        values[i] = dictionary.get((int) ColumnarEncoding.readVarLong(in));
+                    }
+                }
+            }
+            case STRING -> {
+                for (int i = 0; i < rows; i++) {
+                    if (!nulls[i]) {
+                        values[i] = ColumnarEncoding.readString(in);
+                    }
+                }
+            }
+            case BOOLEAN -> {
+                int count = 0;
+                for (boolean isNull : nulls) {
+                    if (!isNull) {
+                        count++;
+                    }
+                }
+                boolean[] bits = readBits(count);
+                for (int i = 0, bit = 0; i < rows; i++) {
+                    if (!nulls[i]) {
+                        values[i] = bits[bit++];
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    private static Object toValue(ColumnDefinition definition, long value) {
+        return switch (definition.getType()) {
+            case DATE -> LocalDate.ofEpochDay(value);
+            case TIMESTAMP -> ColumnarEncoding.fromEpochMicros(value);
+            case DECIMAL -> BigDecimal.valueOf(value, definition.getScale());
+            default -> value;
+        };
+    }
+
+    private boolean[] readBits(int count) throws IOException {
+        boolean[] bits = new boolean[count];
+        for (int from = 0; from < count; from += 8) {
+            int b = in.readUnsignedByte();
+            for (int bit = 0; bit < 8 && from + bit < count; bit++) {
+                bits[from + bit] = (b & (1 << bit)) != 0;
+            }
+        }
+        return bits;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Decoded values of one row group, by column and row. Columns outside the projection read as null.
+     */
+    public static final class RowGroup {
+
+        private final int rowCount;
+        private final Object[][] values;
+
+        RowGroup(int rowCount, Object[][] values) {
+            this.rowCount = rowCount;
+            this.values = values;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public Object get(int column, int row) {
+            Object[] columnValues = values[column];
+            return columnValues != null ? columnValues[row] : null;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.technicalchallenge.service.export;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes rows to a compact column-oriented file, holding at most one row group in memory.
+ * <p>
+ * Rows are buffered per column and written a row group at a time. Within a row group each column is one chunk,
+ * prefixed with its length so a reader can skip columns it does not need, and made up of a null bitmap (only when
+ * the chunk has nulls) followed by the non-null values encoded as their {@link ColumnType} says. The file ends with
+ * the row count and a checksum over everything before it.
+ * <p>
+ * Values are appended in column order with the {@code put} methods and each row is closed with {@link #endRow()}.
+ */
+public class ColumnarFileWriter implements Closeable {
+
+    private final List<ColumnDefinition> columns;
+    private final ColumnBuffer[] buffers;
+    private final int rowGroupSize;
+    private final CheckedOutputStream checked;
+    private final DataOutputStream out;
+    private final ByteArrayOutputStream chunkBytes = new ByteArrayOutputStream(64 * 1024);
+    private final DataOutputStream chunk = new DataOutputStream(chunkBytes);
+
+    private int column;
+    private int rows;
+    private long totalRows;
+    private boolean closed;
+
+    public ColumnarFileWriter(Path file, List<ColumnDefinition> columns, int rowGroupSize) throws IOException {
+        if (rowGroupSize <= 0) {
+            throw new IllegalArgumentException("Row group size must be positive");
+        }
+        this.columns = List.copyOf(columns);
+        this.rowGroupSize = rowGroupSize;
+        this.buffers = new ColumnBuffer[columns.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ColumnBuffer(columns.get(i), rowGroupSize);
+        }
+        this.checked = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024), new CRC32C());
+        this.out = new DataOutputStream(checked);
+
+        out.writeInt(ColumnarEncoding.MAGIC);
+        out.writeByte(ColumnarEncoding.FORMAT_VERSION);
+        ColumnarEncoding.writeVarLong(out, columns.size());
+        for (ColumnDefinition definition : columns) {
+            ColumnarEncoding.writeString(out, definition.getName());
+            out.writeByte(definition.getType().getCode());
+            out.writeByte(definition.getScale());
+        }
+    }
+
+    public ColumnarFileWriter putLong(Long value) {
+        next(ColumnType.LONG).putLong(value);
+        return this;
+    }
+
+    public ColumnarFileWriter putDate(LocalDate value) {
+        next(ColumnType.DATE).putLong(value != null ? value.toEpochDay() : null);
+        return this;
+    }
+
+    public ColumnarFileWriter putTimestamp(LocalDateTime value) {
+        next(ColumnType.TIMESTAMP).putLong(value != null ? ColumnarEncoding.toEpochMicros(value) : null);
+        return this;
+    }
+
+    /**
+     * @throws ArithmeticException when the value does not fit a long at the column's scale
+     */
+    public ColumnarFileWriter putDecimal(BigDecimal value) {
+        ColumnBuffer buffer = next(ColumnType.DECIMAL);
+        buffer.putLong(value != null ? value.setScale(buffer.definition.getScale(), RoundingMode.HALF_EVEN)
+                .unscaledValue().longValueExact() : null);
+        return this;
+    }
+
+    public ColumnarFileWriter putDecimal(Double value) {
+        return putDecimal(value != null ? BigDecimal.valueOf(value) : null);
+    }
+
+    // For STRING and DICTIONARY columns
+    public ColumnarFileWriter putString(String value) {
+        ColumnBuffer buffer = next(null);
+        if (buffer.definition.getType() != ColumnType.STRING && buffer.definition.getType() != ColumnType.DICTIONARY) {
+            throw typeMismatch(buffer.definition, "string");
+        }
+        buffer.putString(value);
+        return this;
+    }
+
+    public ColumnarFileWriter putBoolean(Boolean value) {
+        next(ColumnType.BOOLEAN).putLong(value == null ? null : value ? 1L : 0L);
+        return this;
+    }
+
+    public void endRow() throws IOException {
+        if (column != buffers.length) {
+            throw new IllegalStateException("Row has " + column + " values but the file has " + buffers.length + " columns");
+        }
+        column = 0;
+        rows++;
+        totalRows++;
+        if (rows == rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    public long getRowCount() {
+        return totalRows;
+    }
+
+    public List<ColumnDefinition> getColumns() {
+        return columns;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (column != 0) {
+                throw new IllegalStateException("Last row is incomplete");
+            }
+            flushRowGroup();
+            out.writeInt(0);
+            out.writeLong(totalRows);
+            out.writeLong(checked.getChecksum().getValue());
+        } finally {
+            out.close();
+        }
+    }
+
+    private ColumnBuffer next(ColumnType expected) {
+        if (column == buffers.length) {
+            throw new IllegalStateException("Row already has a value for every column");
+        }
+        ColumnBuffer buffer = buffers[column];
+        if (expected != null && buffer.definition.getType() != expected) {
+            throw typeMismatch(buffer.definition, expected.name());
+        }
+        buffer.row = rows;
+        column++;
+        return buffer;
+    }
+
+    private static IllegalArgumentException typeMismatch(ColumnDefinition definition, String given) {
+        return new IllegalArgumentException("Column " + definition.getName() + " is " + definition.getType()
+                + ", not " + given);
+    }
+
+    private void flushRowGroup() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        out.writeInt(rows);
+        for (ColumnBuffer buffer : buffers) {
+            chunkBytes.reset();
+            buffer.encode(chunk, rows);
+            chunk.flush();
+            out.writeInt(chunkBytes.size());
+            chunkBytes.writeTo(out);
+        }
+        rows = 0;
+    }
+
+    /**
+     * Values of one column for the current row group.
+     */
+    private static final class ColumnBuffer {
+
+        private final ColumnDefinition definition;
+        private final boolean[] nulls;
+        private final long[] longs;
+        private final String[] strings;
+        // DICTIONARY columns: codes of every entry written so far, and the entries added since the last row group
+        private final Map<String, Integer> dictionary;
+        private final List<String> newEntries;
+        private int row;
+        private int nullCount;
+
+        ColumnBuffer(ColumnDefinition definition, int rowGroupSize) {
+            this.definition = definition;
+            this.nulls = new boolean[rowGroupSize];
+            boolean text = definition.getType() == ColumnType.STRING;
+            this.longs = text ? null : new long[rowGroupSize];
+            this.strings = text ? new String[rowGroupSize] : null;
+            boolean dictionaryEncoded = definition.getType() == ColumnType.DICTIONARY;
+            this.dictionary = dictionaryEncoded ? new HashMap<>() : null;
+            this.newEntries = dictionaryEncoded ? new ArrayList<>() : null;
+        }
+
+        void putLong(Long value) {
+            setNull(value == null);
+            if (value != null) {
+                longs[row] = value;
+            }
+        }
+
+        void putString(String value) {
+            setNull(value == null);
+            if (value == null) {
+                return;
+            }
+            if (strings != null) {
+                strings[row] = value;
+                return;
+            }
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.put(value, code);
+                newEntries.add(value);
+            }
+            longs[row] = code;
+        }
+
+        private void setNull(boolean isNull) {
+            nulls[row] = isNull;
+            if (isNull) {
+                nullCount++;
+            }
+        }
+
+        void encode(DataOutputStream out, int rows) throws IOException {
+            out.writeBoolean(nullCount > 0);
+            if (nullCount > 0) {
+                writeBits(out, nulls, rows);
+            }
+            switch (definition.getType()) {
+                case LONG, DATE, TIMESTAMP, DECIMAL -> {
+                    long previous = 0;
+                    for (int i = 0; i < rows; i++) {
+                        if (!nulls[i]) {
+                            ColumnarEncoding.writeSignedVarLong(out, longs[i] - previous);
+                            previous = longs[i];
+                        }
+                    }
+                }
+                case DICTIONARY -> {
+                    ColumnarEncoding.writeVarLong(out, newEntries.size());
+                    for (String entry : newEntries) {
+                        ColumnarEncoding.writeString(out, entry);
+                    }
+                    newEntries.clear();
+                    for (int i = 0; i < rows; i++) {
+                        if (!nulls[i]) {
+                            ColumnarEncoding.writeVarLong(out, longs[i]);
+                        }
+                    }
+                }
+                case STRING -> {
+                    for (int i = 0; i < rows; i++) {
+                        if (!nulls[i]) {
+                            ColumnarEncoding.writeString(out, strings[i]);
+                        }
+                        strings[i] = null;
+                    }
+                }
+                case BOOLEAN -> {
+                    boolean[] values = new boolean[rows - nullCount];
+                    int count = 0;
+                    for (int i = 0; i < rows; i++) {
+                        if (!nulls[i]) {
+                            values[count++] = longs[i] != 0;
+                        }
+                    }
+                    writeBits(out, values, count);
+                }
+            }
+            nullCount = 0;
+        }
+
+        private static void writeBits(DataOutputStream out, boolean[] bits, int count) throws IOException {
+            for (int from = 0; from < count; from += 8) {
+                int b = 0;
+                for (int bit = 0; bit < 8 && from + bit < count; bit++) {
+                    if (bits[from + bit]) {
+                        b |= 1 << bit;
+                    }
+                }
+                out.writeByte(b);
+            }
+        }
+    }
+}
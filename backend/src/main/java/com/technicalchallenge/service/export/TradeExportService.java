@@ -0,0 +1,564 @@
+package com.technicalchallenge.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.dto.TradeExportManifestDTO;
+import com.technicalchallenge.dto.TradeExportRunDTO;
+import com.technicalchallenge.service.tracing.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Nightly export of trades, legs and cashflows to columnar files for risk and finance.
+ * <p>
+ * Each export writes {@code trades}, {@code legs} and {@code cashflows} files ({@link ColumnarFileWriter}) and a
+ * {@code manifest.json} to a new numbered directory. The first export holds every trade; after that only trade
+ * rows whose {@code lastTouchTimestamp} moved since the previous export are written, with all their legs and
+ * cashflows. How far the exports have got is kept in {@code checkpoint.json}, which only moves once an export
+ * directory is complete, so a failed run is simply repeated. Trades touched within the commit lag are left to the
+ * next run, so a transaction that commits after the export started is not skipped.
+ * <p>
+ * Trade rows are streamed off a forward-only cursor and written as they arrive; their legs and cashflows are
+ * fetched a batch of trades at a time, so memory is bounded by the batch and row group sizes.
+ * <p>
+ * Exports requested over the API run in the background, see {@link #startExport()}; the nightly run, on its own
+ * scheduler thread, exports in place.
+ */
+@Service
+public class TradeExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeExportService.class);
+
+    static final String CHECKPOINT_FILE = "checkpoint.json";
+    static final String MANIFEST_FILE = "manifest.json";
+    static final String TRADES_FILE = "trades.tcol";
+    static final String LEGS_FILE = "legs.tcol";
+    static final String CASHFLOWS_FILE = "cashflows.tcol";
+
+    private static final String TRADE_SELECT = "SELECT id, trade_id, version, book_id, counterparty_id, "
+            + "trader_user_id, inputter_user_id, trade_type_id, trade_sub_type_id, trade_status_id, uti_code, "
+            + "trade_date, trade_start_date, trade_maturity_date, trade_execution_date, validity_start_date, "
+            + "validity_end_date, last_touch_timestamp, active, created_date, deactivated_date FROM trade ";
+
+    // Rows never touched have no timestamp and only go out with the full export
+    private static final String FULL_TRADES_SQL = TRADE_SELECT
+            + "WHERE last_touch_timestamp IS NULL OR last_touch_timestamp <= ? ORDER BY id";
+
+    private static final String CHANGED_TRADES_SQL = TRADE_SELECT
+            + "WHERE last_touch_timestamp > ? AND last_touch_timestamp <= ? ORDER BY id";
+
+    private static final String LEGS_SQL = "SELECT leg_id, trade_id, notional, rate, currency_id, leg_rate_type_id, "
+            + "index_id, holiday_calendar_id, calculation_period_schedule_id, payment_business_day_convention_id, "
+            + "fixing_business_day_convention_id, pay_rec_id, day_count_convention, active, created_date, "
+            + "deactivated_date FROM trade_leg WHERE trade_id IN (:tradeIds) ORDER BY leg_id";
+
+    private static final String CASHFLOWS_SQL = "SELECT id, leg_id, value_date, payment_value, rate, pay_rec_id, "
+            + "payment_type_id, payment_business_day_convention_id, active, created_date, validity_start_date, "
+            + "validity_end_date FROM cashflow WHERE leg_id IN (:legIds) ORDER BY id";
+
+    private static final int IN_LIST_CHUNK = 1000;
+    private static final int AMOUNT_SCALE = 2;
+    private static final int RATE_SCALE = 8;
+
+    static final List<ColumnDefinition> TRADE_COLUMNS = List.of(
+            ColumnDefinition.of("id", ColumnType.LONG),
+            ColumnDefinition.of("trade_id", ColumnType.LONG),
+            ColumnDefinition.of("version", ColumnType.LONG),
+            ColumnDefinition.of("book", ColumnType.DICTIONARY),
+            ColumnDefinition.of("counterparty", ColumnType.DICTIONARY),
+            ColumnDefinition.of("trader", ColumnType.DICTIONARY),
+            ColumnDefinition.of("inputter", ColumnType.DICTIONARY),
+            ColumnDefinition.of("trade_type", ColumnType.DICTIONARY),
+            ColumnDefinition.of("trade_sub_type", ColumnType.DICTIONARY),
+            ColumnDefinition.of("trade_status", ColumnType.DICTIONARY),
+            ColumnDefinition.of("uti_code", ColumnType.STRING),
+            ColumnDefinition.of("trade_date", ColumnType.DATE),
+            ColumnDefinition.of("trade_start_date", ColumnType.DATE),
+            ColumnDefinition.of("trade_maturity_date", ColumnType.DATE),
+            ColumnDefinition.of("trade_execution_date", ColumnType.DATE),
+            ColumnDefinition.of("validity_start_date", ColumnType.DATE),
+            ColumnDefinition.of("validity_end_date", ColumnType.DATE),
+            ColumnDefinition.of("last_touch_timestamp", ColumnType.TIMESTAMP),
+            ColumnDefinition.of("active", ColumnType.BOOLEAN),
+            ColumnDefinition.of("created_date", ColumnType.TIMESTAMP),
+            ColumnDefinition.of("deactivated_date", ColumnType.TIMESTAMP));
+
+    // trade_row_id is the id of the trade row (one per version), trade_id the business trade id
+    static final List<ColumnDefinition> LEG_COLUMNS = List.of(
+            ColumnDefinition.of("leg_id", ColumnType.LONG),
+            ColumnDefinition.of("trade_row_id", ColumnType.LONG),
+            ColumnDefinition.of("trade_id", ColumnType.LONG),
+            ColumnDefinition.decimal("notional", AMOUNT_SCALE),
+            ColumnDefinition.decimal("rate", RATE_SCALE),
+            ColumnDefinition.of("currency", ColumnType.DICTIONARY),
+            ColumnDefinition.of("leg_type", ColumnType.DICTIONARY),
+            ColumnDefinition.of("index", ColumnType.DICTIONARY),
+            ColumnDefinition.of("holiday_calendar", ColumnType.DICTIONARY),
+            ColumnDefinition.of("calculation_period_schedule", ColumnType.DICTIONARY),
+            ColumnDefinition.of("payment_business_day_convention", ColumnType.DICTIONARY),
+            ColumnDefinition.of("fixing_business_day_convention", ColumnType.DICTIONARY),
+            ColumnDefinition.of("pay_rec", ColumnType.DICTIONARY),
+            ColumnDefinition.of("day_count_convention", ColumnType.DICTIONARY),
+            ColumnDefinition.of("active", ColumnType.BOOLEAN),
+            ColumnDefinition.of("created_date", ColumnType.TIMESTAMP),
+            ColumnDefinition.of("deactivated_date", ColumnType.TIMESTAMP));
+
+    static final List<ColumnDefinition> CASHFLOW_COLUMNS = List.of(
+            ColumnDefinition.of("id", ColumnType.LONG),
+            ColumnDefinition.of("leg_id", ColumnType.LONG),
+            ColumnDefinition.of("value_date", ColumnType.DATE),
+            ColumnDefinition.decimal("payment_value", AMOUNT_SCALE),
+            ColumnDefinition.decimal("rate", RATE_SCALE),
+            ColumnDefinition.of("pay_rec", ColumnType.DICTIONARY),
+            ColumnDefinition.of("payment_type", ColumnType.DICTIONARY),
+            ColumnDefinition.of("payment_business_day_convention", ColumnType.DICTIONARY),
+            ColumnDefinition.of("active", ColumnType.BOOLEAN),
+            ColumnDefinition.of("created_date", ColumnType.TIMESTAMP),
+            ColumnDefinition.of("validity_start_date", ColumnType.DATE),
+            ColumnDefinition.of("validity_end_date", ColumnType.DATE));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final boolean enabled;
+    private final Duration commitLag;
+    private final int batchSize;
+    private final int rowGroupSize;
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final ExecutorService trigger;
+    private final AtomicBoolean starting = new AtomicBoolean();
+    private final AtomicLong runIds = new AtomicLong();
+    private volatile TradeExportRunDTO lastRun;
+
+    private final Timer runTimer;
+    private final Counter tradeCounter;
+    private final Counter cashflowCounter;
+
+    public TradeExportService(DataSource dataSource,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${trade.export.enabled:true}") boolean enabled,
+                              @Value("${trade.export.directory:./data/exports}") String directory,
+                              @Value("${trade.export.commit-lag-ms:60000}") long commitLagMs,
+                              @Value("${trade.export.batch-size:1000}") int batchSize,
+                              @Value("${trade.export.row-group-size:8192}") int rowGroupSize,
+                              @Value("${trade.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+        this.enabled = enabled;
+        this.commitLag = Duration.ofMillis(commitLagMs);
+        this.batchSize = batchSize;
+        this.rowGroupSize = rowGroupSize;
+
+        this.runTimer = meterRegistry.timer("trade.export.run");
+        this.tradeCounter = meterRegistry.counter("trade.export.trades");
+        this.cashflowCounter = meterRegistry.counter("trade.export.cashflows");
+
+        this.trigger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trade-export-trigger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(cron = "${trade.export.cron:0 30 22 * * MON-FRI}")
+    public void exportNightly() {
+        if (enabled) {
+            export();
+        }
+    }
+
+    /**
+     * Exports everything touched since the last export, or everything on the first run.
+     *
+     * @return the manifest of the export, or empty when an export is already running
+     */
+    public Optional<TradeExportManifestDTO> export() {
+        if (!runLock.tryLock()) {
+            logger.warn("Trade export not started, an export is already running");
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        try {
+            return Optional.of(runExport());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Trade export to " + directory + " failed", e);
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * Starts an export in the background.
+     *
+     * @return the new run, or empty when an export is already running
+     */
+    public Optional<TradeExportRunDTO> startExport() {
+        if (runLock.isLocked() || !starting.compareAndSet(false, true)) {
+            logger.warn("Trade export not started, an export is already running");
+            return Optional.empty();
+        }
+        try {
+            TradeExportRunDTO run = new TradeExportRunDTO(runIds.incrementAndGet(), "RUNNING", null,
+                    LocalDateTime.now(), null, null);
+            lastRun = run;
+            trigger.submit(Tracer.wrap("TradeExportService.export", () -> execute(run)));
+            return Optional.of(run);
+        } catch (RuntimeException e) {
+            starting.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * A run started by {@link #startExport()}; only the most recent one since startup is kept.
+     */
+    public Optional<TradeExportRunDTO> getRun(Long runId) {
+        TradeExportRunDTO run = lastRun;
+        return run != null && run.getId().equals(runId) ? Optional.of(run) : Optional.empty();
+    }
+
+    /**
+     * The manifest of the most recent export that wrote any files.
+     */
+    public Optional<TradeExportManifestDTO> getLatestManifest() throws IOException {
+        Checkpoint checkpoint = readCheckpoint();
+        if (checkpoint == null || checkpoint.getDirectory() == null) {
+            return Optional.empty();
+        }
+        Path manifest = directory.resolve(checkpoint.getDirectory()).resolve(MANIFEST_FILE);
+        if (!Files.exists(manifest)) {
+            return Optional.empty();
+        }
+        return Optional.of(objectMapper.readValue(manifest.toFile(), TradeExportManifestDTO.class));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        trigger.shutdownNow();
+    }
+
+    private void execute(TradeExportRunDTO run) {
+        try {
+            // Empty when the nightly export got there first
+            lastRun = export()
+                    .map(manifest -> new TradeExportRunDTO(run.getId(), "COMPLETED", null, run.getStartedAt(),
+                            LocalDateTime.now(), manifest))
+                    .orElseGet(() -> new TradeExportRunDTO(run.getId(), "FAILED", "Another trade export was running",
+                            run.getStartedAt(), LocalDateTime.now(), null));
+        } catch (RuntimeException e) {
+            logger.error("Trade export run {} failed", run.getId(), e);
+            lastRun = new TradeExportRunDTO(run.getId(), "FAILED", e.getMessage(), run.getStartedAt(),
+                    LocalDateTime.now(), null);
+        } finally {
+            starting.set(false);
+        }
+    }
+
+    private TradeExportManifestDTO runExport() throws IOException {
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        Files.createDirectories(directory);
+
+        Checkpoint checkpoint = readCheckpoint();
+        LocalDateTime changedAfter = checkpoint != null ? checkpoint.getChangedUpTo() : null;
+        LocalDateTime changedUpTo = startedAt.minus(commitLag).truncatedTo(ChronoUnit.MICROS);
+        if (changedAfter != null && changedUpTo.isBefore(changedAfter)) {
+            changedUpTo = changedAfter;
+        }
+        long sequence = checkpoint != null ? checkpoint.getSequence() + 1 : 1;
+        String name = String.format("export-%06d", sequence);
+        Path target = directory.resolve(name);
+        Path temp = directory.resolve(name + ".tmp");
+        // Left over from an export that failed before moving the checkpoint on
+        FileSystemUtils.deleteRecursively(temp);
+        Files.createDirectories(temp);
+
+        TradeExportManifestDTO manifest = new TradeExportManifestDTO();
+        manifest.setMode(changedAfter == null ? "FULL" : "INCREMENTAL");
+        manifest.setChangedAfter(changedAfter);
+        manifest.setChangedUpTo(changedUpTo);
+        manifest.setStartedAt(startedAt);
+
+        ExportRun run = new ExportRun(temp);
+        try (run) {
+            if (changedAfter == null) {
+                jdbcTemplate.query(FULL_TRADES_SQL, (RowCallbackHandler) run::acceptTrade, Timestamp.valueOf(changedUpTo));
+            } else {
+                jdbcTemplate.query(CHANGED_TRADES_SQL, (RowCallbackHandler) run::acceptTrade,
+                        Timestamp.valueOf(changedAfter), Timestamp.valueOf(changedUpTo));
+            }
+            run.flushTrades();
+        } catch (IOException | RuntimeException e) {
+            FileSystemUtils.deleteRecursively(temp);
+            throw e;
+        }
+
+        manifest.setTradeCount(run.trades.getRowCount());
+        manifest.setLegCount(run.legs.getRowCount());
+        manifest.setCashflowCount(run.cashflows.getRowCount());
+        if (run.trades.getRowCount() == 0) {
+            FileSystemUtils.deleteRecursively(temp);
+            manifest.setFiles(List.of());
+            writeCheckpoint(new Checkpoint(sequence - 1, changedUpTo,
+                    checkpoint != null ? checkpoint.getDirectory() : null));
+        } else {
+            manifest.setSequence(sequence);
+            manifest.setDirectory(name);
+            manifest.setFiles(List.of(describe(temp, TRADES_FILE, run.trades), describe(temp, LEGS_FILE, run.legs),
+                    describe(temp, CASHFLOWS_FILE, run.cashflows)));
+            manifest.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.resolve(MANIFEST_FILE).toFile(), manifest);
+            // Written by an export whose checkpoint never landed; this one covers the same changes and more
+            FileSystemUtils.deleteRecursively(target);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            writeCheckpoint(new Checkpoint(sequence, changedUpTo, name));
+        }
+        manifest.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+
+        tradeCounter.increment(run.trades.getRowCount());
+        cashflowCounter.increment(run.cashflows.getRowCount());
+        logger.info("{} trade export {} up to {}: {} trades, {} legs, {} cashflows in {} ms", manifest.getMode(),
+                manifest.getDirectory() != null ? manifest.getDirectory() : "wrote nothing", changedUpTo,
+                manifest.getTradeCount(), manifest.getLegCount(), manifest.getCashflowCount(), manifest.getElapsedMs());
+        return manifest;
+    }
+
+    private static TradeExportManifestDTO.ExportFile describe(Path dir, String fileName, ColumnarFileWriter writer)
+            throws IOException {
+        List<TradeExportManifestDTO.ExportColumn> columns = writer.getColumns().stream()
+                .map(column -> new TradeExportManifestDTO.ExportColumn(column.getName(), column.getType().name(),
+                        column.getType() == ColumnType.DECIMAL ? column.getScale() : null))
+                .toList();
+        return new TradeExportManifestDTO.ExportFile(fileName, writer.getRowCount(),
+                Files.size(dir.resolve(fileName)), columns);
+    }
+
+    private Checkpoint readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        return Files.exists(file) ? objectMapper.readValue(file.toFile(), Checkpoint.class) : null;
+    }
+
+    private void writeCheckpoint(Checkpoint checkpoint) throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        objectMapper.writeValue(temp.toFile(), checkpoint);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Map<Long, String> loadNames(String sql) {
+        Map<Long, String> names = new HashMap<>();
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> names.put(rs.getLong(1), rs.getString(2)));
+        return names;
+    }
+
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, Long.class);
+    }
+
+    private static LocalDate getDate(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, LocalDate.class);
+    }
+
+    private static LocalDateTime getTimestamp(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, LocalDateTime.class);
+    }
+
+    /**
+     * Where the exports have got to: every trade row touched up to {@code changedUpTo} has been exported, the
+     * latest in {@code directory}.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Checkpoint {
+        private long sequence;
+        private LocalDateTime changedUpTo;
+        private String directory;
+    }
+
+    /**
+     * The three open files of one export. Trades are written as they stream in and their ids held until a batch
+     * is full, when the legs and cashflows of the batch are fetched and written.
+     */
+    private class ExportRun implements AutoCloseable {
+
+        private final ColumnarFileWriter trades;
+        private final ColumnarFileWriter legs;
+        private final ColumnarFileWriter cashflows;
+
+        private final Map<Long, String> books = loadNames("SELECT id, book_name FROM book");
+        private final Map<Long, String> counterparties = loadNames("SELECT id, name FROM counterparty");
+        private final Map<Long, String> users = loadNames("SELECT id, login_id FROM application_user");
+        private final Map<Long, String> tradeTypes = loadNames("SELECT id, trade_type FROM trade_type");
+        private final Map<Long, String> tradeSubTypes = loadNames("SELECT id, trade_sub_type FROM trade_sub_type");
+        private final Map<Long, String> tradeStatuses = loadNames("SELECT id, trade_status FROM trade_status");
+        private final Map<Long, String> currencies = loadNames("SELECT id, currency FROM currency");
+        private final Map<Long, String> legTypes = loadNames("SELECT id, type FROM leg_type");
+        private final Map<Long, String> indexes = loadNames("SELECT id, index FROM index_table");
+        private final Map<Long, String> holidayCalendars = loadNames("SELECT id, holiday_calendar FROM holiday_calendar");
+        private final Map<Long, String> schedules = loadNames("SELECT id, schedule FROM schedule");
+        private final Map<Long, String> businessDayConventions = loadNames("SELECT id, bdc FROM business_day_convention");
+        private final Map<Long, String> payRecs = loadNames("SELECT id, pay_rec FROM pay_rec");
+
+        // Trade row id to business trade id for the trades whose legs are still to be written
+        private final Map<Long, Long> pendingTrades = new HashMap<>();
+
+        ExportRun(Path dir) throws IOException {
+            trades = new ColumnarFileWriter(dir.resolve(TRADES_FILE), TRADE_COLUMNS, rowGroupSize);
+            legs = new ColumnarFileWriter(dir.resolve(LEGS_FILE), LEG_COLUMNS, rowGroupSize);
+            cashflows = new ColumnarFileWriter(dir.resolve(CASHFLOWS_FILE), CASHFLOW_COLUMNS, rowGroupSize);
+        }
+
+        void acceptTrade(ResultSet rs) throws SQLException {
+            try {
+                trades.putLong(getLong(rs, "id"))
+                        .putLong(getLong(rs, "trade_id"))
+                        .putLong(getLong(rs, "version"))
+                        .putString(books.get(getLong(rs, "book_id")))
+                        .putString(counterparties.get(getLong(rs, "counterparty_id")))
+                        .putString(users.get(getLong(rs, "trader_user_id")))
+                        .putString(users.get(getLong(rs, "inputter_user_id")))
+                        .putString(tradeTypes.get(getLong(rs, "trade_type_id")))
+                        .putString(tradeSubTypes.get(getLong(rs, "trade_sub_type_id")))
+                        .putString(tradeStatuses.get(getLong(rs, "trade_status_id")))
+                        .putString(rs.getString("uti_code"))
+                        .putDate(getDate(rs, "trade_date"))
+                        .putDate(getDate(rs, "trade_start_date"))
+                        .putDate(getDate(rs, "trade_maturity_date"))
+                        .putDate(getDate(rs, "trade_execution_date"))
+                        .putDate(getDate(rs, "validity_start_date"))
+                        .putDate(getDate(rs, "validity_end_date"))
+                        .putTimestamp(getTimestamp(rs, "last_touch_timestamp"))
+                        .putBoolean(rs.getObject("active", Boolean.class))
+                        .putTimestamp(getTimestamp(rs, "created_date"))
+                        .putTimestamp(getTimestamp(rs, "deactivated_date"))
+                        .endRow();
+                pendingTrades.put(rs.getLong("id"), getLong(rs, "trade_id"));
+                if (pendingTrades.size() >= batchSize) {
+                    flushTrades();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void flushTrades() throws IOException {
+            if (pendingTrades.isEmpty()) {
+                return;
+            }
+            List<Long> tradeIds = new ArrayList<>(pendingTrades.keySet());
+            List<Long> legIds = new ArrayList<>();
+            for (int from = 0; from < tradeIds.size(); from += IN_LIST_CHUNK) {
+                List<Long> chunk = tradeIds.subList(from, Math.min(from + IN_LIST_CHUNK, tradeIds.size()));
+                namedJdbcTemplate.query(LEGS_SQL, new MapSqlParameterSource("tradeIds", chunk),
+                        (RowCallbackHandler) rs -> legIds.add(acceptLeg(rs)));
+            }
+            for (int from = 0; from < legIds.size(); from += IN_LIST_CHUNK) {
+                List<Long> chunk = legIds.subList(from, Math.min(from + IN_LIST_CHUNK, legIds.size()));
+                namedJdbcTemplate.query(CASHFLOWS_SQL, new MapSqlParameterSource("legIds", chunk),
+                        (RowCallbackHandler) this::acceptCashflow);
+            }
+            pendingTrades.clear();
+        }
+
+        private long acceptLeg(ResultSet rs) throws SQLException {
+            Long tradeRowId = getLong(rs, "trade_id");
+            try {
+                legs.putLong(getLong(rs, "leg_id"))
+                        .putLong(tradeRowId)
+                        .putLong(pendingTrades.get(tradeRowId))
+                        .putDecimal(rs.getBigDecimal("notional"))
+                        .putDecimal(rs.getObject("rate", Double.class))
+                        .putString(currencies.get(getLong(rs, "currency_id")))
+                        .putString(legTypes.get(getLong(rs, "leg_rate_type_id")))
+                        .putString(indexes.get(getLong(rs, "index_id")))
+                        .putString(holidayCalendars.get(getLong(rs, "holiday_calendar_id")))
+                        .putString(schedules.get(getLong(rs, "calculation_period_schedule_id")))
+                        .putString(businessDayConventions.get(getLong(rs, "payment_business_day_convention_id")))
+                        .putString(businessDayConventions.get(getLong(rs, "fixing_business_day_convention_id")))
+                        .putString(payRecs.get(getLong(rs, "pay_rec_id")))
+                        .putString(rs.getString("day_count_convention"))
+                        .putBoolean(rs.getObject("active", Boolean.class))
+                        .putTimestamp(getTimestamp(rs, "created_date"))
+                        .putTimestamp(getTimestamp(rs, "deactivated_date"))
+                        .endRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return rs.getLong("leg_id");
+        }
+
+        private void acceptCashflow(ResultSet rs) throws SQLException {
+            try {
+                cashflows.putLong(getLong(rs, "id"))
+                        .putLong(getLong(rs, "leg_id"))
+                        .putDate(getDate(rs, "value_date"))
+                        .putDecimal(rs.getBigDecimal("payment_value"))
+                        .putDecimal(rs.getObject("rate", Double.class))
+                        .putString(payRecs.get(getLong(rs, "pay_rec_id")))
+                        .putString(legTypes.get(getLong(rs, "payment_type_id")))
+                        .putString(businessDayConventions.get(getLong(rs, "payment_business_day_convention_id")))
+                        .putBoolean(rs.getObject("active", Boolean.class))
+                        .putTimestamp(getTimestamp(rs, "created_date"))
+                        .putDate(getDate(rs, "validity_start_date"))
+                        .putDate(getDate(rs, "validity_end_date"))
+                        .endRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (ColumnarFileWriter t = trades; ColumnarFileWriter l = legs; ColumnarFileWriter c = cashflows) {
+                // closes all three, keeping the first failure
+            }
+        }
+    }
+}
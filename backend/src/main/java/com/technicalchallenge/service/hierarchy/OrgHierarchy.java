@@ -0,0 +1,218 @@
+package com.technicalchallenge.service.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable closure of the desk, sub-desk, cost centre and book hierarchy.
+ * <p>
+ * Every node maps straight to the sorted ids of all books beneath it, so resolving a desk, sub-desk or cost
+ * centre to its books is a single map lookup rather than a walk over lazy associations. Nodes without books
+ * are kept with an empty set so they can be told apart from ids that do not exist.
+ */
+public final class OrgHierarchy {
+
+    public static final OrgHierarchy EMPTY = builder().build();
+
+    private static final long[] NO_BOOKS = new long[0];
+
+    private final Map<Long, long[]> booksByDesk;
+    private final Map<Long, long[]> booksBySubDesk;
+    private final Map<Long, long[]> booksByCostCenter;
+    private final Map<Long, String> deskNameByBook;
+    private final long[] allBooks;
+
+    private OrgHierarchy(Map<Long, long[]> booksByDesk, Map<Long, long[]> booksBySubDesk,
+                         Map<Long, long[]> booksByCostCenter, Map<Long, String> deskNameByBook, long[] allBooks) {
+        this.booksByDesk = booksByDesk;
+        this.booksBySubDesk = booksBySubDesk;
+        this.booksByCostCenter = booksByCostCenter;
+        this.deskNameByBook = deskNameByBook;
+        this.allBooks = allBooks;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<Long> getAllBookIds() {
+        return toList(allBooks);
+    }
+
+    public int getDeskCount() {
+        return booksByDesk.size();
+    }
+
+    public int getBookCount() {
+        return allBooks.length;
+    }
+
+    /**
+     * @return the name of the desk the book sits under, or null when the book is under no named desk
+     */
+    public String getDeskName(long bookId) {
+        return deskNameByBook.get(bookId);
+    }
+
+    /**
+     * Resolves the given nodes to the books beneath all of them.
+     *
+     * @return the sorted book ids, or null when no node is given and the caller should not restrict by book
+     * @throws IllegalArgumentException when a given node does not exist
+     */
+    public List<Long> resolve(Long deskId, Long subDeskId, Long costCenterId) {
+        return resolve(null, deskId, subDeskId, costCenterId);
+    }
+
+    /**
+     * As {@link #resolve(Long, Long, Long)}, further restricted to the explicitly requested books when given.
+     */
+    public List<Long> resolve(Collection<Long> bookIds, Long deskId, Long subDeskId, Long costCenterId) {
+        long[] books = null;
+        if (deskId != null) {
+            books = intersect(books, lookup(booksByDesk, deskId, "Desk"));
+        }
+        if (subDeskId != null) {
+            books = intersect(books, lookup(booksBySubDesk, subDeskId, "SubDesk"));
+        }
+        if (costCenterId != null) {
+            books = intersect(books, lookup(booksByCostCenter, costCenterId, "CostCenter"));
+        }
+        if (books == null) {
+            return bookIds == null ? null : List.copyOf(bookIds);
+        }
+        if (bookIds == null) {
+            return toList(books);
+        }
+        List<Long> result = new ArrayList<>();
+        for (long book : books) {
+            if (bookIds.contains(book)) {
+                result.add(book);
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static long[] lookup(Map<Long, long[]> books, Long id, String type) {
+        long[] found = books.get(id);
+        if (found == null) {
+            throw new IllegalArgumentException(type + " " + id + " does not exist");
+        }
+        return found;
+    }
+
+    // Merge of two sorted arrays, or the second when there is nothing to intersect with yet
+    private static long[] intersect(long[] left, long[] right) {
+        if (left == null) {
+            return right;
+        }
+        long[] result = new long[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    private static List<Long> toList(long[] books) {
+        return Arrays.stream(books).boxed().toList();
+    }
+
+    /**
+     * Collects the parent links of every node. Links to unknown parents are ignored, so a book whose cost
+     * centre is missing still counts in {@link #getAllBookIds()} but under no desk.
+     */
+    public static final class Builder {
+        private final List<Long> desks = new ArrayList<>();
+        private final Map<Long, String> deskNames = new HashMap<>();
+        private final Map<Long, Long> deskBySubDesk = new HashMap<>();
+        private final Map<Long, Long> subDeskByCostCenter = new HashMap<>();
+        private final Map<Long, Long> costCenterByBook = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder desk(long deskId) {
+            return desk(deskId, null);
+        }
+
+        public Builder desk(long deskId, String deskName) {
+            desks.add(deskId);
+            if (deskName != null) {
+                deskNames.put(deskId, deskName);
+            }
+            return this;
+        }
+
+        public Builder subDesk(long subDeskId, Long deskId) {
+            deskBySubDesk.put(subDeskId, deskId);
+            return this;
+        }
+
+        public Builder costCenter(long costCenterId, Long subDeskId) {
+            subDeskByCostCenter.put(costCenterId, subDeskId);
+            return this;
+        }
+
+        public Builder book(long bookId, Long costCenterId) {
+            costCenterByBook.put(bookId, costCenterId);
+            return this;
+        }
+
+        public OrgHierarchy build() {
+            Map<Long, List<Long>> deskBooks = new HashMap<>();
+            Map<Long, List<Long>> subDeskBooks = new HashMap<>();
+            Map<Long, List<Long>> costCenterBooks = new HashMap<>();
+            Map<Long, String> deskNameByBook = new HashMap<>();
+            desks.forEach(desk -> deskBooks.put(desk, new ArrayList<>()));
+            deskBySubDesk.keySet().forEach(subDesk -> subDeskBooks.put(subDesk, new ArrayList<>()));
+            subDeskByCostCenter.keySet().forEach(costCenter -> costCenterBooks.put(costCenter, new ArrayList<>()));
+
+            for (Map.Entry<Long, Long> entry : costCenterByBook.entrySet()) {
+                Long book = entry.getKey();
+                Long costCenter = entry.getValue();
+                if (costCenter == null || !costCenterBooks.containsKey(costCenter)) {
+                    continue;
+                }
+                costCenterBooks.get(costCenter).add(book);
+                Long subDesk = subDeskByCostCenter.get(costCenter);
+                if (subDesk == null || !subDeskBooks.containsKey(subDesk)) {
+                    continue;
+                }
+                subDeskBooks.get(subDesk).add(book);
+                Long desk = deskBySubDesk.get(subDesk);
+                if (desk != null && deskBooks.containsKey(desk)) {
+                    deskBooks.get(desk).add(book);
+                    if (deskNames.containsKey(desk)) {
+                        deskNameByBook.put(book, deskNames.get(desk));
+                    }
+                }
+            }
+            long[] allBooks = costCenterByBook.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            return new OrgHierarchy(sorted(deskBooks), sorted(subDeskBooks), sorted(costCenterBooks),
+                    Map.copyOf(deskNameByBook), allBooks);
+        }
+
+        private static Map<Long, long[]> sorted(Map<Long, List<Long>> books) {
+            Map<Long, long[]> result = new HashMap<>(books.size() * 2);
+            books.forEach((node, ids) -> result.put(node, ids.isEmpty() ? NO_BOOKS
+                    : ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+            return Map.copyOf(result);
+        }
+    }
+}
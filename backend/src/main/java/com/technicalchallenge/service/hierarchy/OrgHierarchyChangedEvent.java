@@ -0,0 +1,24 @@
+package com.technicalchallenge.service.hierarchy;
+
+/**
+ * Published when a desk, sub-desk, cost centre or book is created, changed or removed, so the hierarchy
+ * index can be rebuilt once the change commits.
+ */
+public class OrgHierarchyChangedEvent {
+
+    private final String entity;
+    private final Long id;
+
+    public OrgHierarchyChangedEvent(String entity, Long id) {
+        this.entity = entity;
+        this.id = id;
+    }
+
+    public String getEntity() {
+        return entity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
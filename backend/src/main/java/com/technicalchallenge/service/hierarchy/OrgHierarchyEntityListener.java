@@ -0,0 +1,42 @@
+package com.technicalchallenge.service.hierarchy;
+
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.CostCenter;
+import com.technicalchallenge.model.Desk;
+import com.technicalchallenge.model.SubDesk;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener on the hierarchy entities. Catches every write, whichever service or repository made it,
+ * and turns it into an {@link OrgHierarchyChangedEvent}.
+ */
+@Component
+public class OrgHierarchyEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrgHierarchyEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        Long id = null;
+        if (entity instanceof Desk desk) {
+            id = desk.getId();
+        } else if (entity instanceof SubDesk subDesk) {
+            id = subDesk.getId();
+        } else if (entity instanceof CostCenter costCenter) {
+            id = costCenter.getId();
+        } else if (entity instanceof Book book) {
+            id = book.getId();
+        }
+        eventPublisher.publishEvent(new OrgHierarchyChangedEvent(entity.getClass().getSimpleName(), id));
+    }
+}
@@ -0,0 +1,79 @@
+package com.technicalchallenge.service.hierarchy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Holds the current {@link OrgHierarchy}. It is built from the four static-data tables on first use and
+ * rebuilt whenever one of them changes, so reporting can turn a desk, sub-desk or cost centre into a
+ * single {@code book_id IN} filter without touching the entities.
+ */
+@Component
+public class OrgHierarchyIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrgHierarchyIndex.class);
+
+    private static final String DESKS_SQL = "SELECT id, desk_name FROM desk";
+    private static final String SUB_DESKS_SQL = "SELECT id, desk_id FROM sub_desk";
+    private static final String COST_CENTERS_SQL = "SELECT id, subdesk_id FROM cost_center";
+    private static final String BOOKS_SQL = "SELECT id, cost_center_id FROM book";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile OrgHierarchy hierarchy;
+
+    public OrgHierarchyIndex(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public OrgHierarchy getHierarchy() {
+        OrgHierarchy current = hierarchy;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * @see OrgHierarchy#resolve(Long, Long, Long)
+     */
+    public List<Long> resolveBooks(Long deskId, Long subDeskId, Long costCenterId) {
+        return getHierarchy().resolve(deskId, subDeskId, costCenterId);
+    }
+
+    /**
+     * @see OrgHierarchy#resolve(Collection, Long, Long, Long)
+     */
+    public List<Long> resolveBooks(Collection<Long> bookIds, Long deskId, Long subDeskId, Long costCenterId) {
+        return getHierarchy().resolve(bookIds, deskId, subDeskId, costCenterId);
+    }
+
+    public synchronized OrgHierarchy rebuild() {
+        long start = System.nanoTime();
+        OrgHierarchy.Builder builder = OrgHierarchy.builder();
+        jdbcTemplate.query(DESKS_SQL, (RowCallbackHandler) rs -> builder.desk(rs.getLong(1), rs.getString(2)));
+        jdbcTemplate.query(SUB_DESKS_SQL, (RowCallbackHandler) rs ->
+                builder.subDesk(rs.getLong(1), rs.getObject(2, Long.class)));
+        jdbcTemplate.query(COST_CENTERS_SQL, (RowCallbackHandler) rs ->
+                builder.costCenter(rs.getLong(1), rs.getObject(2, Long.class)));
+        jdbcTemplate.query(BOOKS_SQL, (RowCallbackHandler) rs ->
+                builder.book(rs.getLong(1), rs.getObject(2, Long.class)));
+        OrgHierarchy built = builder.build();
+        hierarchy = built;
+        logger.info("Built organisational hierarchy of {} desks and {} books in {} ms",
+                built.getDeskCount(), built.getBookCount(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    // Rebuilt after the change commits so the new rows are visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrgHierarchyChanged(OrgHierarchyChangedEvent event) {
+        logger.debug("{} {} changed, rebuilding organisational hierarchy", event.getEntity(), event.getId());
+        rebuild();
+    }
+}
@@ -0,0 +1,85 @@
+package com.technicalchallenge.service.journal;
+
+import com.technicalchallenge.dto.TradeSummaryDTO;
+import com.technicalchallenge.event.TradeEvent;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory blotter holding the latest state of every trade, rebuilt from the trade journal on startup
+ * and kept current by applying each journalled lifecycle event.
+ */
+@Component
+public class TradeBlotterReadModel {
+
+    private final Map<Long, TradeEvent> tradesById = new ConcurrentHashMap<>();
+    private volatile long lastSequence;
+
+    public void apply(long sequence, TradeEvent event) {
+        tradesById.put(event.getTradeId(), event);
+        lastSequence = sequence;
+    }
+
+    public void restore(long sequence, Collection<TradeEvent> trades) {
+        tradesById.clear();
+        for (TradeEvent trade : trades) {
+            tradesById.put(trade.getTradeId(), trade);
+        }
+        lastSequence = sequence;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public int size() {
+        return tradesById.size();
+    }
+
+    public Optional<TradeEvent> getTrade(Long tradeId) {
+        return Optional.ofNullable(tradesById.get(tradeId));
+    }
+
+    public List<TradeEvent> getBlotter() {
+        List<TradeEvent> blotter = new ArrayList<>(tradesById.values());
+        blotter.sort(Comparator.comparing(TradeEvent::getTradeId));
+        return blotter;
+    }
+
+    // Trade counts by status, notional by currency and counts by trade type and counterparty across the whole blotter
+    public TradeSummaryDTO getSummary() {
+        Map<String, Long> tradesByStatus = new HashMap<>();
+        Map<String, BigDecimal> notionalByCurrency = new HashMap<>();
+        Map<String, Map<String, Long>> tradesByTypeByCounterparty = new HashMap<>();
+
+        for (TradeEvent trade : tradesById.values()) {
+            if (trade.getTradeStatus() != null) {
+                tradesByStatus.merge(trade.getTradeStatus(), 1L, Long::sum);
+            }
+            for (TradeEvent.Leg leg : trade.getLegs()) {
+                if (leg.getCurrency() != null && leg.getNotional() != null) {
+                    notionalByCurrency.merge(leg.getCurrency(), leg.getNotional(), BigDecimal::add);
+                }
+            }
+            if (trade.getTradeType() != null && trade.getCounterpartyName() != null) {
+                tradesByTypeByCounterparty.computeIfAbsent(trade.getTradeType(), type -> new HashMap<>())
+                        .merge(trade.getCounterpartyName(), 1L, Long::sum);
+            }
+        }
+
+        TradeSummaryDTO summary = new TradeSummaryDTO();
+        summary.setTotalTradesByStatus(tradesByStatus);
+        summary.setTotalNotionalByCurrency(notionalByCurrency);
+        summary.setTradesByTypeByCounterparty(tradesByTypeByCounterparty);
+        return summary;
+    }
+}
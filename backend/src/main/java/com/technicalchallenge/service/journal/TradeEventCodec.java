@@ -0,0 +1,175 @@
+package com.technicalchallenge.service.journal;
+
+import com.technicalchallenge.event.TradeEvent;
+import com.technicalchallenge.event.TradeEventType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of {@link TradeEvent}s shared by the journal and the snapshot files.
+ * Dates are written as epoch days, timestamps as epoch millis (UTC) and notionals as unscaled value plus scale
+ * so nothing is lost on replay.
+ */
+final class TradeEventCodec {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    // Decimal markers; the first two match the boolean presence flag records were written with before
+    private static final byte DECIMAL_NULL = 0;
+    private static final byte DECIMAL_BYTE_LENGTH = 1;
+    private static final byte DECIMAL_VARINT_LENGTH = 2;
+
+    private TradeEventCodec() {
+    }
+
+    static byte[] encode(TradeEvent event) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(out, event);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode trade event for trade " + event.getTradeId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static TradeEvent decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            return read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode trade event", e);
+        }
+    }
+
+    static void write(DataOutput out, TradeEvent event) throws IOException {
+        out.writeByte(event.getType().getCode());
+        out.writeLong(event.getTradeId() != null ? event.getTradeId() : 0L);
+        out.writeInt(event.getVersion() != null ? event.getVersion() : 0);
+        writeString(out, event.getTradeStatus());
+        writeString(out, event.getTradeType());
+        writeString(out, event.getBookName());
+        writeString(out, event.getCounterpartyName());
+        writeString(out, event.getTraderLoginId());
+        writeDate(out, event.getTradeDate());
+        writeDate(out, event.getMaturityDate());
+        out.writeShort(event.getLegs().size());
+        for (TradeEvent.Leg leg : event.getLegs()) {
+            writeString(out, leg.getCurrency());
+            writeDecimal(out, leg.getNotional());
+            writeString(out, leg.getLegType());
+            writeString(out, leg.getPayRec());
+        }
+        writeString(out, event.getDetail());
+        out.writeLong(event.getOccurredAt() != null ? event.getOccurredAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L);
+    }
+
+    static TradeEvent read(DataInput in) throws IOException {
+        TradeEventType type = TradeEventType.fromCode(in.readByte());
+        long tradeId = in.readLong();
+        int version = in.readInt();
+        String tradeStatus = readString(in);
+        String tradeType = readString(in);
+        String bookName = readString(in);
+        String counterpartyName = readString(in);
+        String traderLoginId = readString(in);
+        LocalDate tradeDate = readDate(in);
+        LocalDate maturityDate = readDate(in);
+        int legCount = in.readShort();
+        List<TradeEvent.Leg> legs = new ArrayList<>(legCount);
+        for (int i = 0; i < legCount; i++) {
+            legs.add(new TradeEvent.Leg(readString(in), readDecimal(in), readString(in), readString(in)));
+        }
+        String detail = readString(in);
+        LocalDateTime occurredAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC);
+        return new TradeEvent(type, tradeId, version, tradeStatus, tradeType, bookName, counterpartyName,
+                traderLoginId, tradeDate, maturityDate, legs, detail, occurredAt);
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static void writeDecimal(DataOutput out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeByte(DECIMAL_NULL);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        // Lengths that fit an unsigned byte are written as records always were; longer ones take a varint
+        boolean byteLength = unscaled.length <= 0xFF;
+        out.writeByte(byteLength ? DECIMAL_BYTE_LENGTH : DECIMAL_VARINT_LENGTH);
+        out.writeInt(value.scale());
+        if (byteLength) {
+            out.writeByte(unscaled.length);
+        } else {
+            writeLength(out, unscaled.length);
+        }
+        out.write(unscaled);
+    }
+
+    static BigDecimal readDecimal(DataInput in) throws IOException {
+        byte marker = in.readByte();
+        if (marker == DECIMAL_NULL) {
+            return null;
+        }
+        int scale = in.readInt();
+        int length = switch (marker) {
+            case DECIMAL_BYTE_LENGTH -> in.readUnsignedByte();
+            case DECIMAL_VARINT_LENGTH -> readLength(in);
+            default -> throw new IOException("Unknown decimal marker " + marker);
+        };
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void writeLength(DataOutput out, int length) throws IOException {
+        while ((length & ~0x7F) != 0) {
+            out.writeByte((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.writeByte(length);
+    }
+
+    private static int readLength(DataInput in) throws IOException {
+        int length = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return length;
+            }
+        }
+        throw new IOException("Malformed decimal length");
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeLong(date != null ? date.toEpochDay() : NO_DATE);
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -0,0 +1,213 @@
+package com.technicalchallenge.service.journal;
+
+import com.technicalchallenge.event.TradeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of trade lifecycle events stored in fixed-size memory-mapped segment files.
+ * <p>
+ * Each record is framed as {@code [int bodyLength][int crc32c][long sequence][payload]}. Segments are
+ * pre-allocated (zero filled), so a zero length marks the end of written data, and a checksum mismatch marks
+ * a torn write from a crash which is treated as the end of the journal. Segment files are named after the first
+ * sequence they hold so replay can skip whole segments that precede a snapshot.
+ */
+public class TradeEventJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeEventJournal.class);
+
+    static final String SEGMENT_PREFIX = "trades-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    private static final int FRAME_BYTES = Integer.BYTES * 2;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long lastSequence;
+
+    public TradeEventJournal(Path directory, int segmentSize, boolean forceOnAppend) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceOnAppend = forceOnAppend;
+        Files.createDirectories(directory);
+
+        List<Path> segments = listSegments();
+        if (segments.isEmpty()) {
+            openSegment(1L);
+        } else {
+            Path current = segments.get(segments.size() - 1);
+            openSegment(firstSequenceOf(current));
+            recoverWritePosition();
+        }
+    }
+
+    /**
+     * Appends an event and returns the sequence number assigned to it.
+     */
+    public synchronized long append(TradeEvent event) throws IOException {
+        byte[] payload = TradeEventCodec.encode(event);
+        int bodyLength = Long.BYTES + payload.length;
+        if (FRAME_BYTES + bodyLength > segmentSize - FRAME_BYTES) {
+            throw new IllegalArgumentException("Trade event for trade " + event.getTradeId() + " exceeds the journal segment size");
+        }
+        if (buffer.remaining() < FRAME_BYTES + bodyLength + FRAME_BYTES) {
+            roll();
+        }
+
+        long sequence = lastSequence + 1;
+        byte[] body = ByteBuffer.allocate(bodyLength).putLong(sequence).put(payload).array();
+
+        int start = buffer.position();
+        // Write the body first and publish the length last so a partially written record is never readable
+        buffer.position(start + FRAME_BYTES);
+        buffer.put(body);
+        buffer.putInt(start + Integer.BYTES, (int) checksum(body));
+        buffer.putInt(start, bodyLength);
+        if (forceOnAppend) {
+            buffer.force();
+        }
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Replays every event with a sequence greater than {@code afterSequence}, in order.
+     *
+     * @return the number of events replayed
+     */
+    public synchronized long replay(long afterSequence, ObjLongConsumer<TradeEvent> consumer) throws IOException {
+        List<Path> segments = listSegments();
+        long replayed = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            // Skip segments whose successor starts at or before the requested position
+            if (i + 1 < segments.size() && firstSequenceOf(segments.get(i + 1)) <= afterSequence + 1) {
+                continue;
+            }
+            try (FileChannel readChannel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                MappedByteBuffer segment = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                while (segment.remaining() >= FRAME_BYTES) {
+                    int bodyLength = segment.getInt();
+                    if (bodyLength <= 0 || bodyLength > segment.remaining() - Integer.BYTES) {
+                        break;
+                    }
+                    int crc = segment.getInt();
+                    byte[] body = new byte[bodyLength];
+                    segment.get(body);
+                    if (crc != (int) checksum(body)) {
+                        logger.warn("Checksum mismatch in journal segment {}, ignoring the remainder", segments.get(i).getFileName());
+                        break;
+                    }
+                    long sequence = ByteBuffer.wrap(body).getLong();
+                    if (sequence > afterSequence) {
+                        consumer.accept(TradeEventCodec.decode(Arrays.copyOfRange(body, Long.BYTES, bodyLength)), sequence);
+                        replayed++;
+                    }
+                }
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Deletes every segment and starts the journal over from sequence 1.
+     */
+    public synchronized void reset() throws IOException {
+        channel.close();
+        for (Path segment : listSegments()) {
+            Files.delete(segment);
+        }
+        openSegment(1L);
+        logger.info("Reset trade journal at {}", directory);
+    }
+
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void roll() throws IOException {
+        buffer.force();
+        channel.close();
+        openSegment(lastSequence + 1);
+        logger.info("Rolled trade journal to new segment starting at sequence {}", lastSequence + 1);
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path segment = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        lastSequence = firstSequence - 1;
+    }
+
+    private void recoverWritePosition() {
+        while (buffer.remaining() >= FRAME_BYTES) {
+            int start = buffer.position();
+            int bodyLength = buffer.getInt();
+            if (bodyLength <= 0 || bodyLength > buffer.remaining() - Integer.BYTES) {
+                buffer.position(start);
+                break;
+            }
+            int crc = buffer.getInt();
+            byte[] body = new byte[bodyLength];
+            buffer.get(body);
+            if (crc != (int) checksum(body)) {
+                // Torn write: discard it so the next append overwrites it
+                logger.warn("Discarding incomplete trade journal record at position {}", start);
+                buffer.position(start);
+                buffer.putInt(start, 0);
+                break;
+            }
+            lastSequence = ByteBuffer.wrap(body).getLong();
+        }
+        logger.info("Opened trade journal at {} with last sequence {}", directory, lastSequence);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static long checksum(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return crc.getValue();
+    }
+}
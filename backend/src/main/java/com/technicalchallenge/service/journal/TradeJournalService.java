@@ -0,0 +1,193 @@
+package com.technicalchallenge.service.journal;
+
+import com.technicalchallenge.event.TradeEvent;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.repository.TradeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records every committed trade lifecycle event in the {@link TradeEventJournal}, keeps the
+ * {@link TradeBlotterReadModel} current and periodically snapshots it in the background. On startup the read
+ * model is rebuilt from the latest snapshot plus the journal tail instead of querying the database.
+ * <p>
+ * While the schema is recreated on every start ({@code spring.jpa.hibernate.ddl-auto} of {@code create} or
+ * {@code create-drop}) the trades journalled by an earlier run no longer exist and their ids are reused, so the
+ * journal and snapshots are discarded on startup and the read model is seeded from the database again.
+ */
+@Service
+public class TradeJournalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeJournalService.class);
+
+    private final TradeBlotterReadModel readModel;
+    private final TradeRepository tradeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int snapshotInterval;
+    private final boolean bootstrapFromDatabase;
+    private final boolean resetOnStartup;
+
+    private final TradeEventJournal journal;
+    private final TradeJournalSnapshotStore snapshotStore;
+    private final ExecutorService snapshotExecutor;
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+    private final Object snapshotLock = new Object();
+    private long lastSnapshotSequence;
+
+    public TradeJournalService(TradeBlotterReadModel readModel,
+                               TradeRepository tradeRepository,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${trade.journal.enabled:true}") boolean enabled,
+                               @Value("${trade.journal.directory:./data/journal}") String directory,
+                               @Value("${trade.journal.segment-size-bytes:16777216}") int segmentSize,
+                               @Value("${trade.journal.force-on-append:false}") boolean forceOnAppend,
+                               @Value("${trade.journal.snapshot-interval:10000}") int snapshotInterval,
+                               @Value("${trade.journal.bootstrap-from-database:true}") boolean bootstrapFromDatabase,
+                               @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) throws IOException {
+        this.readModel = readModel;
+        this.tradeRepository = tradeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.snapshotInterval = snapshotInterval;
+        this.bootstrapFromDatabase = bootstrapFromDatabase;
+        this.resetOnStartup = ddlAuto.startsWith("create");
+
+        if (enabled) {
+            Path journalDirectory = Path.of(directory);
+            this.journal = new TradeEventJournal(journalDirectory, segmentSize, forceOnAppend);
+            this.snapshotStore = new TradeJournalSnapshotStore(journalDirectory);
+            this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "trade-journal-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.journal = null;
+            this.snapshotStore = null;
+            this.snapshotExecutor = null;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTradeEvent(TradeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long sequence = journal.append(event);
+            readModel.apply(sequence, event);
+            // Writing the snapshot would hold up every committing request, so it is left to the snapshot thread
+            if (sequence - lastSnapshotSequence >= snapshotInterval && snapshotPending.compareAndSet(false, true)) {
+                lastSnapshotSequence = sequence;
+                snapshotExecutor.execute(this::snapshotInBackground);
+            }
+        } catch (IOException e) {
+            // The trade is already committed, so surface the failure loudly rather than failing the request
+            logger.error("Failed to journal {} event for trade {}: {}", event.getType(), event.getTradeId(), e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+
+        if (resetOnStartup && journal.getLastSequence() > 0) {
+            journal.reset();
+            snapshotStore.clear();
+            logger.info("Discarded trade journal of an earlier run, the database schema is recreated on startup");
+        }
+
+        TradeJournalSnapshotStore.Snapshot snapshot = snapshotStore.readLatest().orElse(null);
+        if (snapshot != null) {
+            readModel.restore(snapshot.getSequence(), snapshot.getTrades());
+            lastSnapshotSequence = snapshot.getSequence();
+        }
+        long replayed = journal.replay(readModel.getLastSequence(), (event, sequence) -> readModel.apply(sequence, event));
+
+        if (journal.getLastSequence() == 0 && bootstrapFromDatabase) {
+            bootstrap();
+        }
+
+        logger.info("Rebuilt trade blotter with {} trades from snapshot at sequence {} and {} journal events in {} ms",
+                readModel.size(), snapshot != null ? snapshot.getSequence() : 0, replayed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Writes a snapshot of the read model. Events applied while the blotter is copied may be included as well;
+     * recovery replays them again, which leaves each trade at its latest state.
+     */
+    public void snapshot() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            // Read the sequence before the blotter, so the snapshot holds at least every event up to it
+            long sequence = readModel.getLastSequence();
+            snapshotStore.write(sequence, readModel.getBlotter());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdown();
+            snapshotExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        synchronized (this) {
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    private void snapshotInBackground() {
+        try {
+            snapshot();
+        } catch (IOException e) {
+            // The journal still holds every event, recovery only replays more of it
+            logger.error("Failed to write trade journal snapshot: {}", e.getMessage(), e);
+        } finally {
+            snapshotPending.set(false);
+        }
+    }
+
+    // First start against an empty journal: seed it with the active trades already in the database
+    private void bootstrap() {
+        List<TradeEvent> events = transactionTemplate.execute(status -> tradeRepository.findByActiveTrueOrderByTradeIdDesc().stream()
+                .map(trade -> TradeEvent.of(TradeEventType.CREATED, trade, trade.getTradeLegs(), null))
+                .toList());
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        try {
+            for (int i = events.size() - 1; i >= 0; i--) {
+                readModel.apply(journal.append(events.get(i)), events.get(i));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to bootstrap trade journal", e);
+        }
+        logger.info("Bootstrapped trade journal with {} active trades from the database", events.size());
+    }
+}
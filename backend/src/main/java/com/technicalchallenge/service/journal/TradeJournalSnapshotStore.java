@@ -0,0 +1,130 @@
+package com.technicalchallenge.service.journal;
+
+import com.technicalchallenge.event.TradeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Point-in-time snapshots of the blotter read model. A snapshot records the journal sequence it covers,
+ * so recovery only replays the journal tail written after it. Files are written to a temporary name and
+ * atomically renamed, and carry a trailing checksum so a partially written snapshot is skipped.
+ */
+public class TradeJournalSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeJournalSnapshotStore.class);
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int MAGIC = 0x54534E50;
+    private static final int SNAPSHOTS_RETAINED = 2;
+
+    private final Path directory;
+
+    public TradeJournalSnapshotStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    public void write(long sequence, Collection<TradeEvent> trades) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)), new CRC32C());
+        try (DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeLong(sequence);
+            out.writeInt(trades.size());
+            for (TradeEvent trade : trades) {
+                TradeEventCodec.write(out, trade);
+            }
+            out.writeLong(checked.getChecksum().getValue());
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Wrote trade journal snapshot at sequence {} with {} trades", sequence, trades.size());
+
+        List<Path> snapshots = listSnapshots();
+        for (int i = SNAPSHOTS_RETAINED; i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    /**
+     * Loads the most recent readable snapshot, falling back to older ones if the latest is corrupt.
+     */
+    public Optional<Snapshot> readLatest() throws IOException {
+        for (Path file : listSnapshots()) {
+            try {
+                return Optional.of(read(file));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Ignoring unreadable trade journal snapshot {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    public void clear() throws IOException {
+        for (Path file : listSnapshots()) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private Snapshot read(Path file) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file)), new CRC32C());
+        try (DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a trade journal snapshot");
+            }
+            long sequence = in.readLong();
+            int count = in.readInt();
+            List<TradeEvent> trades = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                trades.add(TradeEventCodec.read(in));
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Checksum mismatch");
+            }
+            return new Snapshot(sequence, trades);
+        }
+    }
+
+    // Newest first
+    private List<Path> listSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Snapshot {
+        private final long sequence;
+        private final List<TradeEvent> trades;
+    }
+}
@@ -0,0 +1,130 @@
+package com.technicalchallenge.service.liquidity;
+
+import com.technicalchallenge.dto.CashflowLadderDTO;
+import com.technicalchallenge.service.cashflow.LiveLegLoader;
+import com.technicalchallenge.service.cashflow.LiveLegs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the cashflow ladder of live trades: future cash by currency and value-date bucket.
+ * <p>
+ * The live legs in scope are loaded first into {@link LiveLegs}, sorted primitive arrays holding each leg's currency
+ * and pay or receive side. Cashflows are then streamed off a forward-only cursor on the cashflow table alone, matched to
+ * their leg by binary search and added into per-currency arrays of cents and counts by bucket. No cashflow
+ * entity is ever loaded and the large table is never joined, which is what keeps a full-portfolio ladder well
+ * under a second.
+ */
+@Service
+public class CashflowLadderService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CashflowLadderService.class);
+
+    private static final String CASHFLOWS_SQL = "SELECT leg_id, pay_rec_id, value_date, payment_value FROM cashflow "
+            + "WHERE active = TRUE AND value_date >= ? AND payment_value IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LiveLegLoader liveLegLoader;
+
+    public CashflowLadderService(DataSource dataSource,
+                                 @Value("${trade.ladder.fetch-size:5000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.liveLegLoader = new LiveLegLoader(new NamedParameterJdbcTemplate(jdbcTemplate));
+    }
+
+    /**
+     * @param bookIds books to include, all books when null
+     * @param tenors  bucket tenors, see {@link LadderBuckets#parse(String, LocalDate)}
+     * @param asOf    first value date included, today when null
+     */
+    public CashflowLadderDTO getLadder(List<Long> bookIds, String tenors, LocalDate asOf) {
+        LocalDate date = asOf != null ? asOf : LocalDate.now();
+        LadderBuckets buckets = LadderBuckets.parse(tenors, date);
+        boolean filterBooks = bookIds != null;
+        long start = System.nanoTime();
+
+        LiveLegs legs = liveLegLoader.loadForBooks(bookIds);
+
+        int size = buckets.size();
+        List<String> legCurrencies = legs.getCurrencies();
+        long[][] cents = new long[legCurrencies.size()][size];
+        long[][] counts = new long[legCurrencies.size()][size];
+        if (legs.size() > 0) {
+            jdbcTemplate.query(CASHFLOWS_SQL, (RowCallbackHandler) rs -> {
+                int leg = legs.indexOf(rs.getLong(1));
+                if (leg < 0) {
+                    return;
+                }
+                int bucket = buckets.bucketOf(rs.getObject(3, LocalDate.class).toEpochDay());
+                if (bucket < 0) {
+                    return;
+                }
+                boolean pay = legs.isPay(leg, rs.getLong(2));
+                long amount = rs.getBigDecimal(4).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+                int currency = legs.currencyIndex(leg);
+                cents[currency][bucket] += pay ? -amount : amount;
+                counts[currency][bucket]++;
+            }, Date.valueOf(date));
+        }
+        logger.debug("Built cashflow ladder as of {} over {} legs in {} ms", date, legs.size(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        CashflowLadderDTO ladder = new CashflowLadderDTO();
+        ladder.setAsOf(date);
+        ladder.setBooks(filterBooks ? bookIds : List.of());
+        List<CashflowLadderDTO.Bucket> bucketDtos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bucketDtos.add(new CashflowLadderDTO.Bucket(buckets.label(i), buckets.startDate(i), buckets.endDate(i)));
+        }
+        ladder.setBuckets(bucketDtos);
+
+        List<CashflowLadderDTO.CurrencyLadder> currencies = new ArrayList<>();
+        int[] byName = IntStream.range(0, legCurrencies.size()).boxed()
+                .sorted(Comparator.comparing(legCurrencies::get))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        for (int index : byName) {
+            long[] currencyCents = cents[index];
+            long[] currencyCounts = counts[index];
+            if (Arrays.stream(currencyCounts).allMatch(count -> count == 0)) {
+                continue;
+            }
+            List<BigDecimal> amounts = new ArrayList<>(size);
+            List<BigDecimal> cumulative = new ArrayList<>(size);
+            List<Long> cashflowCounts = new ArrayList<>(size);
+            long running = 0;
+            for (int i = 0; i < size; i++) {
+                running += currencyCents[i];
+                amounts.add(BigDecimal.valueOf(currencyCents[i], 2));
+                cumulative.add(BigDecimal.valueOf(running, 2));
+                cashflowCounts.add(currencyCounts[i]);
+            }
+            CashflowLadderDTO.CurrencyLadder row = new CashflowLadderDTO.CurrencyLadder();
+            row.setCurrency(legCurrencies.get(index));
+            row.setAmounts(amounts);
+            row.setCumulativeAmounts(cumulative);
+            row.setCashflowCounts(cashflowCounts);
+            row.setTotal(BigDecimal.valueOf(running, 2));
+            currencies.add(row);
+        }
+        ladder.setCurrencies(currencies);
+        return ladder;
+    }
+}
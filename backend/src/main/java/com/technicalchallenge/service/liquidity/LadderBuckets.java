@@ -0,0 +1,126 @@
+package com.technicalchallenge.service.liquidity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Value-date buckets of a cashflow ladder, built from increasing tenors such as {@code 1W,1M,3M,1Y} relative to
+ * an as-of date. Bucket i covers [edge i-1, edge i), the first starting at the as-of date, and a final open
+ * bucket holds everything after the last tenor. Edges are held as epoch days so locating the bucket of a value
+ * date is a binary search.
+ */
+public final class LadderBuckets {
+
+    public static final String DEFAULT_TENORS = "1W,1M,3M,6M,1Y,2Y,5Y,10Y";
+
+    private static final Pattern TENOR = Pattern.compile("(\\d+)([DWMY])");
+
+    private final LocalDate asOf;
+    private final long asOfDay;
+    private final String[] tenors;
+    private final LocalDate[] edgeDates;
+    private final long[] edges;
+
+    private LadderBuckets(LocalDate asOf, String[] tenors, LocalDate[] edgeDates) {
+        this.asOf = asOf;
+        this.asOfDay = asOf.toEpochDay();
+        this.tenors = tenors;
+        this.edgeDates = edgeDates;
+        this.edges = new long[edgeDates.length];
+        for (int i = 0; i < edgeDates.length; i++) {
+            edges[i] = edgeDates[i].toEpochDay();
+        }
+    }
+
+    /**
+     * @param spec comma separated tenors, e.g. {@code 1W,1M,3M,1Y}; null or blank uses {@link #DEFAULT_TENORS}
+     * @throws IllegalArgumentException if a tenor is malformed or the tenors are not strictly increasing
+     */
+    public static LadderBuckets parse(String spec, LocalDate asOf) {
+        String source = spec == null || spec.isBlank() ? DEFAULT_TENORS : spec;
+        List<String> tenors = new ArrayList<>();
+        List<LocalDate> edges = new ArrayList<>();
+        for (String token : source.split(",")) {
+            String tenor = token.trim().toUpperCase(Locale.ROOT);
+            if (tenor.isEmpty()) {
+                continue;
+            }
+            Matcher matcher = TENOR.matcher(tenor);
+            if (!matcher.matches() || Integer.parseInt(matcher.group(1)) == 0) {
+                throw new IllegalArgumentException("Invalid ladder bucket: " + token.trim()
+                        + ". Use tenors such as 1W, 1M, 3M, 1Y");
+            }
+            LocalDate edge = addTenor(asOf, Integer.parseInt(matcher.group(1)), matcher.group(2).charAt(0));
+            if (!edges.isEmpty() && !edge.isAfter(edges.get(edges.size() - 1))) {
+                throw new IllegalArgumentException("Ladder buckets must be in increasing order: " + source);
+            }
+            tenors.add(tenor);
+            edges.add(edge);
+        }
+        if (tenors.isEmpty()) {
+            throw new IllegalArgumentException("At least one ladder bucket is required");
+        }
+        return new LadderBuckets(asOf, tenors.toArray(new String[0]), edges.toArray(new LocalDate[0]));
+    }
+
+    private static LocalDate addTenor(LocalDate date, int amount, char unit) {
+        switch (unit) {
+            case 'D':
+                return date.plusDays(amount);
+            case 'W':
+                return date.plusWeeks(amount);
+            case 'M':
+                return date.plusMonths(amount);
+            default:
+                return date.plusYears(amount);
+        }
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    /**
+     * Number of buckets, including the open bucket after the last tenor.
+     */
+    public int size() {
+        return edges.length + 1;
+    }
+
+    /**
+     * Bucket of a value date on or after the as-of date, or -1 for an earlier date.
+     */
+    public int bucketOf(long epochDay) {
+        if (epochDay < asOfDay) {
+            return -1;
+        }
+        int position = Arrays.binarySearch(edges, epochDay);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    public String label(int bucket) {
+        if (bucket == 0) {
+            return "0-" + tenors[0];
+        }
+        if (bucket == edges.length) {
+            return tenors[edges.length - 1] + "+";
+        }
+        return tenors[bucket - 1] + "-" + tenors[bucket];
+    }
+
+    public LocalDate startDate(int bucket) {
+        return bucket == 0 ? asOf : edgeDates[bucket - 1];
+    }
+
+    /**
+     * Exclusive end date of the bucket, null for the open bucket.
+     */
+    public LocalDate endDate(int bucket) {
+        return bucket < edges.length ? edgeDates[bucket] : null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.technicalchallenge.service.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/slowqueries}: the statement fingerprints that spent the most time over the slow-query threshold,
+ * and {@code /actuator/slowqueries/{id}} one of them with its slowest statement and plan. A DELETE starts afresh.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueriesEndpoint {
+
+    private static final int MAX_FINGERPRINTS = 50;
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueriesEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> top() {
+        List<Map<String, Object>> statements = slowQueryLog.top(MAX_FINGERPRINTS).stream()
+                .map(entry -> entry.snapshot(false))
+                .toList();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMillis", slowQueryLog.getThresholdMillis());
+        result.put("fingerprints", slowQueryLog.size());
+        result.put("statements", statements);
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statement(@Selector String id) {
+        return slowQueryLog.get(id).map(entry -> entry.snapshot(true)).orElse(null);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
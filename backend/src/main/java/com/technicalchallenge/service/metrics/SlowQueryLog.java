@@ -0,0 +1,295 @@
+package com.technicalchallenge.service.metrics;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Statements that took longer than a threshold to execute, aggregated by fingerprint: the SQL with its literals
+ * replaced by {@code ?} and IN lists collapsed, so the same filter with other values or list lengths counts as one.
+ * Each fingerprint keeps its counts and timings, the shapes of the parameters it was bound with and the H2
+ * {@code EXPLAIN} plan of its slowest execution. Each new slowest execution is logged and its plan captured, with
+ * the values it was bound with, on a single background thread; plans are dropped rather than queued when many
+ * arrive at once.
+ * <p>
+ * Fed by {@link SqlCountingDataSource}, so only the statements of HTTP requests are recorded.
+ */
+public class SlowQueryLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int MAX_SQL_LENGTH = 4000;
+    private static final int MAX_SHAPES = 5;
+    private static final int MAX_SHAPE_PARAMETERS = 20;
+    private static final int ID_LENGTH = 16;
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(?:/\\*.*?\\*/\\s*)*(select|with)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final long thresholdNanos;
+    private final int maxFingerprints;
+    private final boolean explain;
+    private final Executor explainExecutor;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public SlowQueryLog(long thresholdMillis, int maxFingerprints, boolean explain) {
+        this(thresholdMillis, maxFingerprints, explain, explainExecutor());
+    }
+
+    SlowQueryLog(long thresholdMillis, int maxFingerprints, boolean explain, Executor explainExecutor) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.maxFingerprints = maxFingerprints;
+        this.explain = explain;
+        this.explainExecutor = explainExecutor;
+    }
+
+    public boolean isSlow(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos;
+    }
+
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * Records a statement found slow by {@link #isSlow(long)}.
+     * @param sql the statement as executed, with its placeholders
+     * @param parameters the values bound to it by index, from 1, or null for a plain statement
+     * @param rows rows read from or changed by it
+     * @param elapsedNanos how long it took to execute
+     * @param dataSource where its plan can be explained, unwrapped so the explaining is not itself recorded
+     */
+    public void record(String sql, Object[] parameters, long rows, long elapsedNanos, DataSource dataSource) {
+        String fingerprint = fingerprint(sql);
+        Entry entry = entries.get(fingerprint);
+        if (entry == null) {
+            if (entries.size() >= maxFingerprints) {
+                evictCheapest();
+            }
+            entry = entries.computeIfAbsent(fingerprint, Entry::new);
+        }
+        boolean slowest = entry.add(sql, shape(parameters), rows, elapsedNanos);
+        if (!slowest) {
+            return;
+        }
+        logger.warn("Slow SQL {} ms, {} rows: {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows,
+                fingerprint.length() > 200 ? fingerprint.substring(0, 200) + "..." : fingerprint);
+        if (explain && dataSource != null && EXPLAINABLE.matcher(sql).find()) {
+            Object[] values = parameters != null ? parameters.clone() : new Object[0];
+            Entry explained = entry;
+            try {
+                explainExecutor.execute(() -> explained.setPlan(explain(dataSource, sql, values)));
+            } catch (RuntimeException e) {
+                logger.debug("Skipped explaining slow SQL: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the fingerprints that took the most time in total, slowest first
+     */
+    public List<Entry> top(int limit) {
+        return entries.values().stream()
+                .sorted(Comparator.comparingLong(Entry::getTotalNanos).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public Optional<Entry> get(String id) {
+        return entries.values().stream().filter(entry -> entry.getId().equals(id)).findFirst();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (explainExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    static String fingerprint(String sql) {
+        // Hibernate's query comments would only split one statement into several fingerprints
+        String normalised = COMMENT.matcher(sql).replaceAll(" ");
+        normalised = STRING_LITERAL.matcher(normalised).replaceAll("?");
+        normalised = NUMBER_LITERAL.matcher(normalised).replaceAll("?");
+        normalised = IN_LIST.matcher(normalised).replaceAll("(?)");
+        return WHITESPACE.matcher(normalised).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String shape(Object[] parameters) {
+        if (parameters == null) {
+            return "[]";
+        }
+        List<String> types = new ArrayList<>();
+        for (int i = 1; i < parameters.length && types.size() < MAX_SHAPE_PARAMETERS; i++) {
+            types.add(parameters[i] == null ? "null" : parameters[i].getClass().getSimpleName());
+        }
+        int count = Math.max(parameters.length - 1, 0);
+        return types + (count > MAX_SHAPE_PARAMETERS ? " +" + (count - MAX_SHAPE_PARAMETERS) : "");
+    }
+
+    private static String explain(DataSource dataSource, String sql, Object[] parameters) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i < parameters.length; i++) {
+                statement.setObject(i, parameters[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString().trim();
+        } catch (SQLException e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    // Slow statements are rare, so a scan to keep the log bounded is cheap enough
+    private void evictCheapest() {
+        entries.values().stream()
+                .min(Comparator.comparingLong(Entry::getTotalNanos))
+                .ifPresent(cheapest -> entries.remove(cheapest.getFingerprint()));
+    }
+
+    // The first hex digits of the fingerprint's SHA-256, stable across restarts and unlikely to collide
+    static String id(String fingerprint) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8)))
+                    .substring(0, ID_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to hash fingerprint", e);
+        }
+    }
+
+    private static Executor explainExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    /**
+     * What is known of one fingerprint. Updated under its own lock, as several requests may record it at once.
+     */
+    public static final class Entry {
+
+        private final String fingerprint;
+        private final String id;
+        private final Set<String> shapes = new LinkedHashSet<>();
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private long totalRows;
+        private long maxRows;
+        private String slowestSql;
+        private Instant lastSeen;
+        private String plan;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+            this.id = id(fingerprint);
+        }
+
+        private synchronized boolean add(String sql, String shape, long rows, long elapsedNanos) {
+            count++;
+            totalNanos += elapsedNanos;
+            totalRows += rows;
+            maxRows = Math.max(maxRows, rows);
+            lastSeen = Instant.now();
+            if (shapes.size() < MAX_SHAPES) {
+                shapes.add(shape);
+            }
+            if (elapsedNanos > maxNanos || slowestSql == null) {
+                maxNanos = elapsedNanos;
+                slowestSql = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+                return true;
+            }
+            return false;
+        }
+
+        private synchronized void setPlan(String plan) {
+            this.plan = plan;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public synchronized long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public synchronized String getPlan() {
+            return plan;
+        }
+
+        /**
+         * @param withPlan whether to include the slowest statement and its plan, which can be long
+         */
+        public synchronized Map<String, Object> snapshot(boolean withPlan) {
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("id", id);
+            snapshot.put("fingerprint", fingerprint);
+            snapshot.put("count", count);
+            snapshot.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+            snapshot.put("meanMillis", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos / count));
+            snapshot.put("maxMillis", TimeUnit.NANOSECONDS.toMillis(maxNanos));
+            snapshot.put("meanRows", count == 0 ? 0 : totalRows / count);
+            snapshot.put("maxRows", maxRows);
+            snapshot.put("parameterShapes", List.copyOf(shapes));
+            snapshot.put("lastSeen", lastSeen);
+            if (withPlan) {
+                snapshot.put("slowestSql", slowestSql);
+                snapshot.put("plan", plan);
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.technicalchallenge.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements and rows each HTTP request costs, including those spent authenticating it.
+ * <p>
+ * The counts are returned in a {@code Server-Timing} header, {@code sql;dur=<ms>;desc="statements=<n> rows=<n>"},
+ * added when the response is committed, and recorded per endpoint as the {@code sql.request.statements} and
+ * {@code sql.request.rows} metrics. A request over its endpoint's statement budget, or running the same statement
+ * many times over as lazy loading in a loop does, is logged and counted.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private static final String UNKNOWN = "UNKNOWN";
+    private static final int MAX_LOGGED_SQL = 200;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+    private final int repeatThreshold;
+
+    // Web slices have no meter registry, the global one stands in there
+    public SqlBudgetFilter(ObjectProvider<MeterRegistry> meterRegistry,
+                           @Value("${trade.sql.instrumentation.enabled:true}") boolean enabled,
+                           @Value("${trade.sql.default-budget:200}") int defaultBudget,
+                           @Value("${trade.sql.budgets:}") String budgets,
+                           @Value("${trade.sql.n-plus-one-threshold:20}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        this.enabled = enabled;
+        this.defaultBudget = defaultBudget;
+        this.budgets = parseBudgets(budgets);
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        SqlRequestStatistics statistics = SqlRequestStatistics.start();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, statistics);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            statistics.stop();
+            timedResponse.addServerTiming();
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlRequestStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN : pattern.toString();
+        String method = request.getMethod();
+        DistributionSummary.builder("sql.request.statements")
+                .description("SQL statements executed per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("sql.request.rows")
+                .description("Rows read per HTTP request")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statistics.getRows());
+
+        String endpoint = method + " " + uri;
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (statistics.getStatements() > budget) {
+            logger.warn("{} executed {} SQL statements, over its budget of {}", endpoint, statistics.getStatements(), budget);
+            counter("sql.request.budget.exceeded", method, uri).increment();
+        }
+        Map.Entry<String, Integer> repeated = statistics.getMostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            String sql = repeated.getKey().replaceAll("\\s+", " ").trim();
+            logger.warn("Possible N+1 query in {}: executed {} times: {}", endpoint, repeated.getValue(),
+                    sql.length() > MAX_LOGGED_SQL ? sql.substring(0, MAX_LOGGED_SQL) + "..." : sql);
+            counter("sql.request.repeated", method, uri).increment();
+        }
+    }
+
+    private Counter counter(String name, String method, String uri) {
+        return Counter.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    static String serverTiming(SqlRequestStatistics statistics) {
+        return String.format(Locale.ROOT, "sql;dur=%.1f;desc=\"statements=%d rows=%d\"",
+                statistics.getNanos() / 1_000_000.0, statistics.getStatements(), statistics.getRows());
+    }
+
+    // GET /api/trades=50;GET /api/trades/{id}=20
+    private static Map<String, Integer> parseBudgets(String budgets) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String entry : budgets.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid SQL budget '" + entry + "', expected METHOD pattern=statements");
+            }
+            parsed.put(entry.substring(0, separator).trim().replaceAll("\\s+", " "),
+                    Integer.parseInt(entry.substring(separator + 1).trim()));
+        }
+        return Map.copyOf(parsed);
+    }
+
+    // Adds the header just before the response is committed, after which headers can no longer be set
+    private static final class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final SqlRequestStatistics statistics;
+        private boolean added;
+
+        private ServerTimingResponse(HttpServletResponse response, SqlRequestStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void addServerTiming() {
+            if (!added && !isCommitted()) {
+                added = true;
+                addHeader(SERVER_TIMING, serverTiming(statistics));
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
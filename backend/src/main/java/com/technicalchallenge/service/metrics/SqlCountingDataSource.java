@@ -0,0 +1,206 @@
+package com.technicalchallenge.service.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Wraps a {@link DataSource} so connections obtained while a {@link SqlRequestStatistics} tally is active count the
+ * statements they execute and the rows read through them. Connections obtained on other threads, such as the
+ * scheduled jobs streaming whole tables, are handed out untouched and cost nothing.
+ * <p>
+ * Given a {@link SlowQueryLog}, statements slower than its threshold are also recorded there, with the values they
+ * were bound with and, for queries, the rows read once their result set is closed.
+ */
+public final class SqlCountingDataSource {
+
+    private SqlCountingDataSource() {
+    }
+
+    public static DataSource wrap(DataSource dataSource) {
+        return wrap(dataSource, null);
+    }
+
+    public static DataSource wrap(DataSource dataSource, SlowQueryLog slowQueries) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            SqlRequestStatistics statistics = SqlRequestStatistics.current();
+            if (result instanceof Connection connection && statistics != null) {
+                return proxy(Connection.class, connection, connectionHandler(statistics, slowQueries, dataSource));
+            }
+            return result;
+        });
+    }
+
+    private static Handler connectionHandler(SqlRequestStatistics statistics, SlowQueryLog slowQueries,
+                                             DataSource dataSource) {
+        return (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                // The SQL of a prepared statement or call is given when it is prepared, not when it is executed
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                SlowQueryCapture capture = slowQueries != null ? new SlowQueryCapture(slowQueries, dataSource) : null;
+                return proxy(method.getReturnType(), statement, statementHandler(statistics, sql, capture));
+            }
+            return result;
+        };
+    }
+
+    private static Handler statementHandler(SqlRequestStatistics statistics, String preparedSql,
+                                            SlowQueryCapture capture) {
+        return (target, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                long start = System.nanoTime();
+                Object result = invoke(target, method, args);
+                long elapsed = System.nanoTime() - start;
+                statistics.recordStatement(sql, elapsed);
+                SlowExecution slow = capture != null ? capture.executed(sql, elapsed, result) : null;
+                return result instanceof ResultSet resultSet ? resultSet(statistics, resultSet, slow) : result;
+            }
+            if (capture != null) {
+                capture.invoked(name, args);
+            }
+            Object result = invoke(target, method, args);
+            return result instanceof ResultSet resultSet ? resultSet(statistics, resultSet, null) : result;
+        };
+    }
+
+    private static ResultSet resultSet(SqlRequestStatistics statistics, ResultSet resultSet, SlowExecution slow) {
+        return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                statistics.recordRow();
+                if (slow != null) {
+                    slow.rows++;
+                }
+            } else if (slow != null && method.getName().equals("close")) {
+                slow.record();
+            }
+            return result;
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "equals" -> args[0] == proxy;
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> handler.handle(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(SqlCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                invocationHandler);
+    }
+
+    /**
+     * The values bound to one statement, kept to record it with should it turn out slow. Like the statement, only
+     * used by one thread.
+     */
+    private static final class SlowQueryCapture {
+
+        private static final Object[] NO_PARAMETERS = new Object[0];
+
+        private final SlowQueryLog slowQueries;
+        private final DataSource dataSource;
+        private Object[] parameters = NO_PARAMETERS;
+        private int lastIndex;
+        private SlowExecution pending;
+
+        private SlowQueryCapture(SlowQueryLog slowQueries, DataSource dataSource) {
+            this.slowQueries = slowQueries;
+            this.dataSource = dataSource;
+        }
+
+        private void invoked(String name, Object[] args) {
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                    && index > 0) {
+                if (index >= parameters.length) {
+                    parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+                }
+                parameters[index] = name.equals("setNull") ? null : args[1];
+                lastIndex = Math.max(lastIndex, index);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(parameters, null);
+                lastIndex = 0;
+            } else if (name.equals("close") && pending != null) {
+                pending.record();
+            }
+        }
+
+        // A query is recorded when its result set is closed, with the rows read; anything else right away
+        private SlowExecution executed(String sql, long elapsedNanos, Object result) {
+            if (pending != null) {
+                // Executing again closes the previous result set without going through its proxy
+                pending.record();
+                pending = null;
+            }
+            if (sql == null || !slowQueries.isSlow(elapsedNanos)) {
+                return null;
+            }
+            Object[] bound = lastIndex == 0 ? null : Arrays.copyOf(parameters, lastIndex + 1);
+            if (result instanceof ResultSet) {
+                pending = new SlowExecution(this, sql, bound, elapsedNanos);
+                return pending;
+            }
+            slowQueries.record(sql, bound, rowsChanged(result), elapsedNanos, dataSource);
+            return null;
+        }
+
+        private static long rowsChanged(Object result) {
+            if (result instanceof Number count) {
+                return Math.max(count.longValue(), 0);
+            }
+            if (result instanceof int[] counts) {
+                return Arrays.stream(counts).filter(count -> count > 0).asLongStream().sum();
+            }
+            if (result instanceof long[] counts) {
+                return Arrays.stream(counts).filter(count -> count > 0).sum();
+            }
+            return 0;
+        }
+    }
+
+    private static final class SlowExecution {
+
+        private final SlowQueryCapture capture;
+        private final String sql;
+        private final Object[] parameters;
+        private final long elapsedNanos;
+        private long rows;
+        private boolean recorded;
+
+        private SlowExecution(SlowQueryCapture capture, String sql, Object[] parameters, long elapsedNanos) {
+            this.capture = capture;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private void record() {
+            if (!recorded) {
+                recorded = true;
+                capture.slowQueries.record(sql, parameters, rows, elapsedNanos, capture.dataSource);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
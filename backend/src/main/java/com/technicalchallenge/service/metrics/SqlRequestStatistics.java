@@ -0,0 +1,81 @@
+package com.technicalchallenge.service.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tally of the JDBC statements executed and rows read while serving one HTTP request. The tally is bound to the
+ * request thread between {@link #start()} and {@link #stop()}, and connections obtained meanwhile record into it.
+ * It is only ever updated by that thread, so it is not synchronised.
+ */
+public final class SqlRequestStatistics {
+
+    private static final ThreadLocal<SqlRequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> executions = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long nanos;
+
+    private SqlRequestStatistics() {
+    }
+
+    /**
+     * Starts a tally for the current thread, replacing any left over
+     */
+    public static SqlRequestStatistics start() {
+        SqlRequestStatistics statistics = new SqlRequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * @return the tally of the current thread, or null when it is not serving a request
+     */
+    public static SqlRequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    public void stop() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    void recordStatement(String sql, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        if (sql != null) {
+            executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the statement executed most often, with its count, or null when none was executed
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+        Map.Entry<String, Integer> most = null;
+        for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+            if (most == null || entry.getValue() > most.getValue()) {
+                most = entry;
+            }
+        }
+        return most;
+    }
+}
@@ -0,0 +1,155 @@
+package com.technicalchallenge.service.metrics;
+
+import com.technicalchallenge.exception.TradeLockTimeoutException;
+import com.technicalchallenge.exception.TradeValidationException;
+import com.technicalchallenge.exception.TradeVersionConflictException;
+import com.technicalchallenge.exception.UserPrivilegeValidationException;
+import com.technicalchallenge.service.validation.ValidationResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records where booking time goes: how long each lifecycle operation and cashflow generation takes, how reference
+ * data lookups resolve and why trades are rejected. Timers publish percentile histograms so latency percentiles can
+ * be aggregated across instances. An operation that returns inside a transaction is only recorded once the
+ * transaction completes, so a booking rolled back at commit is not counted as a success.
+ */
+@Component
+public class TradeMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String REJECTED = "rejected";
+    public static final String CONFLICT = "conflict";
+    public static final String ERROR = "error";
+
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+
+    public TradeMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records a create, amend, cancel or terminate
+     * @param operation the lifecycle operation, e.g. create
+     * @param tradeType the trade type, or null when it is not known
+     * @param failure what the operation failed with, or null when it succeeded
+     * @param elapsedNanos how long the operation took
+     */
+    public void recordLifecycle(String operation, String tradeType, Throwable failure, long elapsedNanos) {
+        lifecycle(operation, tradeType, outcome(failure)).record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a create, amend, cancel or terminate when the surrounding transaction completes, timed up to then. A
+     * failure, or an operation outside a transaction, is recorded straight away.
+     * @param operation the lifecycle operation, e.g. create
+     * @param tradeType the trade type, or null when it is not known
+     * @param failure what the operation failed with, or null when it returned
+     * @param startNanos the {@link System#nanoTime()} the operation started at
+     */
+    public void recordLifecycleOnCompletion(String operation, String tradeType, Throwable failure, long startNanos) {
+        if (failure != null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordLifecycle(operation, tradeType, failure, System.nanoTime() - startNanos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lifecycle(operation, tradeType, status == STATUS_COMMITTED ? SUCCESS : ERROR)
+                        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private Timer lifecycle(String operation, String tradeType, String outcome) {
+        return Timer.builder("trade.lifecycle")
+                .description("Time taken by trade lifecycle operations")
+                .tag("operation", operation)
+                .tag("tradeType", tradeType == null ? UNKNOWN : tradeType)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records the generation and saving of a leg's cashflows
+     * @param legType the leg's rate type, or null when it has none
+     * @param cashflows how many cashflows were generated
+     * @param failure what generation failed with, or null when it succeeded
+     * @param elapsedNanos how long generation took
+     */
+    public void recordCashflowGeneration(String legType, int cashflows, Throwable failure, long elapsedNanos) {
+        String type = legType == null ? UNKNOWN : legType;
+        Timer.builder("trade.cashflows.generation")
+                .description("Time taken to generate and save the cashflows of a leg")
+                .tag("legType", type)
+                .tag("outcome", outcome(failure))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("trade.cashflows.generated")
+                .tag("legType", type)
+                .register(meterRegistry)
+                .increment(cashflows);
+    }
+
+    /**
+     * Records a lookup of reference data, such as a book or currency, while populating a trade
+     * @param entity the kind of reference data looked up
+     * @param found whether it was found
+     */
+    public void recordLookup(String entity, boolean found) {
+        Counter.builder("trade.reference.lookups")
+                .description("Reference data lookups made while populating trades")
+                .tag("entity", entity)
+                .tag("result", found ? "found" : "missing")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records a trade rejected because its inputter lacks the privileges for the operation
+     */
+    public void recordPrivilegeFailure(String operation) {
+        validationFailures(operation, "privileges", "inputterUserName").increment();
+    }
+
+    /**
+     * Records every field a trade failed the business rules on
+     */
+    public void recordValidationFailure(String operation, ValidationResult result) {
+        for (String field : result.getErrors().keySet()) {
+            validationFailures(operation, "businessRules", field).increment();
+        }
+    }
+
+    private Counter validationFailures(String operation, String check, String field) {
+        return Counter.builder("trade.validation.failures")
+                .description("Trades rejected by validation, per field")
+                .tag("operation", operation)
+                .tag("check", check)
+                .tag("field", field)
+                .register(meterRegistry);
+    }
+
+    static String outcome(Throwable failure) {
+        if (failure == null) {
+            return SUCCESS;
+        }
+        if (failure instanceof TradeValidationException || failure instanceof UserPrivilegeValidationException) {
+            return REJECTED;
+        }
+        if (failure instanceof TradeVersionConflictException || failure instanceof TradeLockTimeoutException) {
+            return CONFLICT;
+        }
+        return ERROR;
+    }
+}
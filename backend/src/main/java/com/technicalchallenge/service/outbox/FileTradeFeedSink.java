@@ -0,0 +1,40 @@
+package com.technicalchallenge.service.outbox;
+
+import com.technicalchallenge.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Local stand-in for downstream feeds: appends one JSON line per event to a file
+@Component
+@ConditionalOnProperty(name = "trade.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileTradeFeedSink implements TradeFeedSink {
+
+    private final Path file;
+
+    public FileTradeFeedSink(@Value("${trade.outbox.sink.file.path:./data/feeds/trade-feed.jsonl}") String file) throws IOException {
+        this.file = Path.of(file);
+        if (this.file.getParent() != null) {
+            Files.createDirectories(this.file.getParent());
+        }
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxEvent event : events) {
+                writer.write(TradeFeedSink.toJson(event));
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.technicalchallenge.service.outbox;
+
+import com.technicalchallenge.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Posts each trade's events as a JSON array to a downstream HTTP endpoint; any non-2xx response is retried
+@Component
+@ConditionalOnProperty(name = "trade.outbox.sink", havingValue = "http")
+public class HttpTradeFeedSink implements TradeFeedSink {
+
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final Duration timeout;
+
+    public HttpTradeFeedSink(@Value("${trade.outbox.sink.http.url}") String url,
+                             @Value("${trade.outbox.sink.http.timeout-ms:5000}") long timeoutMs) {
+        this.endpoint = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> events) throws IOException {
+        String body = events.stream()
+                .map(TradeFeedSink::toJson)
+                .collect(Collectors.joining(",", "[", "]"));
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() / 100 != 2) {
+                throw new IOException("Trade feed endpoint returned HTTP " + response.statusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while publishing trade feed", e);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.technicalchallenge.service.outbox;
+
+import com.technicalchallenge.model.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for outbox events. The dispatcher calls {@link #publish} with the events of a single trade in
+ * outbox order; a failure means none of them are treated as delivered and the batch is retried later, so
+ * delivery is at-least-once and consumers should de-duplicate on the outbox event id.
+ */
+public interface TradeFeedSink {
+
+    void publish(List<OutboxEvent> events) throws IOException;
+
+    // Envelope shared by the sinks: outbox metadata wrapping the serialised trade event payload
+    static String toJson(OutboxEvent event) {
+        return "{\"outboxId\":" + event.getId()
+                + ",\"tradeId\":" + event.getTradeId()
+                + ",\"eventType\":\"" + event.getEventType()
+                + "\",\"event\":" + event.getPayload() + "}";
+    }
+}
@@ -0,0 +1,200 @@
+package com.technicalchallenge.service.outbox;
+
+import com.technicalchallenge.model.OutboxEvent;
+import com.technicalchallenge.model.OutboxStatus;
+import com.technicalchallenge.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table into the configured {@link TradeFeedSink}.
+ * <p>
+ * Each poll loads a batch of due events, groups them by tradeId and publishes the groups in parallel. Events of
+ * one trade are always published in outbox order: the batch query skips trades held back by an earlier event
+ * that is waiting to retry, and a group is sent as a single call. A failed group is rescheduled with exponential backoff
+ * and parked as FAILED once it runs out of attempts, which holds back later events of that trade until it is fixed.
+ */
+@Component
+public class TradeOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeOutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TradeFeedSink tradeFeedSink;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final ExecutorService executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter dispatchedCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    public TradeOutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                                 TradeFeedSink tradeFeedSink,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${trade.outbox.dispatcher.enabled:true}") boolean enabled,
+                                 @Value("${trade.outbox.dispatcher.batch-size:200}") int batchSize,
+                                 @Value("${trade.outbox.dispatcher.parallelism:4}") int parallelism,
+                                 @Value("${trade.outbox.dispatcher.max-attempts:10}") int maxAttempts,
+                                 @Value("${trade.outbox.dispatcher.initial-backoff-ms:1000}") long initialBackoffMs,
+                                 @Value("${trade.outbox.dispatcher.max-backoff-ms:300000}") long maxBackoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.tradeFeedSink = tradeFeedSink;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "trade-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        meterRegistry.gauge("trade.outbox.pending", pendingEvents);
+        meterRegistry.gauge("trade.outbox.lag.seconds", lagMillis, lag -> lag.get() / 1000.0);
+        this.dispatchedCounter = meterRegistry.counter("trade.outbox.dispatched");
+        this.retriedCounter = meterRegistry.counter("trade.outbox.retried");
+        this.failedCounter = meterRegistry.counter("trade.outbox.failed");
+        this.batchTimer = meterRegistry.timer("trade.outbox.batch");
+    }
+
+    @Scheduled(fixedDelayString = "${trade.outbox.dispatcher.poll-interval-ms:1000}")
+    public void poll() {
+        if (!enabled || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Keep draining while full batches come back so a backlog clears without waiting for the next poll
+            int dispatched;
+            do {
+                dispatched = drainBatch();
+            } while (dispatched == batchSize);
+            refreshBacklogMetrics();
+        } catch (RuntimeException e) {
+            logger.error("Trade outbox dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    /**
+     * Publishes one batch of due events and returns the number of events loaded.
+     */
+    public int drainBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findDispatchBatch(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<OutboxEvent>> eventsByTrade = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            eventsByTrade.computeIfAbsent(event.getTradeId(), tradeId -> new ArrayList<>()).add(event);
+        }
+
+        batchTimer.record(() -> {
+            List<Future<?>> results = new ArrayList<>(eventsByTrade.size());
+            for (List<OutboxEvent> tradeEvents : eventsByTrade.values()) {
+                results.add(executor.submit(() -> publishTradeEvents(tradeEvents)));
+            }
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    logger.error("Unexpected error publishing trade outbox events: {}", e.getMessage(), e);
+                }
+            }
+        });
+
+        logger.debug("Dispatched outbox batch of {} events for {} trades", batch.size(), eventsByTrade.size());
+        return batch.size();
+    }
+
+    private void publishTradeEvents(List<OutboxEvent> tradeEvents) {
+        try {
+            tradeFeedSink.publish(tradeEvents);
+        } catch (Exception e) {
+            scheduleRetry(tradeEvents, e);
+            return;
+        }
+        outboxEventRepository.markDispatched(tradeEvents.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+        dispatchedCounter.increment(tradeEvents.size());
+    }
+
+    private void scheduleRetry(List<OutboxEvent> tradeEvents, Exception cause) {
+        // Only the head event carries the retry state; later events of the trade wait behind it
+        OutboxEvent head = tradeEvents.get(0);
+        int attempts = head.getAttempts() + 1;
+        head.setAttempts(attempts);
+        head.setLastError(abbreviate(cause.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            head.setStatus(OutboxStatus.FAILED);
+            failedCounter.increment();
+            logger.error("Giving up on outbox event {} for trade {} after {} attempts: {}",
+                    head.getId(), head.getTradeId(), attempts, cause.getMessage());
+        } else {
+            head.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            retriedCounter.increment();
+            logger.warn("Failed to publish outbox event {} for trade {} (attempt {}), retrying at {}: {}",
+                    head.getId(), head.getTradeId(), attempts, head.getNextAttemptAt(), cause.getMessage());
+        }
+        outboxEventRepository.save(head);
+    }
+
+    Duration backoff(int attempts) {
+        long delay = initialBackoffMs << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+
+    private void refreshBacklogMetrics() {
+        pendingEvents.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+        LocalDateTime oldest = outboxEventRepository.findOldestPendingCreatedDate();
+        lagMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,45 @@
+package com.technicalchallenge.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.event.TradeEvent;
+import com.technicalchallenge.model.OutboxEvent;
+import com.technicalchallenge.model.OutboxStatus;
+import com.technicalchallenge.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes each trade lifecycle event to the outbox table inside the transaction that changed the trade,
+ * so the feed record commits or rolls back together with the trade itself.
+ */
+@Component
+public class TradeOutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public TradeOutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTradeEvent(TradeEvent event) throws JsonProcessingException {
+        LocalDateTime now = LocalDateTime.now();
+
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTradeId(event.getTradeId());
+        outboxEvent.setTradeVersion(event.getVersion());
+        outboxEvent.setEventType(event.getType().name());
+        outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        outboxEvent.setStatus(OutboxStatus.PENDING);
+        outboxEvent.setCreatedDate(now);
+        outboxEvent.setNextAttemptAt(now);
+
+        outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -0,0 +1,29 @@
+package com.technicalchallenge.service.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sustained rate, in requests per second, and the burst allowed on top of it, written {@code rate/burst}.
+ */
+record RateLimit(double perSecond, int burst) {
+
+    RateLimit {
+        if (perSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate and a burst of at least 1");
+        }
+    }
+
+    static RateLimit parse(String value) {
+        int separator = value.indexOf('/');
+        if (separator < 0) {
+            double perSecond = Double.parseDouble(value.trim());
+            return new RateLimit(perSecond, (int) Math.max(1, Math.ceil(perSecond)));
+        }
+        return new RateLimit(Double.parseDouble(value.substring(0, separator).trim()),
+                Integer.parseInt(value.substring(separator + 1).trim()));
+    }
+
+    long intervalNanos() {
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / perSecond));
+    }
+}
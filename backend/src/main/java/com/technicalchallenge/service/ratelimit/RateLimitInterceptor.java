@@ -0,0 +1,87 @@
+package com.technicalchallenge.service.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.exception.ErrorResponse;
+import com.technicalchallenge.security.MyUserPrincipal;
+import com.technicalchallenge.service.admission.AdmissionClass;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link UserRateLimiter} to API requests. It runs once the request is authenticated and mapped, so the
+ * user and profile come from the {@link MyUserPrincipal} and the endpoint is the mapped pattern, one bucket covering
+ * every trade id; a request over the limit gets a {@code 429} with the seconds to wait in {@code Retry-After}.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final UserRateLimiter userRateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitInterceptor(UserRateLimiter userRateLimiter, ObjectMapper objectMapper) {
+        this.userRateLimiter = userRateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        AdmissionClass endpointClass = AdmissionClass.of(request.getMethod(), path);
+        if (endpointClass == null) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : path);
+
+        String user;
+        String profile;
+        if (authentication.getPrincipal() instanceof MyUserPrincipal principal) {
+            user = principal.getApplicationUser().getLoginId();
+            profile = principal.getApplicationUser().getUserProfile().getUserType();
+        } else {
+            user = authentication.getName();
+            profile = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .filter(authority -> authority.startsWith(ROLE_PREFIX))
+                    .map(authority -> authority.substring(ROLE_PREFIX.length()))
+                    .findFirst().orElse(null);
+        }
+
+        long waitNanos = userRateLimiter.tryAcquire(user, profile, endpointClass, endpoint);
+        if (waitNanos == 0) {
+            return true;
+        }
+        logger.debug("Rate limited {} ({}) on {}", user, profile, endpoint);
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(), status.getReasonPhrase(),
+                "Rate limit exceeded for " + endpoint + ", please retry in " + retryAfterSeconds + "s",
+                OffsetDateTime.now()));
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package com.technicalchallenge.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket holding {@code burst} tokens, refilled at one token per {@code intervalNanos}. The bucket is kept as
+ * the time at which it will be full again, so all of its state is one {@link AtomicLong} and taking a token is a
+ * single compare-and-set: requests from the same user on many threads never block one another.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(long intervalNanos, int burst, long nowNanos) {
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = intervalNanos * burst;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise how long until one is available
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // The nearer to now, the fewer tokens are missing
+    long getFullAt() {
+        return fullAt.get();
+    }
+
+    // A full bucket behaves exactly as a new one, so it can be dropped without losing anything
+    boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
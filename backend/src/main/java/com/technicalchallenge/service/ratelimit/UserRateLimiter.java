@@ -0,0 +1,166 @@
+package com.technicalchallenge.service.ratelimit;
+
+import com.technicalchallenge.service.admission.AdmissionClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Token buckets per user and endpoint, so a script calling one endpoint in a loop is held to its own rate without
+ * slowing anyone else. The rate of a bucket comes from the user's profile type and the {@link AdmissionClass} of
+ * the endpoint, configured as {@code PROFILE.class=rate/burst} entries with {@code *} standing for any profile;
+ * endpoints with no entry are not limited.
+ * <p>
+ * At most {@code max-buckets} buckets are kept. Past that, full buckets, which are no different from new ones,
+ * are dropped first and then those nearest to full, which at worst gives a user back the few tokens they had used.
+ */
+@Component
+public class UserRateLimiter {
+
+    private static final String ANY_PROFILE = "*";
+
+    private final boolean enabled;
+    private final Map<String, RateLimit> limits;
+    private final int maxBuckets;
+    private final ConcurrentHashMap<Key, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final MeterRegistry registry;
+    private final Counter evictions;
+
+    private record Key(String user, String endpoint) {
+    }
+
+    // Web slices have no meter registry, the global one stands in there
+    public UserRateLimiter(ObjectProvider<MeterRegistry> meterRegistry,
+                           @Value("${trade.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${trade.ratelimit.limits:*.search=10/20;*.reporting=5/10;*.booking=10/20;*.amendment=10/20}")
+                           String limits,
+                           @Value("${trade.ratelimit.max-buckets:10000}") int maxBuckets) {
+        this.enabled = enabled;
+        this.limits = parseLimits(limits);
+        this.maxBuckets = maxBuckets;
+        this.registry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        Gauge.builder("ratelimit.buckets", buckets, Map::size)
+                .description("Per-user token buckets held")
+                .register(registry);
+        this.evictions = Counter.builder("ratelimit.evictions")
+                .description("Per-user token buckets dropped to stay within max-buckets")
+                .register(registry);
+    }
+
+    /**
+     * Takes a token for a request of the user to the endpoint.
+     * @param profile user profile type of the user, e.g. TRADER_SALES
+     * @param endpoint the endpoint, one bucket is kept per user for each
+     * @return 0 when the request may go ahead, otherwise how many nanoseconds until it may be retried
+     */
+    public long tryAcquire(String user, String profile, AdmissionClass endpointClass, String endpoint) {
+        if (!enabled || endpointClass == null) {
+            return 0;
+        }
+        RateLimit limit = limitFor(profile, endpointClass);
+        if (limit == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        Key key = new Key(user, endpoint);
+        TokenBucket bucket = buckets.get(key);
+        boolean created = bucket == null;
+        if (created) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(limit.intervalNanos(), limit.burst(), now));
+        }
+        // Taken before sweeping, so the new bucket is not dropped as full straight away
+        long wait = bucket.tryAcquire(now);
+        if (created && buckets.size() > maxBuckets) {
+            evict(now);
+        }
+        if (wait > 0) {
+            Counter.builder("ratelimit.rejected")
+                    .description("Requests turned away for exceeding the user's rate limit")
+                    .tag("profile", profile == null ? "unknown" : profile.toLowerCase(Locale.ROOT))
+                    .tag("class", endpointClass.key())
+                    .register(registry)
+                    .increment();
+        }
+        return wait;
+    }
+
+    RateLimit limitFor(String profile, AdmissionClass endpointClass) {
+        if (profile != null) {
+            RateLimit limit = limits.get(profile.toUpperCase(Locale.ROOT) + "." + endpointClass.key());
+            if (limit != null) {
+                return limit;
+            }
+        }
+        return limits.get(ANY_PROFILE + "." + endpointClass.key());
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    boolean holds(String user, String endpoint) {
+        return buckets.containsKey(new Key(user, endpoint));
+    }
+
+    // One thread sweeps at a time, the others carry on without waiting for it. Past the full buckets it is usually
+    // one bucket over, so each is found by a scan rather than sorting them all
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(bucket -> {
+                boolean full = bucket.isFull(now);
+                if (full) {
+                    evictions.increment();
+                }
+                return full;
+            });
+            while (buckets.size() > maxBuckets) {
+                Map.Entry<Key, TokenBucket> nearestFull = buckets.entrySet().stream()
+                        .min(Comparator.comparingLong(entry -> entry.getValue().getFullAt()))
+                        .orElse(null);
+                if (nearestFull == null) {
+                    break;
+                }
+                if (buckets.remove(nearestFull.getKey(), nearestFull.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    // SUPPORT.search=5/10;*.booking=10/20
+    private static Map<String, RateLimit> parseLimits(String limits) {
+        Map<String, RateLimit> parsed = new HashMap<>();
+        for (String entry : limits.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            int dot = entry.lastIndexOf('.', separator);
+            if (separator <= 0 || dot <= 0) {
+                throw new IllegalArgumentException("Invalid rate limit '" + entry + "', expected profile.class=rate/burst");
+            }
+            String profile = entry.substring(0, dot).trim().toUpperCase(Locale.ROOT);
+            AdmissionClass endpointClass =
+                    AdmissionClass.valueOf(entry.substring(dot + 1, separator).trim().toUpperCase(Locale.ROOT));
+            parsed.put(profile + "." + endpointClass.key(), RateLimit.parse(entry.substring(separator + 1)));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,163 @@
+package com.technicalchallenge.service.settlement;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hash-groups a stream of cashflows into one net per counterparty, currency and value date in a single pass.
+ * Amounts are whole cents, signed from our side: pay negative, receive positive. Each net keeps the ids of the
+ * cashflows that contributed to it in a growable primitive array.
+ */
+public final class SettlementNetter {
+
+    private final Map<Key, Net> nets = new HashMap<>();
+    private long cashflowCount;
+
+    public void add(long cashflowId, long counterpartyId, String counterpartyName, String currency,
+                    long valueDay, long cents, boolean pay) {
+        Key key = new Key(counterpartyId, currency, valueDay);
+        Net net = nets.get(key);
+        if (net == null) {
+            net = new Net(key, counterpartyName);
+            nets.put(key, net);
+        }
+        net.add(cashflowId, pay ? -cents : cents);
+        cashflowCount++;
+    }
+
+    public Collection<Net> getNets() {
+        return nets.values();
+    }
+
+    public Net getNet(Key key) {
+        return nets.get(key);
+    }
+
+    public long getCashflowCount() {
+        return cashflowCount;
+    }
+
+    public static final class Key {
+        private final long counterpartyId;
+        private final String currency;
+        private final long valueDay;
+
+        public Key(long counterpartyId, String currency, long valueDay) {
+            this.counterpartyId = counterpartyId;
+            this.currency = currency;
+            this.valueDay = valueDay;
+        }
+
+        public long getCounterpartyId() {
+            return counterpartyId;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public long getValueDay() {
+            return valueDay;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key key)) {
+                return false;
+            }
+            return counterpartyId == key.counterpartyId && valueDay == key.valueDay && currency.equals(key.currency);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(counterpartyId, currency, valueDay);
+        }
+
+        @Override
+        public String toString() {
+            return counterpartyId + "/" + currency + "/" + valueDay;
+        }
+    }
+
+    public static final class Net {
+        private final Key key;
+        private final String counterpartyName;
+        private long netCents;
+        private long grossPayCents;
+        private long grossReceiveCents;
+        private long[] cashflowIds = new long[4];
+        private int size;
+
+        private Net(Key key, String counterpartyName) {
+            this.key = key;
+            this.counterpartyName = counterpartyName;
+        }
+
+        private void add(long cashflowId, long signedCents) {
+            if (size == cashflowIds.length) {
+                cashflowIds = Arrays.copyOf(cashflowIds, size * 2);
+            }
+            cashflowIds[size++] = cashflowId;
+            netCents += signedCents;
+            if (signedCents < 0) {
+                grossPayCents -= signedCents;
+            } else {
+                grossReceiveCents += signedCents;
+            }
+        }
+
+        public Key getKey() {
+            return key;
+        }
+
+        public String getCounterpartyName() {
+            return counterpartyName;
+        }
+
+        public long getNetCents() {
+            return netCents;
+        }
+
+        public long getGrossPayCents() {
+            return grossPayCents;
+        }
+
+        public long getGrossReceiveCents() {
+            return grossReceiveCents;
+        }
+
+        public String getDirection() {
+            return netCents > 0 ? "Receive" : netCents < 0 ? "Pay" : "Flat";
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long getCashflowId(int index) {
+            return cashflowIds[index];
+        }
+
+        /**
+         * Contributing cashflow ids in ascending order, comma separated.
+         */
+        public String getCashflowIdList() {
+            long[] sorted = Arrays.copyOf(cashflowIds, size);
+            Arrays.sort(sorted);
+            StringBuilder list = new StringBuilder(size * 8);
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    list.append(',');
+                }
+                list.append(sorted[i]);
+            }
+            return list.toString();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.technicalchallenge.service.settlement;
+
+import com.technicalchallenge.dto.SettlementNettingResultDTO;
+import com.technicalchallenge.event.TradeEvent;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.model.SettlementNet;
+import com.technicalchallenge.repository.SettlementNetRepository;
+import com.technicalchallenge.service.cashflow.LiveLegLoader;
+import com.technicalchallenge.service.cashflow.LiveLegs;
+import com.technicalchallenge.service.curve.FloatingCashflowsReprojectedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Nets cashflows of live trades into one settlement per counterparty, currency and value date.
+ * <p>
+ * Netting a value-date window streams the window's cashflows off the cashflow table in a single pass, matches
+ * each to its leg in {@link LiveLegs} and hash-groups it with a {@link SettlementNetter}. The nets, each with the
+ * ids of its contributing cashflows, replace whatever was stored for the window. After a trade is created,
+ * amended, cancelled or terminated, or its floating cashflows are re-projected from new fixings, only the nets it
+ * touched before or touches now are recomputed, from today onwards; settled history is left as it was.
+ */
+@Service
+public class SettlementNettingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SettlementNettingService.class);
+
+    private static final Set<TradeEventType> RENET_EVENTS = EnumSet.of(TradeEventType.CREATED,
+            TradeEventType.AMENDED, TradeEventType.CANCELLED, TradeEventType.TERMINATED);
+
+    private static final String WINDOW_CASHFLOWS_SQL = "SELECT id, leg_id, pay_rec_id, value_date, payment_value "
+            + "FROM cashflow WHERE active = TRUE AND value_date BETWEEN ? AND ? AND payment_value IS NOT NULL";
+
+    // Picked out by value date, which is indexed; cashflows of other counterparties are dropped against the live legs
+    private static final String KEY_CASHFLOWS_SQL = "SELECT id, leg_id, pay_rec_id, value_date, payment_value "
+            + "FROM cashflow WHERE active = TRUE AND value_date IN (:dates) AND payment_value IS NOT NULL";
+
+    // Nets any version of the trade contributes to; older versions keep their legs and cashflows when amended
+    // The trades are picked first in a derived table so their trade id index drives the join, not a scan of the legs
+    private static final String TRADE_KEYS_SQL = "SELECT DISTINCT t.counterparty_id, cur.currency, c.value_date "
+            + "FROM (SELECT id, counterparty_id FROM trade WHERE trade_id IN (:tradeIds) AND counterparty_id IS NOT NULL) t "
+            + "JOIN trade_leg l ON l.trade_id = t.id "
+            + "JOIN cashflow c ON c.leg_id = l.leg_id "
+            + "LEFT JOIN currency cur ON cur.id = l.currency_id "
+            + "WHERE c.value_date >= :today";
+
+    private static final String INSERT_NET_SQL = "INSERT INTO settlement_net "
+            + "(counterparty_id, counterparty_name, currency, value_date, net_amount, gross_pay, gross_receive, direction, cashflow_count, cashflow_ids, netted_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DELETE_NET_SQL = "DELETE FROM settlement_net WHERE counterparty_id = ? AND currency = ? AND value_date = ?";
+
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private final SettlementNetRepository settlementNetRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final LiveLegLoader liveLegLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean incrementalEnabled;
+    private final int batchSize;
+    private final ExecutorService executor;
+    private final ReentrantLock nettingLock = new ReentrantLock();
+    private final Set<Long> pendingTradeIds = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    public SettlementNettingService(DataSource dataSource,
+                                    PlatformTransactionManager transactionManager,
+                                    SettlementNetRepository settlementNetRepository,
+                                    @Value("${trade.settlement.incremental.enabled:true}") boolean incrementalEnabled,
+                                    @Value("${trade.settlement.fetch-size:5000}") int fetchSize,
+                                    @Value("${trade.settlement.batch-size:500}") int batchSize) {
+        this.settlementNetRepository = settlementNetRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.liveLegLoader = new LiveLegLoader(namedJdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.incrementalEnabled = incrementalEnabled;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "settlement-netting");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public List<SettlementNet> getNets(LocalDate from, LocalDate to, Long counterpartyId) {
+        if (counterpartyId != null) {
+            return settlementNetRepository.findByCounterpartyIdAndValueDateBetweenOrderByValueDateAscCurrencyAsc(
+                    counterpartyId, from, to);
+        }
+        return settlementNetRepository.findByValueDateBetweenOrderByValueDateAscCounterpartyNameAscCurrencyAsc(from, to);
+    }
+
+    public Optional<List<Long>> getNetCashflowIds(Long netId) {
+        return settlementNetRepository.findById(netId)
+                .map(net -> Arrays.stream(net.getCashflowIds().split(","))
+                        .map(Long::valueOf)
+                        .toList());
+    }
+
+    /**
+     * Nets every cashflow of a live trade valued between the two dates, inclusive, replacing the stored nets of
+     * that window.
+     */
+    public SettlementNettingResultDTO netWindow(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Netting window needs a from date on or before the to date");
+        }
+        nettingLock.lock();
+        try {
+            long start = System.nanoTime();
+            LiveLegs legs = liveLegLoader.loadForCounterparty(null);
+            SettlementNetter netter = new SettlementNetter();
+            jdbcTemplate.query(WINDOW_CASHFLOWS_SQL, (RowCallbackHandler) rs -> accept(rs, legs, netter),
+                    Date.valueOf(from), Date.valueOf(to));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM settlement_net WHERE value_date BETWEEN ? AND ?",
+                        Date.valueOf(from), Date.valueOf(to));
+                insertNets(netter.getNets());
+            });
+
+            SettlementNettingResultDTO result = new SettlementNettingResultDTO();
+            result.setFromDate(from);
+            result.setToDate(to);
+            result.setNetCount(netter.getNets().size());
+            result.setCashflowCount(netter.getCashflowCount());
+            result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+            logger.info("Netted {} cashflows into {} settlements for {} to {} in {} ms", result.getCashflowCount(),
+                    result.getNetCount(), from, to, result.getElapsedMs());
+            return result;
+        } finally {
+            nettingLock.unlock();
+        }
+    }
+
+    // Runs after the trade change commits, off the request thread. Trades changed while a re-net is queued or
+    // running are collected and re-netted together, so a bulk import costs one pass rather than one per trade.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTradeEvent(TradeEvent event) {
+        if (incrementalEnabled && RENET_EVENTS.contains(event.getType())) {
+            queueRenet(event.getTradeId());
+        }
+    }
+
+    // Re-projection changes payment values without a lifecycle event; each leg commits on its own, so a projection
+    // run's trades are gathered in the same queue
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFloatingCashflowsReprojected(FloatingCashflowsReprojectedEvent event) {
+        if (incrementalEnabled) {
+            queueRenet(event.getTradeId());
+        }
+    }
+
+    private void queueRenet(Long tradeId) {
+        pendingTradeIds.add(tradeId);
+        if (drainScheduled.compareAndSet(false, true)) {
+            executor.submit(this::drainPendingTrades);
+        }
+    }
+
+    private void drainPendingTrades() {
+        drainScheduled.set(false);
+        List<Long> tradeIds = new ArrayList<>(pendingTradeIds);
+        pendingTradeIds.removeAll(tradeIds);
+        if (tradeIds.isEmpty()) {
+            return;
+        }
+        try {
+            renetTrades(tradeIds);
+        } catch (RuntimeException e) {
+            logger.error("Incremental netting for trades {} failed", tradeIds.size() > 10 ? tradeIds.size() + " trades" : tradeIds, e);
+        }
+    }
+
+    /**
+     * Recomputes, from today onwards, every net the trade contributed to before its latest change and every net
+     * its live version contributes to now.
+     *
+     * @return the number of nets recomputed
+     */
+    public int renetTrade(Long tradeId) {
+        return renetTrades(List.of(tradeId));
+    }
+
+    /**
+     * As {@link #renetTrade(Long)} for several trades at once, recomputing each affected net only once.
+     */
+    public int renetTrades(Collection<Long> tradeIds) {
+        nettingLock.lock();
+        try {
+            Date today = Date.valueOf(LocalDate.now());
+            Set<SettlementNetter.Key> keys = new HashSet<>();
+            List<Long> ids = new ArrayList<>(tradeIds);
+            for (int from = 0; from < ids.size(); from += IN_LIST_CHUNK) {
+                MapSqlParameterSource parameters = new MapSqlParameterSource()
+                        .addValue("tradeIds", ids.subList(from, Math.min(from + IN_LIST_CHUNK, ids.size())))
+                        .addValue("today", today);
+                namedJdbcTemplate.query(TRADE_KEYS_SQL, parameters, (RowCallbackHandler) rs -> keys.add(new SettlementNetter.Key(
+                        rs.getLong(1), LiveLegLoader.currencyOrUnknown(rs.getString(2)), rs.getObject(3, LocalDate.class).toEpochDay())));
+            }
+            if (keys.isEmpty()) {
+                return 0;
+            }
+            renetKeys(keys);
+            logger.debug("Re-netted {} settlements for {} trades", keys.size(), ids.size());
+            return keys.size();
+        } finally {
+            nettingLock.unlock();
+        }
+    }
+
+    private void renetKeys(Set<SettlementNetter.Key> keys) {
+        Map<Long, Set<LocalDate>> datesByCounterparty = new HashMap<>();
+        for (SettlementNetter.Key key : keys) {
+            datesByCounterparty.computeIfAbsent(key.getCounterpartyId(), id -> new HashSet<>())
+                    .add(LocalDate.ofEpochDay(key.getValueDay()));
+        }
+
+        SettlementNetter netter = new SettlementNetter();
+        for (Map.Entry<Long, Set<LocalDate>> entry : datesByCounterparty.entrySet()) {
+            LiveLegs legs = liveLegLoader.loadForCounterparty(entry.getKey());
+            List<Date> dates = entry.getValue().stream().map(Date::valueOf).toList();
+            for (int from = 0; from < dates.size(); from += IN_LIST_CHUNK) {
+                MapSqlParameterSource parameters = new MapSqlParameterSource()
+                        .addValue("dates", dates.subList(from, Math.min(from + IN_LIST_CHUNK, dates.size())));
+                namedJdbcTemplate.query(KEY_CASHFLOWS_SQL, parameters,
+                        (RowCallbackHandler) rs -> accept(rs, legs, netter));
+            }
+        }
+
+        // Only the requested keys are replaced; other currencies on the same counterparty and dates are untouched
+        List<SettlementNetter.Net> nets = new ArrayList<>();
+        for (SettlementNetter.Key key : keys) {
+            SettlementNetter.Net net = netter.getNet(key);
+            if (net != null) {
+                nets.add(net);
+            }
+        }
+        List<Object[]> keyArgs = keys.stream()
+                .map(key -> new Object[]{key.getCounterpartyId(), key.getCurrency(), Date.valueOf(LocalDate.ofEpochDay(key.getValueDay()))})
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(DELETE_NET_SQL, keyArgs);
+            insertNets(nets);
+        });
+    }
+
+    private void accept(ResultSet rs, LiveLegs legs, SettlementNetter netter) throws SQLException {
+        int leg = legs.indexOf(rs.getLong(2));
+        if (leg < 0) {
+            return;
+        }
+        boolean pay = legs.isPay(leg, rs.getLong(3));
+        long cents = rs.getBigDecimal(5).setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        int counterparty = legs.counterpartyIndex(leg);
+        netter.add(rs.getLong(1), legs.counterpartyId(counterparty), legs.counterpartyName(counterparty),
+                legs.getCurrencies().get(legs.currencyIndex(leg)), rs.getObject(4, LocalDate.class).toEpochDay(),
+                cents, pay);
+    }
+
+    private void insertNets(Collection<SettlementNetter.Net> nets) {
+        Timestamp nettedAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(Math.min(nets.size(), batchSize));
+        for (SettlementNetter.Net net : nets) {
+            SettlementNetter.Key key = net.getKey();
+            rows.add(new Object[]{key.getCounterpartyId(), net.getCounterpartyName(), key.getCurrency(),
+                    Date.valueOf(LocalDate.ofEpochDay(key.getValueDay())), toMoney(net.getNetCents()),
+                    toMoney(net.getGrossPayCents()), toMoney(net.getGrossReceiveCents()), net.getDirection(),
+                    net.size(), net.getCashflowIdList(), nettedAt});
+            if (rows.size() >= batchSize) {
+                jdbcTemplate.batchUpdate(INSERT_NET_SQL, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_NET_SQL, rows);
+        }
+    }
+
+    private static BigDecimal toMoney(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package com.technicalchallenge.service.tracing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Holds the most recent finished spans; once full, each new span overwrites the oldest. Recording takes no lock, so
+ * a reader may see a trace whose spans are partly overwritten or not yet finished.
+ */
+public class SpanRing {
+
+    private final AtomicReferenceArray<TraceSpan> spans;
+    private final AtomicLong recorded = new AtomicLong();
+
+    public SpanRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Span ring capacity must be positive: " + capacity);
+        }
+        this.spans = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void record(TraceSpan span) {
+        spans.set((int) (recorded.getAndIncrement() % spans.length()), span);
+    }
+
+    /**
+     * @return the number of spans recorded since startup, including those since overwritten
+     */
+    public long getRecordedCount() {
+        return recorded.get();
+    }
+
+    /**
+     * Spans held, grouped by trace, most recently started trace first, each trace's spans in start order.
+     */
+    public List<List<TraceSpan>> traces() {
+        Map<Long, List<TraceSpan>> byTrace = new LinkedHashMap<>();
+        for (int i = 0; i < spans.length(); i++) {
+            TraceSpan span = spans.get(i);
+            if (span != null) {
+                byTrace.computeIfAbsent(span.getTraceId(), id -> new ArrayList<>()).add(span);
+            }
+        }
+        List<List<TraceSpan>> traces = new ArrayList<>(byTrace.values());
+        traces.forEach(trace -> trace.sort(Comparator.comparingLong(TraceSpan::getStartEpochMicros)));
+        traces.sort(Comparator.comparingLong((List<TraceSpan> trace) -> trace.get(0).getStartEpochMicros()).reversed());
+        return traces;
+    }
+
+    public List<TraceSpan> trace(long traceId) {
+        List<TraceSpan> trace = new ArrayList<>();
+        for (int i = 0; i < spans.length(); i++) {
+            TraceSpan span = spans.get(i);
+            if (span != null && span.getTraceId() == traceId) {
+                trace.add(span);
+            }
+        }
+        trace.sort(Comparator.comparingLong(TraceSpan::getStartEpochMicros));
+        return trace;
+    }
+}
@@ -0,0 +1,76 @@
+package com.technicalchallenge.service.tracing;
+
+/**
+ * A finished span: one call to a controller, service, validator, mapper or repository within a trace.
+ */
+public class TraceSpan {
+
+    private final long traceId;
+    private final long spanId;
+    private final long parentId;
+    private final String layer;
+    private final String name;
+    private final String thread;
+    private final long startEpochMicros;
+    private final long durationNanos;
+    private final String error;
+
+    public TraceSpan(long traceId, long spanId, long parentId, String layer, String name, String thread,
+                     long startEpochMicros, long durationNanos, String error) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentId = parentId;
+        this.layer = layer;
+        this.name = name;
+        this.thread = thread;
+        this.startEpochMicros = startEpochMicros;
+        this.durationNanos = durationNanos;
+        this.error = error;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return the id of the enclosing span, 0 for the root of the trace
+     */
+    public long getParentId() {
+        return parentId;
+    }
+
+    public boolean isRoot() {
+        return parentId == 0;
+    }
+
+    public String getLayer() {
+        return layer;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return the class of the exception the call ended with, null when it returned normally
+     */
+    public String getError() {
+        return error;
+    }
+}
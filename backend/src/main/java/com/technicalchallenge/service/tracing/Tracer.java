@@ -0,0 +1,182 @@
+package com.technicalchallenge.service.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Lightweight in-process tracing. A trace is started for a sample of requests, see {@link #sample()}; while it is
+ * open, the calls made on its thread, or on a worker a task was handed to with one of the {@code wrap} methods,
+ * are recorded as child spans into a {@link SpanRing}. Outside a sampled trace opening a span costs a thread-local
+ * read, so the calls of requests that are not sampled are not slowed down.
+ */
+@Component
+public class Tracer {
+
+    private static final ThreadLocal<ActiveSpan> CURRENT = new ThreadLocal<>();
+
+    // Epoch time of spans is derived from nanoTime, which is cheaper to read and finer than the clock
+    private static final long EPOCH_MICROS = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    private static final long BASE_NANOS = System.nanoTime();
+
+    private static final Scope NOOP = new Scope() {
+        @Override
+        public void error(Throwable error) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final SpanRing ring;
+
+    public Tracer(@Value("${trade.tracing.enabled:true}") boolean enabled,
+                  @Value("${trade.tracing.sample-rate:0.01}") double sampleRate,
+                  @Value("${trade.tracing.ring-size:10000}") int ringSize) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.ring = new SpanRing(ringSize);
+    }
+
+    /**
+     * Decides whether a new trace should be started, with probability {@code trade.tracing.sample-rate}.
+     */
+    public boolean sample() {
+        return enabled && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Opens a span, as the root of a new trace when none is open on this thread. Callers decide with
+     * {@link #sample()} whether to trace at all.
+     */
+    public Scope startTrace(String layer, String name) {
+        ActiveSpan parent = CURRENT.get();
+        if (parent != null) {
+            return parent.child(layer, name);
+        }
+        return new ActiveSpan(ring, ThreadLocalRandom.current().nextLong(), 0, layer, name, null);
+    }
+
+    /**
+     * Opens a child of the span open on this thread, or does nothing when no sampled trace is open.
+     */
+    public static Scope span(String layer, String name) {
+        ActiveSpan parent = CURRENT.get();
+        return parent == null ? NOOP : parent.child(layer, name);
+    }
+
+    public static boolean isTracing() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Wraps a task handed to another thread, so that it runs as a span of the trace open on this thread.
+     */
+    public static Runnable wrap(String name, Runnable task) {
+        ActiveSpan parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = parent.child("async", name)) {
+                task.run();
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(String name, Callable<T> task) {
+        ActiveSpan parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = parent.child("async", name)) {
+                return task.call();
+            }
+        };
+    }
+
+    public static <T> Supplier<T> wrapSupplier(String name, Supplier<T> task) {
+        ActiveSpan parent = CURRENT.get();
+        if (parent == null) {
+            return task;
+        }
+        return () -> {
+            try (Scope ignored = parent.child("async", name)) {
+                return task.get();
+            }
+        };
+    }
+
+    public double getSampleRate() {
+        return enabled ? sampleRate : 0;
+    }
+
+    public SpanRing getRing() {
+        return ring;
+    }
+
+    /**
+     * An open span; closing it records it and makes the span that was open before it current again.
+     */
+    public interface Scope extends AutoCloseable {
+
+        void error(Throwable error);
+
+        @Override
+        void close();
+    }
+
+    private static final class ActiveSpan implements Scope {
+        private final SpanRing ring;
+        private final long traceId;
+        private final long spanId = ThreadLocalRandom.current().nextLong();
+        private final long parentId;
+        private final String layer;
+        private final String name;
+        private final ActiveSpan previous;
+        private final long startNanos;
+        private String error;
+
+        private ActiveSpan(SpanRing ring, long traceId, long parentId, String layer, String name, ActiveSpan previous) {
+            this.ring = ring;
+            this.traceId = traceId;
+            this.parentId = parentId;
+            this.layer = layer;
+            this.name = name;
+            this.previous = previous;
+            this.startNanos = System.nanoTime();
+            CURRENT.set(this);
+        }
+
+        // May be called on another thread than this span's, for tasks handed to workers
+        private ActiveSpan child(String layer, String name) {
+            return new ActiveSpan(ring, traceId, spanId, layer, name, CURRENT.get());
+        }
+
+        @Override
+        public void error(Throwable error) {
+            this.error = error.getClass().getName();
+        }
+
+        @Override
+        public void close() {
+            long endNanos = System.nanoTime();
+            ring.record(new TraceSpan(traceId, spanId, parentId, layer, name, Thread.currentThread().getName(),
+                    EPOCH_MICROS + (startNanos - BASE_NANOS) / 1000, endNanos - startNanos, error));
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
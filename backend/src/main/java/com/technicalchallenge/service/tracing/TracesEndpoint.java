@@ -0,0 +1,106 @@
+package com.technicalchallenge.service.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/traces}: the most recent sampled traces, and {@code /actuator/traces/{traceId}} the spans of
+ * one of them with the time spent in each layer.
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int MAX_TRACES = 100;
+
+    private final Tracer tracer;
+
+    public TracesEndpoint(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @ReadOperation
+    public Map<String, Object> traces() {
+        List<Map<String, Object>> traces = new ArrayList<>();
+        for (List<TraceSpan> trace : tracer.getRing().traces()) {
+            if (traces.size() == MAX_TRACES) {
+                break;
+            }
+            TraceSpan first = trace.get(0);
+            TraceSpan root = trace.stream().filter(TraceSpan::isRoot).findFirst().orElse(null);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("traceId", Long.toHexString(first.getTraceId()));
+            summary.put("name", root != null ? root.getName() : first.getName());
+            summary.put("start", start(first));
+            summary.put("durationMicros", root != null ? root.getDurationNanos() / 1000 : null);
+            summary.put("spans", trace.size());
+            summary.put("error", root != null ? root.getError() : null);
+            traces.add(summary);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sampleRate", tracer.getSampleRate());
+        result.put("recordedSpans", tracer.getRing().getRecordedCount());
+        result.put("traces", traces);
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> trace(@Selector String traceId) {
+        List<TraceSpan> trace = tracer.getRing().trace(Long.parseUnsignedLong(traceId, 16));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("traceId", traceId);
+        if (trace.isEmpty()) {
+            result.put("spans", List.of());
+            return result;
+        }
+        long start = trace.get(0).getStartEpochMicros();
+        result.put("start", start(trace.get(0)));
+        result.put("layers", layers(trace));
+
+        List<Map<String, Object>> spans = new ArrayList<>(trace.size());
+        for (TraceSpan span : trace) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("spanId", Long.toHexString(span.getSpanId()));
+            entry.put("parentId", span.isRoot() ? null : Long.toHexString(span.getParentId()));
+            entry.put("layer", span.getLayer());
+            entry.put("name", span.getName());
+            entry.put("thread", span.getThread());
+            entry.put("offsetMicros", span.getStartEpochMicros() - start);
+            entry.put("durationMicros", span.getDurationNanos() / 1000);
+            entry.put("error", span.getError());
+            spans.add(entry);
+        }
+        result.put("spans", spans);
+        return result;
+    }
+
+    // Time spent in each layer, including the layers it calls; a span nested in one of its own layer is not counted again
+    private static Map<String, Map<String, Long>> layers(List<TraceSpan> trace) {
+        Map<Long, String> layerBySpan = new HashMap<>();
+        trace.forEach(span -> layerBySpan.put(span.getSpanId(), span.getLayer()));
+        Map<String, Map<String, Long>> layers = new LinkedHashMap<>();
+        for (TraceSpan span : trace) {
+            if (span.getLayer().equals(layerBySpan.get(span.getParentId()))) {
+                continue;
+            }
+            Map<String, Long> layer = layers.computeIfAbsent(span.getLayer(), name -> new LinkedHashMap<>());
+            layer.merge("calls", 1L, Long::sum);
+            layer.merge("micros", span.getDurationNanos() / 1000, Long::sum);
+        }
+        return layers;
+    }
+
+    private static String start(TraceSpan span) {
+        return Instant.EPOCH.plus(span.getStartEpochMicros(), ChronoUnit.MICROS).toString();
+    }
+}
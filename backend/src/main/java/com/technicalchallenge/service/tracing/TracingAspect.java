@@ -0,0 +1,82 @@
+package com.technicalchallenge.service.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens spans around the controller handlers, services, validators, mappers and repositories. A controller handler
+ * starts a trace when it is sampled; the other layers are only traced within one.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    // Repositories are named after the interface of the application, not the Spring Data type declaring the method
+    private static final ClassValue<String> REPOSITORY_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().startsWith("com.technicalchallenge.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        }
+    };
+
+    private final Tracer tracer;
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracer.isTracing() && !tracer.sample()) {
+            return joinPoint.proceed();
+        }
+        return proceed(joinPoint, tracer.startTrace("controller", name(joinPoint)));
+    }
+
+    @Around("execution(public * com.technicalchallenge.service.*Service.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return Tracer.isTracing() ? proceed(joinPoint, Tracer.span("service", name(joinPoint))) : joinPoint.proceed();
+    }
+
+    @Around("execution(public * com.technicalchallenge.service.validation.*Validator.*(..))")
+    public Object traceValidator(ProceedingJoinPoint joinPoint) throws Throwable {
+        return Tracer.isTracing() ? proceed(joinPoint, Tracer.span("validation", name(joinPoint))) : joinPoint.proceed();
+    }
+
+    @Around("execution(public * com.technicalchallenge.mapper.*Mapper.*(..))")
+    public Object traceMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return Tracer.isTracing() ? proceed(joinPoint, Tracer.span("mapper", name(joinPoint))) : joinPoint.proceed();
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Tracer.isTracing()) {
+            return joinPoint.proceed();
+        }
+        String name = REPOSITORY_NAMES.get(joinPoint.getThis().getClass()) + "." + joinPoint.getSignature().getName();
+        return proceed(joinPoint, Tracer.span("repository", name));
+    }
+
+    private static Object proceed(ProceedingJoinPoint joinPoint, Tracer.Scope scope) throws Throwable {
+        // The error has to be set before the scope is closed, which records the span
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            scope.error(e);
+            throw e;
+        } finally {
+            scope.close();
+        }
+    }
+
+    private static String name(ProceedingJoinPoint joinPoint) {
+        return joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+    }
+}
@@ -0,0 +1,12 @@
+package com.technicalchallenge.service.validation;
+
+/**
+ * How expensive a {@link TradeRule} is to evaluate. Cheaper classes run first, so a trade that fails its field
+ * checks is rejected before any reference data is looked up for it.
+ */
+public enum RuleCost {
+    /** Only reads fields of the trade itself */
+    FIELD,
+    /** Looks up reference data such as books or counterparties */
+    LOOKUP
+}
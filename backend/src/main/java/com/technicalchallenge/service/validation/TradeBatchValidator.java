@@ -0,0 +1,116 @@
+package com.technicalchallenge.service.validation;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.Counterparty;
+import com.technicalchallenge.repository.ApplicationUserRepository;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.CounterpartyRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Service that validates many {@link TradeDTO}s at once, with the same checks as {@link UserPrivilegeValidator}
+ * and {@link TradeValidator} apply to a single trade.
+ * The distinct books, counterparties and inputters named across the batch are fetched up front with one IN query
+ * each, so the number of queries does not grow with the size of the batch, and the trades are then checked in
+ * parallel against what was fetched.
+ */
+@Service
+public class TradeBatchValidator {
+
+    public static final String PRIVILEGE_ERROR = "This account lacks the required privileges for this operation";
+
+    // Keeps IN lists within what every database accepts; names are rarely this varied
+    private static final int IN_LIST_CHUNK = 1000;
+
+    private final BookRepository bookRepository;
+    private final CounterpartyRepository counterpartyRepository;
+    private final ApplicationUserRepository applicationUserRepository;
+    private final TradeValidator tradeValidator;
+    private final UserPrivilegeValidator userPrivilegeValidator;
+
+    public TradeBatchValidator(BookRepository bookRepository, CounterpartyRepository counterpartyRepository,
+                               ApplicationUserRepository applicationUserRepository, TradeValidator tradeValidator,
+                               UserPrivilegeValidator userPrivilegeValidator) {
+        this.bookRepository = bookRepository;
+        this.counterpartyRepository = counterpartyRepository;
+        this.applicationUserRepository = applicationUserRepository;
+        this.tradeValidator = tradeValidator;
+        this.userPrivilegeValidator = userPrivilegeValidator;
+    }
+
+    /**
+     * Validates each trade against the business rules and, when an operation is given, the inputter's privileges
+     * for it. As when booking a single trade, a trade the inputter may not act on is not checked any further and
+     * its result only holds the privilege error, against {@code inputterUserName}.
+     * @param trades the trades to validate
+     * @param operation action the inputters are attempting, e.g. CREATE, or null to only check business rules
+     * @return one ValidationResult per trade, in the same order as the trades
+     */
+    public List<ValidationResult> validateTrades(List<TradeDTO> trades, String operation) {
+        if (trades.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Book> books = fetch(names(trades, TradeDTO::getBookName),
+                bookRepository::findByBookNameIn, Book::getBookName);
+        Map<String, Counterparty> counterparties = fetch(names(trades, TradeDTO::getCounterpartyName),
+                counterpartyRepository::findByNameIn, Counterparty::getName);
+        Map<String, ApplicationUser> users = operation == null ? Map.of() : fetch(
+                names(trades, TradeDTO::getInputterUserName),
+                applicationUserRepository::findByLoginIdInWithProfile, ApplicationUser::getLoginId);
+
+        ValidationResult[] results = new ValidationResult[trades.size()];
+        IntStream.range(0, trades.size()).parallel().forEach(i -> {
+            TradeDTO trade = trades.get(i);
+            if (operation != null && !userPrivilegeValidator.validateUserPrivileges(
+                    users.get(trade.getInputterUserName()), trade.getInputterUserName(), operation, trade)) {
+                ValidationResult result = new ValidationResult();
+                result.addError("inputterUserName", PRIVILEGE_ERROR);
+                results[i] = result;
+                return;
+            }
+            results[i] = tradeValidator.validateTradeBusinessRules(trade,
+                    name -> Optional.ofNullable(books.get(name)),
+                    name -> Optional.ofNullable(counterparties.get(name)));
+        });
+        return Arrays.asList(results);
+    }
+
+    private static Set<String> names(List<TradeDTO> trades, Function<TradeDTO, String> name) {
+        Set<String> names = new LinkedHashSet<>();
+        for (TradeDTO trade : trades) {
+            String value = name.apply(trade);
+            if (value != null) {
+                names.add(value);
+            }
+        }
+        return names;
+    }
+
+    // The first entity wins when names repeat
+    private static <T> Map<String, T> fetch(Set<String> names, Function<Collection<String>, List<T>> query,
+                                            Function<T, String> name) {
+        Map<String, T> result = new HashMap<>();
+        List<String> all = new ArrayList<>(names);
+        for (int from = 0; from < all.size(); from += IN_LIST_CHUNK) {
+            for (T entity : query.apply(all.subList(from, Math.min(from + IN_LIST_CHUNK, all.size())))) {
+                result.putIfAbsent(name.apply(entity), entity);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+package com.technicalchallenge.service.validation;
+
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A single business rule checked against a trade by the {@link TradeRulePipeline}.
+ * Any bean implementing this interface is added to the rules {@link TradeValidator} applies, alongside the built-in
+ * ones. A rule only runs when its rule set is enabled for the trade's desk and every rule it depends on ran without
+ * adding errors.
+ */
+public interface TradeRule {
+
+    /** Rule set of the checks every trade must pass */
+    String CORE = "core";
+
+    /**
+     * @return unique name of the rule, used to declare dependencies on it and to tag its metrics
+     */
+    String getName();
+
+    RuleCost getCost();
+
+    default String getRuleSet() {
+        return CORE;
+    }
+
+    /**
+     * @return names of the rules that must pass before this one is worth evaluating
+     */
+    default Set<String> getDependencies() {
+        return Set.of();
+    }
+
+    /**
+     * Checks the trade and records any problem in the result
+     * @param context the trade being validated, with its reference data lookups
+     * @param result where errors are recorded against the offending field
+     */
+    void evaluate(TradeRuleContext context, ValidationResult result);
+
+    static TradeRule of(String name, String ruleSet, RuleCost cost, Set<String> dependencies,
+                        BiConsumer<TradeRuleContext, ValidationResult> check) {
+        return new TradeRule() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public RuleCost getCost() {
+                return cost;
+            }
+
+            @Override
+            public String getRuleSet() {
+                return ruleSet;
+            }
+
+            @Override
+            public Set<String> getDependencies() {
+                return dependencies;
+            }
+
+            @Override
+            public void evaluate(TradeRuleContext context, ValidationResult result) {
+                check.accept(context, result);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package com.technicalchallenge.service.validation;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.Counterparty;
+import lombok.Getter;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The trade a {@link TradeRule} is evaluated against. Its book and counterparty are looked up at most once however
+ * many rules ask for them.
+ */
+public class TradeRuleContext {
+
+    @Getter
+    private final TradeDTO trade;
+    private final Function<String, Optional<Book>> findBook;
+    private final Function<String, Optional<Counterparty>> findCounterparty;
+
+    private Optional<Book> book;
+    private Optional<Counterparty> counterparty;
+
+    public TradeRuleContext(TradeDTO trade, Function<String, Optional<Book>> findBook,
+                            Function<String, Optional<Counterparty>> findCounterparty) {
+        this.trade = trade;
+        this.findBook = findBook;
+        this.findCounterparty = findCounterparty;
+    }
+
+    /**
+     * @return the book the trade names, or empty when it names none or it does not exist
+     */
+    public Optional<Book> getBook() {
+        if (book == null) {
+            book = trade.getBookName() == null ? Optional.empty() : findBook.apply(trade.getBookName());
+        }
+        return book;
+    }
+
+    /**
+     * @return the counterparty the trade names, or empty when it names none or it does not exist
+     */
+    public Optional<Counterparty> getCounterparty() {
+        if (counterparty == null) {
+            counterparty = trade.getCounterpartyName() == null
+                    ? Optional.empty() : findCounterparty.apply(trade.getCounterpartyName());
+        }
+        return counterparty;
+    }
+}
@@ -0,0 +1,162 @@
+package com.technicalchallenge.service.validation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TradeRule}s compiled into the order they are evaluated in: every rule after the rules it depends on, and
+ * otherwise cheapest {@link RuleCost} first, in the order the rules were given. The order is fixed once here so
+ * validating a trade is a single pass over an array.
+ * <p>
+ * When a registry is given, each rule's evaluation time is recorded on the {@code trade.validation.rule} timer and
+ * each trade it rejects on the {@code trade.validation.rule.rejections} counter, both tagged with the rule name.
+ */
+public class TradeRulePipeline {
+
+    private final CompiledRule[] rules;
+
+    private TradeRulePipeline(CompiledRule[] rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * @param rules the rules, in the order to evaluate rules of the same cost in
+     * @param meterRegistry where per-rule metrics are registered, or null for none
+     * @throws IllegalStateException when two rules share a name, a rule depends on one that is not given or the
+     *                               dependencies form a cycle
+     */
+    public static TradeRulePipeline compile(List<TradeRule> rules, MeterRegistry meterRegistry) {
+        Map<String, Integer> declared = new HashMap<>();
+        for (int i = 0; i < rules.size(); i++) {
+            if (declared.putIfAbsent(rules.get(i).getName(), i) != null) {
+                throw new IllegalStateException("Duplicate trade rule " + rules.get(i).getName());
+            }
+        }
+
+        // Kahn's algorithm, taking the cheapest, earliest declared rule whose dependencies are all placed
+        int[] waitingOn = new int[rules.size()];
+        List<List<Integer>> dependants = new ArrayList<>();
+        rules.forEach(rule -> dependants.add(new ArrayList<>()));
+        for (int i = 0; i < rules.size(); i++) {
+            for (String dependency : rules.get(i).getDependencies()) {
+                Integer index = declared.get(dependency);
+                if (index == null) {
+                    throw new IllegalStateException("Trade rule " + rules.get(i).getName()
+                            + " depends on unknown rule " + dependency);
+                }
+                dependants.get(index).add(i);
+                waitingOn[i]++;
+            }
+        }
+        PriorityQueue<Integer> ready = new PriorityQueue<>(Comparator
+                .comparing((Integer i) -> rules.get(i).getCost())
+                .thenComparing(Comparator.naturalOrder()));
+        for (int i = 0; i < rules.size(); i++) {
+            if (waitingOn[i] == 0) {
+                ready.add(i);
+            }
+        }
+        Map<String, Integer> position = new HashMap<>();
+        CompiledRule[] compiled = new CompiledRule[rules.size()];
+        while (!ready.isEmpty()) {
+            int next = ready.poll();
+            TradeRule rule = rules.get(next);
+            int[] dependencies = rule.getDependencies().stream().mapToInt(position::get).toArray();
+            position.put(rule.getName(), position.size());
+            compiled[position.size() - 1] = new CompiledRule(rule, dependencies, meterRegistry);
+            for (int dependant : dependants.get(next)) {
+                if (--waitingOn[dependant] == 0) {
+                    ready.add(dependant);
+                }
+            }
+        }
+        if (position.size() < rules.size()) {
+            throw new IllegalStateException("Trade rule dependencies form a cycle among "
+                    + rules.stream().map(TradeRule::getName).filter(name -> !position.containsKey(name)).toList());
+        }
+        return new TradeRulePipeline(compiled);
+    }
+
+    /**
+     * @return the rule names in evaluation order
+     */
+    public List<String> getRuleNames() {
+        List<String> names = new ArrayList<>(rules.length);
+        for (CompiledRule rule : rules) {
+            names.add(rule.rule.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Evaluates the rules of the enabled rule sets in order. A rule is skipped when one of its dependencies was
+     * skipped or added errors.
+     * @param context the trade to validate
+     * @param ruleSets the rule sets enabled for the trade
+     * @param failFast whether to stop at the first rule that adds errors
+     * @return a ValidationResult containing the errors of every rule evaluated
+     */
+    public ValidationResult validate(TradeRuleContext context, Set<String> ruleSets, boolean failFast) {
+        ValidationResult result = new ValidationResult();
+        boolean[] passed = new boolean[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            CompiledRule rule = rules[i];
+            if (!ruleSets.contains(rule.rule.getRuleSet()) || !allPassed(rule.dependencies, passed)) {
+                continue;
+            }
+            int errors = result.getErrors().size();
+            long start = System.nanoTime();
+            rule.rule.evaluate(context, result);
+            long elapsed = System.nanoTime() - start;
+            passed[i] = result.getErrors().size() == errors;
+            if (rule.timer != null) {
+                rule.timer.record(elapsed, TimeUnit.NANOSECONDS);
+                if (!passed[i]) {
+                    rule.rejections.increment();
+                }
+            }
+            if (!passed[i] && failFast) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static boolean allPassed(int[] dependencies, boolean[] passed) {
+        for (int dependency : dependencies) {
+            if (!passed[dependency]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class CompiledRule {
+        private final TradeRule rule;
+        private final int[] dependencies;
+        private final Timer timer;
+        private final Counter rejections;
+
+        private CompiledRule(TradeRule rule, int[] dependencies, MeterRegistry meterRegistry) {
+            this.rule = rule;
+            this.dependencies = dependencies;
+            this.timer = meterRegistry == null ? null : Timer.builder("trade.validation.rule")
+                    .tag("rule", rule.getName())
+                    .tag("cost", rule.getCost().name())
+                    .register(meterRegistry);
+            this.rejections = meterRegistry == null ? null : Counter.builder("trade.validation.rule.rejections")
+                    .tag("rule", rule.getName())
+                    .register(meterRegistry);
+        }
+    }
+}
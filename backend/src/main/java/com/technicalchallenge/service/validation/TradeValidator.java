@@ -5,26 +5,78 @@ import com.technicalchallenge.model.Book;
 import com.technicalchallenge.model.Counterparty;
 import com.technicalchallenge.repository.BookRepository;
 import com.technicalchallenge.repository.CounterpartyRepository;
+import com.technicalchallenge.service.hierarchy.OrgHierarchyIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Service that validates the business rules of a {@link TradeDTO} before it is processed further.
- * It incorporates the results of leg-specific consistency checks to {@link TradeLegValidator} and aggregates
- * any validation errors into a {@link ValidationResult} object
+ * The rules are {@link TradeRule}s compiled into a {@link TradeRulePipeline}, so field checks run before reference
+ * data lookups. Leg-specific consistency checks are delegated to {@link TradeLegValidator}, and any validation errors
+ * are aggregated into a {@link ValidationResult} object.
+ * <p>
+ * Which rule sets apply is configured per desk, falling back to the default rule sets for trades whose desk has no
+ * list of its own.
  */
 @Service
 public class TradeValidator {
 
+    /** Rule set of the check that a trade is not booked too far in the past */
+    public static final String BACKDATING = "backdating";
+
+    private static final int MAX_BACKDATED_DAYS = 30;
+
     private final BookRepository bookRepository;
     private final CounterpartyRepository counterpartyRepository;
     private final TradeLegValidator tradeLegValidator;
+    private final OrgHierarchyIndex orgHierarchyIndex;
+    private final TradeRulePipeline pipeline;
+    private final Set<String> defaultRuleSets;
+    private final Map<String, Set<String>> deskRuleSets;
+    private final boolean failFast;
 
     public TradeValidator(BookRepository bookRepository, CounterpartyRepository counterpartyRepository, TradeLegValidator tradeLegValidator) {
+        this(bookRepository, counterpartyRepository, tradeLegValidator, List.of(), null, null,
+                TradeRule.CORE + "," + BACKDATING, "", false);
+    }
+
+    @Autowired
+    public TradeValidator(BookRepository bookRepository, CounterpartyRepository counterpartyRepository,
+                          TradeLegValidator tradeLegValidator, ObjectProvider<TradeRule> additionalRules,
+                          OrgHierarchyIndex orgHierarchyIndex, MeterRegistry meterRegistry,
+                          @Value("${trade.validation.rule-sets:core,backdating}") String defaultRuleSets,
+                          @Value("${trade.validation.desk-rule-sets:}") String deskRuleSets,
+                          @Value("${trade.validation.fail-fast:false}") boolean failFast) {
+        this(bookRepository, counterpartyRepository, tradeLegValidator, additionalRules.orderedStream().toList(),
+                orgHierarchyIndex, meterRegistry, defaultRuleSets, deskRuleSets, failFast);
+    }
+
+    TradeValidator(BookRepository bookRepository, CounterpartyRepository counterpartyRepository,
+                   TradeLegValidator tradeLegValidator, List<TradeRule> additionalRules,
+                   OrgHierarchyIndex orgHierarchyIndex, MeterRegistry meterRegistry,
+                   String defaultRuleSets, String deskRuleSets, boolean failFast) {
         this.bookRepository = bookRepository;
         this.counterpartyRepository = counterpartyRepository;
         this.tradeLegValidator = tradeLegValidator;
+        this.orgHierarchyIndex = orgHierarchyIndex;
+        List<TradeRule> rules = new ArrayList<>(builtInRules());
+        rules.addAll(additionalRules);
+        this.pipeline = TradeRulePipeline.compile(rules, meterRegistry);
+        this.defaultRuleSets = parseRuleSets(defaultRuleSets);
+        this.deskRuleSets = parseDeskRuleSets(deskRuleSets);
+        this.failFast = failFast;
     }
 
     /**
@@ -33,59 +85,117 @@ public class TradeValidator {
      * @return a ValidationResult containing any validation errors that occur
      */
     public ValidationResult validateTradeBusinessRules(TradeDTO tradeDTO) {
+        return validateTradeBusinessRules(tradeDTO, bookRepository::findByBookName, counterpartyRepository::findByName);
+    }
 
-        ValidationResult result = new ValidationResult();
-
-        LocalDate maturityDate = tradeDTO.getTradeMaturityDate();
-        LocalDate tradeDate = tradeDTO.getTradeDate();
-        LocalDate startDate = tradeDTO.getTradeStartDate();
-
-        if ( maturityDate != null && startDate != null && tradeDate != null) {
-
-            if (maturityDate.isBefore(startDate)) {
-                result.addError("tradeMaturityDate", "Maturity date cannot be before start date");
-            }
-
-            if (maturityDate.isBefore(tradeDate)) {
-                result.addError("tradeMaturityDate", "Maturity date cannot be before trade date");
-            }
-
-            if (startDate.isBefore(tradeDate)) {
-                result.addError("tradeStartDate", "Start date cannot be before trade date");
-            }
+    /**
+     * Validates a {@link TradeDTO} against core business rules, looking books and counterparties up by name with the
+     * given functions. Used by {@link TradeBatchValidator} to check many trades against reference data it has fetched
+     * up front.
+     */
+    ValidationResult validateTradeBusinessRules(TradeDTO tradeDTO, Function<String, Optional<Book>> findBook,
+                                                Function<String, Optional<Counterparty>> findCounterparty) {
+        TradeRuleContext context = new TradeRuleContext(tradeDTO, findBook, findCounterparty);
+        return pipeline.validate(context, ruleSetsFor(context), failFast);
+    }
 
-            if (tradeDate.isBefore(LocalDate.now().minusDays(30))) {
-                result.addError("tradeDate", "Trade date cannot be more than 30 days in the past");
-            }
+    // The desk comes from the trade's book, so it is only looked up ahead of the field checks when a desk has its own rule sets
+    private Set<String> ruleSetsFor(TradeRuleContext context) {
+        if (deskRuleSets.isEmpty() || orgHierarchyIndex == null) {
+            return defaultRuleSets;
         }
+        return context.getBook()
+                .map(book -> book.getId() == null ? null : orgHierarchyIndex.getHierarchy().getDeskName(book.getId()))
+                .map(deskRuleSets::get)
+                .orElse(defaultRuleSets);
+    }
 
-        if (tradeDTO.getTradeLegs() == null || tradeDTO.getTradeLegs().size() != 2) {
-            result.addError("tradeLegs", "Trade legs must have exactly 2 legs");
-        } else {
-
-            // Individual leg checks are delegated to TradeLegValidator
-            ValidationResult legResult = tradeLegValidator.validateTradeLegConsistency(tradeDTO.getTradeLegs());
-            result.addMultipleErrors(legResult.getErrors());
-        }
+    private List<TradeRule> builtInRules() {
+        return List.of(
+                TradeRule.of("tradeDates", TradeRule.CORE, RuleCost.FIELD, Set.of(), (context, result) -> {
+                    TradeDTO trade = context.getTrade();
+                    LocalDate maturityDate = trade.getTradeMaturityDate();
+                    LocalDate tradeDate = trade.getTradeDate();
+                    LocalDate startDate = trade.getTradeStartDate();
+                    if (maturityDate == null || startDate == null || tradeDate == null) {
+                        return;
+                    }
+                    if (maturityDate.isBefore(startDate)) {
+                        result.addError("tradeMaturityDate", "Maturity date cannot be before start date");
+                    }
+                    if (maturityDate.isBefore(tradeDate)) {
+                        result.addError("tradeMaturityDate", "Maturity date cannot be before trade date");
+                    }
+                    if (startDate.isBefore(tradeDate)) {
+                        result.addError("tradeStartDate", "Start date cannot be before trade date");
+                    }
+                }),
+                TradeRule.of("backdatingLimit", BACKDATING, RuleCost.FIELD, Set.of(), (context, result) -> {
+                    TradeDTO trade = context.getTrade();
+                    if (trade.getTradeMaturityDate() != null && trade.getTradeStartDate() != null
+                            && trade.getTradeDate() != null
+                            && trade.getTradeDate().isBefore(LocalDate.now().minusDays(MAX_BACKDATED_DAYS))) {
+                        result.addError("tradeDate", "Trade date cannot be more than 30 days in the past");
+                    }
+                }),
+                TradeRule.of("legCount", TradeRule.CORE, RuleCost.FIELD, Set.of(), (context, result) -> {
+                    if (context.getTrade().getTradeLegs() == null || context.getTrade().getTradeLegs().size() != 2) {
+                        result.addError("tradeLegs", "Trade legs must have exactly 2 legs");
+                    }
+                }),
+                // Individual leg checks are delegated to TradeLegValidator
+                TradeRule.of("legConsistency", TradeRule.CORE, RuleCost.FIELD, Set.of("legCount"), (context, result) ->
+                        result.addMultipleErrors(tradeLegValidator
+                                .validateTradeLegConsistency(context.getTrade().getTradeLegs()).getErrors())),
+                TradeRule.of("bookActive", TradeRule.CORE, RuleCost.LOOKUP, Set.of(), (context, result) -> {
+                    String bookName = context.getTrade().getBookName();
+                    if (bookName == null) {
+                        return;
+                    }
+                    Optional<Book> book = context.getBook();
+                    if (book.isEmpty()) {
+                        result.addError("book", "Book not found: " + bookName);
+                    } else if (!book.get().isActive()) {
+                        result.addError("book", "Book must be active");
+                    }
+                }),
+                TradeRule.of("counterpartyActive", TradeRule.CORE, RuleCost.LOOKUP, Set.of(), (context, result) -> {
+                    String counterpartyName = context.getTrade().getCounterpartyName();
+                    if (counterpartyName == null) {
+                        return;
+                    }
+                    Optional<Counterparty> counterparty = context.getCounterparty();
+                    if (counterparty.isEmpty()) {
+                        result.addError("counterparty", "Counterparty not found: " + counterpartyName);
+                    } else if (!counterparty.get().isActive()) {
+                        result.addError("counterparty", "Counterparty must be active");
+                    }
+                }));
+    }
 
-        if (tradeDTO.getBookName() != null) {
-            Optional<Book> book = bookRepository.findByBookName(tradeDTO.getBookName());
-            if (book.isEmpty()) {
-                result.addError("book", "Book not found: " + tradeDTO.getBookName());
-            } else if (!book.get().isActive()) {
-                result.addError("book", "Book must be active");
+    private static Set<String> parseRuleSets(String ruleSets) {
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String ruleSet : ruleSets.split(",")) {
+            if (!ruleSet.isBlank()) {
+                parsed.add(ruleSet.trim());
             }
         }
+        return Set.copyOf(parsed);
+    }
 
-        if (tradeDTO.getCounterpartyName() != null) {
-            Optional<Counterparty> counterparty = counterpartyRepository.findByName(tradeDTO.getCounterpartyName());
-            if (counterparty.isEmpty()) {
-                result.addError("counterparty", "Counterparty not found: " + tradeDTO.getCounterpartyName());
-            } else if (!counterparty.get().isActive()) {
-                result.addError("counterparty", "Counterparty must be active");
+    // Desk=set,set;Desk=set
+    private static Map<String, Set<String>> parseDeskRuleSets(String deskRuleSets) {
+        Map<String, Set<String>> parsed = new HashMap<>();
+        for (String entry : deskRuleSets.split(";")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2 || parts[0].isBlank()) {
+                throw new IllegalArgumentException("Invalid desk rule sets '" + entry + "', expected Desk=set,set");
             }
+            parsed.put(parts[0].trim(), parseRuleSets(parts[1]));
         }
-
-        return result;
+        return Map.copyOf(parsed);
     }
 }
@@ -35,6 +35,18 @@ public class UserPrivilegeValidator {
         }
 
         ApplicationUser user = applicationUserRepository.findByLoginId(userId).orElse(null);
+        return validateUserPrivileges(user, userId, operation, tradeDTO);
+    }
+
+    /**
+     * The privilege checks once the user has been looked up, shared with {@link TradeBatchValidator}
+     * @param user the user with the given loginId, or null if there is none
+     */
+    boolean validateUserPrivileges(ApplicationUser user, String userId, String operation, TradeDTO tradeDTO) {
+
+        if (userId == null || operation == null  || tradeDTO == null)  {
+            return false;
+        }
 
         if (user == null || user.getUserProfile() == null || user.getUserProfile().getUserType() == null ) {
             return false;
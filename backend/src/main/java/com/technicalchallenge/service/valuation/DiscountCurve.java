@@ -0,0 +1,46 @@
+package com.technicalchallenge.service.valuation;
+
+import com.technicalchallenge.service.curve.IndexCurve;
+
+import java.time.LocalDate;
+
+/**
+ * Continuously compounded discount factors from a valuation date: {@code exp(-r * t)} with t on ACT/365F and r
+ * read from an index curve in percent, or a flat rate when no curve is available. Cashflows on or before the
+ * valuation date are not discounted.
+ */
+public final class DiscountCurve {
+
+    private static final double DAYS_PER_YEAR = 365.0;
+
+    private final long valuationDay;
+    private final IndexCurve curve;
+    private final double flatRate;
+
+    /**
+     * @param curve    index curve with rates in percent, or null to use the flat rate
+     * @param flatRate flat rate in percent
+     */
+    public DiscountCurve(LocalDate valuationDate, IndexCurve curve, double flatRate) {
+        this.valuationDay = valuationDate.toEpochDay();
+        this.curve = curve;
+        this.flatRate = flatRate;
+    }
+
+    public double discountFactor(LocalDate date) {
+        return discountFactor(date.toEpochDay());
+    }
+
+    public double discountFactor(long epochDay) {
+        if (epochDay <= valuationDay) {
+            return 1.0;
+        }
+        double rate = (curve != null ? curve.rateOn(epochDay) : flatRate) / 100.0;
+        double years = (epochDay - valuationDay) / DAYS_PER_YEAR;
+        return Math.exp(-rate * years);
+    }
+
+    public boolean isCurveBacked() {
+        return curve != null;
+    }
+}
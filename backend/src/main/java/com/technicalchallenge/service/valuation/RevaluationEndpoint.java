@@ -0,0 +1,28 @@
+package com.technicalchallenge.service.valuation;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/revaluation}: progress and per-book partition timings of the current or last revaluation run.
+ */
+@Component
+@Endpoint(id = "revaluation")
+public class RevaluationEndpoint {
+
+    private final RevaluationService revaluationService;
+
+    public RevaluationEndpoint(RevaluationService revaluationService) {
+        this.revaluationService = revaluationService;
+    }
+
+    @ReadOperation
+    public Map<String, Object> progress() {
+        return revaluationService.getProgress()
+                .map(RevaluationProgress::snapshot)
+                .orElseGet(() -> Map.of("status", "NOT_RUN"));
+    }
+}
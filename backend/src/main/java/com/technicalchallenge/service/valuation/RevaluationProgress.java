@@ -0,0 +1,87 @@
+package com.technicalchallenge.service.valuation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live counters of one revaluation run. Partitions update it concurrently; the actuator endpoint reads a
+ * snapshot of it at any time.
+ */
+public class RevaluationProgress {
+
+    private final Long runId;
+    private final LocalDate valuationDate;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger completedBooks = new AtomicInteger();
+    private final AtomicInteger failedBooks = new AtomicInteger();
+    private final AtomicLong trades = new AtomicLong();
+    private final AtomicLong cashflows = new AtomicLong();
+    private final Map<Long, Long> partitionMillis = new ConcurrentHashMap<>();
+    private volatile int totalBooks;
+    private volatile String status = "RUNNING";
+    private volatile long elapsedMs = -1;
+
+    public RevaluationProgress(Long runId, LocalDate valuationDate) {
+        this.runId = runId;
+        this.valuationDate = valuationDate;
+    }
+
+    void setTotalBooks(int totalBooks) {
+        this.totalBooks = totalBooks;
+    }
+
+    void bookCompleted(Long bookId, int bookTrades, long bookCashflows, long millis) {
+        trades.addAndGet(bookTrades);
+        cashflows.addAndGet(bookCashflows);
+        partitionMillis.put(bookId, millis);
+        completedBooks.incrementAndGet();
+    }
+
+    void bookFailed() {
+        failedBooks.incrementAndGet();
+    }
+
+    void finish(String status) {
+        this.elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        this.status = status;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public long getTrades() {
+        return trades.get();
+    }
+
+    public long getCashflows() {
+        return cashflows.get();
+    }
+
+    public int getTotalBooks() {
+        return totalBooks;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("runId", runId);
+        snapshot.put("valuationDate", valuationDate.toString());
+        snapshot.put("status", status);
+        snapshot.put("startedAt", startedAt.toString());
+        snapshot.put("elapsedMs", elapsedMs >= 0 ? elapsedMs : (System.nanoTime() - startNanos) / 1_000_000);
+        snapshot.put("totalBooks", totalBooks);
+        snapshot.put("completedBooks", completedBooks.get());
+        snapshot.put("failedBooks", failedBooks.get());
+        snapshot.put("trades", trades.get());
+        snapshot.put("cashflows", cashflows.get());
+        snapshot.put("partitionMillis", new TreeMap<>(partitionMillis));
+        return snapshot;
+    }
+}
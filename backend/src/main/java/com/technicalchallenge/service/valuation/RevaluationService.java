@@ -0,0 +1,431 @@
+package com.technicalchallenge.service.valuation;
+
+import com.technicalchallenge.model.BookValuation;
+import com.technicalchallenge.model.TradeValuation;
+import com.technicalchallenge.model.ValuationRun;
+import com.technicalchallenge.model.ValuationRunStatus;
+import com.technicalchallenge.repository.BookValuationRepository;
+import com.technicalchallenge.repository.TradeValuationRepository;
+import com.technicalchallenge.repository.ValuationRunRepository;
+import com.technicalchallenge.service.curve.IndexCurveService;
+import com.technicalchallenge.service.tracing.Tracer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-of-day revaluation of every book.
+ * <p>
+ * Each book is one partition on a fork-join pool. A partition streams the remaining cashflows of the book's live
+ * trades straight off a forward-only JDBC cursor, discounts them with a {@link DiscountCurve} and writes one
+ * {@code trade_valuation} row per trade in JDBC batches, followed by a {@code book_valuation} total. Nothing is
+ * loaded through JPA, so memory stays flat however many cashflows a book holds. Progress and per-partition
+ * timings are published through the {@code revaluation} actuator endpoint while the run is going.
+ * <p>
+ * Rows are written under the run's id and only read once the run is completed. Completing the run and deleting
+ * the rows of earlier runs for the same date happen in one transaction, so a rerun replaces the earlier results
+ * all at once; a run that fails deletes its own rows and leaves the earlier results in place.
+ */
+@Service
+public class RevaluationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevaluationService.class);
+
+    private static final String BOOKS_SQL = "SELECT DISTINCT t.book_id FROM trade t "
+            + "WHERE t.active = TRUE AND t.book_id IS NOT NULL ORDER BY t.book_id";
+
+    private static final String BOOK_NAMES_SQL = "SELECT id, book_name FROM book";
+
+    // Pay/receive is taken from the cashflow, falling back to its leg; rows come grouped by trade
+    private static final String BOOK_CASHFLOWS_SQL = "SELECT t.trade_id, c.value_date, c.payment_value, "
+            + "COALESCE(cpr.pay_rec, lpr.pay_rec) AS pay_rec "
+            + "FROM cashflow c "
+            + "JOIN trade_leg l ON l.leg_id = c.leg_id "
+            + "JOIN trade t ON t.id = l.trade_id "
+            + "LEFT JOIN trade_status s ON s.id = t.trade_status_id "
+            + "LEFT JOIN pay_rec cpr ON cpr.id = c.pay_rec_id "
+            + "LEFT JOIN pay_rec lpr ON lpr.id = l.pay_rec_id "
+            + "WHERE t.book_id = ? AND t.active = TRUE AND l.active = TRUE AND c.active = TRUE "
+            + "AND (s.trade_status IS NULL OR s.trade_status NOT IN ('CANCELLED', 'TERMINATED')) "
+            + "AND c.value_date >= ? AND c.payment_value IS NOT NULL "
+            + "ORDER BY t.trade_id";
+
+    private static final String INSERT_TRADE_VALUATION_SQL = "INSERT INTO trade_valuation "
+            + "(run_id, valuation_date, trade_id, book_id, present_value, cashflow_count, created_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BOOK_VALUATION_SQL = "INSERT INTO book_valuation "
+            + "(run_id, valuation_date, book_id, book_name, present_value, trade_count, cashflow_count, elapsed_ms, created_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ValuationRunRepository valuationRunRepository;
+    private final BookValuationRepository bookValuationRepository;
+    private final TradeValuationRepository tradeValuationRepository;
+    private final IndexCurveService indexCurveService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final String discountIndex;
+    private final double flatDiscountRate;
+    private final ForkJoinPool pool;
+    private final ExecutorService trigger;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RevaluationProgress progress;
+
+    private final Timer runTimer;
+    private final Timer partitionTimer;
+    private final Counter cashflowCounter;
+    private final Counter failedCounter;
+
+    public RevaluationService(DataSource dataSource,
+                              ValuationRunRepository valuationRunRepository,
+                              BookValuationRepository bookValuationRepository,
+                              TradeValuationRepository tradeValuationRepository,
+                              IndexCurveService indexCurveService,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${trade.valuation.enabled:true}") boolean enabled,
+                              @Value("${trade.valuation.parallelism:4}") int parallelism,
+                              @Value("${trade.valuation.fetch-size:1000}") int fetchSize,
+                              @Value("${trade.valuation.batch-size:500}") int batchSize,
+                              @Value("${trade.valuation.discount-index:LIBOR}") String discountIndex,
+                              @Value("${trade.valuation.flat-discount-rate:5.0}") double flatDiscountRate) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.valuationRunRepository = valuationRunRepository;
+        this.bookValuationRepository = bookValuationRepository;
+        this.tradeValuationRepository = tradeValuationRepository;
+        this.indexCurveService = indexCurveService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.discountIndex = discountIndex;
+        this.flatDiscountRate = flatDiscountRate;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("revaluation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.trigger = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "revaluation-trigger");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.runTimer = meterRegistry.timer("trade.valuation.run");
+        this.partitionTimer = meterRegistry.timer("trade.valuation.partition");
+        this.cashflowCounter = meterRegistry.counter("trade.valuation.cashflows");
+        this.failedCounter = meterRegistry.counter("trade.valuation.partitions.failed");
+    }
+
+    @Scheduled(cron = "${trade.valuation.cron:0 0 22 * * MON-FRI}")
+    public void revalueEndOfDay() {
+        if (enabled) {
+            startRun(LocalDate.now());
+        }
+    }
+
+    /**
+     * Starts a revaluation for the given date in the background.
+     *
+     * @return the new run, or empty when a run is already in progress
+     */
+    public Optional<ValuationRun> startRun(LocalDate valuationDate) {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Revaluation for {} not started, a run is already in progress", valuationDate);
+            return Optional.empty();
+        }
+        try {
+            ValuationRun run = valuationRunRepository.save(new ValuationRun(null, valuationDate,
+                    ValuationRunStatus.RUNNING, null, null, null, null, LocalDateTime.now(), null));
+            progress = new RevaluationProgress(run.getId(), valuationDate);
+            trigger.submit(Tracer.wrap("RevaluationService.run", () -> execute(run)));
+            return Optional.of(run);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Progress of the current or most recent run since startup, empty if none has run.
+     */
+    public Optional<RevaluationProgress> getProgress() {
+        return Optional.ofNullable(progress);
+    }
+
+    public Optional<ValuationRun> getRun(Long runId) {
+        return valuationRunRepository.findById(runId);
+    }
+
+    /**
+     * Book totals for the given date, or for the latest valued date when none is given.
+     */
+    public List<BookValuation> getBookValuations(LocalDate valuationDate) {
+        return getBookValuations(valuationDate, null);
+    }
+
+    /**
+     * @param bookIds books to include, all books when null
+     */
+    public List<BookValuation> getBookValuations(LocalDate valuationDate, List<Long> bookIds) {
+        LocalDate date = valuationDate != null ? valuationDate
+                : bookValuationRepository.findLatestCompletedValuationDate().orElse(null);
+        if (date == null || (bookIds != null && bookIds.isEmpty())) {
+            return List.of();
+        }
+        return bookIds == null ? bookValuationRepository.findCompletedByValuationDate(date)
+                : bookValuationRepository.findCompletedByValuationDateAndBookIds(date, bookIds);
+    }
+
+    public List<TradeValuation> getTradeValuations(Long tradeId) {
+        return tradeValuationRepository.findCompletedByTradeId(tradeId);
+    }
+
+    private void execute(ValuationRun run) {
+        RevaluationProgress current = progress;
+        long start = System.nanoTime();
+        try {
+            revalue(run, current);
+            complete(run, current);
+            current.finish(ValuationRunStatus.COMPLETED.name());
+        } catch (Exception e) {
+            logger.error("Revaluation run {} for {} failed", run.getId(), run.getValuationDate(), e);
+            current.finish(ValuationRunStatus.FAILED.name());
+            fail(run, current, e);
+        } finally {
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    // Swaps the run's rows in for the date: readers see either the earlier results or these, never a mix
+    private void complete(ValuationRun run, RevaluationProgress current) {
+        Date sqlDate = Date.valueOf(run.getValuationDate());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM trade_valuation WHERE valuation_date = ? AND run_id <> ?", sqlDate, run.getId());
+            jdbcTemplate.update("DELETE FROM book_valuation WHERE valuation_date = ? AND run_id <> ?", sqlDate, run.getId());
+            run.setStatus(ValuationRunStatus.COMPLETED);
+            saveRun(run, current);
+        });
+    }
+
+    private void fail(ValuationRun run, RevaluationProgress current, Exception cause) {
+        try {
+            jdbcTemplate.update("DELETE FROM trade_valuation WHERE run_id = ?", run.getId());
+            jdbcTemplate.update("DELETE FROM book_valuation WHERE run_id = ?", run.getId());
+        } catch (RuntimeException e) {
+            // Never read since the run is not completed
+            logger.warn("Could not delete the rows of failed revaluation run {}", run.getId(), e);
+        }
+        run.setStatus(ValuationRunStatus.FAILED);
+        run.setErrorMessage(truncate(cause.getMessage()));
+        saveRun(run, current);
+    }
+
+    private void saveRun(ValuationRun run, RevaluationProgress current) {
+        run.setBookCount(current.getTotalBooks());
+        run.setTradeCount(current.getTrades());
+        run.setCashflowCount(current.getCashflows());
+        run.setFinishedAt(LocalDateTime.now());
+        valuationRunRepository.save(run);
+    }
+
+    private void revalue(ValuationRun run, RevaluationProgress current) throws InterruptedException, ExecutionException {
+        LocalDate valuationDate = run.getValuationDate();
+        DiscountCurve discountCurve = new DiscountCurve(valuationDate,
+                indexCurveService.getCurve(discountIndex).orElse(null), flatDiscountRate);
+        if (!discountCurve.isCurveBacked()) {
+            logger.warn("No curve for discount index {}, discounting at a flat {}%", discountIndex, flatDiscountRate);
+        }
+
+        List<Long> bookIds = jdbcTemplate.queryForList(BOOKS_SQL, Long.class);
+        Map<Long, String> bookNames = new HashMap<>();
+        jdbcTemplate.query(BOOK_NAMES_SQL, (RowCallbackHandler) rs -> bookNames.put(rs.getLong(1), rs.getString(2)));
+        current.setTotalBooks(bookIds.size());
+        logger.info("Revaluation run {} for {} started over {} books", run.getId(), valuationDate, bookIds.size());
+
+        List<Callable<Void>> partitions = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            partitions.add(Tracer.wrap("RevaluationService.revalueBook", () -> {
+                revalueBook(run.getId(), valuationDate, bookId, bookNames.get(bookId), discountCurve, current);
+                return null;
+            }));
+        }
+
+        int failed = 0;
+        for (Future<Void> result : pool.invokeAll(partitions)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " of " + bookIds.size() + " books failed to revalue");
+        }
+        logger.info("Revaluation run {} for {} completed: {} trades, {} cashflows", run.getId(), valuationDate,
+                current.getTrades(), current.getCashflows());
+    }
+
+    private void revalueBook(Long runId, LocalDate valuationDate, Long bookId, String bookName,
+                             DiscountCurve discountCurve, RevaluationProgress current) {
+        long start = System.nanoTime();
+        try {
+            BookAccumulator book = new BookAccumulator(runId, valuationDate, bookId, discountCurve);
+            jdbcTemplate.query(BOOK_CASHFLOWS_SQL, (RowCallbackHandler) book::accept, bookId, Date.valueOf(valuationDate));
+            book.flush();
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            jdbcTemplate.update(INSERT_BOOK_VALUATION_SQL, runId, Date.valueOf(valuationDate), bookId, bookName,
+                    toMoney(book.bookPv), book.tradeCount, book.cashflowCount, millis,
+                    Timestamp.valueOf(LocalDateTime.now()));
+
+            partitionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            cashflowCounter.increment(book.cashflowCount);
+            current.bookCompleted(bookId, book.tradeCount, book.cashflowCount, millis);
+            logger.debug("Revalued book {}: {} trades, {} cashflows in {} ms", bookId, book.tradeCount,
+                    book.cashflowCount, millis);
+        } catch (RuntimeException e) {
+            failedCounter.increment();
+            current.bookFailed();
+            logger.error("Revaluation of book {} failed", bookId, e);
+            throw e;
+        }
+    }
+
+    private static BigDecimal toMoney(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= 1000) {
+            return message;
+        }
+        return message.substring(0, 1000);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        trigger.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    /**
+     * Folds the ordered cashflow rows of one book into per-trade present values, buffering the trade rows
+     * until a batch is full.
+     */
+    private class BookAccumulator {
+
+        private final Long runId;
+        private final Date valuationDate;
+        private final Long bookId;
+        private final DiscountCurve discountCurve;
+        private final Timestamp createdDate = Timestamp.valueOf(LocalDateTime.now());
+        private final List<Object[]> batch = new ArrayList<>(batchSize);
+
+        private long currentTradeId;
+        private boolean hasTrade;
+        private double tradePv;
+        private int tradeCashflows;
+
+        private double bookPv;
+        private int tradeCount;
+        private long cashflowCount;
+
+        BookAccumulator(Long runId, LocalDate valuationDate, Long bookId, DiscountCurve discountCurve) {
+            this.runId = runId;
+            this.valuationDate = Date.valueOf(valuationDate);
+            this.bookId = bookId;
+            this.discountCurve = discountCurve;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long tradeId = rs.getLong(1);
+            if (!hasTrade || tradeId != currentTradeId) {
+                closeTrade();
+                currentTradeId = tradeId;
+                hasTrade = true;
+            }
+            long valueDay = rs.getDate(2).toLocalDate().toEpochDay();
+            double amount = rs.getBigDecimal(3).doubleValue();
+            if ("Pay".equalsIgnoreCase(rs.getString(4))) {
+                amount = -amount;
+            }
+            tradePv += amount * discountCurve.discountFactor(valueDay);
+            tradeCashflows++;
+        }
+
+        void flush() {
+            closeTrade();
+            writeBatch();
+        }
+
+        private void closeTrade() {
+            if (!hasTrade) {
+                return;
+            }
+            batch.add(new Object[]{runId, valuationDate, currentTradeId, bookId, toMoney(tradePv), tradeCashflows,
+                    createdDate});
+            bookPv += tradePv;
+            tradeCount++;
+            cashflowCount += tradeCashflows;
+            tradePv = 0;
+            tradeCashflows = 0;
+            hasTrade = false;
+            if (batch.size() >= batchSize) {
+                writeBatch();
+            }
+        }
+
+        private void writeBatch() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TRADE_VALUATION_SQL, batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -9,7 +9,80 @@ INSERT INTO trade_status (id, trade_status) VALUES (1000, 'NEW'), (1001, 'AMENDE
 INSERT INTO currency (id, currency) VALUES (1000, 'USD'), (1001, 'EUR'), (1002, 'GBP');
 INSERT INTO leg_type (id, type) VALUES (1000, 'Fixed'), (1001, 'Floating');
 INSERT INTO index_table (id, index) VALUES (1000, 'LIBOR'), (1001, 'EURIBOR');
+INSERT INTO index_fixing (index_id, fixing_date, rate, last_touch_timestamp) VALUES
+  (1000, '2025-01-02', 4.85, '2025-06-02T00:00:00'),
+  (1000, '2025-07-01', 4.60, '2025-06-02T00:00:00'),
+  (1000, '2026-01-02', 4.10, '2025-06-02T00:00:00'),
+  (1000, '2026-07-01', 3.85, '2025-06-02T00:00:00'),
+  (1000, '2027-01-04', 3.70, '2025-06-02T00:00:00'),
+  (1000, '2028-01-03', 3.65, '2025-06-02T00:00:00'),
+  (1000, '2030-01-02', 3.75, '2025-06-02T00:00:00'),
+  (1001, '2025-01-02', 2.75, '2025-06-02T00:00:00'),
+  (1001, '2025-07-01', 2.10, '2025-06-02T00:00:00'),
+  (1001, '2026-01-02', 1.95, '2025-06-02T00:00:00'),
+  (1001, '2026-07-01', 2.05, '2025-06-02T00:00:00'),
+  (1001, '2027-01-04', 2.20, '2025-06-02T00:00:00'),
+  (1001, '2028-01-03', 2.35, '2025-06-02T00:00:00'),
+  (1001, '2030-01-02', 2.60, '2025-06-02T00:00:00');
 INSERT INTO holiday_calendar (id, holiday_calendar) VALUES (1000, 'NY'), (1001, 'LON');
+INSERT INTO holiday (holiday_calendar_id, holiday_date, description) VALUES
+  (1000, '2025-01-01', 'New Year''s Day'),
+  (1000, '2025-01-20', 'Martin Luther King Jr. Day'),
+  (1000, '2025-02-17', 'Presidents'' Day'),
+  (1000, '2025-05-26', 'Memorial Day'),
+  (1000, '2025-06-19', 'Juneteenth'),
+  (1000, '2025-07-04', 'Independence Day'),
+  (1000, '2025-09-01', 'Labor Day'),
+  (1000, '2025-10-13', 'Columbus Day'),
+  (1000, '2025-11-11', 'Veterans Day'),
+  (1000, '2025-11-27', 'Thanksgiving Day'),
+  (1000, '2025-12-25', 'Christmas Day'),
+  (1000, '2026-01-01', 'New Year''s Day'),
+  (1000, '2026-01-19', 'Martin Luther King Jr. Day'),
+  (1000, '2026-02-16', 'Presidents'' Day'),
+  (1000, '2026-05-25', 'Memorial Day'),
+  (1000, '2026-06-19', 'Juneteenth'),
+  (1000, '2026-07-03', 'Independence Day (observed)'),
+  (1000, '2026-09-07', 'Labor Day'),
+  (1000, '2026-10-12', 'Columbus Day'),
+  (1000, '2026-11-11', 'Veterans Day'),
+  (1000, '2026-11-26', 'Thanksgiving Day'),
+  (1000, '2026-12-25', 'Christmas Day'),
+  (1000, '2027-01-01', 'New Year''s Day'),
+  (1000, '2027-01-18', 'Martin Luther King Jr. Day'),
+  (1000, '2027-02-15', 'Presidents'' Day'),
+  (1000, '2027-05-31', 'Memorial Day'),
+  (1000, '2027-06-18', 'Juneteenth (observed)'),
+  (1000, '2027-07-05', 'Independence Day (observed)'),
+  (1000, '2027-09-06', 'Labor Day'),
+  (1000, '2027-10-11', 'Columbus Day'),
+  (1000, '2027-11-11', 'Veterans Day'),
+  (1000, '2027-11-25', 'Thanksgiving Day'),
+  (1000, '2027-12-24', 'Christmas Day (observed)'),
+  (1001, '2025-01-01', 'New Year''s Day'),
+  (1001, '2025-04-18', 'Good Friday'),
+  (1001, '2025-04-21', 'Easter Monday'),
+  (1001, '2025-05-05', 'Early May Bank Holiday'),
+  (1001, '2025-05-26', 'Spring Bank Holiday'),
+  (1001, '2025-08-25', 'Summer Bank Holiday'),
+  (1001, '2025-12-25', 'Christmas Day'),
+  (1001, '2025-12-26', 'Boxing Day'),
+  (1001, '2026-01-01', 'New Year''s Day'),
+  (1001, '2026-04-03', 'Good Friday'),
+  (1001, '2026-04-06', 'Easter Monday'),
+  (1001, '2026-05-04', 'Early May Bank Holiday'),
+  (1001, '2026-05-25', 'Spring Bank Holiday'),
+  (1001, '2026-08-31', 'Summer Bank Holiday'),
+  (1001, '2026-12-25', 'Christmas Day'),
+  (1001, '2026-12-28', 'Boxing Day (substitute)'),
+  (1001, '2027-01-01', 'New Year''s Day'),
+  (1001, '2027-03-26', 'Good Friday'),
+  (1001, '2027-03-29', 'Easter Monday'),
+  (1001, '2027-05-03', 'Early May Bank Holiday'),
+  (1001, '2027-05-31', 'Spring Bank Holiday'),
+  (1001, '2027-08-30', 'Summer Bank Holiday'),
+  (1001, '2027-12-27', 'Christmas Day (substitute)'),
+  (1001, '2027-12-28', 'Boxing Day (substitute)');
 INSERT INTO schedule (id, schedule) VALUES (1000, 'Monthly'), (1001, 'Quarterly');
 INSERT INTO business_day_convention (id, bdc) VALUES (1000, 'Following'), (1001, 'Modified Following');
 INSERT INTO pay_rec (id, pay_rec) VALUES (1000, 'Pay'), (1001, 'Receive');
@@ -66,4 +139,10 @@ INSERT INTO cashflow (id, payment_value, value_date, rate, leg_id, pay_rec_id, p
 -- Sample Additional Info
 INSERT INTO additional_info (id, entity_type, entity_id, field_name, field_value, field_type, active, created_date, last_modified_date,
                              deactivated_date, version) VALUES
-    (1000,'TRADE',100001, 'SETTLEMENT_INSTRUCTIONS', 'Settle via JPM New York, Account: 123456789, Further Credit ABC Corp Trading Account', 'STRING' , true ,'2024-06-02T11:15:00', '2024-06-02T11:15:00', null, 1)
\ No newline at end of file
+    (1000,'TRADE',100001, 'SETTLEMENT_INSTRUCTIONS', 'Settle via JPM New York, Account: 123456789, Further Credit ABC Corp Trading Account', 'STRING' , true ,'2024-06-02T11:15:00', '2024-06-02T11:15:00', null, 1);
+
+-- Move generated ids past the seeded ones so new trades, legs and cashflows never collide with them
+ALTER TABLE trade ALTER COLUMN id RESTART WITH 10000;
+ALTER TABLE trade_leg ALTER COLUMN leg_id RESTART WITH 10000;
+ALTER TABLE cashflow ALTER COLUMN id RESTART WITH 10000;
+ALTER TABLE additional_info ALTER COLUMN id RESTART WITH 10000;
@@ -0,0 +1,116 @@
+package com.technicalchallenge.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+Runs actuator requests through the application's security filter chain, with the diagnostic endpoints exposed
+ */
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=health,traces,jfr,slowqueries")
+@AutoConfigureMockMvc
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testTraces_AnonymousCallerIsUnauthorized() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/traces"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "TRADER_SALES")
+    void testTraces_NonAdministratorIsForbidden() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/traces"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/traces/00000000000000ff"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testTraces_AdministratorReadsTraces() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/traces"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testJfr_AnonymousCallerIsUnauthorized() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/actuator/jfr").param("preset", "profile"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "TRADER_SALES")
+    void testJfr_NonAdministratorIsForbidden() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/actuator/jfr").param("preset", "profile"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/jfr/1"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/jfr/1"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testJfr_SuperuserListsRecordings() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testSlowQueries_AnonymousCallerIsUnauthorized() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/slowqueries"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/actuator/slowqueries"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPPORT")
+    void testSlowQueries_NonAdministratorIsForbidden() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/slowqueries"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/slowqueries/0123456789abcdef"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/slowqueries"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testSlowQueries_AdministratorReadsSlowQueries() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/slowqueries"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testHealth_StaysOpen() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+}
@@ -4,17 +4,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.technicalchallenge.dto.CashflowDTO;
 import com.technicalchallenge.dto.CashflowGenerationRequest;
+import com.technicalchallenge.dto.CashflowLadderDTO;
 import com.technicalchallenge.mapper.CashflowMapper;
 import com.technicalchallenge.model.Cashflow;
 import com.technicalchallenge.model.PayRec;
 import com.technicalchallenge.model.TradeLeg;
 import com.technicalchallenge.service.CashflowService;
+import com.technicalchallenge.service.accrual.AccrualScheduleService;
+import com.technicalchallenge.service.calendar.BusinessDayCalendarService;
+import com.technicalchallenge.service.hierarchy.OrgHierarchyIndex;
+import com.technicalchallenge.service.liquidity.CashflowLadderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -36,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(CashflowController.class)
+@Import(AccrualScheduleService.class)
 public class CashflowControllerTest {
 
     @Autowired
@@ -47,6 +54,15 @@ public class CashflowControllerTest {
     @MockBean
     private CashflowMapper cashflowMapper;
 
+    @MockBean
+    private BusinessDayCalendarService businessDayCalendarService;
+
+    @MockBean
+    private CashflowLadderService cashflowLadderService;
+
+    @MockBean
+    private OrgHierarchyIndex orgHierarchyIndex;
+
     private ObjectMapper objectMapper;
     private CashflowDTO cashflowDTO;
     private Cashflow cashflow;
@@ -109,6 +125,62 @@ public class CashflowControllerTest {
         verify(cashflowService).getAllCashflows();
     }
 
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testGetCashflowLadder() throws Exception {
+        // Given
+        LocalDate asOf = LocalDate.of(2026, 1, 2);
+        CashflowLadderDTO.CurrencyLadder usd = new CashflowLadderDTO.CurrencyLadder();
+        usd.setCurrency("USD");
+        usd.setAmounts(List.of(BigDecimal.valueOf(-12500, 2), BigDecimal.valueOf(2500000, 2)));
+        usd.setCumulativeAmounts(List.of(BigDecimal.valueOf(-12500, 2), BigDecimal.valueOf(2487500, 2)));
+        usd.setCashflowCounts(List.of(1L, 2L));
+        usd.setTotal(BigDecimal.valueOf(2487500, 2));
+        CashflowLadderDTO ladder = new CashflowLadderDTO();
+        ladder.setAsOf(asOf);
+        ladder.setBooks(List.of(1000L));
+        ladder.setBuckets(List.of(new CashflowLadderDTO.Bucket("0-1M", asOf, asOf.plusMonths(1)),
+                new CashflowLadderDTO.Bucket("1M+", asOf.plusMonths(1), null)));
+        ladder.setCurrencies(List.of(usd));
+        when(orgHierarchyIndex.resolveBooks(List.of(1000L), null, null, null)).thenReturn(List.of(1000L));
+        when(cashflowLadderService.getLadder(List.of(1000L), "1M", asOf)).thenReturn(ladder);
+
+        // When/Then
+        mockMvc.perform(get("/api/cashflows/ladder")
+                .param("books", "1000")
+                .param("buckets", "1M")
+                .param("asOf", "2026-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets", hasSize(2)))
+                .andExpect(jsonPath("$.buckets[1].label", is("1M+")))
+                .andExpect(jsonPath("$.currencies[0].currency", is("USD")))
+                .andExpect(jsonPath("$.currencies[0].amounts[0]", is(-125.0)))
+                .andExpect(jsonPath("$.currencies[0].total", is(24875.0)));
+
+        verify(cashflowLadderService).getLadder(List.of(1000L), "1M", asOf);
+        verify(cashflowService, never()).getAllCashflows();
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testGetCashflowLadderForDesk() throws Exception {
+        // Given
+        CashflowLadderDTO ladder = new CashflowLadderDTO();
+        ladder.setBooks(List.of(1000L, 1002L));
+        ladder.setBuckets(List.of());
+        ladder.setCurrencies(List.of());
+        when(orgHierarchyIndex.resolveBooks(null, 1000L, null, null)).thenReturn(List.of(1000L, 1002L));
+        when(cashflowLadderService.getLadder(List.of(1000L, 1002L), null, null)).thenReturn(ladder);
+
+        // When/Then
+        mockMvc.perform(get("/api/cashflows/ladder")
+                .param("desk", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books", hasSize(2)));
+
+        verify(cashflowLadderService).getLadder(List.of(1000L, 1002L), null, null);
+    }
+
     @Test
     @WithMockUser(roles = "SUPERUSER")
     void testGetCashflowById() throws Exception {
@@ -249,4 +321,60 @@ public class CashflowControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testGenerateCashflowsRollsPaymentDatesOnHolidayCalendar() throws Exception {
+        // Given
+        CashflowGenerationRequest request = new CashflowGenerationRequest();
+        request.setTradeStartDate(LocalDate.of(2026, 2, 28));
+        request.setTradeMaturityDate(LocalDate.of(2026, 3, 28));
+
+        CashflowGenerationRequest.TradeLegDTO legDTO = new CashflowGenerationRequest.TradeLegDTO();
+        legDTO.setNotional(BigDecimal.valueOf(1000000.0));
+        legDTO.setLegType("Fixed");
+        legDTO.setRate(5.0);
+        legDTO.setCalculationPeriodSchedule("Monthly");
+        legDTO.setPaymentBusinessDayConvention("Modified Following");
+        legDTO.setHolidayCalendar("NY+LON");
+        request.setLegs(List.of(legDTO));
+
+        when(businessDayCalendarService.adjust(LocalDate.of(2026, 3, 28), "NY+LON", "Modified Following"))
+                .thenReturn(LocalDate.of(2026, 3, 30));
+
+        // When/Then
+        mockMvc.perform(post("/api/cashflows/generate").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].valueDate", is("2026-03-30")));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testGenerateCashflowsUsesLegDayCount() throws Exception {
+        // Given
+        CashflowGenerationRequest request = new CashflowGenerationRequest();
+        request.setTradeStartDate(LocalDate.of(2026, 1, 15));
+        request.setTradeMaturityDate(LocalDate.of(2026, 7, 15));
+
+        CashflowGenerationRequest.TradeLegDTO legDTO = new CashflowGenerationRequest.TradeLegDTO();
+        legDTO.setNotional(BigDecimal.valueOf(1000000.0));
+        legDTO.setLegType("Fixed");
+        legDTO.setRate(5.0);
+        legDTO.setCalculationPeriodSchedule("Quarterly");
+        legDTO.setDayCountConvention("ACT/360");
+        request.setLegs(List.of(legDTO));
+
+        // When/Then
+        // 90 and 91 day periods instead of a flat quarter of the annual coupon
+        mockMvc.perform(post("/api/cashflows/generate").with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].paymentValue", is(12500.00)))
+                .andExpect(jsonPath("$[1].paymentValue", is(12638.89)));
+    }
 }
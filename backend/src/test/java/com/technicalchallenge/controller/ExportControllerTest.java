@@ -0,0 +1,93 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.TradeExportManifestDTO;
+import com.technicalchallenge.dto.TradeExportRunDTO;
+import com.technicalchallenge.service.export.TradeExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ExportController.class)
+class ExportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TradeExportService tradeExportService;
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testExport_ReturnsAcceptedRun() throws Exception {
+        // Given
+        TradeExportRunDTO run = new TradeExportRunDTO(3L, "RUNNING", null, LocalDateTime.now(), null, null);
+        when(tradeExportService.startExport()).thenReturn(Optional.of(run));
+
+        // When / Then
+        mockMvc.perform(post("/api/exports").with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(3))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testExport_AnotherExportRunningReturnsConflict() throws Exception {
+        // Given
+        when(tradeExportService.startExport()).thenReturn(Optional.empty());
+
+        // When / Then
+        mockMvc.perform(post("/api/exports").with(csrf()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testGetRun_ReturnsManifestOfTheCompletedExport() throws Exception {
+        // Given
+        TradeExportManifestDTO manifest = new TradeExportManifestDTO();
+        manifest.setSequence(3L);
+        manifest.setMode("INCREMENTAL");
+        manifest.setDirectory("export-000003");
+        manifest.setTradeCount(12L);
+        manifest.setFiles(List.of(new TradeExportManifestDTO.ExportFile("trades.tcol", 12L, 900L, List.of())));
+        TradeExportRunDTO run = new TradeExportRunDTO(3L, "COMPLETED", null, LocalDateTime.now(),
+                LocalDateTime.now(), manifest);
+        when(tradeExportService.getRun(3L)).thenReturn(Optional.of(run));
+
+        // When / Then
+        mockMvc.perform(get("/api/exports/runs/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.manifest.sequence").value(3))
+                .andExpect(jsonPath("$.manifest.mode").value("INCREMENTAL"))
+                .andExpect(jsonPath("$.manifest.files[0].rows").value(12));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testGetLatest_BeforeTheFirstExportReturnsNotFound() throws Exception {
+        // Given
+        when(tradeExportService.getLatestManifest()).thenReturn(Optional.empty());
+
+        // When / Then
+        mockMvc.perform(get("/api/exports/latest"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,113 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.dto.SettlementNettingResultDTO;
+import com.technicalchallenge.mapper.SettlementMapper;
+import com.technicalchallenge.model.SettlementNet;
+import com.technicalchallenge.service.settlement.SettlementNettingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(SettlementController.class)
+@Import(SettlementMapper.class)
+class SettlementControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SettlementNettingService settlementNettingService;
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testNet_ReturnsNettingResult() throws Exception {
+        // Given
+        LocalDate from = LocalDate.of(2026, 1, 2);
+        LocalDate to = LocalDate.of(2026, 1, 9);
+        SettlementNettingResultDTO result = new SettlementNettingResultDTO();
+        result.setFromDate(from);
+        result.setToDate(to);
+        result.setNetCount(3);
+        result.setCashflowCount(12L);
+        when(settlementNettingService.netWindow(from, to)).thenReturn(result);
+
+        // When / Then
+        mockMvc.perform(post("/api/settlements/net").param("from", "2026-01-02").param("to", "2026-01-09").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.netCount").value(3))
+                .andExpect(jsonPath("$.cashflowCount").value(12));
+    }
+
+    @Test
+    @WithMockUser(roles = "MO")
+    void testNet_WindowEndingBeforeItStartsReturnsBadRequest() throws Exception {
+        // Given
+        LocalDate from = LocalDate.of(2026, 1, 9);
+        LocalDate to = LocalDate.of(2026, 1, 2);
+        when(settlementNettingService.netWindow(from, to))
+                .thenThrow(new IllegalArgumentException("Netting window needs a from date on or before the to date"));
+
+        // When / Then
+        mockMvc.perform(post("/api/settlements/net").param("from", "2026-01-09").param("to", "2026-01-02").with(csrf()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Netting window needs a from date on or before the to date"));
+    }
+
+    @Test
+    @WithMockUser(roles = "MO")
+    void testGetNets_FiltersByCounterparty() throws Exception {
+        // Given
+        LocalDate from = LocalDate.of(2026, 1, 2);
+        LocalDate to = LocalDate.of(2026, 1, 9);
+        SettlementNet net = new SettlementNet(5L, 1000L, "BigBank", "USD", from, new BigDecimal("-150.00"),
+                new BigDecimal("400.00"), new BigDecimal("250.00"), "Pay", 2, "10,11", LocalDateTime.now());
+        when(settlementNettingService.getNets(from, to, 1000L)).thenReturn(List.of(net));
+
+        // When / Then
+        mockMvc.perform(get("/api/settlements/nets").param("from", "2026-01-02").param("to", "2026-01-09")
+                        .param("counterpartyId", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].counterpartyName").value("BigBank"))
+                .andExpect(jsonPath("$[0].netAmount").value(-150.00))
+                .andExpect(jsonPath("$[0].direction").value("Pay"));
+        verify(settlementNettingService).getNets(from, to, 1000L);
+    }
+
+    @Test
+    @WithMockUser(roles = "MO")
+    void testGetNetCashflowIds_ReturnsIdsOrNotFoundForUnknownNet() throws Exception {
+        // Given
+        when(settlementNettingService.getNetCashflowIds(5L)).thenReturn(Optional.of(List.of(10L, 11L)));
+        when(settlementNettingService.getNetCashflowIds(6L)).thenReturn(Optional.empty());
+
+        // When / Then
+        mockMvc.perform(get("/api/settlements/nets/5/cashflows"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1]").value(11));
+        mockMvc.perform(get("/api/settlements/nets/6/cashflows"))
+                .andExpect(status().isNotFound());
+    }
+}
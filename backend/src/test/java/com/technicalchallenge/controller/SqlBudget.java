@@ -0,0 +1,31 @@
+package com.technicalchallenge.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Most SQL statements a single request to an endpoint may cost, checked by {@link SqlBudgetExtension} for every
+ * request a test makes. Budgets on a test method come before those on its class.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Repeatable(SqlBudget.List.class)
+public @interface SqlBudget {
+
+    /**
+     * @return the method and path pattern of the requests the budget applies to, e.g. GET /api/trades/*, or empty
+     * for any request without a budget of its own
+     */
+    String endpoint() default "";
+
+    int statements();
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @interface List {
+        SqlBudget[] value();
+    }
+}
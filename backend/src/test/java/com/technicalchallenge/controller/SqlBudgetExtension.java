@@ -0,0 +1,95 @@
+package com.technicalchallenge.controller;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.AntPathMatcher;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Asserts that no request a test makes costs more SQL statements than its {@link SqlBudget}.
+ * Register it as a static field and add it as an interceptor to the test's rest template; it reads the statement
+ * count of every response from the Server-Timing header the application adds, and fails the test after it ran
+ * when a response is over budget or has no count at all.
+ */
+public class SqlBudgetExtension implements BeforeEachCallback, AfterEachCallback, ClientHttpRequestInterceptor {
+
+    private static final Pattern STATEMENTS = Pattern.compile("sql;.*statements=(\\d+)");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final List<Request> requests = new ArrayList<>();
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        requests.clear();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ClientHttpResponse response = execution.execute(request, body);
+        String serverTiming = response.getHeaders().getFirst("Server-Timing");
+        Matcher matcher = serverTiming == null ? null : STATEMENTS.matcher(serverTiming);
+        int statements = matcher != null && matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+        requests.add(new Request(request.getMethod().name(), request.getURI().getRawPath(), statements));
+        return response;
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        List<SqlBudget> budgets = new ArrayList<>(Arrays.asList(
+                context.getRequiredTestMethod().getAnnotationsByType(SqlBudget.class)));
+        budgets.addAll(Arrays.asList(context.getRequiredTestClass().getAnnotationsByType(SqlBudget.class)));
+        if (budgets.isEmpty() || context.getExecutionException().isPresent()) {
+            return;
+        }
+        List<String> violations = new ArrayList<>();
+        for (Request request : requests) {
+            SqlBudget budget = budgetFor(budgets, request);
+            if (budget == null) {
+                continue;
+            }
+            if (request.statements() < 0) {
+                violations.add(request.method() + " " + request.path() + " reported no SQL statement count");
+            } else if (request.statements() > budget.statements()) {
+                violations.add(request.method() + " " + request.path() + " executed " + request.statements()
+                        + " SQL statements, over the budget of " + budget.statements());
+            }
+        }
+        if (!violations.isEmpty()) {
+            fail(String.join("\n", violations));
+        }
+    }
+
+    // The first budget naming the endpoint, or else the first catch-all one
+    private SqlBudget budgetFor(List<SqlBudget> budgets, Request request) {
+        SqlBudget fallback = null;
+        for (SqlBudget budget : budgets) {
+            if (budget.endpoint().isEmpty()) {
+                fallback = fallback == null ? budget : fallback;
+                continue;
+            }
+            String[] endpoint = budget.endpoint().split(" ", 2);
+            if (endpoint[0].equals(request.method()) && pathMatcher.match(endpoint[1], request.path())) {
+                return budget;
+            }
+        }
+        return fallback;
+    }
+
+    private record Request(String method, String path, int statements) {
+    }
+}
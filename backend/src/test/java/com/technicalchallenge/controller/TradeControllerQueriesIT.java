@@ -9,6 +9,7 @@ import com.technicalchallenge.dto.TradeSummaryDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
@@ -32,8 +33,17 @@ These integration tests use a separate H2 in-memory database to ensure isolation
 Test data is in src/test/resources/data.sql to reduce repetition
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SqlBudget(endpoint = "GET /api/trades/summary", statements = 15)
+@SqlBudget(endpoint = "GET /api/trades/daily-summary", statements = 8)
+@SqlBudget(endpoint = "GET /api/trades/my-trades", statements = 30)
+@SqlBudget(endpoint = "GET /api/trades/book/*/trades", statements = 30)
+@SqlBudget(statements = 45)
 public class TradeControllerQueriesIT {
 
+    // Fails any test whose requests cost more SQL statements than their budget
+    @RegisterExtension
+    static final SqlBudgetExtension sqlBudget = new SqlBudgetExtension();
+
     @LocalServerPort
     private int port;
 
@@ -47,6 +57,7 @@ public class TradeControllerQueriesIT {
         /* This constructs a TestRestTemplate that automatically includes HTTP Basic authentication credentials
             for a user in the database */
         restTemplate = new TestRestTemplate("simon", "password");
+        restTemplate.getRestTemplate().getInterceptors().add(sqlBudget);
         baseUrl = baseUrl + port + "/api/trades";
 
         // verify test data is loaded correctly as it uses data.sql
@@ -4,12 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeFilterDTO;
+import com.technicalchallenge.dto.TradeImportResultDTO;
+import com.technicalchallenge.dto.TradeSummaryDTO;
+import com.technicalchallenge.exception.TradeVersionConflictException;
 import com.technicalchallenge.mapper.SettlementInstructionsMapper;
 import com.technicalchallenge.mapper.TradeMapper;
 import com.technicalchallenge.model.Trade;
 import com.technicalchallenge.service.TradeReportingService;
 import com.technicalchallenge.service.AdditionalInfoService;
+import com.technicalchallenge.service.IdempotencyService;
+import com.technicalchallenge.service.TradeLockManager;
 import com.technicalchallenge.service.TradeService;
+import com.technicalchallenge.service.TradeVersionPrecondition;
+import com.technicalchallenge.service.bulkimport.TradeImportService;
+import com.technicalchallenge.service.hierarchy.OrgHierarchyIndex;
+import com.technicalchallenge.service.journal.TradeBlotterReadModel;
 import cz.jirutka.rsql.parser.UnknownOperatorException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,22 +26,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -40,6 +55,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(TradeController.class)
+@Import(TradeLockManager.class)
 public class TradeControllerTest {
 
     @Autowired
@@ -60,6 +76,18 @@ public class TradeControllerTest {
     @MockBean
     private SettlementInstructionsMapper settlementInstructionsMapper;
 
+    @MockBean
+    private TradeBlotterReadModel tradeBlotterReadModel;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    @MockBean
+    private TradeImportService tradeImportService;
+
     private ObjectMapper objectMapper;
     private TradeDTO tradeDTO;
     private Trade trade;
@@ -166,6 +194,65 @@ public class TradeControllerTest {
         verify(tradeService).populateReferenceDataByName(any(Trade.class), any(TradeDTO.class));
     }
 
+    @Test
+    @WithMockUser(username = "simon", roles = "TRADER_SALES")
+    void testCreateTradeWithIdempotencyKeyStoresResponse() throws Exception {
+        // Given
+        when(idempotencyService.hash(any(TradeDTO.class))).thenReturn("hash");
+        when(idempotencyService.begin("simon", "key-1", "hash")).thenReturn(Optional.empty());
+        when(tradeService.saveTrade(any(Trade.class), any(TradeDTO.class))).thenReturn(trade);
+
+        // When/Then
+        mockMvc.perform(post("/api/trades").with(csrf())
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tradeDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tradeId", is(1001)));
+
+        verify(idempotencyService).complete(eq("simon"), eq("key-1"), any(TradeDTO.class));
+    }
+
+    @Test
+    @WithMockUser(username = "simon", roles = "TRADER_SALES")
+    void testCreateTradeWithIdempotencyKey_StoringOutcomeFailsStillReturnsCreated() throws Exception {
+        // Given
+        when(idempotencyService.hash(any(TradeDTO.class))).thenReturn("hash");
+        when(idempotencyService.begin("simon", "key-1", "hash")).thenReturn(Optional.empty());
+        when(tradeService.saveTrade(any(Trade.class), any(TradeDTO.class))).thenReturn(trade);
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(idempotencyService).complete(eq("simon"), eq("key-1"), any(TradeDTO.class));
+
+        // When/Then
+        mockMvc.perform(post("/api/trades").with(csrf())
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tradeDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tradeId", is(1001)));
+
+        verify(idempotencyService, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    @WithMockUser(username = "simon", roles = "TRADER_SALES")
+    void testCreateTradeReplayWithIdempotencyKeyReturnsStoredResponse() throws Exception {
+        // Given
+        when(idempotencyService.hash(any(TradeDTO.class))).thenReturn("hash");
+        when(idempotencyService.begin("simon", "key-1", "hash")).thenReturn(Optional.of(tradeDTO));
+
+        // When/Then
+        mockMvc.perform(post("/api/trades").with(csrf())
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(tradeDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.tradeId", is(1001)));
+
+        verify(tradeService, never()).saveTrade(any(Trade.class), any(TradeDTO.class));
+    }
+
     @Test
     @WithMockUser(roles = "SUPERUSER")
     void testCreateTradeValidationFailure_MissingTradeDate() throws Exception {
@@ -210,7 +297,7 @@ public class TradeControllerTest {
         // Given
         Long tradeId = 1001L;
         tradeDTO.setTradeId(tradeId);
-        when(tradeService.amendTrade(any(Long.class), any(TradeDTO.class))).thenReturn(trade);
+        when(tradeService.amendTrade(any(Long.class), any(TradeDTO.class), isNull())).thenReturn(trade);
         doNothing().when(tradeService).populateReferenceDataByName(any(Trade.class), any(TradeDTO.class));
 
         // When/Then
@@ -220,7 +307,7 @@ public class TradeControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.tradeId", is(1001)));
 
-        verify(tradeService).amendTrade(any(Long.class), any(TradeDTO.class));
+        verify(tradeService).amendTrade(any(Long.class), any(TradeDTO.class), isNull());
     }
 
     @Test
@@ -244,14 +331,41 @@ public class TradeControllerTest {
     @WithMockUser(roles = "SUPERUSER")
     void testDeleteTrade() throws Exception {
         // Given
-        doNothing().when(tradeService).deleteTrade(1001L);
+        doNothing().when(tradeService).deleteTrade(1001L, null);
 
         // When/Then
         mockMvc.perform(delete("/api/trades/1001").with(csrf())
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(tradeService).deleteTrade(1001L);
+        verify(tradeService).deleteTrade(1001L, null);
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testCancelTradeWithStaleIfMatchReturns412() throws Exception {
+        // Given
+        when(tradeService.cancelTrade(eq(1001L), any(TradeVersionPrecondition.class)))
+                .thenThrow(new TradeVersionConflictException("Trade 1001 has been modified"));
+
+        // When/Then
+        mockMvc.perform(post("/api/trades/1001/cancel").with(csrf())
+                        .header("If-Match", "\"1.0\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testTerminateTradeReturnsETag() throws Exception {
+        // Given
+        trade.setVersion(2);
+        trade.setLockVersion(3L);
+        when(tradeService.terminateTrade(1001L, null)).thenReturn(trade);
+
+        // When/Then
+        mockMvc.perform(post("/api/trades/1001/terminate").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2.3\""));
     }
 
     @Test
@@ -409,4 +523,81 @@ public class TradeControllerTest {
                 .andExpect(jsonPath("$.error", is("Bad Request")))
                 .andExpect(jsonPath("$.message", is("Unknown operator: =e=")));
     }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testHierarchySummaryAggregatesBooksUnderDesk() throws Exception {
+
+        // Given
+        TradeSummaryDTO summary = new TradeSummaryDTO();
+        summary.setTotalTradesByStatus(Map.of("LIVE", 2L));
+        summary.setTotalNotionalByCurrency(Map.of("USD", new BigDecimal("2000000")));
+        summary.setTradesByTypeByCounterparty(Map.of("Swap", Map.of("BigBank", 2L)));
+        when(orgHierarchyIndex.resolveBooks(1000L, null, null)).thenReturn(List.of(1000L, 1001L));
+        when(tradeReportingService.summaryForBooks(List.of(1000L, 1001L))).thenReturn(summary);
+
+        // When & Then
+        mockMvc.perform(get("/api/trades/hierarchy/summary")
+                        .param("desk", "1000")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTradesByStatus.LIVE", is(2)))
+                .andExpect(jsonPath("$.tradesByTypeByCounterparty.Swap.BigBank", is(2)));
+
+        verify(tradeReportingService).summaryForBooks(List.of(1000L, 1001L));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testHierarchySummaryUnknownDeskReturns400() throws Exception {
+
+        // Given
+        when(orgHierarchyIndex.resolveBooks(99L, null, null))
+                .thenThrow(new IllegalArgumentException("Desk 99 does not exist"));
+
+        // When & Then
+        mockMvc.perform(get("/api/trades/hierarchy/summary")
+                        .param("desk", "99")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(tradeReportingService, never()).summaryForBooks(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testImportTradesReturnsResult() throws Exception {
+
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "trades.csv", "text/csv",
+                "tradeDate,bookName\n2025-01-01,FX-BOOK-1\n".getBytes());
+        TradeImportResultDTO result = new TradeImportResultDTO();
+        result.setSource("trades.csv");
+        result.setRowCount(1L);
+        result.setImportedCount(1L);
+        result.setErrors(List.of());
+        when(tradeImportService.importCsv(any(), eq("trades.csv"))).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(multipart("/api/trades/import").file(file).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount", is(1)))
+                .andExpect(jsonPath("$.errors", hasSize(0)));
+
+        verify(tradeImportService).importCsv(any(), eq("trades.csv"));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testImportTradesUnknownColumnReturns400() throws Exception {
+
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "trades.csv", "text/csv", "colour\nred\n".getBytes());
+        when(tradeImportService.importCsv(any(), eq("trades.csv")))
+                .thenThrow(new IllegalArgumentException("Unknown column: colour"));
+
+        // When & Then
+        mockMvc.perform(multipart("/api/trades/import").file(file).with(csrf()))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,197 @@
+package com.technicalchallenge.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.load.TradePayloadGenerator;
+import com.technicalchallenge.service.encoding.TradeBinaryFormat;
+import com.technicalchallenge.service.encoding.TradeBinaryReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/*
+Runs trade reads through the application's message converters, to check which encoding each Accept header gets.
+Compression is applied by the embedded server rather than by Spring MVC, so the gzip tests call the running server
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class TradeEncodingNegotiationTest {
+
+    private static final String LOGIN = "simon";
+    private static final String PASSWORD = "password";
+    private static final Comparator<JsonNode> SAME_VALUE = (a, b) -> a.isNumber() && b.isNumber()
+            ? a.decimalValue().compareTo(b.decimalValue())
+            : a.equals(b) ? 0 : 1;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testGetAllTrades_BinaryAcceptGetsTheBinaryEncoding() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/trades").with(httpBasic(LOGIN, PASSWORD))
+                        .accept(TradeBinaryFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TradeBinaryFormat.MEDIA_TYPE))
+                .andReturn();
+
+        // Then
+        List<TradeDTO> trades = read(result.getResponse().getContentAsByteArray());
+        JsonNode json = objectMapper.readTree(mockMvc.perform(get("/api/trades").with(httpBasic(LOGIN, PASSWORD)))
+                .andReturn().getResponse().getContentAsByteArray());
+        assertEquals(json.size(), trades.size());
+        // Decimals come back at their value rather than the scale Jackson wrote them with
+        assertTrue(json.equals(SAME_VALUE, objectMapper.valueToTree(trades)));
+    }
+
+    @Test
+    void testGetAllTrades_AnyAcceptGetsJson() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/trades").with(httpBasic(LOGIN, PASSWORD)).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testGetAllTrades_NoAcceptGetsJson() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/trades").with(httpBasic(LOGIN, PASSWORD)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testFilterTrades_BinaryAcceptGetsThePageTradesWithItsPositionInHeaders() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/trades/filter").with(httpBasic(LOGIN, PASSWORD))
+                        .param("bookName", "FX-BOOK-1").param("page", "0").param("size", "1")
+                        .accept(TradeBinaryFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TradeBinaryFormat.MEDIA_TYPE))
+                .andExpect(header().string(TradeBinaryFormat.PAGE_NUMBER_HEADER, "0"))
+                .andExpect(header().string(TradeBinaryFormat.PAGE_SIZE_HEADER, "1"))
+                .andReturn();
+
+        // Then
+        List<TradeDTO> trades = read(result.getResponse().getContentAsByteArray());
+        assertEquals(1, trades.size());
+        assertEquals("FX-BOOK-1", trades.get(0).getBookName());
+        long total = Long.parseLong(result.getResponse().getHeader(TradeBinaryFormat.TOTAL_ELEMENTS_HEADER));
+        assertTrue(total >= 1);
+        assertEquals(Long.toString(total), result.getResponse().getHeader(TradeBinaryFormat.TOTAL_PAGES_HEADER));
+    }
+
+    @Test
+    void testRsqlTrades_BinaryAcceptGetsThePageTrades() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/api/trades/rsql").with(httpBasic(LOGIN, PASSWORD))
+                        .param("page", "0").param("size", "2").accept(TradeBinaryFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TradeBinaryFormat.MEDIA_TYPE))
+                .andExpect(header().string(TradeBinaryFormat.PAGE_SIZE_HEADER, "2"))
+                .andReturn();
+
+        // Then
+        List<TradeDTO> trades = read(result.getResponse().getContentAsByteArray());
+        assertEquals(2, trades.size());
+        long total = Long.parseLong(result.getResponse().getHeader(TradeBinaryFormat.TOTAL_ELEMENTS_HEADER));
+        assertEquals(Long.toString((total + 1) / 2), result.getResponse().getHeader(TradeBinaryFormat.TOTAL_PAGES_HEADER));
+    }
+
+    @Test
+    void testSearchTrades_ErrorUnderBinaryOnlyAcceptIsJson() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/trades/search").with(httpBasic(LOGIN, PASSWORD))
+                        .param("tradeDateStart", "not-a-date").accept(TradeBinaryFormat.MEDIA_TYPE))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"statusCode\":400,\"message\":\"Invalid parameter: tradeDateStart\"}"));
+    }
+
+    @Test
+    void testGetAllTrades_ResponseOver8KbIsGzipped() throws Exception {
+        // Given
+        TradePayloadGenerator payloads = new TradePayloadGenerator(objectMapper);
+        Random random = new Random(42);
+        for (int booking = 0; booking < 5; booking++) {
+            mockMvc.perform(post("/api/trades").with(httpBasic(LOGIN, PASSWORD))
+                            .contentType(MediaType.APPLICATION_JSON).content(payloads.booking(random, LOGIN)))
+                    .andExpect(status().isCreated());
+        }
+
+        // When
+        HttpResponse<byte[]> response = send("/api/trades");
+
+        // Then
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        byte[] body = gunzip(response.body());
+        assertTrue(body.length > 8 * 1024, body.length + " bytes");
+        assertTrue(objectMapper.readTree(body).isArray());
+    }
+
+    @Test
+    void testTradeSummary_ResponseUnder8KbIsNotGzipped() throws Exception {
+        // When
+        HttpResponse<byte[]> response = send("/api/trades/summary");
+
+        // Then
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(response.body().length, response.headers().firstValueAsLong("Content-Length").orElse(-1));
+        assertTrue(response.body().length < 8 * 1024, response.body().length + " bytes");
+        assertTrue(objectMapper.readTree(response.body()).isObject());
+    }
+
+    private HttpResponse<byte[]> send(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(
+                        (LOGIN + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8)))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static List<TradeDTO> read(byte[] body) throws Exception {
+        return new TradeBinaryReader(new ByteArrayInputStream(body)).readAll();
+    }
+
+    private static byte[] gunzip(byte[] body) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
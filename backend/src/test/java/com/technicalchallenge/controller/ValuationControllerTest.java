@@ -0,0 +1,107 @@
+package com.technicalchallenge.controller;
+
+import com.technicalchallenge.mapper.ValuationMapper;
+import com.technicalchallenge.model.BookValuation;
+import com.technicalchallenge.model.ValuationRun;
+import com.technicalchallenge.model.ValuationRunStatus;
+import com.technicalchallenge.service.hierarchy.OrgHierarchyIndex;
+import com.technicalchallenge.service.valuation.RevaluationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ValuationController.class)
+@Import(ValuationMapper.class)
+class ValuationControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RevaluationService revaluationService;
+
+    @MockBean
+    private OrgHierarchyIndex orgHierarchyIndex;
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testStartRun_ReturnsAcceptedRun() throws Exception {
+        // Given
+        LocalDate date = LocalDate.of(2026, 1, 2);
+        ValuationRun run = new ValuationRun(7L, date, ValuationRunStatus.RUNNING, null, null, null, null,
+                LocalDateTime.now(), null);
+        when(revaluationService.startRun(date)).thenReturn(Optional.of(run));
+
+        // When / Then
+        mockMvc.perform(post("/api/valuations/runs").param("date", "2026-01-02").with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testStartRun_WhileAnotherIsInProgressReturnsConflict() throws Exception {
+        // Given
+        when(revaluationService.startRun(any())).thenReturn(Optional.empty());
+
+        // When / Then
+        mockMvc.perform(post("/api/valuations/runs").with(csrf()))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testGetBookValuations_ReturnsBookTotals() throws Exception {
+        // Given
+        LocalDate date = LocalDate.of(2026, 1, 2);
+        BookValuation book = new BookValuation(1L, 7L, date, 1000L, "FX-BOOK-1", new BigDecimal("12345.67"),
+                3, 24L, 15L, LocalDateTime.now());
+        when(orgHierarchyIndex.resolveBooks(null, null, null)).thenReturn(null);
+        when(revaluationService.getBookValuations(date)).thenReturn(List.of(book));
+
+        // When / Then
+        mockMvc.perform(get("/api/valuations/books").param("date", "2026-01-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookId").value(1000))
+                .andExpect(jsonPath("$[0].presentValue").value(12345.67))
+                .andExpect(jsonPath("$[0].tradeCount").value(3));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPERUSER")
+    void testGetBookValuations_FiltersToBooksUnderSubDesk() throws Exception {
+        // Given
+        LocalDate date = LocalDate.of(2026, 1, 2);
+        BookValuation book = new BookValuation(2L, 7L, date, 1001L, "FX-BOOK-2", new BigDecimal("-50.00"),
+                1, 4L, 3L, LocalDateTime.now());
+        when(orgHierarchyIndex.resolveBooks(null, 1001L, null)).thenReturn(List.of(1001L));
+        when(revaluationService.getBookValuations(date, List.of(1001L))).thenReturn(List.of(book));
+
+        // When / Then
+        mockMvc.perform(get("/api/valuations/books").param("date", "2026-01-02").param("subDesk", "1001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].bookId").value(1001));
+    }
+}
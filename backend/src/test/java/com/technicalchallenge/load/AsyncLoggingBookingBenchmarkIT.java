@@ -0,0 +1,26 @@
+package com.technicalchallenge.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/*
+Times bookings with the prod profile's logging: INFO levels, no SQL echo and JSON lines written through the
+asynchronous appender. Compare with DevLoggingBookingBenchmarkIT. Not part of the normal build; run both on their
+own, e.g.
+    mvn test -Dtest='*LoggingBookingBenchmarkIT' -DreuseForks=false -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"trade.ratelimit.enabled=false", "trade.tracing.sample-rate=0.01"})
+@ActiveProfiles("prod")
+public class AsyncLoggingBookingBenchmarkIT extends BookingLatencyBenchmark {
+
+    @Override
+    String configuration() {
+        return "asynchronous JSON logging";
+    }
+
+    @Override
+    String appender() {
+        return "ASYNC_JSON";
+    }
+}
@@ -0,0 +1,82 @@
+package com.technicalchallenge.load;
+
+import ch.qos.logback.classic.LoggerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/*
+Books bench.bookings trades one after another through the API, after bench.warmup-bookings unmeasured ones, and logs
+the latency percentiles. Subclasses boot the application with the configuration being compared. Logback is only
+configured once per JVM, so subclasses with different logging have to run in their own forks.
+ */
+abstract class BookingLatencyBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingLatencyBenchmark.class);
+
+    private static final int WARMUP_BOOKINGS = Integer.getInteger("bench.warmup-bookings", 100);
+    private static final int BOOKINGS = Integer.getInteger("bench.bookings", 400);
+    private static final String LOGIN = "simon";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // What is being measured, for the report line
+    abstract String configuration();
+
+    // The root appender the logging set-up writes through
+    abstract String appender();
+
+    @Test
+    void timeBookings() throws Exception {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        assertNotNull(loggerContext.getLogger(Logger.ROOT_LOGGER_NAME).getAppender(appender()),
+                "Logging is not set up for " + configuration() + "; run each benchmark in its own JVM, e.g. -DreuseForks=false");
+        TradePayloadGenerator payloads = new TradePayloadGenerator(objectMapper);
+        HttpClient httpClient = HttpClient.newHttpClient();
+        String authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (LOGIN + ":password").getBytes(StandardCharsets.UTF_8));
+        Random random = new Random(42);
+
+        double[] millis = new double[BOOKINGS];
+        for (int booking = -WARMUP_BOOKINGS; booking < BOOKINGS; booking++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/trades"))
+                    .header("Authorization", authorization)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(payloads.booking(random, LOGIN)))
+                    .build();
+            long start = System.nanoTime();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Booking failed with " + response.statusCode() + ": " + response.body());
+            }
+            if (booking >= 0) {
+                millis[booking] = elapsed / 1e6;
+            }
+        }
+
+        Arrays.sort(millis);
+        logger.info(String.format(Locale.ROOT, "%,d bookings with %s: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, mean %.2f ms",
+                BOOKINGS, configuration(), millis[BOOKINGS / 2], millis[BOOKINGS * 9 / 10], millis[BOOKINGS * 99 / 100],
+                Arrays.stream(millis).average().orElse(0)));
+    }
+}
@@ -0,0 +1,24 @@
+package com.technicalchallenge.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+/*
+Times bookings with the development logging of the test configuration: DEBUG levels and the formatted SQL echo,
+written to the console on the request thread. Compare with AsyncLoggingBookingBenchmarkIT. Not part of the normal
+build; run both on their own, e.g.
+    mvn test -Dtest='*LoggingBookingBenchmarkIT' -DreuseForks=false -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"trade.ratelimit.enabled=false", "trade.tracing.sample-rate=0.01"})
+public class DevLoggingBookingBenchmarkIT extends BookingLatencyBenchmark {
+
+    @Override
+    String configuration() {
+        return "development logging";
+    }
+
+    @Override
+    String appender() {
+        return "CONSOLE";
+    }
+}
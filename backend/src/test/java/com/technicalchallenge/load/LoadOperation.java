@@ -0,0 +1,11 @@
+package com.technicalchallenge.load;
+
+/**
+ * The requests a virtual user makes, mixed in the proportions given by {@code load.mix}.
+ */
+public enum LoadOperation {
+    BOOK,
+    AMEND,
+    SEARCH,
+    SUMMARY
+}
@@ -0,0 +1,123 @@
+package com.technicalchallenge.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Results of a load run: per operation, the latency percentiles, throughput and responses by status. A request
+ * fails when it gets no response or a 4xx/5xx status.
+ */
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadSettings settings;
+    private final Map<LoadOperation, Histogram> responseTimes;
+    private final Map<LoadOperation, Histogram> serviceTimes;
+    private final Map<LoadOperation, ConcurrentMap<Integer, LongAdder>> statuses;
+
+    LoadReport(LoadSettings settings, Map<LoadOperation, Histogram> responseTimes,
+               Map<LoadOperation, Histogram> serviceTimes, Map<LoadOperation, ConcurrentMap<Integer, LongAdder>> statuses) {
+        this.settings = settings;
+        this.responseTimes = responseTimes;
+        this.serviceTimes = serviceTimes;
+        this.statuses = statuses;
+    }
+
+    public long getRequestCount() {
+        return responseTimes.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public long getFailureCount() {
+        return statuses.keySet().stream().mapToLong(this::failures).sum();
+    }
+
+    public double getErrorRate() {
+        long requests = getRequestCount();
+        return requests == 0 ? 0 : (double) getFailureCount() / requests;
+    }
+
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "Trade API load test, %s%n", LocalDateTime.now().withNano(0));
+        out.printf(Locale.ROOT, "Target %.1f requests/s from %d virtual users for %d s after %d s warm-up, mix %s, seed %d%n",
+                settings.getRate(), settings.getUsers(), settings.getDurationSeconds(), settings.getWarmupSeconds(),
+                settings.getMix(), settings.getSeed());
+        out.printf(Locale.ROOT, "Achieved %.1f requests/s, %d requests, %d failed (%.2f%%)%n%n",
+                (double) getRequestCount() / settings.getDurationSeconds(), getRequestCount(), getFailureCount(),
+                100 * getErrorRate());
+
+        out.println("Response time from scheduled start, ms");
+        table(out, responseTimes);
+        out.println();
+        out.println("Service time from request sent, ms");
+        table(out, serviceTimes);
+        out.println();
+        out.println("Responses by status");
+        for (LoadOperation operation : LoadOperation.values()) {
+            if (responseTimes.get(operation).getTotalCount() > 0) {
+                Map<Integer, Long> byStatus = new TreeMap<>();
+                statuses.get(operation).forEach((status, count) -> byStatus.put(status, count.sum()));
+                out.printf(Locale.ROOT, "%-8s %s%n", operation, byStatus);
+            }
+        }
+    }
+
+    /**
+     * Writes the report, and the full latency distribution of each operation as HdrHistogram percentile output,
+     * into a new directory under the report directory.
+     *
+     * @return the directory written
+     */
+    public Path write() throws IOException {
+        Path directory = settings.getReportDirectory()
+                .resolve("load-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Files.createDirectories(directory);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("report.txt")), true, "UTF-8")) {
+            print(out);
+        }
+        for (LoadOperation operation : LoadOperation.values()) {
+            Histogram histogram = responseTimes.get(operation);
+            if (histogram.getTotalCount() > 0) {
+                Path file = directory.resolve(operation.name().toLowerCase(Locale.ROOT) + ".hgrm");
+                try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, "UTF-8")) {
+                    histogram.outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+        return directory;
+    }
+
+    private void table(PrintStream out, Map<LoadOperation, Histogram> histograms) {
+        out.printf(Locale.ROOT, "%-8s %8s %8s %9s %9s %9s %9s %9s%n",
+                "", "count", "errors", "p50", "p90", "p99", "p99.9", "max");
+        for (LoadOperation operation : LoadOperation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            out.printf(Locale.ROOT, "%-8s %8d %8d", operation, histogram.getTotalCount(), failures(operation));
+            for (double percentile : PERCENTILES) {
+                out.printf(Locale.ROOT, " %9.1f", histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            out.printf(Locale.ROOT, " %9.1f%n", histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    private long failures(LoadOperation operation) {
+        return statuses.get(operation).entrySet().stream()
+                .filter(entry -> entry.getKey() == 0 || entry.getKey() >= 400)
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+    }
+}
@@ -0,0 +1,202 @@
+package com.technicalchallenge.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the trade API at a fixed rate from a number of virtual users. Requests are started on a schedule shared by
+ * all users, one every 1/rate seconds, whatever the responses take; a user that falls behind starts its next
+ * request at once. Latency is recorded from the scheduled start, so time spent queueing behind slow responses is
+ * measured rather than hidden, and also from the actual start as service time.
+ */
+public class LoadRunner {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final LoadSettings settings;
+    private final String baseUrl;
+    private final TradePayloadGenerator payloads;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+
+    private final Map<LoadOperation, Histogram> responseTimes = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, Histogram> serviceTimes = new EnumMap<>(LoadOperation.class);
+    private final Map<LoadOperation, ConcurrentMap<Integer, LongAdder>> statuses = new EnumMap<>(LoadOperation.class);
+    // Trades booked so far, by login, for amendments to pick from
+    private final Map<String, List<Long>> bookedTrades = new ConcurrentHashMap<>();
+
+    public LoadRunner(LoadSettings settings, String baseUrl, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.payloads = new TradePayloadGenerator(objectMapper);
+        for (LoadOperation operation : LoadOperation.values()) {
+            responseTimes.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            serviceTimes.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            statuses.put(operation, new ConcurrentHashMap<>());
+        }
+    }
+
+    public LoadReport run() throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.getRate());
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(settings.getWarmupSeconds());
+        long endNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+        AtomicLong slots = new AtomicLong();
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        List<Thread> users = new ArrayList<>(settings.getUsers());
+        for (int user = 0; user < settings.getUsers(); user++) {
+            String login = settings.getLogins().get(user % settings.getLogins().size());
+            Random random = new Random(settings.getSeed() + user);
+            Thread thread = new Thread(() -> {
+                try {
+                    runUser(login, random, slots, intervalNanos, startNanos, measureFromNanos, endNanos);
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+            }, "load-user-" + user);
+            users.add(thread);
+            thread.start();
+        }
+        for (Thread user : users) {
+            user.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Virtual user failed", failures.get(0));
+        }
+        return new LoadReport(settings, responseTimes, serviceTimes, statuses);
+    }
+
+    private void runUser(String login, Random random, AtomicLong slots, long intervalNanos, long startNanos,
+                         long measureFromNanos, long endNanos) {
+        String authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (login + ":" + settings.getPassword()).getBytes(StandardCharsets.UTF_8));
+        while (true) {
+            long scheduledNanos = startNanos + slots.getAndIncrement() * intervalNanos;
+            if (scheduledNanos >= endNanos) {
+                return;
+            }
+            long waitNanos;
+            while ((waitNanos = scheduledNanos - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(waitNanos);
+            }
+
+            LoadOperation operation = pick(random, login);
+            HttpRequest request = request(operation, login, random, authorization);
+            long sentNanos = System.nanoTime();
+            int status;
+            String body = null;
+            try {
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                body = response.body();
+            } catch (IOException e) {
+                status = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long doneNanos = System.nanoTime();
+
+            if (operation == LoadOperation.BOOK && status == 201) {
+                remember(login, body);
+            }
+            if (scheduledNanos >= measureFromNanos) {
+                responseTimes.get(operation).recordValue(Math.min(MAX_LATENCY_MICROS, (doneNanos - scheduledNanos) / 1000));
+                serviceTimes.get(operation).recordValue(Math.min(MAX_LATENCY_MICROS, (doneNanos - sentNanos) / 1000));
+                statuses.get(operation).computeIfAbsent(status, code -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    private HttpRequest request(LoadOperation operation, String login, Random random, String authorization) {
+        HttpRequest.Builder request = HttpRequest.newBuilder().timeout(REQUEST_TIMEOUT)
+                .header("Authorization", authorization)
+                .header("Accept", "application/json");
+        return switch (operation) {
+            case BOOK -> request.uri(URI.create(baseUrl + "/api/trades"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(payloads.booking(random, login))).build();
+            case AMEND -> {
+                List<Long> trades = bookedTrades.get(login);
+                long tradeId;
+                synchronized (trades) {
+                    tradeId = trades.get(random.nextInt(trades.size()));
+                }
+                yield request.uri(URI.create(baseUrl + "/api/trades/" + tradeId))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(payloads.amendment(random, login, tradeId))).build();
+            }
+            case SEARCH -> request.uri(URI.create(baseUrl + "/api/trades/search?bookName="
+                    + encode(random.nextBoolean() ? "FX-BOOK-1" : "RATES-BOOK-1")
+                    + "&counterpartyName=" + encode(random.nextBoolean() ? "BigBank" : "MegaFund"))).GET().build();
+            case SUMMARY -> request.uri(URI.create(baseUrl + "/api/trades/summary")).GET().build();
+        };
+    }
+
+    private void remember(String login, String body) {
+        try {
+            JsonNode trade = objectMapper.readTree(body);
+            if (trade.hasNonNull("tradeId")) {
+                long tradeId = trade.get("tradeId").asLong();
+                // The list is only published once it holds a trade
+                bookedTrades.compute(login, (key, trades) -> {
+                    List<Long> list = trades != null ? trades : new ArrayList<>();
+                    synchronized (list) {
+                        list.add(tradeId);
+                    }
+                    return list;
+                });
+            }
+        } catch (IOException e) {
+            // Not a trade; the booking still counts by its status
+        }
+    }
+
+    // An amendment needs a trade of the user to amend, so the user books one instead until it has
+    private LoadOperation pick(Random random, String login) {
+        int roll = random.nextInt(settings.getMix().values().stream().mapToInt(Integer::intValue).sum());
+        LoadOperation operation = null;
+        for (Map.Entry<LoadOperation, Integer> weight : settings.getMix().entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                operation = weight.getKey();
+                break;
+            }
+        }
+        if (operation == LoadOperation.AMEND && !bookedTrades.containsKey(login)) {
+            return LoadOperation.BOOK;
+        }
+        return operation;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
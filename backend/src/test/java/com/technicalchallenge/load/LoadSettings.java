@@ -0,0 +1,125 @@
+package com.technicalchallenge.load;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Settings of a load run, read from system properties so they can be given on the Maven command line, e.g.
+ * {@code mvn -Pload test -Dload.rate=50 -Dload.users=16 -Dload.duration-seconds=120}.
+ */
+public class LoadSettings {
+
+    private final double rate;
+    private final int users;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final Map<LoadOperation, Integer> mix;
+    private final List<String> logins;
+    private final String password;
+    private final long seed;
+    private final double maxErrorRate;
+    private final Path reportDirectory;
+
+    LoadSettings(double rate, int users, int durationSeconds, int warmupSeconds, Map<LoadOperation, Integer> mix,
+                 List<String> logins, String password, long seed, double maxErrorRate, Path reportDirectory) {
+        if (rate <= 0 || users <= 0 || durationSeconds <= 0 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("Load rate, users and duration must be positive");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Load mix must give at least one operation a weight");
+        }
+        this.rate = rate;
+        this.users = users;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.mix = mix;
+        this.logins = logins;
+        this.password = password;
+        this.seed = seed;
+        this.maxErrorRate = maxErrorRate;
+        this.reportDirectory = reportDirectory;
+    }
+
+    public static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Double.parseDouble(System.getProperty("load.rate", "20")),
+                Integer.getInteger("load.users", 8),
+                Integer.getInteger("load.duration-seconds", 60),
+                Integer.getInteger("load.warmup-seconds", 10),
+                parseMix(System.getProperty("load.mix", "book=40,amend=10,search=30,summary=20")),
+                Arrays.asList(System.getProperty("load.logins", "simon,joey").split(",")),
+                System.getProperty("load.password", "password"),
+                Long.getLong("load.seed", System.nanoTime()),
+                Double.parseDouble(System.getProperty("load.max-error-rate", "0.05")),
+                Path.of(System.getProperty("load.report-dir", "target/load-reports")));
+    }
+
+    // "book=40,amend=10" gives the weight of each operation; operations left out are not run
+    static Map<LoadOperation, Integer> parseMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<>(LoadOperation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load mix entry: " + entry);
+            }
+            weights.put(LoadOperation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    /**
+     * @return requests started per second, across all virtual users
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    /**
+     * @return seconds run before the measured duration, whose requests are not recorded
+     */
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public Map<LoadOperation, Integer> getMix() {
+        return mix;
+    }
+
+    /**
+     * @return the users the virtual users log in as, in turn; each books and amends trades as itself
+     */
+    public List<String> getLogins() {
+        return logins;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return share of failed requests above which the run fails
+     */
+    public double getMaxErrorRate() {
+        return maxErrorRate;
+    }
+
+    public Path getReportDirectory() {
+        return reportDirectory;
+    }
+}
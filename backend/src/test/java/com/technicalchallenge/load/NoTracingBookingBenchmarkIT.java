@@ -0,0 +1,26 @@
+package com.technicalchallenge.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/*
+Times bookings under the prod profile with tracing switched off, the baseline for
+SampledTracingBookingBenchmarkIT and FullTracingBookingBenchmarkIT.
+Not part of the normal build; run the three tracing benchmarks on their own, e.g.
+    mvn test -Dtest='*TracingBookingBenchmarkIT' -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"trade.ratelimit.enabled=false", "trade.tracing.enabled=false"})
+@ActiveProfiles("prod")
+public class NoTracingBookingBenchmarkIT extends BookingLatencyBenchmark {
+
+    @Override
+    String configuration() {
+        return "tracing off";
+    }
+
+    @Override
+    String appender() {
+        return "ASYNC_JSON";
+    }
+}
@@ -0,0 +1,26 @@
+package com.technicalchallenge.load;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/*
+Times bookings under the prod profile with 1% of requests traced, as configured for production. Compare with
+NoTracingBookingBenchmarkIT.
+Not part of the normal build; run the three tracing benchmarks on their own, e.g.
+    mvn test -Dtest='*TracingBookingBenchmarkIT' -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"trade.ratelimit.enabled=false", "trade.tracing.enabled=true", "trade.tracing.sample-rate=0.01"})
+@ActiveProfiles("prod")
+public class SampledTracingBookingBenchmarkIT extends BookingLatencyBenchmark {
+
+    @Override
+    String configuration() {
+        return "1% of requests traced";
+    }
+
+    @Override
+    String appender() {
+        return "ASYNC_JSON";
+    }
+}
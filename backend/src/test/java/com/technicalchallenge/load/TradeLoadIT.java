@@ -0,0 +1,51 @@
+package com.technicalchallenge.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+Puts load on the trade API, booted on the embedded H2 database with the load profile, and writes a latency report
+under target/load-reports. Not part of the normal build; run it with the load profile, e.g.
+    mvn -Pload test -Dload.rate=50 -Dload.users=16 -Dload.duration-seconds=120
+See LoadSettings for the other settings.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("load")
+public class TradeLoadIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeLoadIT.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void runLoad() throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+
+        LoadReport report = new LoadRunner(settings, "http://localhost:" + port, objectMapper).run();
+
+        Path directory = report.write();
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        report.print(new PrintStream(text, true, StandardCharsets.UTF_8));
+        logger.info("Load report written to {}\n{}", directory, text.toString(StandardCharsets.UTF_8));
+        assertTrue(report.getRequestCount() > 0, "No requests were measured");
+        assertTrue(report.getErrorRate() <= settings.getMaxErrorRate(),
+                "Error rate " + report.getErrorRate() + " is above " + settings.getMaxErrorRate());
+    }
+}
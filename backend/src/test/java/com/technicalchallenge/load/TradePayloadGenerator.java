@@ -0,0 +1,131 @@
+package com.technicalchallenge.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generates trade payloads for the load test from the sample payloads in {@code src/main/resources}, varying the
+ * book, counterparty, notionals, fixed rates, schedule and dates of each. The trade ids, versions, timestamps and
+ * additional fields of the samples are dropped, so every payload books a new trade.
+ */
+public class TradePayloadGenerator {
+
+    static final List<String> SAMPLES = List.of("sample-trade-post-payload.json", "sample-swap-post-payload.json");
+
+    private static final List<String> BOOKS = List.of("FX-BOOK-1", "RATES-BOOK-1");
+    private static final List<String> COUNTERPARTIES = List.of("BigBank", "MegaFund");
+    private static final List<String> SCHEDULES = List.of("Monthly", "Quarterly");
+    private static final List<String> DROPPED_FIELDS = List.of("id", "tradeId", "legId", "version", "tradeStatus", "startDate",
+            "maturityDate", "executionDate", "tradeExecutionDate", "lastTouchTimestamp", "validityStartDate", "cashflows",
+            "additionalFields");
+
+    private final ObjectMapper objectMapper;
+    private final List<ObjectNode> templates = new ArrayList<>();
+
+    public TradePayloadGenerator(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        for (String sample : SAMPLES) {
+            try (InputStream in = TradePayloadGenerator.class.getClassLoader().getResourceAsStream(sample)) {
+                if (in == null) {
+                    throw new IllegalStateException("Sample payload not found on the classpath: " + sample);
+                }
+                ObjectNode template = (ObjectNode) objectMapper.readTree(in);
+                strip(template);
+                int legIndex = 0;
+                for (JsonNode leg : template.withArray("tradeLegs")) {
+                    strip((ObjectNode) leg);
+                    name((ObjectNode) leg, legIndex++);
+                }
+                templates.add(template);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read sample payload " + sample, e);
+            }
+        }
+    }
+
+    /**
+     * A new trade booked and traded by the given user.
+     */
+    public String booking(Random random, String login) {
+        return write(variant(random, login));
+    }
+
+    /**
+     * A new version of the given trade, as the given user would amend it.
+     */
+    public String amendment(Random random, String login, long tradeId) {
+        ObjectNode trade = variant(random, login);
+        trade.put("tradeId", tradeId);
+        return write(trade);
+    }
+
+    private ObjectNode variant(Random random, String login) {
+        ObjectNode trade = templates.get(random.nextInt(templates.size())).deepCopy();
+        LocalDate tradeDate = LocalDate.now();
+        LocalDate startDate = tradeDate.plusDays(random.nextInt(3));
+        trade.put("bookName", pick(random, BOOKS));
+        trade.put("counterpartyName", pick(random, COUNTERPARTIES));
+        trade.put("traderUserName", login);
+        trade.put("inputterUserName", login);
+        trade.put("utiCode", "UTI-LOAD-" + UUID.randomUUID());
+        trade.put("tradeDate", tradeDate.toString());
+        trade.put("tradeStartDate", startDate.toString());
+        trade.put("tradeMaturityDate", startDate.plusYears(1 + random.nextInt(5)).toString());
+
+        BigDecimal notional = BigDecimal.valueOf(100_000L * (1 + random.nextInt(500)));
+        String schedule = pick(random, SCHEDULES);
+        for (JsonNode node : trade.withArray("tradeLegs")) {
+            ObjectNode leg = (ObjectNode) node;
+            leg.put("notional", notional);
+            leg.put("calculationPeriodSchedule", schedule);
+            if ("Floating".equalsIgnoreCase(leg.path("legType").asText())) {
+                leg.put("rate", 0.0);
+                if (!leg.hasNonNull("index")) {
+                    leg.put("index", "LIBOR");
+                }
+            } else {
+                leg.put("rate", BigDecimal.valueOf(1 + random.nextInt(600)).divide(BigDecimal.valueOf(100), 2,
+                        RoundingMode.UNNECESSARY));
+            }
+        }
+        return trade;
+    }
+
+    private String write(ObjectNode trade) {
+        try {
+            return objectMapper.writeValueAsString(trade);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void strip(ObjectNode node) {
+        DROPPED_FIELDS.forEach(node::remove);
+    }
+
+    // Validation needs the leg type and direction by name, which a sample leg may only give by id
+    private static void name(ObjectNode leg, int legIndex) {
+        if (!leg.hasNonNull("payReceiveFlag")) {
+            leg.put("payReceiveFlag", legIndex == 0 ? "Pay" : "Receive");
+        }
+        if (!leg.hasNonNull("legType")) {
+            leg.put("legType", leg.hasNonNull("indexId") || leg.hasNonNull("index") ? "Floating" : "Fixed");
+        }
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
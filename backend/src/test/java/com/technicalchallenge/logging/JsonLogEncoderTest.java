@@ -0,0 +1,57 @@
+package com.technicalchallenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.KeyValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonLogEncoderTest {
+
+    private final JsonLogEncoder encoder = new JsonLogEncoder();
+
+    @Test
+    void shouldWriteEventAsOneLineOfJson() {
+        // Given
+        Logger logger = new LoggerContext().getLogger("com.technicalchallenge.controller.TradeController");
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, Level.INFO,
+                "Creating new trade {} in book \"{}\"", null, new Object[]{10001L, "FX-BOOK-1"});
+        event.setTimeStamp(0L);
+        event.setThreadName("http-nio-8080-exec-1");
+        event.setMDCPropertyMap(Map.of("requestId", "abc"));
+        event.setKeyValuePairs(List.of(new KeyValuePair("legs", 2)));
+
+        // When
+        String json = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        // Then
+        assertEquals("{\"timestamp\":\"1970-01-01T00:00:00Z\",\"level\":\"INFO\",\"thread\":\"http-nio-8080-exec-1\","
+                + "\"logger\":\"com.technicalchallenge.controller.TradeController\","
+                + "\"message\":\"Creating new trade 10001 in book \\\"FX-BOOK-1\\\"\",\"requestId\":\"abc\",\"legs\":\"2\"}\n",
+                json);
+    }
+
+    @Test
+    void shouldEscapeStackTraceOntoTheSameLine() {
+        // Given
+        Logger logger = new LoggerContext().getLogger("com.technicalchallenge.service.TradeService");
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, Level.ERROR, "Failed",
+                new IllegalStateException("boom"), null);
+        event.setMDCPropertyMap(Map.of());
+
+        // When
+        String json = new String(encoder.encode(event), StandardCharsets.UTF_8);
+
+        // Then
+        assertTrue(json.contains("\"exception\":\"java.lang.IllegalStateException: boom\\n"));
+        assertEquals(1, json.split("\n").length);
+    }
+}
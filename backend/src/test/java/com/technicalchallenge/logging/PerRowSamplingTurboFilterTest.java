@@ -0,0 +1,60 @@
+package com.technicalchallenge.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PerRowSamplingTurboFilterTest {
+
+    private Logger logger;
+    private PerRowSamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        logger = new LoggerContext().getLogger("com.technicalchallenge.service.TradeService");
+        logger.setLevel(Level.DEBUG);
+        filter = new PerRowSamplingTurboFilter();
+        filter.setLimit(3);
+        filter.setIntervalMs(60_000);
+    }
+
+    @Test
+    void shouldLimitEachPerRowMessageSeparately() {
+        // Given
+        String cashflows = "Generated {} cashflows for leg {}";
+        String lookups = "Looking up trade type: {}";
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(LogMarkers.PER_ROW, Level.DEBUG, cashflows));
+        }
+
+        // Then
+        assertEquals(FilterReply.DENY, decide(LogMarkers.PER_ROW, Level.DEBUG, cashflows));
+        assertEquals(FilterReply.NEUTRAL, decide(LogMarkers.PER_ROW, Level.DEBUG, lookups));
+    }
+
+    @Test
+    void shouldLeaveOtherMessagesAndDisabledLevelsAlone() {
+        // Given
+        String message = "Generated {} cashflows for leg {}";
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(null, Level.DEBUG, message));
+            assertEquals(FilterReply.NEUTRAL, decide(LogMarkers.PER_ROW, Level.TRACE, message));
+        }
+
+        // Then
+        assertEquals(FilterReply.NEUTRAL, decide(LogMarkers.PER_ROW, Level.DEBUG, message));
+    }
+
+    private FilterReply decide(org.slf4j.Marker marker, Level level, String format) {
+        return filter.decide(marker, logger, level, format, null, null);
+    }
+}
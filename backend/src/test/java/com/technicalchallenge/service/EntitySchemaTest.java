@@ -0,0 +1,31 @@
+package com.technicalchallenge.service;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a test against an in-memory H2 database holding the schema Hibernate generates from the entities, in the
+ * database mode the application runs in, with no reference data loaded. Tests insert their rows through
+ * {@link TradeFixtures} and empty the tables with {@link TradeFixtures#clear()} when done: the services they test
+ * commit on threads of their own, so the test is not wrapped in a transaction that is rolled back.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:entity-schema;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.sql.init.mode=never",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TradeFixtures.class)
+public @interface EntitySchemaTest {
+}
@@ -0,0 +1,223 @@
+package com.technicalchallenge.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.mapper.TradeMapper;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.exception.IdempotencyKeyReuseException;
+import com.technicalchallenge.exception.IdempotentRequestInProgressException;
+import com.technicalchallenge.model.IdempotencyRecord;
+import com.technicalchallenge.model.IdempotencyStatus;
+import com.technicalchallenge.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private TradeService tradeService;
+
+    @Mock
+    private TradeMapper tradeMapper;
+
+    private IdempotencyService idempotencyService;
+    private TradeDTO tradeDTO;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, objectMapper, tradeService, tradeMapper,
+                24, 120, 100);
+
+        tradeDTO = new TradeDTO();
+        tradeDTO.setTradeId(100001L);
+        tradeDTO.setTradeDate(LocalDate.of(2025, 1, 15));
+        tradeDTO.setBookName("FX-BOOK-1");
+    }
+
+    @Test
+    void testBeginClaimsUnusedKey() {
+        // Given
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.empty());
+
+        // When
+        Optional<TradeDTO> result = idempotencyService.begin("simon", "key-1", "hash");
+
+        // Then
+        assertTrue(result.isEmpty());
+        ArgumentCaptor<IdempotencyRecord> claim = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(idempotencyRecordRepository).saveAndFlush(claim.capture());
+        assertEquals(IdempotencyStatus.IN_PROGRESS, claim.getValue().getStatus());
+        assertTrue(claim.getValue().isNew());
+        assertTrue(claim.getValue().getExpiresAt().isBefore(LocalDateTime.now().plusMinutes(3)));
+    }
+
+    @Test
+    void testCompletedRequestIsReplayedFromCache() {
+        // Given
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setIdempotencyKey("simon:key-1");
+        claim.setRequestHash("hash");
+        claim.setStatus(IdempotencyStatus.IN_PROGRESS);
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.empty()).thenReturn(Optional.of(claim));
+        idempotencyService.begin("simon", "key-1", "hash");
+        idempotencyService.complete("simon", "key-1", tradeDTO);
+
+        // When
+        Optional<TradeDTO> replay = idempotencyService.begin("simon", "key-1", "hash");
+
+        // Then
+        assertTrue(replay.isPresent());
+        assertEquals(100001L, replay.get().getTradeId());
+        assertEquals(IdempotencyStatus.COMPLETED, claim.getStatus());
+        verify(idempotencyRecordRepository, times(2)).findById("simon:key-1");
+    }
+
+    @Test
+    void testCompletedRequestIsReplayedFromDatabaseAfterRestart() throws Exception {
+        // Given
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setIdempotencyKey("simon:key-1");
+        record.setRequestHash("hash");
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setResponseBody("{\"tradeId\":100001,\"bookName\":\"FX-BOOK-1\"}");
+        record.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.of(record));
+
+        // When
+        Optional<TradeDTO> replay = idempotencyService.begin("simon", "key-1", "hash");
+
+        // Then
+        assertEquals("FX-BOOK-1", replay.orElseThrow().getBookName());
+        verify(idempotencyRecordRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequestThrowsException() {
+        // Given
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setRequestHash("hash");
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setExpiresAt(LocalDateTime.now().plusHours(1));
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.of(record));
+
+        // When/Then
+        assertThrows(IdempotencyKeyReuseException.class, () -> idempotencyService.begin("simon", "key-1", "other-hash"));
+    }
+
+    @Test
+    void testConcurrentClaimThrowsInProgressException() {
+        // Given
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // When/Then
+        assertThrows(IdempotentRequestInProgressException.class, () -> idempotencyService.begin("simon", "key-1", "hash"));
+    }
+
+    @Test
+    void testHashIsStableForEqualRequests() {
+        // Given
+        TradeDTO sameTrade = new TradeDTO();
+        sameTrade.setTradeId(100001L);
+        sameTrade.setTradeDate(LocalDate.of(2025, 1, 15));
+        sameTrade.setBookName("FX-BOOK-1");
+
+        // When/Then
+        assertEquals(idempotencyService.hash(tradeDTO), idempotencyService.hash(sameTrade));
+        sameTrade.setBookName("RATES-BOOK-1");
+        assertNotEquals(idempotencyService.hash(tradeDTO), idempotencyService.hash(sameTrade));
+    }
+
+    @Test
+    void testBegin_ClaimPastItsLeaseIsTakenOver() {
+        // Given
+        IdempotencyRecord staleClaim = new IdempotencyRecord();
+        staleClaim.setIdempotencyKey("simon:key-1");
+        staleClaim.setRequestHash("hash");
+        staleClaim.setStatus(IdempotencyStatus.IN_PROGRESS);
+        staleClaim.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.of(staleClaim));
+
+        // When
+        Optional<TradeDTO> result = idempotencyService.begin("simon", "key-1", "hash");
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(idempotencyRecordRepository).delete(staleClaim);
+        verify(idempotencyRecordRepository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void testBegin_ClaimWithinItsLeaseThrowsInProgressException() {
+        // Given
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setRequestHash("hash");
+        claim.setStatus(IdempotencyStatus.IN_PROGRESS);
+        claim.setExpiresAt(LocalDateTime.now().plusSeconds(60));
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.of(claim));
+
+        // When/Then
+        assertThrows(IdempotentRequestInProgressException.class, () -> idempotencyService.begin("simon", "key-1", "hash"));
+    }
+
+    @Test
+    void testComplete_StoresTradeIdAndExtendsExpiryToTtl() {
+        // Given
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setIdempotencyKey("simon:key-1");
+        claim.setRequestHash("hash");
+        claim.setStatus(IdempotencyStatus.IN_PROGRESS);
+        claim.setExpiresAt(LocalDateTime.now().plusSeconds(120));
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.of(claim));
+
+        // When
+        idempotencyService.complete("simon", "key-1", tradeDTO);
+
+        // Then
+        assertEquals(IdempotencyStatus.COMPLETED, claim.getStatus());
+        assertEquals(100001L, claim.getTradeId());
+        assertTrue(claim.getResponseBody().contains("FX-BOOK-1"));
+        assertTrue(claim.getExpiresAt().isAfter(LocalDateTime.now().plusHours(23)));
+        verify(idempotencyRecordRepository).save(claim);
+    }
+
+    @Test
+    void testBegin_CompletedRequestWithoutStoredBodyIsRebuiltFromTrade() {
+        // Given
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setRequestHash("hash");
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setTradeId(100001L);
+        record.setExpiresAt(LocalDateTime.now().plusHours(1));
+        Trade trade = new Trade();
+        when(idempotencyRecordRepository.findById("simon:key-1")).thenReturn(Optional.of(record));
+        when(tradeService.getTradeById(100001L)).thenReturn(Optional.of(trade));
+        when(tradeMapper.toDto(trade)).thenReturn(tradeDTO);
+
+        // When
+        Optional<TradeDTO> replay = idempotencyService.begin("simon", "key-1", "hash");
+
+        // Then
+        assertEquals(100001L, replay.orElseThrow().getTradeId());
+    }
+}
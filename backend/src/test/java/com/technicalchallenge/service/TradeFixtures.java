@@ -0,0 +1,77 @@
+package com.technicalchallenge.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Inserts reference data, trades, legs and cashflows into the schema of an {@link EntitySchemaTest}, filling in the
+ * columns the tests have no interest in. Rows are keyed by the ids the caller gives them, apart from cashflows.
+ */
+public class TradeFixtures {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TradeFixtures(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void book(long id, String bookName) {
+        jdbcTemplate.update("INSERT INTO book (id, book_name, active, version) VALUES (?, ?, TRUE, 1)", id, bookName);
+    }
+
+    public void counterparty(long id, String name) {
+        jdbcTemplate.update("INSERT INTO counterparty (id, name, active) VALUES (?, ?, TRUE)", id, name);
+    }
+
+    public void currency(long id, String currency) {
+        jdbcTemplate.update("INSERT INTO currency (id, currency) VALUES (?, ?)", id, currency);
+    }
+
+    public void tradeStatus(long id, String tradeStatus) {
+        jdbcTemplate.update("INSERT INTO trade_status (id, trade_status) VALUES (?, ?)", id, tradeStatus);
+    }
+
+    public void payRec(long id, String payRec) {
+        jdbcTemplate.update("INSERT INTO pay_rec (id, pay_rec) VALUES (?, ?)", id, payRec);
+    }
+
+    public void legType(long id, String type) {
+        jdbcTemplate.update("INSERT INTO leg_type (id, type) VALUES (?, ?)", id, type);
+    }
+
+    // An active trade row, version 1 of trade tradeId
+    public void trade(long id, long tradeId, long bookId, Long counterpartyId, long statusId) {
+        jdbcTemplate.update("INSERT INTO trade (id, trade_id, version, book_id, counterparty_id, trade_status_id, "
+                + "active) VALUES (?, ?, 1, ?, ?, ?, TRUE)", id, tradeId, bookId, counterpartyId, statusId);
+    }
+
+    // An active leg of the trade row tradeRowId
+    public void leg(long legId, long tradeRowId, Long currencyId, long payRecId) {
+        jdbcTemplate.update("INSERT INTO trade_leg (leg_id, trade_id, currency_id, pay_rec_id, active) "
+                + "VALUES (?, ?, ?, ?, TRUE)", legId, tradeRowId, currencyId, payRecId);
+    }
+
+    // An active cashflow, taking its pay/receive flag from its leg unless payRecId is given
+    public void cashflow(long legId, LocalDate valueDate, String amount, Long payRecId) {
+        jdbcTemplate.update("INSERT INTO cashflow (leg_id, value_date, payment_value, pay_rec_id, active) "
+                + "VALUES (?, ?, ?, ?, TRUE)", legId, Date.valueOf(valueDate), new BigDecimal(amount), payRecId);
+    }
+
+    // Empties every table and restarts its ids, leaving the schema for the next test
+    public void clear() {
+        List<String> tables = jdbcTemplate.queryForList("SELECT table_name FROM information_schema.tables "
+                + "WHERE table_schema = CURRENT_SCHEMA AND table_type = 'BASE TABLE'", String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            for (String table : tables) {
+                jdbcTemplate.execute("TRUNCATE TABLE \"" + table + "\" RESTART IDENTITY");
+            }
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+}
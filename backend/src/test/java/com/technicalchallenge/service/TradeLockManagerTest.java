@@ -0,0 +1,118 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.exception.TradeLockTimeoutException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeLockManagerTest {
+
+    private final TradeLockManager tradeLockManager = new TradeLockManager(1024, 5000);
+
+    @Test
+    void testSameTradeOperationsAreSerialised() throws Exception {
+        // Given
+        int threads = 16;
+        int operationsPerThread = 500;
+        long[] tradeIds = {100001L, 100002L, 100003L, 100004L};
+        // Deliberately non-atomic read-modify-write counters, only safe if each trade's operations are serialised
+        int[] versions = new int[tradeIds.length];
+        AtomicInteger concurrentPerTrade = new AtomicInteger();
+        int[] inFlight = new int[tradeIds.length];
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < operationsPerThread; i++) {
+                    int index = (offset + i) % tradeIds.length;
+                    tradeLockManager.withTradeLock(tradeIds[index], () -> {
+                        if (++inFlight[index] > 1) {
+                            concurrentPerTrade.incrementAndGet();
+                        }
+                        int current = versions[index];
+                        Thread.yield();
+                        versions[index] = current + 1;
+                        inFlight[index]--;
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Then
+        int total = 0;
+        for (int version : versions) {
+            total += version;
+        }
+        assertEquals(threads * operationsPerThread, total);
+        assertEquals(0, concurrentPerTrade.get());
+    }
+
+    @Test
+    void testDifferentTradesProceedInParallel() throws Exception {
+        // Given
+        CountDownLatch firstHoldsLock = new CountDownLatch(1);
+        CountDownLatch secondRan = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<Boolean> first = executor.submit(() -> tradeLockManager.withTradeLock(100001L, () -> {
+            firstHoldsLock.countDown();
+            try {
+                // Only completes if the other trade's operation runs while this lock is held
+                return secondRan.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }));
+        assertTrue(firstHoldsLock.await(5, TimeUnit.SECONDS));
+        Future<?> second = executor.submit(() -> tradeLockManager.withTradeLock(100002L, secondRan::countDown));
+
+        // Then
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        second.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+    }
+
+    @Test
+    void testLockTimeoutThrowsException() throws Exception {
+        // Given
+        TradeLockManager shortTimeout = new TradeLockManager(1024, 50);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> shortTimeout.withTradeLock(100001L, () -> {
+            holding.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // When & Then
+        assertThrows(TradeLockTimeoutException.class, () -> shortTimeout.withTradeLock(100001L, () -> { }));
+        release.countDown();
+        executor.shutdown();
+    }
+}
@@ -1,5 +1,6 @@
 package com.technicalchallenge.service;
 
+import com.technicalchallenge.dto.TradeSummaryDTO;
 import com.technicalchallenge.model.Currency;
 import com.technicalchallenge.model.Trade;
 import com.technicalchallenge.model.TradeLeg;
@@ -19,6 +20,8 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -221,4 +224,36 @@ public class TradeReportingServiceTest {
         assertEquals(BigDecimal.valueOf(7500000), result);
         verify(tradeRepository).findByTraderAndActiveTrue(loginId);
     }
+
+    @Test
+    void testSummaryForBooksAggregatesInDatabase() {
+
+        // Given
+        List<Long> books = List.of(1000L, 1001L);
+        when(tradeRepository.countActiveByStatusForBooks(books))
+                .thenReturn(List.<Object[]>of(new Object[]{"LIVE", 3L}, new Object[]{"NEW", 1L}));
+        when(tradeRepository.sumActiveNotionalByCurrencyForBooks(books))
+                .thenReturn(List.<Object[]>of(new Object[]{"USD", new BigDecimal("4000000")}));
+        when(tradeRepository.countActiveByTradeTypeAndCounterpartyForBooks(books))
+                .thenReturn(List.<Object[]>of(new Object[]{"Swap", "BigBank", 3L}, new Object[]{"Swap", "MegaFund", 1L}));
+
+        // When
+        TradeSummaryDTO result = tradeReportingService.summaryForBooks(books);
+
+        // Then
+        assertEquals(Map.of("LIVE", 3L, "NEW", 1L), result.getTotalTradesByStatus());
+        assertEquals(Map.of("USD", new BigDecimal("4000000")), result.getTotalNotionalByCurrency());
+        assertEquals(Map.of("Swap", Map.of("BigBank", 3L, "MegaFund", 1L)), result.getTradesByTypeByCounterparty());
+    }
+
+    @Test
+    void testSummaryForNoBooksSkipsQueries() {
+
+        // When
+        TradeSummaryDTO result = tradeReportingService.summaryForBooks(List.of());
+
+        // Then
+        assertTrue(result.getTotalTradesByStatus().isEmpty());
+        verify(tradeRepository, never()).countActiveByStatusForBooks(any());
+    }
 }
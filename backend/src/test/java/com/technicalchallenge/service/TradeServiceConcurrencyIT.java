@@ -0,0 +1,145 @@
+package com.technicalchallenge.service;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.exception.TradeVersionConflictException;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.repository.TradeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+Races an amendment against a cancellation of the same trade through TradeService, against the H2 database
+loaded from src/test/resources/data.sql. Both callers send the version they read, as an If-Match header would
+ */
+@SpringBootTest
+@DirtiesContext
+class TradeServiceConcurrencyIT {
+
+    private static final long TRADE_ID = 100001L;
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private TradeRepository tradeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAmendAndCancel_SameTradeConcurrentlyOneWinsWithoutLostUpdate() throws Exception {
+        // Given
+        Trade current = tradeRepository.findByTradeIdAndActiveTrue(TRADE_ID).orElseThrow();
+        String statusBefore = versionsOfTrade().get(0).status();
+        TradeVersionPrecondition readVersion = new TradeVersionPrecondition(current.getVersion(), current.getLockVersion());
+        TradeDTO amendment = amendment();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        Future<Trade> amend = executor.submit(racing(start, () -> tradeService.amendTrade(TRADE_ID, amendment, readVersion)));
+        Future<Trade> cancel = executor.submit(racing(start, () -> tradeService.cancelTrade(TRADE_ID, readVersion)));
+        start.countDown();
+        Throwable amendFailure = failureOf(amend);
+        Throwable cancelFailure = failureOf(cancel);
+        executor.shutdown();
+
+        // Then
+        assertTrue(amendFailure == null ^ cancelFailure == null,
+                "exactly one of amend and cancel should win, amend: " + amendFailure + ", cancel: " + cancelFailure);
+        Throwable loserFailure = amendFailure != null ? amendFailure : cancelFailure;
+        assertTrue(loserFailure instanceof TradeVersionConflictException
+                        || loserFailure instanceof OptimisticLockingFailureException,
+                "loser should fail with a version conflict but got " + loserFailure);
+
+        List<TradeRow> rows = versionsOfTrade();
+        assertEquals(rows.size(), rows.stream().map(TradeRow::version).distinct().count(), "duplicate trade version");
+        List<TradeRow> activeRows = rows.stream().filter(TradeRow::active).toList();
+        assertEquals(1, activeRows.size());
+        TradeRow active = activeRows.get(0);
+        if (amendFailure == null) {
+            // The cancellation must not have landed on the version the amendment replaced
+            assertEquals(2, rows.size());
+            assertEquals(current.getVersion() + 1, active.version());
+            assertEquals("AMENDED", active.status());
+            assertEquals(statusBefore, rows.get(0).status());
+        } else {
+            assertEquals(1, rows.size());
+            assertEquals(current.getVersion(), active.version());
+            assertEquals("CANCELLED", active.status());
+        }
+    }
+
+    private List<TradeRow> versionsOfTrade() {
+        return jdbcTemplate.query("""
+                        SELECT t.version, t.active, s.trade_status FROM trade t
+                        JOIN trade_status s ON s.id = t.trade_status_id
+                        WHERE t.trade_id = ? ORDER BY t.version""",
+                (rs, rowNum) -> new TradeRow(rs.getInt(1), rs.getBoolean(2), rs.getString(3)), TRADE_ID);
+    }
+
+    private static <T> Callable<T> racing(CountDownLatch start, Callable<T> action) {
+        return () -> {
+            start.await();
+            return action.call();
+        };
+    }
+
+    private static Throwable failureOf(Future<Trade> result) throws Exception {
+        try {
+            assertNotNull(result.get(60, TimeUnit.SECONDS));
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+    }
+
+    private static TradeDTO amendment() {
+        TradeLegDTO leg1 = new TradeLegDTO();
+        leg1.setNotional(BigDecimal.valueOf(10000000.0));
+        leg1.setRate(0.5);
+        leg1.setLegType("Fixed");
+        leg1.setPayReceiveFlag("Pay");
+
+        TradeLegDTO leg2 = new TradeLegDTO();
+        leg2.setNotional(BigDecimal.valueOf(10000000.0));
+        leg2.setIndexName("LIBOR");
+        leg2.setLegType("Floating");
+        leg2.setPayReceiveFlag("Receive");
+
+        TradeDTO tradeDTO = new TradeDTO();
+        tradeDTO.setTradeId(TRADE_ID);
+        tradeDTO.setTradeDate(LocalDate.now());
+        tradeDTO.setTradeStartDate(LocalDate.now());
+        tradeDTO.setTradeMaturityDate(LocalDate.now().plusYears(1));
+        tradeDTO.setTradeLegs(List.of(leg1, leg2));
+        tradeDTO.setCounterpartyName("BigBank");
+        tradeDTO.setBookName("FX-BOOK-1");
+        tradeDTO.setTraderUserName("joey");
+        tradeDTO.setTraderUserId(1005L);
+        tradeDTO.setInputterUserName("ashley");
+        tradeDTO.setTradeInputterUserId(1004L);
+        return tradeDTO;
+    }
+
+    private record TradeRow(int version, boolean active, String status) {
+    }
+}
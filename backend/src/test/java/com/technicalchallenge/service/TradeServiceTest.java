@@ -3,8 +3,15 @@ package com.technicalchallenge.service;
 import com.technicalchallenge.dto.TradeDTO;
 import com.technicalchallenge.dto.TradeFilterDTO;
 import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.exception.TradeVersionConflictException;
 import com.technicalchallenge.model.*;
 import com.technicalchallenge.repository.*;
+import com.technicalchallenge.service.accrual.AccrualScheduleService;
+import com.technicalchallenge.service.calendar.BusinessDayCalendarService;
+import com.technicalchallenge.service.curve.FloatingCashflowsReprojectedEvent;
+import com.technicalchallenge.service.curve.IndexCurve;
+import com.technicalchallenge.service.curve.IndexCurveService;
+import com.technicalchallenge.service.metrics.TradeMetrics;
 import com.technicalchallenge.service.validation.UserPrivilegeValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +19,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -58,6 +66,21 @@ class TradeServiceTest {
     @Mock
     UserPrivilegeValidator userPrivilegeValidator;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    BusinessDayCalendarService businessDayCalendarService;
+
+    @Mock
+    AccrualScheduleService accrualScheduleService;
+
+    @Mock
+    IndexCurveService indexCurveService;
+
+    @Mock
+    TradeMetrics tradeMetrics;
+
     @InjectMocks
     private TradeService tradeService;
 
@@ -198,6 +221,101 @@ class TradeServiceTest {
         assertTrue(exception.getMessage().contains("Trade not found"));
     }
 
+    @Test
+    void testAmendTrade_StaleExpectedVersionThrowsConflict() {
+        // Given
+        trade.setVersion(2);
+        trade.setLockVersion(0L);
+        when(tradeRepository.findByTradeIdAndActiveTrue(100001L)).thenReturn(Optional.of(trade));
+        when(userPrivilegeValidator.validateUserPrivileges(any(), eq("AMEND"), any(TradeDTO.class))).thenReturn(true);
+
+        // When & Then
+        assertThrows(TradeVersionConflictException.class, () ->
+                tradeService.amendTrade(100001L, tradeDTO, new TradeVersionPrecondition(1, null)));
+        verify(tradeRepository, never()).save(any(Trade.class));
+    }
+
+    @Test
+    void testCancelTrade_MatchingExpectedVersionCancelsTrade() {
+        // Given
+        trade.setVersion(1);
+        trade.setLockVersion(4L);
+        TradeStatus cancelled = new TradeStatus();
+        cancelled.setTradeStatus("CANCELLED");
+        when(tradeRepository.findByTradeIdAndActiveTrue(100001L)).thenReturn(Optional.of(trade));
+        when(tradeStatusRepository.findByTradeStatus("CANCELLED")).thenReturn(Optional.of(cancelled));
+        when(tradeRepository.save(trade)).thenReturn(trade);
+
+        // When
+        Trade result = tradeService.cancelTrade(100001L, TradeVersionPrecondition.fromIfMatch("\"1.4\""));
+
+        // Then
+        assertEquals("CANCELLED", result.getTradeStatus().getTradeStatus());
+    }
+
+    @Test
+    void testReprojectFloatingCashflows_UsesCurveRateAtEachPeriodStart() {
+        // Given
+        trade.setTradeStartDate(LocalDate.of(2026, 1, 15));
+        trade.setTradeMaturityDate(LocalDate.of(2026, 7, 15));
+        trade.setActive(true);
+
+        LegType floating = new LegType();
+        floating.setType("Floating");
+        Index libor = new Index();
+        libor.setIndex("LIBOR");
+        Schedule quarterly = new Schedule();
+        quarterly.setSchedule("Quarterly");
+
+        TradeLeg leg = new TradeLeg();
+        leg.setLegId(7L);
+        leg.setTrade(trade);
+        leg.setActive(true);
+        leg.setNotional(BigDecimal.valueOf(1000000));
+        leg.setLegRateType(floating);
+        leg.setIndex(libor);
+        leg.setCalculationPeriodSchedule(quarterly);
+
+        Cashflow paid = new Cashflow();
+        paid.setValueDate(LocalDate.of(2026, 4, 15));
+        paid.setPaymentValue(BigDecimal.ZERO);
+        Cashflow upcoming = new Cashflow();
+        upcoming.setValueDate(LocalDate.of(2026, 7, 15));
+        upcoming.setPaymentValue(BigDecimal.ZERO);
+
+        IndexCurve curve = new IndexCurve("LIBOR",
+                new long[]{LocalDate.of(2026, 1, 15).toEpochDay(), LocalDate.of(2026, 4, 15).toEpochDay()},
+                new double[]{4.0, 3.0});
+
+        when(tradeLegRepository.findById(7L)).thenReturn(Optional.of(leg));
+        when(indexCurveService.getCurve("LIBOR")).thenReturn(Optional.of(curve));
+        when(cashflowRepository.findByTradeLegLegIdAndActiveTrueOrderByValueDate(7L)).thenReturn(List.of(paid, upcoming));
+
+        // When
+        int updated = tradeService.reprojectFloatingCashflows(7L, LocalDate.of(2026, 5, 1));
+
+        // Then
+        // Only the cashflow still to pay is re-projected, at 3% for a quarter
+        assertEquals(1, updated);
+        assertEquals(0, BigDecimal.ZERO.compareTo(paid.getPaymentValue()));
+        assertEquals(new BigDecimal("7500.00"), upcoming.getPaymentValue());
+        assertEquals(3.0, upcoming.getRate());
+        verify(eventPublisher).publishEvent(any(FloatingCashflowsReprojectedEvent.class));
+    }
+
+    @Test
+    void testCancelTrade_StaleLockVersionThrowsConflict() {
+        // Given
+        trade.setVersion(1);
+        trade.setLockVersion(5L);
+        when(tradeRepository.findByTradeIdAndActiveTrue(100001L)).thenReturn(Optional.of(trade));
+
+        // When & Then
+        assertThrows(TradeVersionConflictException.class, () ->
+                tradeService.cancelTrade(100001L, TradeVersionPrecondition.fromIfMatch("W/\"1.4\"")));
+        verify(tradeRepository, never()).save(any(Trade.class));
+    }
+
     // This test has a deliberate bug for candidates to find and fix
     @Test
     void testCashflowGeneration_MonthlySchedule() throws Exception {
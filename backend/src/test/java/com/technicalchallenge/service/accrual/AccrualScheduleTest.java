@@ -0,0 +1,107 @@
+package com.technicalchallenge.service.accrual;
+
+import com.technicalchallenge.model.DayCountConvention;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccrualScheduleTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    @Test
+    @DisplayName("Year fractions follow each day count convention")
+    public void testYearFractions() {
+
+        // Given
+        LocalDate start = LocalDate.of(2025, 11, 30);
+        LocalDate end = LocalDate.of(2026, 5, 31);
+
+        // Then
+        // 182 actual days; 30/360 counts 30 Nov to 30 May as 180
+        assertEquals(180 / 360.0, DayCountConvention.THIRTY_360.yearFraction(start, end), TOLERANCE);
+        assertEquals(182 / 360.0, DayCountConvention.ACT_360.yearFraction(start, end), TOLERANCE);
+        assertEquals(182 / 365.0, DayCountConvention.ACT_365F.yearFraction(start, end), TOLERANCE);
+        // ACT/ACT splits 2023-12-01 -> 2024-03-01 into 31 days of 2023 and 60 days of leap year 2024
+        assertEquals(31 / 365.0 + 60 / 366.0,
+                DayCountConvention.ACT_ACT.yearFraction(LocalDate.of(2023, 12, 1), LocalDate.of(2024, 3, 1)), TOLERANCE);
+        assertEquals(1.0, DayCountConvention.ACT_ACT.yearFraction(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1)), TOLERANCE);
+    }
+
+    @Test
+    @DisplayName("Day count names resolve with common aliases and unknown names are rejected")
+    public void testDayCountFromName() {
+
+        // Then
+        assertEquals(DayCountConvention.ACT_365F, DayCountConvention.fromName("Actual/365 Fixed"));
+        assertEquals(DayCountConvention.THIRTY_360, DayCountConvention.fromName("30/360"));
+        assertEquals(DayCountConvention.ACT_ACT, DayCountConvention.fromName("act/act"));
+        assertNull(DayCountConvention.fromName(" "));
+        assertThrows(IllegalArgumentException.class, () -> DayCountConvention.fromName("BUS/252"));
+    }
+
+    @Test
+    @DisplayName("Schedules without a stub only contain whole periods, schedules with a stub end on maturity")
+    public void testBuildSchedule() {
+
+        // Given
+        LocalDate start = LocalDate.of(2026, 1, 15);
+        LocalDate maturity = LocalDate.of(2026, 8, 1);
+
+        // When
+        AccrualSchedule whole = AccrualSchedule.build(start, maturity, 3, DayCountConvention.ACT_360, false);
+        AccrualSchedule withStub = AccrualSchedule.build(start, maturity, 3, DayCountConvention.ACT_360, true);
+
+        // Then
+        assertEquals(2, whole.size());
+        assertEquals(LocalDate.of(2026, 7, 15), whole.getPeriodEnd(1));
+        assertEquals(3, withStub.size());
+        assertEquals(LocalDate.of(2026, 7, 15), withStub.getPeriodStart(2));
+        assertEquals(LocalDate.of(2026, 8, 1), withStub.getPeriodEnd(2));
+        assertEquals(17 / 360.0, withStub.getYearFractions()[2], TOLERANCE);
+    }
+
+    @Test
+    @DisplayName("Accrued year fraction restarts at each period end")
+    public void testAccruedYearFraction() {
+
+        // Given
+        AccrualSchedule schedule = AccrualSchedule.build(LocalDate.of(2026, 1, 15), LocalDate.of(2026, 7, 15), 3,
+                DayCountConvention.ACT_365F, false);
+
+        // Then
+        assertEquals(0.0, schedule.accruedYearFraction(LocalDate.of(2026, 1, 1)), TOLERANCE);
+        assertEquals(10 / 365.0, schedule.accruedYearFraction(LocalDate.of(2026, 1, 25)), TOLERANCE);
+        assertEquals(0.0, schedule.accruedYearFraction(LocalDate.of(2026, 4, 15)), TOLERANCE);
+        assertEquals(1 / 365.0, schedule.accruedYearFraction(LocalDate.of(2026, 4, 16)), TOLERANCE);
+        assertEquals(0.0, schedule.accruedYearFraction(LocalDate.of(2026, 7, 15)), TOLERANCE);
+    }
+
+    @Test
+    @DisplayName("Batch accrual in minor units rounds half-even and matches the double variant")
+    public void testAccrualEngine() {
+
+        // Given
+        long[] notionals = {100_000_000L, 250_000_050L, 1L};
+        double[] rates = {0.05, 0.0325, 0.5};
+        double[] yearFractions = {0.25, 91 / 360.0, 1.0};
+        long[] scaled = new long[3];
+        double[] unscaled = new double[3];
+
+        // When
+        AccrualEngine.accrueScaled(notionals, rates, yearFractions, scaled);
+        AccrualEngine.accrue(new double[]{1_000_000.0, 2_500_000.5, 0.01}, rates, yearFractions, unscaled);
+
+        // Then
+        assertEquals(1_250_000L, scaled[0]);
+        assertEquals(Math.round(unscaled[1] * 100), scaled[1]);
+        // 0.5 of a cent rounds to the even neighbour
+        assertEquals(0L, scaled[2]);
+        assertEquals(1_250_000L + scaled[1], AccrualEngine.sum(scaled));
+        assertThrows(IllegalArgumentException.class,
+                () -> AccrualEngine.accrueScaled(notionals, rates, new double[2], scaled));
+    }
+}
@@ -0,0 +1,190 @@
+package com.technicalchallenge.service.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private DefaultListableBeanFactory beans;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", registry);
+    }
+
+    @Test
+    void testOf_ClassifiesTradeRequestsByMethodAndPath() {
+        // Then
+        assertEquals(AdmissionClass.BOOKING, AdmissionClass.of("POST", "/api/trades"));
+        assertEquals(AdmissionClass.BULK, AdmissionClass.of("POST", "/api/trades/import"));
+        assertEquals(AdmissionClass.BULK, AdmissionClass.of("POST", "/api/exports"));
+        assertEquals(AdmissionClass.BULK, AdmissionClass.of("POST", "/api/settlements/net"));
+        assertEquals(AdmissionClass.BULK, AdmissionClass.of("POST", "/api/valuations/runs"));
+        assertEquals(AdmissionClass.REPORTING, AdmissionClass.of("GET", "/api/exports/latest"));
+        assertEquals(AdmissionClass.AMENDMENT, AdmissionClass.of("PUT", "/api/trades/1"));
+        assertEquals(AdmissionClass.AMENDMENT, AdmissionClass.of("POST", "/api/trades/1/cancel"));
+        assertEquals(AdmissionClass.AMENDMENT, AdmissionClass.of("DELETE", "/api/trades/1"));
+        assertEquals(AdmissionClass.REPORTING, AdmissionClass.of("GET", "/api/trades/daily-summary"));
+        assertEquals(AdmissionClass.REPORTING, AdmissionClass.of("GET", "/api/trades/book/3"));
+        assertEquals(AdmissionClass.REPORTING, AdmissionClass.of("GET", "/api/valuations/1"));
+        assertEquals(AdmissionClass.SEARCH, AdmissionClass.of("GET", "/api/trades/search"));
+        assertEquals(AdmissionClass.SEARCH, AdmissionClass.of("GET", "/api/trades"));
+        assertNull(AdmissionClass.of("GET", "/api/books"));
+        assertNull(AdmissionClass.of("GET", "/api/tradesheet"));
+        assertTrue(AdmissionClass.BOOKING.isAdaptive());
+        assertFalse(AdmissionClass.BULK.isAdaptive());
+    }
+
+    @Test
+    void testDoFilter_BookingOverTheLimitWithAFullQueueGets429() throws Exception {
+        // Given
+        AdmissionFilter filter = filter("booking=1", 0);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> first = CompletableFuture.supplyAsync(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/trades"), response, (req, res) -> {
+                    entered.countDown();
+                    try {
+                        finish.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/trades"), rejected,
+                (req, res) -> fail("Request over the limit reached the controller"));
+        MockHttpServletResponse search = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/trades/search"), search, (req, res) -> { });
+        finish.countDown();
+
+        // Then
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many booking requests in progress"));
+        assertEquals(200, search.getStatus());
+        assertEquals(200, first.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(1.0, registry.get("admission.rejected")
+                .tags("class", "booking", "reason", "queue_full").counter().count());
+        assertEquals(0.0, registry.get("admission.inflight").tags("class", "booking").gauge().value());
+    }
+
+    @Test
+    void testAcquire_QueuedRequestIsAdmittedOrTimesOut() throws Exception {
+        // Given
+        AdmissionLimiter limiter = new AdmissionLimiter(AdmissionClass.SEARCH, new AdaptiveLimit(1, 1, 1, false), 1,
+                5_000);
+        AdmissionLimiter impatient = new AdmissionLimiter(AdmissionClass.SEARCH, new AdaptiveLimit(1, 1, 1, false), 1,
+                50);
+        assertNull(limiter.acquire());
+        assertNull(impatient.acquire());
+
+        // When
+        CompletableFuture<AdmissionLimiter.Rejection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiter.getQueued() == 0) {
+            Thread.onSpinWait();
+        }
+        AdmissionLimiter.Rejection queueFull = limiter.acquire();
+        AdmissionLimiter.Rejection timedOut = impatient.acquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // Then
+        assertEquals(AdmissionLimiter.Rejection.QUEUE_FULL, queueFull);
+        assertEquals(AdmissionLimiter.Rejection.QUEUE_TIMEOUT, timedOut);
+        assertNull(waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getInflight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void testRelease_WakesEveryQueuedRequestTheGrownLimitHasRoomFor() throws Exception {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(1, 1, 8, true);
+        AdmissionLimiter limiter = new AdmissionLimiter(AdmissionClass.SEARCH, limit, 4, 5_000);
+        assertNull(limiter.acquire());
+        List<CompletableFuture<AdmissionLimiter.Rejection>> waiting = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            waiting.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return limiter.acquire();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        while (limiter.getQueued() < 3) {
+            Thread.onSpinWait();
+        }
+        // Steady latency grows the limit while the requests wait, without waking them
+        while (limit.get() < 4) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), limit.get());
+        }
+
+        // When
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10));
+
+        // Then
+        for (CompletableFuture<AdmissionLimiter.Rejection> request : waiting) {
+            assertNull(request.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(3, limiter.getInflight());
+        assertEquals(0, limiter.getQueued());
+    }
+
+    @Test
+    void testOnSample_LimitGrowsWithSteadyLatencyAndShrinksWhenItClimbs() {
+        // Given
+        AdaptiveLimit limit = new AdaptiveLimit(10, 2, 64, true);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(10), limit.get());
+        }
+        int grown = limit.get();
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(100), limit.get());
+        }
+
+        // Then
+        assertTrue(grown > 10, "limit " + grown);
+        assertTrue(limit.get() < grown / 2, "limit " + limit.get());
+        assertTrue(limit.get() >= 2);
+    }
+
+    private AdmissionFilter filter(String limits, int queueSize) {
+        return new AdmissionFilter(beans.getBeanProvider(MeterRegistry.class), beans.getBeanProvider(ObjectMapper.class),
+                true, false, limits, 1, 64, queueSize, 50, 2);
+    }
+}
@@ -0,0 +1,153 @@
+package com.technicalchallenge.service.bulkimport;
+
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.Cashflow;
+import com.technicalchallenge.model.PayRec;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.model.TradeLeg;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EntitySchemaTest
+class TradeBulkWriterTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    private TransactionTemplate transactionTemplate;
+    private TradeBulkWriter tradeBulkWriter;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.book(1, "FX-BOOK-1");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tradeBulkWriter = new TradeBulkWriter(dataSource, BATCH_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.clear();
+    }
+
+    @Test
+    void testWrite_InsertsEachTableInBatchesAndLinksTheGeneratedIds() {
+        // Given
+        List<Trade> trades = List.of(trade(100001L, 2), trade(100002L, 2), trade(100003L, 2));
+
+        // When
+        int cashflows = transactionTemplate.execute(status -> tradeBulkWriter.write(trades));
+
+        // Then
+        assertEquals(12, cashflows);
+        assertEquals(3, count("trade"));
+        assertEquals(6, count("trade_leg"));
+        assertEquals(12, count("cashflow"));
+        for (Trade trade : trades) {
+            assertNotNull(trade.getId());
+            assertEquals(trade.getTradeId(), jdbcTemplate.queryForObject(
+                    "SELECT trade_id FROM trade WHERE id = ?", Long.class, trade.getId()));
+            for (TradeLeg leg : trade.getTradeLegs()) {
+                assertEquals(trade.getId(), jdbcTemplate.queryForObject(
+                        "SELECT trade_id FROM trade_leg WHERE leg_id = ?", Long.class, leg.getLegId()));
+                for (Cashflow cashflow : leg.getCashflows()) {
+                    assertEquals(leg.getLegId(), jdbcTemplate.queryForObject(
+                            "SELECT leg_id FROM cashflow WHERE id = ?", Long.class, cashflow.getId()));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testWrite_BatchThatFailsRollsBackEverythingWrittenInTheTransaction() {
+        // Given
+        List<Trade> trades = List.of(trade(100001L, 2), trade(100002L, 2), trade(100003L, 2));
+        // The last cashflow batch refers to a missing pay/receive flag, after every trade and leg is inserted
+        PayRec unknown = new PayRec();
+        unknown.setId(99L);
+        trades.get(2).getTradeLegs().get(1).getCashflows().get(1).setPayRec(unknown);
+
+        // When
+        assertThrows(DataAccessException.class,
+                () -> transactionTemplate.execute(status -> tradeBulkWriter.write(trades)));
+
+        // Then
+        assertEquals(0, count("trade"));
+        assertEquals(0, count("trade_leg"));
+        assertEquals(0, count("cashflow"));
+    }
+
+    @Test
+    void testWrite_LegsWithoutCashflowsAreWritten() {
+        // Given
+        Trade trade = trade(100001L, 0);
+        trade.getTradeLegs().forEach(leg -> leg.setCashflows(null));
+
+        // When
+        int cashflows = transactionTemplate.execute(status -> tradeBulkWriter.write(List.of(trade)));
+
+        // Then
+        assertEquals(0, cashflows);
+        assertEquals(2, count("trade_leg"));
+    }
+
+    private static Trade trade(Long tradeId, int cashflowsPerLeg) {
+        LocalDateTime now = LocalDateTime.now();
+        Book book = new Book();
+        book.setId(1L);
+        Trade trade = new Trade();
+        trade.setTradeId(tradeId);
+        trade.setVersion(1);
+        trade.setBook(book);
+        trade.setTradeDate(LocalDate.of(2026, 1, 2));
+        trade.setActive(true);
+        trade.setCreatedDate(now);
+        List<TradeLeg> legs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            TradeLeg leg = new TradeLeg();
+            leg.setTrade(trade);
+            leg.setNotional(new BigDecimal("1000000"));
+            leg.setCreatedDate(now);
+            List<Cashflow> cashflows = new ArrayList<>();
+            for (int j = 1; j <= cashflowsPerLeg; j++) {
+                Cashflow cashflow = new Cashflow();
+                cashflow.setTradeLeg(leg);
+                cashflow.setPaymentValue(new BigDecimal("1250.00"));
+                cashflow.setValueDate(LocalDate.of(2026, 1, 2).plusMonths(3L * j));
+                cashflows.add(cashflow);
+            }
+            leg.setCashflows(cashflows);
+            legs.add(leg);
+        }
+        trade.setTradeLegs(legs);
+        return trade;
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.technicalchallenge.service.bulkimport;
+
+import com.technicalchallenge.dto.TradeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeCsvMapperTest {
+
+    @Test
+    void testMap_MapsColumnsByHeaderNameInAnyOrder() {
+        // Given
+        TradeCsvMapper mapper = new TradeCsvMapper(new String[]{
+                "﻿leg2.legType", "bookName", "tradeDate", "leg1.notional", "leg1.rate", "tradeId"});
+
+        // When
+        TradeDTO trade = mapper.map(new String[]{"Floating", "FX-BOOK-1", "2025-01-15", "1000000", "3.5", ""});
+
+        // Then
+        assertEquals("FX-BOOK-1", trade.getBookName());
+        assertEquals(LocalDate.of(2025, 1, 15), trade.getTradeDate());
+        assertNull(trade.getTradeId());
+        assertEquals(2, trade.getTradeLegs().size());
+        assertEquals(new BigDecimal("1000000"), trade.getTradeLegs().get(0).getNotional());
+        assertEquals(3.5, trade.getTradeLegs().get(0).getRate());
+        assertEquals("Floating", trade.getTradeLegs().get(1).getLegType());
+        assertNull(trade.getTradeLegs().get(1).getNotional());
+    }
+
+    @Test
+    void testMap_InvalidValueIsReportedAgainstItsColumn() {
+        // Given
+        TradeCsvMapper mapper = new TradeCsvMapper(new String[]{"tradeDate", "leg1.notional"});
+
+        // When
+        TradeCsvMapper.InvalidValueException error = assertThrows(TradeCsvMapper.InvalidValueException.class,
+                () -> mapper.map(new String[]{"2025-01-15", "lots"}));
+
+        // Then
+        assertEquals("leg1.notional", error.getColumn());
+        assertEquals("Invalid value 'lots' for leg1.notional", error.getMessage());
+    }
+
+    @Test
+    void testConstructor_UnknownOutOfRangeAndRepeatedColumnsAreRejected() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> new TradeCsvMapper(new String[]{"bookName", "colour"}));
+        assertThrows(IllegalArgumentException.class, () -> new TradeCsvMapper(new String[]{"leg3.notional"}));
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> new TradeCsvMapper(new String[]{"bookName", "bookName"}));
+        assertEquals("Duplicate column: bookName", error.getMessage());
+    }
+}
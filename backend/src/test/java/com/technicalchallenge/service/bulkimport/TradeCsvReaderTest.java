@@ -0,0 +1,50 @@
+package com.technicalchallenge.service.bulkimport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeCsvReaderTest {
+
+    @Test
+    void testNext_ReadsRecordsWithTheLineEachStartsOn() throws Exception {
+        // Given
+        TradeCsvReader reader = new TradeCsvReader(new StringReader("a,b,c\n\n1,,3\r\n"));
+
+        // When & Then
+        assertArrayEquals(new String[]{"a", "b", "c"}, reader.next());
+        assertEquals(1, reader.getLineNumber());
+        assertArrayEquals(new String[]{"1", "", "3"}, reader.next());
+        assertEquals(3, reader.getLineNumber());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void testNext_QuotedFieldsKeepCommasQuotesAndLineBreaks() throws Exception {
+        // Given
+        TradeCsvReader reader = new TradeCsvReader(new StringReader("\"x, y\",\"say \"\"hi\"\"\",\"two\nlines\"\nnext\n"));
+
+        // When
+        String[] record = reader.next();
+
+        // Then
+        assertArrayEquals(new String[]{"x, y", "say \"hi\"", "two\nlines"}, record);
+        assertArrayEquals(new String[]{"next"}, reader.next());
+        assertEquals(3, reader.getLineNumber());
+    }
+
+    @Test
+    void testNext_UnterminatedQuoteIsRejectedWithItsStartLine() throws Exception {
+        // Given
+        TradeCsvReader reader = new TradeCsvReader(new StringReader("ok\n\"never closed\nstill open\n"));
+        reader.next();
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+
+        // Then
+        assertEquals("Unterminated quoted field starting on line 2", error.getMessage());
+    }
+}
@@ -0,0 +1,323 @@
+package com.technicalchallenge.service.bulkimport;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeImportErrorDTO;
+import com.technicalchallenge.dto.TradeImportResultDTO;
+import com.technicalchallenge.event.TradeEvent;
+import com.technicalchallenge.event.TradeEventType;
+import com.technicalchallenge.model.*;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import com.technicalchallenge.service.TradeService;
+import com.technicalchallenge.service.validation.TradeBatchValidator;
+import com.technicalchallenge.service.validation.ValidationResult;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@EntitySchemaTest
+@ExtendWith(MockitoExtension.class)
+class TradeImportServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    private static final String HEADER = "tradeId,tradeDate,tradeStartDate,tradeMaturityDate,bookName,counterpartyName,"
+            + "leg1.notional,leg1.currency,leg1.legType,leg1.payReceiveFlag,"
+            + "leg2.notional,leg2.currency,leg2.legType,leg2.payReceiveFlag\n";
+
+    @Mock
+    private TradeImportReferenceData referenceData;
+
+    @Mock
+    private TradeService tradeService;
+
+    @Mock
+    private TradeBatchValidator tradeBatchValidator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    private TradeImportService tradeImportService;
+    private final List<String> validatingThreads = new CopyOnWriteArrayList<>();
+    private final List<Integer> validatedChunkSizes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // The rows behind the reference data givenReferenceDataAndValidator resolves names to
+        fixtures.book(1, "FX-BOOK-1");
+        fixtures.counterparty(1000, "BigBank");
+        fixtures.counterparty(2000, "Blocked");
+        fixtures.tradeStatus(1, "NEW");
+        fixtures.currency(1, "USD");
+        fixtures.legType(1, "Fixed");
+        fixtures.legType(2, "Floating");
+        fixtures.payRec(1, "Pay");
+        fixtures.payRec(2, "Receive");
+        tradeImportService = new TradeImportService(referenceData, new TradeBulkWriter(dataSource, 1000), tradeService,
+                tradeBatchValidator, Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher,
+                dataSource, new DataSourceTransactionManager(dataSource), CHUNK_SIZE, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        tradeImportService.shutdown();
+        fixtures.clear();
+    }
+
+    @Test
+    void testImportCsv_RowsThatDoNotParseOrResolveAreReportedAndTheRestImported() throws Exception {
+        // Given
+        givenReferenceDataAndValidator();
+        givenCashflows();
+        String csv = HEADER
+                + row("100001", "BigBank")
+                + row("100002", "BigBank").replace("2026-01-02", "2026-13-02")
+                + row("100003", "Nobody")
+                + row("100004", "BigBank");
+
+        // When
+        TradeImportResultDTO result = tradeImportService.importCsv(new StringReader(csv), "trades.csv");
+
+        // Then
+        assertEquals(4, result.getRowCount());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(2, result.getRejectedCount());
+        assertEquals(List.of(
+                new TradeImportErrorDTO(3L, null, "tradeDate", "Invalid value '2026-13-02' for tradeDate"),
+                new TradeImportErrorDTO(4L, 100003L, "counterpartyName", "Unknown value: Nobody")), result.getErrors());
+        assertEquals(List.of(100001L, 100004L), bookedTradeIds());
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM trade_leg", Integer.class));
+        assertEquals(4L, result.getCashflowCount());
+    }
+
+    @Test
+    void testImportCsv_UnclosedQuoteEndsTheImportAfterTheRowsReadSoFar() throws Exception {
+        // Given
+        givenReferenceDataAndValidator();
+        givenCashflows();
+        String csv = HEADER + row("100001", "BigBank") + row("100002", "\"BigBank");
+
+        // When
+        TradeImportResultDTO result = tradeImportService.importCsv(new StringReader(csv), "trades.csv");
+
+        // Then
+        assertEquals(2, result.getRowCount());
+        assertEquals(1, result.getImportedCount());
+        assertEquals(List.of(new TradeImportErrorDTO(3L, null, null, "Unterminated quoted field starting on line 3")),
+                result.getErrors());
+        assertEquals(List.of(100001L), bookedTradeIds());
+    }
+
+    @Test
+    void testImportCsv_EmptyInputIsRejected() {
+        // When / Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> tradeImportService.importCsv(new StringReader(""), "empty.csv"));
+        assertEquals("The file is empty", exception.getMessage());
+        verifyNoInteractions(referenceData, tradeBatchValidator, eventPublisher);
+    }
+
+    @Test
+    void testImportCsv_EachChunkIsValidatedOnTheImportPool() throws Exception {
+        // Given
+        givenReferenceDataAndValidator();
+        givenCashflows();
+        String csv = HEADER
+                + row("100001", "BigBank")
+                + row("100002", "Blocked")
+                + row("100003", "BigBank")
+                + row("100004", "BigBank")
+                + row("100005", "Blocked");
+
+        // When
+        TradeImportResultDTO result = tradeImportService.importCsv(new StringReader(csv), "trades.csv");
+
+        // Then
+        assertEquals(List.of(2, 2, 1), validatedChunkSizes);
+        assertTrue(validatingThreads.stream().allMatch(name -> name.startsWith("trade-import-")), validatingThreads::toString);
+        // The last chunk has nothing valid to write
+        assertEquals(2, result.getChunkCount());
+        assertEquals(3, result.getImportedCount());
+        assertEquals(List.of(
+                new TradeImportErrorDTO(3L, 100002L, "counterpartyName", "Counterparty is blocked"),
+                new TradeImportErrorDTO(6L, 100005L, "counterpartyName", "Counterparty is blocked")), result.getErrors());
+        assertEquals(List.of(100001L, 100003L, 100004L), bookedTradeIds());
+    }
+
+    @Test
+    void testImportCsv_ChunkThatFailsToWriteIsRolledBackAndItsRowsRejected() throws Exception {
+        // Given
+        givenReferenceDataAndValidator();
+        String csv = HEADER
+                + row("100001", "BigBank")
+                + row("100002", "BigBank")
+                + row("100003", "BigBank")
+                + row("100004", "BigBank")
+                + row("100005", "BigBank");
+        // The cashflows of 100003 refer to a missing pay/receive flag, failing the second chunk after its trades are
+        // inserted
+        PayRec unknown = new PayRec();
+        unknown.setId(99L);
+        when(tradeService.buildCashflows(any(), any(), any())).thenAnswer(invocation -> {
+            TradeLeg leg = invocation.getArgument(0);
+            Cashflow cashflow = cashflow(leg, invocation.getArgument(2));
+            if (leg.getTrade().getTradeId() == 100003L) {
+                cashflow.setPayRec(unknown);
+            }
+            return List.of(cashflow);
+        });
+
+        // When
+        TradeImportResultDTO result = tradeImportService.importCsv(new StringReader(csv), "trades.csv");
+
+        // Then
+        assertEquals(3, result.getImportedCount());
+        assertEquals(2, result.getRejectedCount());
+        assertEquals(List.of(4L, 5L), result.getErrors().stream().map(TradeImportErrorDTO::getLine).toList());
+        assertTrue(result.getErrors().stream().allMatch(error -> error.getMessage().startsWith("Could not be saved: ")));
+        assertEquals(List.of(100001L, 100002L, 100005L), bookedTradeIds());
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cashflow", Integer.class));
+        assertEquals(List.of(100001L, 100002L, 100005L), publishedCreatedTradeIds(3));
+    }
+
+    @Test
+    void testImportCsv_PublishesCreatedEventsWithoutBookingThroughCreateTrade() throws Exception {
+        // Given
+        givenReferenceDataAndValidator();
+        givenCashflows();
+        String csv = HEADER + row("100001", "BigBank") + row("100002", "BigBank");
+
+        // When
+        tradeImportService.importCsv(new StringReader(csv), "trades.csv");
+
+        // Then
+        assertEquals(List.of(100001L, 100002L), publishedCreatedTradeIds(2));
+        verify(tradeService, never()).createTrade(any());
+    }
+
+    @Test
+    void testImportCsv_TradeIdsAlreadyBookedOrRepeatedAreRejectedAndMissingOnesAllocated() throws Exception {
+        // Given
+        givenReferenceDataAndValidator();
+        givenCashflows();
+        jdbcTemplate.update("INSERT INTO trade (trade_id, version, active) VALUES (100001, 1, TRUE)");
+        when(tradeService.allocateTradeIds(1)).thenReturn(100002L, 100003L);
+        String csv = HEADER
+                + row("100002", "BigBank")
+                + row("100002", "BigBank")
+                + row("100001", "BigBank")
+                + row("", "BigBank");
+
+        // When
+        TradeImportResultDTO result = tradeImportService.importCsv(new StringReader(csv), "trades.csv");
+
+        // Then
+        assertEquals(2, result.getImportedCount());
+        assertEquals(List.of(
+                new TradeImportErrorDTO(3L, 100002L, "tradeId", "Duplicate trade ID in file: 100002"),
+                new TradeImportErrorDTO(4L, 100001L, "tradeId", "Trade ID already exists: 100001")), result.getErrors());
+        assertEquals(List.of(100002L, 100003L), bookedTradeIds());
+    }
+
+    // Every name in the rows resolves apart from Nobody; the validator blocks the counterparty called Blocked
+    private void givenReferenceDataAndValidator() {
+        Book book = new Book();
+        book.setId(1L);
+        Counterparty bigBank = new Counterparty();
+        bigBank.setId(1000L);
+        Counterparty blocked = new Counterparty();
+        blocked.setId(2000L);
+        TradeStatus status = new TradeStatus();
+        status.setId(1L);
+        Currency usd = new Currency();
+        usd.setId(1L);
+        LegType fixed = new LegType();
+        fixed.setId(1L);
+        LegType floating = new LegType();
+        floating.setId(2L);
+        PayRec pay = new PayRec();
+        pay.setId(1L);
+        PayRec receive = new PayRec();
+        receive.setId(2L);
+        when(referenceData.load()).thenReturn(new TradeImportReferenceData.Snapshot(Map.of("FX-BOOK-1", book),
+                Map.of("BigBank", bigBank, "Blocked", blocked), Map.of("NEW", status), Map.of(), Map.of(), Map.of(),
+                Map.of(), Map.of(), Map.of("USD", usd), Map.of("Fixed", fixed, "Floating", floating), Map.of(),
+                Map.of(), Map.of(), Map.of(), Map.of("Pay", pay, "Receive", receive)));
+
+        when(tradeBatchValidator.validateTrades(anyList(), eq("CREATE"))).thenAnswer(invocation -> {
+            List<TradeDTO> trades = invocation.getArgument(0);
+            validatingThreads.add(Thread.currentThread().getName());
+            validatedChunkSizes.add(trades.size());
+            return trades.stream().map(trade -> {
+                ValidationResult result = new ValidationResult();
+                if ("Blocked".equals(trade.getCounterpartyName())) {
+                    result.addError("counterpartyName", "Counterparty is blocked");
+                }
+                return result;
+            }).toList();
+        });
+    }
+
+    // One cashflow per leg, paid at maturity
+    private void givenCashflows() {
+        when(tradeService.buildCashflows(any(), any(), any())).thenAnswer(invocation ->
+                List.of(cashflow(invocation.getArgument(0), invocation.getArgument(2))));
+    }
+
+    private static Cashflow cashflow(TradeLeg leg, LocalDate valueDate) {
+        Cashflow cashflow = new Cashflow();
+        cashflow.setTradeLeg(leg);
+        cashflow.setPaymentValue(new BigDecimal("1250.00"));
+        cashflow.setValueDate(valueDate);
+        return cashflow;
+    }
+
+    private static String row(String tradeId, String counterparty) {
+        return tradeId + ",2026-01-02,2026-01-05,2027-01-05,FX-BOOK-1," + counterparty
+                + ",1000000,USD,Fixed,Pay,1000000,USD,Floating,Receive\n";
+    }
+
+    private List<Long> bookedTradeIds() {
+        return jdbcTemplate.queryForList("SELECT trade_id FROM trade WHERE created_date IS NOT NULL ORDER BY trade_id",
+                Long.class);
+    }
+
+    private List<Long> publishedCreatedTradeIds(int count) {
+        ArgumentCaptor<TradeEvent> events = ArgumentCaptor.forClass(TradeEvent.class);
+        verify(eventPublisher, times(count)).publishEvent(events.capture());
+        assertTrue(events.getAllValues().stream().allMatch(event -> event.getType() == TradeEventType.CREATED));
+        return events.getAllValues().stream().map(TradeEvent::getTradeId).toList();
+    }
+}
@@ -0,0 +1,119 @@
+package com.technicalchallenge.service.calendar;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BusinessDayCalendarTest {
+
+    private final BusinessDayCalendar newYork = BusinessDayCalendar.compile("NY", 2020, 2030,
+            BusinessDayCalendar.SATURDAY_SUNDAY,
+            List.of(LocalDate.of(2025, 12, 25), LocalDate.of(2026, 1, 1), LocalDate.of(2026, 5, 25)));
+
+    private final BusinessDayCalendar london = BusinessDayCalendar.compile("LON", 2020, 2030,
+            BusinessDayCalendar.SATURDAY_SUNDAY,
+            List.of(LocalDate.of(2025, 12, 25), LocalDate.of(2025, 12, 26), LocalDate.of(2026, 1, 1),
+                    LocalDate.of(2026, 8, 31)));
+
+    @Test
+    @DisplayName("Weekends and holidays are not business days")
+    public void testIsBusinessDay() {
+
+        // Then
+        assertTrue(newYork.isBusinessDay(LocalDate.of(2025, 12, 24)));
+        assertFalse(newYork.isBusinessDay(LocalDate.of(2025, 12, 25)));
+        assertTrue(newYork.isBusinessDay(LocalDate.of(2025, 12, 26)));
+        assertFalse(newYork.isBusinessDay(LocalDate.of(2025, 12, 27)));
+        assertFalse(newYork.isBusinessDay(LocalDate.of(2025, 12, 28)));
+        // Day 366 of a leap year: Tuesday in 2024, Sunday in 2028
+        assertTrue(newYork.isBusinessDay(LocalDate.of(2024, 12, 31)));
+        assertFalse(newYork.isBusinessDay(LocalDate.of(2028, 12, 31)));
+    }
+
+    @Test
+    @DisplayName("Bitset lookups agree with a day-by-day weekend and holiday check across the whole compiled range")
+    public void testBitsetMatchesNaiveCheck() {
+
+        // Given
+        List<LocalDate> holidays = List.of(LocalDate.of(2020, 2, 29), LocalDate.of(2023, 7, 4), LocalDate.of(2030, 12, 31));
+        BusinessDayCalendar calendar = BusinessDayCalendar.compile("TEST", 2020, 2030, BusinessDayCalendar.SATURDAY_SUNDAY, holidays);
+
+        // When/Then
+        for (LocalDate date = LocalDate.of(2020, 1, 1); !date.isAfter(LocalDate.of(2030, 12, 31)); date = date.plusDays(1)) {
+            boolean expected = date.getDayOfWeek().getValue() < 6 && !holidays.contains(date);
+            assertEquals(expected, calendar.isBusinessDay(date), date.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Following, Modified Following and Preceding roll over weekends, holidays and year ends")
+    public void testAdjust() {
+
+        // Then
+        // Saturday 27 Dec 2025 -> Monday 29 Dec
+        assertEquals(LocalDate.of(2025, 12, 29), newYork.adjust(LocalDate.of(2025, 12, 27), DateRollConvention.FOLLOWING));
+        // Wednesday 31 Dec 2025 is a business day and stays put
+        assertEquals(LocalDate.of(2025, 12, 31), newYork.adjust(LocalDate.of(2025, 12, 31), DateRollConvention.FOLLOWING));
+        // Thursday 1 Jan 2026 rolls forward to Friday 2 Jan
+        assertEquals(LocalDate.of(2026, 1, 2), newYork.adjust(LocalDate.of(2026, 1, 1), DateRollConvention.FOLLOWING));
+        // Preceding from 1 Jan 2026 crosses back into 2025
+        assertEquals(LocalDate.of(2025, 12, 31), newYork.adjust(LocalDate.of(2026, 1, 1), DateRollConvention.PRECEDING));
+        // Saturday 31 Jan 2026: Following lands in February, so Modified Following goes back to Friday 30 Jan
+        assertEquals(LocalDate.of(2026, 2, 2), newYork.adjust(LocalDate.of(2026, 1, 31), DateRollConvention.FOLLOWING));
+        assertEquals(LocalDate.of(2026, 1, 30), newYork.adjust(LocalDate.of(2026, 1, 31), DateRollConvention.MODIFIED_FOLLOWING));
+        // Sunday 1 Feb 2026: Preceding lands in January, so Modified Preceding goes forward to Monday 2 Feb
+        assertEquals(LocalDate.of(2026, 2, 2), newYork.adjust(LocalDate.of(2026, 2, 1), DateRollConvention.MODIFIED_PRECEDING));
+        assertEquals(LocalDate.of(2026, 1, 31), newYork.adjust(LocalDate.of(2026, 1, 31), DateRollConvention.UNADJUSTED));
+    }
+
+    @Test
+    @DisplayName("Joint calendar treats a holiday in either member as a non-business day")
+    public void testJointCalendar() {
+
+        // When
+        BusinessDayCalendar joint = newYork.join(london);
+
+        // Then
+        assertEquals("NY+LON", joint.getName());
+        assertFalse(joint.isBusinessDay(LocalDate.of(2025, 12, 26)));
+        assertFalse(joint.isBusinessDay(LocalDate.of(2026, 5, 25)));
+        assertFalse(joint.isBusinessDay(LocalDate.of(2026, 8, 31)));
+        assertTrue(newYork.isBusinessDay(LocalDate.of(2026, 8, 31)));
+        // Christmas 2025 falls on Thursday; Boxing Day closes London, then the weekend
+        assertEquals(LocalDate.of(2025, 12, 29), joint.adjust(LocalDate.of(2025, 12, 25), DateRollConvention.FOLLOWING));
+    }
+
+    @Test
+    @DisplayName("Dates outside the compiled range fall back to a weekend check")
+    public void testOutsideCompiledRange() {
+
+        // Then
+        assertTrue(newYork.isBusinessDay(LocalDate.of(2035, 12, 25)));
+        assertEquals(LocalDate.of(2035, 12, 31), newYork.adjust(LocalDate.of(2035, 12, 29), DateRollConvention.FOLLOWING));
+
+        // Given
+        BusinessDayCalendar calendar = BusinessDayCalendar.compile("TEST", 2020, 2030, BusinessDayCalendar.SATURDAY_SUNDAY,
+                List.of(LocalDate.of(2020, 1, 1), LocalDate.of(2030, 12, 30), LocalDate.of(2030, 12, 31)));
+
+        // Then
+        // Rolling off either end of the bitsets continues in the fallback
+        assertEquals(LocalDate.of(2031, 1, 1), calendar.adjust(LocalDate.of(2030, 12, 28), DateRollConvention.FOLLOWING));
+        assertEquals(LocalDate.of(2019, 12, 31), calendar.adjust(LocalDate.of(2020, 1, 1), DateRollConvention.PRECEDING));
+    }
+
+    @Test
+    @DisplayName("Convention names from the reference data resolve to roll conventions")
+    public void testConventionFromName() {
+
+        // Then
+        assertEquals(DateRollConvention.FOLLOWING, DateRollConvention.fromName("Following"));
+        assertEquals(DateRollConvention.MODIFIED_FOLLOWING, DateRollConvention.fromName("Modified Following"));
+        assertEquals(DateRollConvention.MODIFIED_FOLLOWING, DateRollConvention.fromName("MODIFIED_FOLLOWING"));
+        assertEquals(DateRollConvention.UNADJUSTED, DateRollConvention.fromName(null));
+        assertThrows(IllegalArgumentException.class, () -> DateRollConvention.fromName("Nearest"));
+    }
+}
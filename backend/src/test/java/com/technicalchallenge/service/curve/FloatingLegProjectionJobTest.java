@@ -0,0 +1,82 @@
+package com.technicalchallenge.service.curve;
+
+import com.technicalchallenge.repository.TradeLegRepository;
+import com.technicalchallenge.service.TradeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FloatingLegProjectionJobTest {
+
+    @Mock
+    private TradeService tradeService;
+
+    @Mock
+    private TradeLegRepository tradeLegRepository;
+
+    @Mock
+    private IndexCurveService indexCurveService;
+
+    private FloatingLegProjectionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new FloatingLegProjectionJob(tradeService, tradeLegRepository, indexCurveService, new SimpleMeterRegistry(), true, 3, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    void testReproject_WalksAllLegsInParallelPastAFailingLeg() {
+        // Given
+        when(tradeLegRepository.findLiveFloatingLegIds("LIBOR")).thenReturn(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L));
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(tradeService.reprojectFloatingCashflows(anyLong(), any(LocalDate.class))).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            if (invocation.<Long>getArgument(0) == 4L) {
+                throw new IllegalStateException("Schedule mismatch");
+            }
+            return 2;
+        });
+
+        // When
+        int updated = job.reproject("LIBOR");
+
+        // Then
+        assertEquals(12, updated);
+        verify(tradeService, times(7)).reprojectFloatingCashflows(anyLong(), eq(LocalDate.now()));
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("floating-projection-")));
+    }
+
+    @Test
+    void testCurveUpdate_EvictsCachedCurveAndReprojects() {
+        // Given
+        when(tradeLegRepository.findLiveFloatingLegIds("EURIBOR")).thenReturn(List.of(9L));
+
+        // When
+        job.onIndexCurveUpdated(new IndexCurveUpdatedEvent("EURIBOR"));
+
+        // Then
+        verify(indexCurveService).evict("EURIBOR");
+        verify(tradeService, timeout(5000)).reprojectFloatingCashflows(eq(9L), any(LocalDate.class));
+    }
+}
@@ -0,0 +1,56 @@
+package com.technicalchallenge.service.curve;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexCurveTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    private final IndexCurve curve = new IndexCurve("LIBOR",
+            new long[]{LocalDate.of(2026, 1, 1).toEpochDay(), LocalDate.of(2026, 1, 11).toEpochDay(), LocalDate.of(2026, 2, 10).toEpochDay()},
+            new double[]{4.0, 5.0, 2.0});
+
+    @Test
+    void testRateOn_InterpolatesLinearlyBetweenCurveDates() {
+
+        // Then
+        assertEquals(4.0, curve.rateOn(LocalDate.of(2026, 1, 1)), TOLERANCE);
+        assertEquals(4.5, curve.rateOn(LocalDate.of(2026, 1, 6)), TOLERANCE);
+        assertEquals(4.0, curve.rateOn(LocalDate.of(2026, 1, 21)), TOLERANCE);
+        assertEquals(2.0, curve.rateOn(LocalDate.of(2026, 2, 10)), TOLERANCE);
+    }
+
+    @Test
+    void testRateOn_OutsideCurveTakesNearestRate() {
+
+        // Then
+        assertEquals(4.0, curve.rateOn(LocalDate.of(2025, 6, 30)), TOLERANCE);
+        assertEquals(2.0, curve.rateOn(LocalDate.of(2030, 1, 1)), TOLERANCE);
+    }
+
+    @Test
+    void testRatesOn_BatchMatchesSingleLookups() {
+
+        // Given
+        long[] days = {LocalDate.of(2025, 12, 1).toEpochDay(), LocalDate.of(2026, 1, 6).toEpochDay(), LocalDate.of(2026, 3, 1).toEpochDay()};
+        double[] rates = new double[3];
+
+        // When
+        curve.ratesOn(days, rates);
+
+        // Then
+        assertArrayEquals(new double[]{4.0, 4.5, 2.0}, rates, TOLERANCE);
+    }
+
+    @Test
+    void testConstructor_RejectsUnsortedDates() {
+
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> new IndexCurve("EURIBOR", new long[]{2, 1}, new double[]{1.0, 2.0}));
+        assertThrows(IllegalArgumentException.class, () -> new IndexCurve("EURIBOR", new long[]{}, new double[]{}));
+    }
+}
@@ -0,0 +1,90 @@
+package com.technicalchallenge.service.diagnostics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecorderServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private FlightRecorderService flightRecorderService;
+
+    @BeforeEach
+    void setUp() {
+        flightRecorderService = new FlightRecorderService(dir, 60, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRecorderService.close();
+    }
+
+    @Test
+    void shouldRecordTradeEventsToFile() throws Exception {
+        // Given
+        Recording recording = flightRecorderService.start("default", 30L);
+        TradeLifecycleEvent event = new TradeLifecycleEvent("create");
+        event.begin();
+        event.addLeg(4);
+        event.addLeg(8);
+        event.complete(10042L, "Swap", null);
+
+        // When
+        flightRecorderService.stop(recording.getId());
+        Path file = flightRecorderService.file(recording.getId()).orElseThrow();
+
+        // Then
+        assertEquals(RecordingState.CLOSED, recording.getState());
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.technicalchallenge.TradeLifecycle"))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals("create", events.get(0).getString("operation"));
+        assertEquals(10042L, events.get(0).getLong("tradeId"));
+        assertEquals(2, events.get(0).getInt("legCount"));
+        assertEquals(12, events.get(0).getInt("cashflowCount"));
+    }
+
+    @Test
+    void shouldSnapshotRunningRecordingAndDeleteIt() {
+        // Given
+        Recording recording = flightRecorderService.start("profile", null);
+
+        // When
+        Path snapshot = flightRecorderService.file(recording.getId()).orElseThrow();
+
+        // Then
+        assertEquals(RecordingState.RUNNING, recording.getState());
+        assertEquals(60L, recording.getDuration().getSeconds());
+        assertTrue(Files.exists(snapshot));
+        assertTrue(flightRecorderService.delete(recording.getId()));
+        assertFalse(Files.exists(snapshot));
+        assertTrue(flightRecorderService.list().isEmpty());
+    }
+
+    @Test
+    void shouldRejectUnknownPresetAndTooManyRecordings() {
+        // Given
+        flightRecorderService.start("default", 5L);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> flightRecorderService.start("verbose", 5L));
+        assertThrows(IllegalStateException.class, () -> flightRecorderService.start("default", 5L));
+    }
+}
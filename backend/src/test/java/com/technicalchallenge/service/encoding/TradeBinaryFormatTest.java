@@ -0,0 +1,147 @@
+package com.technicalchallenge.service.encoding;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.dto.AdditionalInfoDTO;
+import com.technicalchallenge.dto.CashflowDTO;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.model.EntityType;
+import com.technicalchallenge.model.FieldType;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeBinaryFormatTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testReadAll_TradesReadBackFieldForField() throws Exception {
+        // Given
+        TradeDTO trade = trade(7);
+        trade.getTradeLegs().get(1).setNotional(new BigDecimal("123456789012345678901234567890.125"));
+        trade.getTradeLegs().get(0).getCashflows().get(0).setPaymentValue(BigDecimal.valueOf(-42, -3));
+        trade.setAdditionalFields(List.of(new AdditionalInfoDTO(1L, EntityType.TRADE, 7L, "SETTLEMENT_INSTRUCTIONS",
+                "Pay via CHAPS", FieldType.STRING, true, LocalDateTime.of(2025, 1, 15, 9, 30), null, 3)));
+        TradeDTO empty = new TradeDTO();
+
+        // When
+        List<TradeDTO> read = new TradeBinaryReader(new ByteArrayInputStream(encode(List.of(trade, empty)))).readAll();
+
+        // Then
+        assertEquals(2, read.size());
+        assertEquals(objectMapper.writeValueAsString(trade), objectMapper.writeValueAsString(read.get(0)));
+        assertEquals(objectMapper.writeValueAsString(empty), objectMapper.writeValueAsString(read.get(1)));
+    }
+
+    @Test
+    void testWrite_RepeatedStringsLeaveTheEncodingAFractionOfTheJson() throws Exception {
+        // Given
+        List<TradeDTO> trades = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            trades.add(trade(id));
+        }
+
+        // When
+        int binary = encode(trades).length;
+        int json = objectMapper.writeValueAsBytes(trades).length;
+
+        // Then
+        assertTrue(binary * 5 < json, binary + " bytes against " + json + " bytes of JSON");
+    }
+
+    @Test
+    void testCanWrite_OnlyTradeListsAndPagesInTheBinaryEncoding() {
+        // Given
+        TradeBinaryHttpMessageConverter converter = new TradeBinaryHttpMessageConverter();
+        MediaType binary = TradeBinaryFormat.MEDIA_TYPE;
+
+        // When / Then
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<List<TradeDTO>>() { }.getType(), List.class, binary));
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<List<TradeDTO>>() { }.getType(), List.class, null));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<TradeDTO>>() { }.getType(), List.class,
+                MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<String>>() { }.getType(), List.class, binary));
+        assertFalse(converter.canWrite(TradeDTO.class, TradeDTO.class, binary));
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<Page<TradeDTO>>() { }.getType(), Page.class, binary));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<Page<String>>() { }.getType(), Page.class, binary));
+        assertFalse(converter.canRead(new ParameterizedTypeReference<List<TradeDTO>>() { }.getType(), null, binary));
+    }
+
+    static TradeDTO trade(long id) {
+        TradeDTO trade = new TradeDTO();
+        trade.setId(id);
+        trade.setTradeId(100_000 + id);
+        trade.setVersion(1);
+        trade.setTradeDate(LocalDate.of(2025, 1, 15));
+        trade.setTradeStartDate(LocalDate.of(2025, 1, 17));
+        trade.setTradeMaturityDate(LocalDate.of(2030, 1, 17));
+        trade.setUtiCode("UTI-" + id);
+        trade.setLastTouchTimestamp(LocalDateTime.of(2025, 1, 15, 9, 30, 12, 345_678_000));
+        trade.setActive(true);
+        trade.setBookId(1L);
+        trade.setBookName("FX-BOOK-1");
+        trade.setCounterpartyId(2L);
+        trade.setCounterpartyName("BigBank");
+        trade.setTraderUserName("simon");
+        trade.setTradeType("Swap");
+        trade.setTradeStatus("LIVE");
+        trade.setTradeStatusId(2L);
+        List<TradeLegDTO> legs = new ArrayList<>();
+        for (int l = 0; l < 2; l++) {
+            TradeLegDTO leg = new TradeLegDTO();
+            leg.setLegId(id * 2 + l);
+            leg.setNotional(new BigDecimal("10000000.00"));
+            leg.setRate(l == 0 ? 0.035 : null);
+            leg.setCurrency("USD");
+            leg.setLegType(l == 0 ? "Fixed" : "Floating");
+            leg.setIndexName(l == 0 ? null : "SOFR");
+            leg.setDayCountConvention("ACT/360");
+            leg.setPayReceiveFlag(l == 0 ? "Pay" : "Receive");
+            List<CashflowDTO> cashflows = new ArrayList<>();
+            for (int c = 0; c < 20; c++) {
+                CashflowDTO cashflow = new CashflowDTO();
+                cashflow.setId(id * 100 + l * 20 + c);
+                cashflow.setLegId(leg.getLegId());
+                cashflow.setPaymentValue(new BigDecimal("87500.00").add(BigDecimal.valueOf(c, 2)));
+                cashflow.setValueDate(LocalDate.of(2025, 4, 17).plusMonths(3L * c));
+                cashflow.setRate(0.035);
+                cashflow.setPayRec(leg.getPayReceiveFlag());
+                cashflow.setPaymentType("Interest");
+                cashflow.setPaymentBusinessDayConvention("Modified Following");
+                cashflow.setCreatedDate(LocalDateTime.of(2025, 1, 15, 9, 30));
+                cashflow.setActive(true);
+                cashflows.add(cashflow);
+            }
+            leg.setCashflows(cashflows);
+            legs.add(leg);
+        }
+        trade.setTradeLegs(legs);
+        return trade;
+    }
+
+    private static byte[] encode(List<TradeDTO> trades) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        TradeBinaryWriter writer = new TradeBinaryWriter(bytes);
+        for (TradeDTO trade : trades) {
+            writer.write(trade);
+        }
+        writer.finish();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,126 @@
+package com.technicalchallenge.service.encoding;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.dto.TradeDTO;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+Compares JSON with the trade binary encoding, each plain and gzipped, for a response of bench.trades trades of two
+legs of twenty cashflows: time to encode on the server, bytes on the wire and time for the client to decode back to
+DTOs. Not part of the normal build; run it on its own, e.g.
+    mvn test -Dtest=TradeEncodingBenchmarkIT -Dsurefire.failIfNoSpecifiedTests=false -Dbench.trades=10000
+ */
+public class TradeEncodingBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeEncodingBenchmarkIT.class);
+
+    private static final int WARMUP_ROUNDS = Integer.getInteger("bench.warmup", 3);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 5);
+
+    // Spring's JSON settings: ISO dates rather than timestamps
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private interface Encoder {
+        void encode(List<TradeDTO> trades, OutputStream out) throws IOException;
+    }
+
+    private interface Decoder {
+        List<TradeDTO> decode(InputStream in) throws IOException;
+    }
+
+    private record Result(String encoding, int bytes, double encodeMillis, double decodeMillis) {
+    }
+
+    @Test
+    void compareEncodings() throws Exception {
+        int tradeCount = Integer.getInteger("bench.trades", 10_000);
+        List<TradeDTO> trades = new ArrayList<>(tradeCount);
+        for (long id = 1; id <= tradeCount; id++) {
+            trades.add(TradeBinaryFormatTest.trade(id));
+        }
+
+        Encoder json = (list, out) -> objectMapper.writeValue(out, list);
+        Decoder jsonDecoder = in -> objectMapper.readValue(in, new TypeReference<List<TradeDTO>>() { });
+        Encoder binary = (list, out) -> {
+            TradeBinaryWriter writer = new TradeBinaryWriter(out);
+            for (TradeDTO trade : list) {
+                writer.write(trade);
+            }
+            writer.finish();
+        };
+        Decoder binaryDecoder = in -> new TradeBinaryReader(in).readAll();
+
+        List<Result> results = List.of(
+                measure("json", trades, json, jsonDecoder, false),
+                measure("json+gzip", trades, json, jsonDecoder, true),
+                measure("binary", trades, binary, binaryDecoder, false),
+                measure("binary+gzip", trades, binary, binaryDecoder, true));
+
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "%d trades, median of %d rounds%n%-12s %14s %12s %12s%n",
+                tradeCount, ROUNDS, "encoding", "bytes", "encode ms", "decode ms"));
+        for (Result result : results) {
+            report.append(String.format(Locale.ROOT, "%-12s %,14d %12.1f %12.1f%n", result.encoding(), result.bytes(),
+                    result.encodeMillis(), result.decodeMillis()));
+        }
+        logger.info("Trade list encodings\n{}", report);
+        assertTrue(results.get(2).bytes() < results.get(0).bytes());
+    }
+
+    private Result measure(String name, List<TradeDTO> trades, Encoder encoder, Decoder decoder, boolean gzip)
+            throws IOException {
+        double[] encodeMillis = new double[ROUNDS];
+        double[] decodeMillis = new double[ROUNDS];
+        byte[] encoded = null;
+        for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+            long start = System.nanoTime();
+            if (gzip) {
+                try (GZIPOutputStream out = new GZIPOutputStream(bytes, 8192)) {
+                    encoder.encode(trades, out);
+                }
+            } else {
+                encoder.encode(trades, bytes);
+            }
+            long encodedAt = System.nanoTime();
+            encoded = bytes.toByteArray();
+
+            long decodeStart = System.nanoTime();
+            InputStream in = new ByteArrayInputStream(encoded);
+            List<TradeDTO> decoded = decoder.decode(gzip ? new GZIPInputStream(in, 8192) : in);
+            long decodedAt = System.nanoTime();
+            assertEquals(trades.size(), decoded.size());
+            if (round >= 0) {
+                encodeMillis[round] = (encodedAt - start) / 1e6;
+                decodeMillis[round] = (decodedAt - decodeStart) / 1e6;
+            }
+        }
+        return new Result(name, encoded.length, median(encodeMillis), median(decodeMillis));
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,145 @@
+package com.technicalchallenge.service.export;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnarFileTest {
+
+    private static final List<ColumnDefinition> COLUMNS = List.of(
+            ColumnDefinition.of("id", ColumnType.LONG),
+            ColumnDefinition.of("book", ColumnType.DICTIONARY),
+            ColumnDefinition.of("uti", ColumnType.STRING),
+            ColumnDefinition.of("value_date", ColumnType.DATE),
+            ColumnDefinition.of("touched", ColumnType.TIMESTAMP),
+            ColumnDefinition.decimal("amount", 2),
+            ColumnDefinition.of("active", ColumnType.BOOLEAN));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRead_RoundTripsRowsAcrossRowGroups() throws IOException {
+        // Given
+        Path file = dir.resolve("rows.tcol");
+        LocalDateTime touched = LocalDateTime.of(2026, 3, 4, 10, 15, 30, 123_456_000);
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(file, COLUMNS, 3)) {
+            for (int i = 0; i < 7; i++) {
+                writer.putLong(1000L + i)
+                        .putString(i % 2 == 0 ? "FX-BOOK-1" : "RATES-BOOK-" + i)
+                        .putString(i == 4 ? null : "UTI-" + i)
+                        .putDate(LocalDate.of(2026, 1, 1).plusMonths(i))
+                        .putTimestamp(touched.plusSeconds(i))
+                        .putDecimal(i == 5 ? null : new BigDecimal("-1234.5").multiply(BigDecimal.valueOf(i)))
+                        .putBoolean(i != 3)
+                        .endRow();
+            }
+        }
+
+        // When
+        List<Object[]> rows = readAll(file, null);
+
+        // Then
+        assertEquals(7, rows.size());
+        assertEquals(1006L, rows.get(6)[0]);
+        assertEquals("FX-BOOK-1", rows.get(6)[1]);
+        assertEquals("RATES-BOOK-5", rows.get(5)[1]);
+        assertNull(rows.get(4)[2]);
+        assertEquals("UTI-3", rows.get(3)[2]);
+        assertEquals(LocalDate.of(2026, 7, 1), rows.get(6)[3]);
+        assertEquals(touched.plusSeconds(2), rows.get(2)[4]);
+        assertEquals(new BigDecimal("-4938.00"), rows.get(4)[5]);
+        assertNull(rows.get(5)[5]);
+        assertEquals(false, rows.get(3)[6]);
+        assertEquals(true, rows.get(4)[6]);
+    }
+
+    @Test
+    void testRead_SkipsColumnsOutsideTheProjection() throws IOException {
+        // Given
+        Path file = dir.resolve("projected.tcol");
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(file, COLUMNS, 2)) {
+            for (int i = 0; i < 5; i++) {
+                writer.putLong((long) i).putString("BOOK-" + (i % 2)).putString("UTI-" + i)
+                        .putDate(LocalDate.of(2026, 1, 1)).putTimestamp(null).putDecimal(1.5).putBoolean(true)
+                        .endRow();
+            }
+        }
+
+        // When
+        List<Object[]> rows = readAll(file, Set.of("id", "amount"));
+
+        // Then
+        assertEquals(5, rows.size());
+        assertEquals(4L, rows.get(4)[0]);
+        assertNull(rows.get(4)[1]);
+        assertNull(rows.get(4)[2]);
+        assertEquals(new BigDecimal("1.50"), rows.get(4)[5]);
+    }
+
+    @Test
+    void testRead_CorruptedFileIsRejected() throws IOException {
+        // Given
+        Path file = dir.resolve("corrupt.tcol");
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(file, COLUMNS, 10)) {
+            writer.putLong(1L).putString("BOOK").putString("UTI").putDate(LocalDate.of(2026, 1, 1))
+                    .putTimestamp(null).putDecimal(2.0).putBoolean(true).endRow();
+        }
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            // Inside the row count of the trailer, which the checksum covers
+            long position = Files.size(file) - 10;
+            raw.seek(position);
+            int b = raw.read();
+            raw.seek(position);
+            raw.write(b ^ 0x01);
+        }
+
+        // When / Then
+        IOException error = assertThrows(IOException.class, () -> readAll(file, null));
+        assertTrue(error.getMessage().contains("Checksum"));
+    }
+
+    @Test
+    void testWrite_ValueOfTheWrongTypeIsRejected() throws IOException {
+        // Given
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(dir.resolve("typed.tcol"), COLUMNS, 10)) {
+
+            // When / Then
+            assertThrows(IllegalArgumentException.class, () -> writer.putDate(LocalDate.of(2026, 1, 1)));
+            writer.putLong(1L).putString("BOOK").putString("UTI").putDate(null).putTimestamp(null)
+                    .putDecimal((BigDecimal) null).putBoolean(null).endRow();
+        }
+    }
+
+    private static List<Object[]> readAll(Path file, Set<String> projection) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        try (ColumnarFileReader reader = new ColumnarFileReader(file, projection)) {
+            ColumnarFileReader.RowGroup group;
+            while ((group = reader.next()) != null) {
+                for (int row = 0; row < group.getRowCount(); row++) {
+                    Object[] values = new Object[reader.getColumns().size()];
+                    for (int column = 0; column < values.length; column++) {
+                        values[column] = group.get(column, row);
+                    }
+                    rows.add(values);
+                }
+            }
+        }
+        return rows;
+    }
+}
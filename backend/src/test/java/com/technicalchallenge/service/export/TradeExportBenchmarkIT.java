@@ -0,0 +1,113 @@
+package com.technicalchallenge.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.dto.TradeExportManifestDTO;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+Times full exports of bench.trades trades on an in-memory H2 database with the entity schema, two legs to a trade
+and eight cashflows to a leg, so 100,000 trades carry 1.6 million cashflows. Each round exports into a fresh
+directory. Not part of the normal build; run it on its own, e.g.
+    mvn test -Dtest=TradeExportBenchmarkIT -Dsurefire.failIfNoSpecifiedTests=false -Dbench.trades=100000
+ */
+@EntitySchemaTest
+public class TradeExportBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(TradeExportBenchmarkIT.class);
+
+    private static final int WARMUP_ROUNDS = Integer.getInteger("bench.warmup", 1);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 3);
+    private static final LocalDate TRADE_DATE = LocalDate.of(2026, 1, 2);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    @Test
+    void timeFullExport() throws IOException {
+        int trades = Integer.getInteger("bench.trades", 100_000);
+        int legs = trades * 2;
+        int cashflows = legs * 8;
+
+        // DATABASE_TO_LOWER folds x to lower case, so SYSTEM_RANGE's X column is renamed to match
+        jdbcTemplate.update("INSERT INTO book (id, book_name, active, version) "
+                + "SELECT x, 'BOOK-' || x, TRUE, 1 FROM SYSTEM_RANGE(1, 10) r(x)");
+        jdbcTemplate.update("INSERT INTO counterparty (id, name, active) "
+                + "SELECT x, 'COUNTERPARTY-' || x, TRUE FROM SYSTEM_RANGE(1, 50) r(x)");
+        fixtures.currency(1, "USD");
+        fixtures.currency(2, "EUR");
+        fixtures.currency(3, "GBP");
+        fixtures.payRec(1, "Pay");
+        fixtures.payRec(2, "Receive");
+        jdbcTemplate.update("INSERT INTO trade (id, trade_id, version, book_id, counterparty_id, trade_date, "
+                + "trade_maturity_date, last_touch_timestamp, active, created_date) "
+                + "SELECT x, 100000 + x, 1, MOD(x, 10) + 1, MOD(x, 50) + 1, CAST(? AS DATE), "
+                + "DATEADD('YEAR', 2, CAST(? AS DATE)), CAST(? AS TIMESTAMP), TRUE, CAST(? AS TIMESTAMP) "
+                + "FROM SYSTEM_RANGE(1, ?) r(x)", Date.valueOf(TRADE_DATE), Date.valueOf(TRADE_DATE),
+                TRADE_DATE.atStartOfDay(), TRADE_DATE.atStartOfDay(), trades);
+        jdbcTemplate.update("INSERT INTO trade_leg (leg_id, trade_id, notional, rate, currency_id, pay_rec_id, "
+                + "day_count_convention, active) "
+                + "SELECT x, (x + 1) / 2, 1000000 + MOD(x, 1000) * 1000, 0.035, MOD(x, 3) + 1, MOD(x, 2) + 1, "
+                + "'ACT_360', TRUE FROM SYSTEM_RANGE(1, ?) r(x)", legs);
+        jdbcTemplate.update("INSERT INTO cashflow (leg_id, value_date, payment_value, rate, pay_rec_id, active) "
+                + "SELECT (x - 1) / 8 + 1, DATEADD('MONTH', 3 * MOD(x - 1, 8) + 3, CAST(? AS DATE)), "
+                + "8750 + MOD(x, 997), 0.035, MOD((x - 1) / 8, 2) + 1, TRUE FROM SYSTEM_RANGE(1, ?) r(x)",
+                Date.valueOf(TRADE_DATE), cashflows);
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        double[] millis = new double[ROUNDS];
+        long bytes = 0;
+        try {
+            for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+                Path directory = Files.createTempDirectory("export-benchmark");
+                try {
+                    TradeExportService tradeExportService = new TradeExportService(dataSource, objectMapper,
+                            new SimpleMeterRegistry(), true, directory.toString(), 0, 1000, 8192, 1000);
+                    long start = System.nanoTime();
+                    TradeExportManifestDTO manifest = tradeExportService.export().orElseThrow();
+                    long elapsed = System.nanoTime() - start;
+                    assertEquals(trades, manifest.getTradeCount());
+                    assertEquals(cashflows, manifest.getCashflowCount());
+                    if (round >= 0) {
+                        millis[round] = elapsed / 1e6;
+                        bytes = manifest.getFiles().stream().mapToLong(TradeExportManifestDTO.ExportFile::getBytes).sum();
+                    }
+                } finally {
+                    FileSystemUtils.deleteRecursively(directory);
+                }
+            }
+        } finally {
+            fixtures.clear();
+        }
+
+        Arrays.sort(millis);
+        logger.info(String.format(Locale.ROOT, "Full export of %,d trades, %,d legs and %,d cashflows: %,d bytes, "
+                        + "median %.0f ms of %d runs, fastest %.0f ms, slowest %.0f ms",
+                trades, legs, cashflows, bytes, millis[ROUNDS / 2], ROUNDS, millis[0], millis[ROUNDS - 1]));
+    }
+}
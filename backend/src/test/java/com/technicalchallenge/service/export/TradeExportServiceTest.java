@@ -0,0 +1,221 @@
+package com.technicalchallenge.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.dto.TradeExportManifestDTO;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EntitySchemaTest
+class TradeExportServiceTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @TempDir
+    Path exportDirectory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    private long nextLegId = 1;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.book(1, "FX-BOOK-1");
+        fixtures.currency(1, "USD");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.clear();
+    }
+
+    @Test
+    void testExport_IncrementalExportHoldsOnlyTradesTouchedSinceTheCheckpoint() throws IOException {
+        // Given
+        TradeExportService tradeExportService = exportService(0);
+        LocalDateTime earlier = now().minusHours(2);
+        trade(1, 100001, earlier);
+        trade(2, 100002, earlier);
+        trade(3, 100003, null);
+        TradeExportManifestDTO full = tradeExportService.export().orElseThrow();
+        jdbcTemplate.update("UPDATE trade SET last_touch_timestamp = ? WHERE id = 2", Timestamp.valueOf(now()));
+        trade(4, 100004, now());
+
+        // When
+        TradeExportManifestDTO incremental = tradeExportService.export().orElseThrow();
+
+        // Then
+        assertEquals("FULL", full.getMode());
+        assertEquals(List.of(1L, 2L, 3L), column(full, TradeExportService.TRADES_FILE, "id"));
+        assertEquals("INCREMENTAL", incremental.getMode());
+        assertEquals(full.getChangedUpTo(), incremental.getChangedAfter());
+        assertEquals(2L, incremental.getSequence());
+        assertEquals(List.of(2L, 4L), column(incremental, TradeExportService.TRADES_FILE, "id"));
+        assertEquals(List.of(2L, 4L), column(incremental, TradeExportService.LEGS_FILE, "trade_row_id"));
+        assertEquals(List.of(100002L, 100004L), column(incremental, TradeExportService.LEGS_FILE, "trade_id"));
+        assertEquals(4, column(incremental, TradeExportService.CASHFLOWS_FILE, "id").size());
+        assertEquals("FX-BOOK-1", column(incremental, TradeExportService.TRADES_FILE, "book").get(0));
+    }
+
+    @Test
+    void testExport_NothingTouchedWritesNoFilesButMovesTheCheckpoint() throws IOException {
+        // Given
+        TradeExportService tradeExportService = exportService(0);
+        trade(1, 100001, now().minusHours(2));
+        TradeExportManifestDTO full = tradeExportService.export().orElseThrow();
+
+        // When
+        TradeExportManifestDTO empty = tradeExportService.export().orElseThrow();
+
+        // Then
+        assertTrue(empty.getFiles().isEmpty());
+        assertNull(empty.getDirectory());
+        TradeExportService.Checkpoint checkpoint = checkpoint();
+        assertEquals(1L, checkpoint.getSequence());
+        assertEquals(full.getDirectory(), checkpoint.getDirectory());
+        assertEquals(empty.getChangedUpTo(), checkpoint.getChangedUpTo());
+        assertEquals(full.getSequence(), tradeExportService.getLatestManifest().orElseThrow().getSequence());
+    }
+
+    @Test
+    void testExport_FailedExportLeavesTheCheckpointAndIsRepeatedNextRun() throws IOException {
+        // Given
+        TradeExportService tradeExportService = exportService(0);
+        trade(1, 100001, now().minusHours(2));
+        tradeExportService.export();
+        TradeExportService.Checkpoint before = checkpoint();
+        trade(2, 100002, now());
+        jdbcTemplate.execute("ALTER TABLE cashflow RENAME TO cashflow_offline");
+
+        // When
+        assertThrows(DataAccessException.class, tradeExportService::export);
+
+        // Then
+        assertEquals(before, checkpoint());
+        assertFalse(Files.exists(exportDirectory.resolve("export-000002")));
+        assertFalse(Files.exists(exportDirectory.resolve("export-000002.tmp")));
+
+        // When
+        jdbcTemplate.execute("ALTER TABLE cashflow_offline RENAME TO cashflow");
+        TradeExportManifestDTO retried = tradeExportService.export().orElseThrow();
+
+        // Then
+        assertEquals(2L, retried.getSequence());
+        assertEquals(before.getChangedUpTo(), retried.getChangedAfter());
+        assertEquals(List.of(2L), column(retried, TradeExportService.TRADES_FILE, "id"));
+    }
+
+    @Test
+    void testExport_TradesTouchedWithinTheCommitLagAreLeftToTheNextRun() throws IOException {
+        // Given
+        trade(1, 100001, now().minusMinutes(10));
+        trade(2, 100002, now().minusSeconds(10));
+
+        // When
+        TradeExportManifestDTO lagged = exportService(60_000).export().orElseThrow();
+        TradeExportManifestDTO next = exportService(0).export().orElseThrow();
+
+        // Then
+        assertTrue(lagged.getChangedUpTo().isBefore(now().minusSeconds(59)));
+        assertEquals(List.of(1L), column(lagged, TradeExportService.TRADES_FILE, "id"));
+        assertEquals(List.of(2L), column(next, TradeExportService.TRADES_FILE, "id"));
+    }
+
+    @Test
+    void testExport_RepeatedExportsWithInsertsInBetweenMissAndRepeatNothing() throws IOException {
+        // Given
+        TradeExportService tradeExportService = exportService(0);
+        List<Object> exported = new ArrayList<>();
+        long id = 0;
+
+        // When
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                id++;
+                trade(id, 100000 + id, now());
+            }
+            TradeExportManifestDTO manifest = tradeExportService.export().orElseThrow();
+            exported.addAll(column(manifest, TradeExportService.TRADES_FILE, "id"));
+        }
+
+        // Then
+        assertEquals(15, exported.size());
+        assertEquals(15, new HashSet<>(exported).size());
+        assertEquals(Set.copyOf(jdbcTemplate.queryForList("SELECT id FROM trade", Long.class)), Set.copyOf(exported));
+    }
+
+    private TradeExportService exportService(long commitLagMs) {
+        return new TradeExportService(dataSource, OBJECT_MAPPER, new SimpleMeterRegistry(), true,
+                exportDirectory.toString(), commitLagMs, 2, 4, 100);
+    }
+
+    // One trade row with a leg and two cashflows
+    private void trade(long id, long tradeId, LocalDateTime lastTouched) {
+        jdbcTemplate.update("INSERT INTO trade (id, trade_id, version, book_id, trade_date, last_touch_timestamp, active) "
+                        + "VALUES (?, ?, 1, 1, ?, ?, TRUE)", id, tradeId, Date.valueOf(LocalDate.of(2026, 1, 2)),
+                lastTouched != null ? Timestamp.valueOf(lastTouched) : null);
+        long legId = nextLegId++;
+        jdbcTemplate.update("INSERT INTO trade_leg (leg_id, trade_id, notional, currency_id, active) "
+                + "VALUES (?, ?, 1000000, 1, TRUE)", legId, id);
+        for (int month = 3; month <= 6; month += 3) {
+            jdbcTemplate.update("INSERT INTO cashflow (leg_id, value_date, payment_value, active) VALUES (?, ?, ?, TRUE)",
+                    legId, Date.valueOf(LocalDate.of(2026, 1, 2).plusMonths(month)), new BigDecimal("1250.00"));
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private TradeExportService.Checkpoint checkpoint() throws IOException {
+        return OBJECT_MAPPER.readValue(exportDirectory.resolve(TradeExportService.CHECKPOINT_FILE).toFile(),
+                TradeExportService.Checkpoint.class);
+    }
+
+    private List<Object> column(TradeExportManifestDTO manifest, String file, String column) throws IOException {
+        List<Object> values = new ArrayList<>();
+        try (ColumnarFileReader reader = new ColumnarFileReader(
+                exportDirectory.resolve(manifest.getDirectory()).resolve(file), List.of(column))) {
+            int index = reader.columnIndex(column);
+            ColumnarFileReader.RowGroup group;
+            while ((group = reader.next()) != null) {
+                for (int row = 0; row < group.getRowCount(); row++) {
+                    values.add(group.get(index, row));
+                }
+            }
+        }
+        return values;
+    }
+}
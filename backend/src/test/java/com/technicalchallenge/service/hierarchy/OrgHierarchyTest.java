@@ -0,0 +1,69 @@
+package com.technicalchallenge.service.hierarchy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrgHierarchyTest {
+
+    private OrgHierarchy hierarchy;
+
+    @BeforeEach
+    void setUp() {
+        // Rates desk 1 with sub-desks 10 and 11, FX desk 2 with an empty sub-desk 20
+        hierarchy = OrgHierarchy.builder()
+                .desk(1, "Rates").desk(2)
+                .subDesk(10, 1L).subDesk(11, 1L).subDesk(20, 2L)
+                .costCenter(100, 10L).costCenter(101, 10L).costCenter(110, 11L).costCenter(200, 20L)
+                .book(1003, 100L).book(1000, 100L).book(1001, 101L).book(1002, 110L).book(1004, null)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Every node resolves to all the books beneath it in id order")
+    public void testResolveSingleNode() {
+        assertEquals(List.of(1000L, 1001L, 1002L, 1003L), hierarchy.resolve(1L, null, null));
+        assertEquals(List.of(1000L, 1001L, 1003L), hierarchy.resolve(null, 10L, null));
+        assertEquals(List.of(1001L), hierarchy.resolve(null, null, 101L));
+        assertEquals(List.of(1000L, 1001L, 1002L, 1003L, 1004L), hierarchy.getAllBookIds());
+    }
+
+    @Test
+    @DisplayName("Nodes without books resolve to no books while no node means no restriction")
+    public void testEmptyAndUnrestricted() {
+        assertEquals(List.of(), hierarchy.resolve(2L, null, null));
+        assertEquals(List.of(), hierarchy.resolve(null, null, 200L));
+        assertNull(hierarchy.resolve(null, null, null));
+        assertEquals(List.of(1002L), hierarchy.resolve(List.of(1002L), null, null, null));
+    }
+
+    @Test
+    @DisplayName("Several nodes and explicit books narrow to their intersection")
+    public void testIntersection() {
+        assertEquals(List.of(1002L), hierarchy.resolve(1L, 11L, null));
+        assertEquals(List.of(), hierarchy.resolve(2L, 10L, null));
+        assertEquals(List.of(1001L), hierarchy.resolve(List.of(1001L, 1002L, 9999L), null, 10L, null));
+    }
+
+    @Test
+    @DisplayName("Books resolve to the name of their desk when it has one")
+    public void testDeskName() {
+        assertEquals("Rates", hierarchy.getDeskName(1002L));
+        assertNull(hierarchy.getDeskName(1004L));
+        assertNull(hierarchy.getDeskName(9999L));
+    }
+
+    @Test
+    @DisplayName("Unknown nodes are rejected")
+    public void testUnknownNode() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> hierarchy.resolve(99L, null, null));
+        assertEquals("Desk 99 does not exist", error.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> hierarchy.resolve(null, 99L, null));
+        assertThrows(IllegalArgumentException.class, () -> hierarchy.resolve(null, null, 99L));
+    }
+}
@@ -0,0 +1,205 @@
+package com.technicalchallenge.service.journal;
+
+import com.technicalchallenge.event.TradeEvent;
+import com.technicalchallenge.event.TradeEventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeEventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private TradeEvent event(TradeEventType type, long tradeId, int version, String status) {
+        List<TradeEvent.Leg> legs = List.of(
+                new TradeEvent.Leg("USD", new BigDecimal("1000000.00"), "Fixed", "Pay"),
+                new TradeEvent.Leg("USD", new BigDecimal("1000000.00"), "Floating", "Receive"));
+        return new TradeEvent(type, tradeId, version, status, "Swap", "FX-BOOK-1", "BigBank", "simon",
+                LocalDate.of(2025, 1, 15), LocalDate.of(2026, 1, 17), legs, null, LocalDateTime.of(2025, 1, 15, 10, 30));
+    }
+
+    @Test
+    void testReplay_ReturnsAppendedEventsInOrder() throws IOException {
+
+        // Given
+        try (TradeEventJournal journal = new TradeEventJournal(directory, 64 * 1024, false)) {
+            journal.append(event(TradeEventType.CREATED, 10001L, 1, "NEW"));
+            journal.append(event(TradeEventType.AMENDED, 10001L, 2, "AMENDED"));
+
+            // When
+            List<TradeEvent> replayed = new ArrayList<>();
+            List<Long> sequences = new ArrayList<>();
+            long count = journal.replay(0, (event, sequence) -> {
+                replayed.add(event);
+                sequences.add(sequence);
+            });
+
+            // Then
+            assertEquals(2, count);
+            assertEquals(List.of(1L, 2L), sequences);
+            TradeEvent amended = replayed.get(1);
+            assertEquals(TradeEventType.AMENDED, amended.getType());
+            assertEquals(10001L, amended.getTradeId());
+            assertEquals(2, amended.getVersion());
+            assertEquals("AMENDED", amended.getTradeStatus());
+            assertEquals("BigBank", amended.getCounterpartyName());
+            assertEquals(LocalDate.of(2026, 1, 17), amended.getMaturityDate());
+            assertEquals(new BigDecimal("1000000.00"), amended.getLegs().get(0).getNotional());
+            assertEquals("Receive", amended.getLegs().get(1).getPayRec());
+            assertNull(amended.getDetail());
+        }
+    }
+
+    @Test
+    void testAppend_RollsSegmentsAndResumesSequenceAfterReopen() throws IOException {
+
+        // Given
+        try (TradeEventJournal journal = new TradeEventJournal(directory, 1024, false)) {
+            for (long tradeId = 1; tradeId <= 20; tradeId++) {
+                journal.append(event(TradeEventType.CREATED, tradeId, 1, "NEW"));
+            }
+        }
+
+        // When
+        long sequence;
+        List<Long> replayedTradeIds = new ArrayList<>();
+        try (TradeEventJournal reopened = new TradeEventJournal(directory, 1024, false)) {
+            sequence = reopened.append(event(TradeEventType.CANCELLED, 5L, 1, "CANCELLED"));
+            reopened.replay(18, (event, seq) -> replayedTradeIds.add(event.getTradeId()));
+        }
+
+        // Then
+        try (var segments = Files.list(directory)) {
+            assertTrue(segments.count() > 1);
+        }
+        assertEquals(21, sequence);
+        assertEquals(List.of(19L, 20L, 5L), replayedTradeIds);
+    }
+
+    @Test
+    void testRestore_RebuildsReadModelFromSnapshotAndJournalTail() throws IOException {
+
+        // Given
+        TradeBlotterReadModel readModel = new TradeBlotterReadModel();
+        TradeJournalSnapshotStore snapshotStore = new TradeJournalSnapshotStore(directory);
+        try (TradeEventJournal journal = new TradeEventJournal(directory, 64 * 1024, false)) {
+            TradeEvent created = event(TradeEventType.CREATED, 10001L, 1, "NEW");
+            readModel.apply(journal.append(created), created);
+            TradeEvent other = event(TradeEventType.CREATED, 10002L, 1, "NEW");
+            readModel.apply(journal.append(other), other);
+            snapshotStore.write(readModel.getLastSequence(), readModel.getBlotter());
+            journal.append(event(TradeEventType.TERMINATED, 10001L, 1, "TERMINATED"));
+        }
+
+        // When
+        TradeBlotterReadModel rebuilt = new TradeBlotterReadModel();
+        Optional<TradeJournalSnapshotStore.Snapshot> snapshot = new TradeJournalSnapshotStore(directory).readLatest();
+        rebuilt.restore(snapshot.orElseThrow().getSequence(), snapshot.get().getTrades());
+        long replayed;
+        try (TradeEventJournal journal = new TradeEventJournal(directory, 64 * 1024, false)) {
+            replayed = journal.replay(rebuilt.getLastSequence(), (event, sequence) -> rebuilt.apply(sequence, event));
+        }
+
+        // Then
+        assertEquals(1, replayed);
+        assertEquals(3, rebuilt.getLastSequence());
+        assertEquals(2, rebuilt.size());
+        assertEquals("TERMINATED", rebuilt.getTrade(10001L).orElseThrow().getTradeStatus());
+        assertEquals(1L, rebuilt.getSummary().getTotalTradesByStatus().get("NEW"));
+        assertEquals(new BigDecimal("4000000.00"), rebuilt.getSummary().getTotalNotionalByCurrency().get("USD"));
+    }
+
+    @Test
+    void testReset_DiscardsSegmentsAndSnapshots() throws IOException {
+
+        // Given
+        TradeJournalSnapshotStore snapshotStore = new TradeJournalSnapshotStore(directory);
+        try (TradeEventJournal journal = new TradeEventJournal(directory, 1024, false)) {
+            for (long tradeId = 1; tradeId <= 20; tradeId++) {
+                journal.append(event(TradeEventType.CREATED, tradeId, 1, "NEW"));
+            }
+            snapshotStore.write(journal.getLastSequence(), List.of(event(TradeEventType.CREATED, 1L, 1, "NEW")));
+
+            // When
+            journal.reset();
+            snapshotStore.clear();
+            long sequence = journal.append(event(TradeEventType.CREATED, 10000L, 1, "NEW"));
+
+            // Then
+            List<Long> replayedTradeIds = new ArrayList<>();
+            journal.replay(0, (event, seq) -> replayedTradeIds.add(event.getTradeId()));
+            assertEquals(1, sequence);
+            assertEquals(List.of(10000L), replayedTradeIds);
+            assertTrue(snapshotStore.readLatest().isEmpty());
+        }
+        try (TradeEventJournal reopened = new TradeEventJournal(directory, 1024, false)) {
+            assertEquals(1, reopened.getLastSequence());
+        }
+    }
+
+    @Test
+    void testCodec_DecimalsOfAnySizeRoundTrip() throws IOException {
+
+        // Given
+        BigDecimal small = new BigDecimal("1000000.00");
+        BigDecimal large = BigDecimal.TEN.pow(1000).add(new BigDecimal("0.25"));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            TradeEventCodec.writeDecimal(out, small);
+            TradeEventCodec.writeDecimal(out, large);
+            TradeEventCodec.writeDecimal(out, null);
+        }
+
+        // When
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        BigDecimal readSmall = TradeEventCodec.readDecimal(in);
+        BigDecimal readLarge = TradeEventCodec.readDecimal(in);
+        BigDecimal readNull = TradeEventCodec.readDecimal(in);
+
+        // Then
+        assertEquals(small, readSmall);
+        assertEquals(large, readLarge);
+        assertNull(readNull);
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    void testCodec_ReadsDecimalsWrittenWithBooleanPresenceFlag() throws IOException {
+
+        // Given
+        // A 200 byte unscaled value, written with the boolean presence flag and unsigned byte length of old records
+        BigDecimal value = new BigDecimal(BigInteger.ONE.shiftLeft(1592), 2);
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeBoolean(true);
+            out.writeInt(value.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+        }
+
+        // When
+        BigDecimal read = TradeEventCodec.readDecimal(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // Then
+        assertEquals(200, unscaled.length);
+        assertEquals(value, read);
+    }
+}
@@ -0,0 +1,88 @@
+package com.technicalchallenge.service.liquidity;
+
+import com.technicalchallenge.dto.CashflowLadderDTO;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/*
+Times full-portfolio cashflow ladders over bench.cashflows future cashflows on an in-memory H2 database with the
+entity schema, twenty cashflows to a leg across three currencies. Not part of the normal build; run it on its own, e.g.
+    mvn test -Dtest=CashflowLadderBenchmarkIT -Dsurefire.failIfNoSpecifiedTests=false -Dbench.cashflows=1000000
+ */
+@EntitySchemaTest
+public class CashflowLadderBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(CashflowLadderBenchmarkIT.class);
+
+    private static final int WARMUP_ROUNDS = Integer.getInteger("bench.warmup", 3);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 10);
+    private static final LocalDate AS_OF = LocalDate.of(2026, 1, 15);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    @Test
+    void timeFullPortfolioLadder() {
+        int cashflows = Integer.getInteger("bench.cashflows", 1_000_000);
+        int legs = Math.max(1, cashflows / 20);
+
+        fixtures.tradeStatus(1, "NEW");
+        fixtures.currency(1, "USD");
+        fixtures.currency(2, "EUR");
+        fixtures.currency(3, "GBP");
+        fixtures.payRec(1, "Pay");
+        fixtures.payRec(2, "Receive");
+        // DATABASE_TO_LOWER folds x to lower case, so SYSTEM_RANGE's X column is renamed to match
+        jdbcTemplate.update("INSERT INTO book (id, book_name, active, version) "
+                + "SELECT x, 'BOOK-' || x, TRUE, 1 FROM SYSTEM_RANGE(1, 10) r(x)");
+        jdbcTemplate.update("INSERT INTO trade (id, trade_id, version, book_id, trade_status_id, active) "
+                + "SELECT x, x, 1, MOD(x, 10) + 1, 1, TRUE FROM SYSTEM_RANGE(1, ?) r(x)", legs / 2 + 1);
+        jdbcTemplate.update("INSERT INTO trade_leg (leg_id, trade_id, currency_id, pay_rec_id, active) "
+                + "SELECT x, (x + 1) / 2, MOD(x, 3) + 1, MOD(x, 2) + 1, TRUE FROM SYSTEM_RANGE(1, ?) r(x)", legs);
+        jdbcTemplate.update("INSERT INTO cashflow (leg_id, pay_rec_id, value_date, payment_value, active) "
+                + "SELECT MOD(x, ?) + 1, NULL, DATEADD('DAY', MOD(x, 3650), CAST(? AS DATE)), 1000 + MOD(x, 997), TRUE "
+                + "FROM SYSTEM_RANGE(1, ?) r(x)", legs, Date.valueOf(AS_OF), cashflows);
+        CashflowLadderService cashflowLadderService = new CashflowLadderService(dataSource, 5000);
+
+        double[] millis = new double[ROUNDS];
+        try {
+            for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                CashflowLadderDTO ladder = cashflowLadderService.getLadder(null, null, AS_OF);
+                long elapsed = System.nanoTime() - start;
+                assertEquals(cashflows, ladder.getCurrencies().stream()
+                        .flatMap(currency -> currency.getCashflowCounts().stream())
+                        .mapToLong(Long::longValue).sum());
+                if (round >= 0) {
+                    millis[round] = elapsed / 1e6;
+                }
+            }
+        } finally {
+            fixtures.clear();
+        }
+
+        Arrays.sort(millis);
+        logger.info(String.format(Locale.ROOT, "Cashflow ladder over %,d cashflows on %,d legs: median %.0f ms of %d "
+                        + "runs, fastest %.0f ms, slowest %.0f ms",
+                cashflows, legs, millis[ROUNDS / 2], ROUNDS, millis[0], millis[ROUNDS - 1]));
+    }
+}
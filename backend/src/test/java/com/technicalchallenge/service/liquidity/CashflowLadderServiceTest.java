@@ -0,0 +1,172 @@
+package com.technicalchallenge.service.liquidity;
+
+import com.technicalchallenge.dto.CashflowLadderDTO;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EntitySchemaTest
+class CashflowLadderServiceTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2026, 1, 15);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    private CashflowLadderService cashflowLadderService;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.book(1, "FX-BOOK-1");
+        fixtures.book(2, "RATES-BOOK-1");
+        fixtures.tradeStatus(1, "NEW");
+        fixtures.tradeStatus(2, "CANCELLED");
+        fixtures.tradeStatus(3, "TERMINATED");
+        fixtures.currency(1, "USD");
+        fixtures.currency(2, "EUR");
+        fixtures.payRec(1, "Pay");
+        fixtures.payRec(2, "Receive");
+        cashflowLadderService = new CashflowLadderService(dataSource, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.clear();
+    }
+
+    @Test
+    void testGetLadder_PaysAreNegativeAndReceivesPositive() {
+        // Given
+        fixtures.trade(1, 1, 1, null, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.leg(11, 1, 1L, 1);
+        fixtures.cashflow(10, AS_OF.plusDays(1), "1000.00", null);
+        fixtures.cashflow(11, AS_OF.plusDays(2), "400.00", null);
+        // A cashflow's own pay/receive flag wins over its leg's
+        fixtures.cashflow(10, AS_OF.plusDays(3), "100.25", 1L);
+
+        // When
+        CashflowLadderDTO ladder = cashflowLadderService.getLadder(null, "1W", AS_OF);
+
+        // Then
+        CashflowLadderDTO.CurrencyLadder usd = ladder.getCurrencies().get(0);
+        assertEquals(new BigDecimal("499.75"), usd.getAmounts().get(0));
+        assertEquals(3L, usd.getCashflowCounts().get(0));
+        assertEquals(new BigDecimal("499.75"), usd.getTotal());
+    }
+
+    @Test
+    void testGetLadder_BucketsIncludeTheirStartAndExcludeTheirEnd() {
+        // Given
+        fixtures.trade(1, 1, 1, null, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.cashflow(10, AS_OF.minusDays(1), "1.00", null);
+        fixtures.cashflow(10, AS_OF, "1.00", null);
+        fixtures.cashflow(10, AS_OF.plusWeeks(1).minusDays(1), "2.00", null);
+        fixtures.cashflow(10, AS_OF.plusWeeks(1), "4.00", null);
+        fixtures.cashflow(10, AS_OF.plusMonths(1), "8.00", null);
+        fixtures.cashflow(10, AS_OF.plusYears(30), "16.00", null);
+
+        // When
+        CashflowLadderDTO ladder = cashflowLadderService.getLadder(null, "1W,1M", AS_OF);
+
+        // Then
+        assertEquals(List.of("0-1W", "1W-1M", "1M+"),
+                ladder.getBuckets().stream().map(CashflowLadderDTO.Bucket::getLabel).toList());
+        CashflowLadderDTO.CurrencyLadder usd = ladder.getCurrencies().get(0);
+        assertEquals(List.of(new BigDecimal("3.00"), new BigDecimal("4.00"), new BigDecimal("24.00")), usd.getAmounts());
+        assertEquals(List.of(new BigDecimal("3.00"), new BigDecimal("7.00"), new BigDecimal("31.00")),
+                usd.getCumulativeAmounts());
+        assertEquals(List.of(2L, 1L, 2L), usd.getCashflowCounts());
+    }
+
+    @Test
+    void testGetLadder_GroupsByLegCurrencyInCurrencyOrder() {
+        // Given
+        fixtures.trade(1, 1, 1, null, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.leg(11, 1, 2L, 1);
+        fixtures.leg(12, 1, null, 2);
+        fixtures.cashflow(10, AS_OF.plusDays(1), "100.00", null);
+        fixtures.cashflow(11, AS_OF.plusDays(1), "50.00", null);
+        fixtures.cashflow(12, AS_OF.plusDays(1), "7.00", null);
+
+        // When
+        CashflowLadderDTO ladder = cashflowLadderService.getLadder(null, "1W", AS_OF);
+
+        // Then
+        assertEquals(List.of("EUR", "UNKNOWN", "USD"),
+                ladder.getCurrencies().stream().map(CashflowLadderDTO.CurrencyLadder::getCurrency).toList());
+        assertEquals(new BigDecimal("-50.00"), ladder.getCurrencies().get(0).getTotal());
+        assertEquals(new BigDecimal("7.00"), ladder.getCurrencies().get(1).getTotal());
+        assertEquals(new BigDecimal("100.00"), ladder.getCurrencies().get(2).getTotal());
+    }
+
+    @Test
+    void testGetLadder_InactiveLegsAndDeadTradesAreLeftOut() {
+        // Given
+        fixtures.trade(1, 1, 1, null, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.cashflow(10, AS_OF.plusDays(1), "100.00", null);
+        fixtures.cashflow(10, AS_OF.plusDays(1), "900.00", null);
+        jdbcTemplate.update("UPDATE cashflow SET active = FALSE WHERE payment_value = 900");
+        fixtures.leg(11, 1, 2L, 2);
+        jdbcTemplate.update("UPDATE trade_leg SET active = FALSE WHERE leg_id = 11");
+        fixtures.cashflow(11, AS_OF.plusDays(1), "1.00", null);
+        fixtures.trade(2, 2, 1, null, 2);
+        fixtures.leg(20, 2, 1L, 2);
+        fixtures.cashflow(20, AS_OF.plusDays(1), "2.00", null);
+        fixtures.trade(3, 3, 1, null, 3);
+        fixtures.leg(30, 3, 1L, 2);
+        fixtures.cashflow(30, AS_OF.plusDays(1), "4.00", null);
+        fixtures.trade(4, 4, 1, null, 1);
+        jdbcTemplate.update("UPDATE trade SET active = FALSE WHERE id = 4");
+        fixtures.leg(40, 4, 1L, 2);
+        fixtures.cashflow(40, AS_OF.plusDays(1), "8.00", null);
+
+        // When
+        CashflowLadderDTO ladder = cashflowLadderService.getLadder(null, "1W", AS_OF);
+
+        // Then
+        assertEquals(1, ladder.getCurrencies().size());
+        assertEquals(new BigDecimal("100.00"), ladder.getCurrencies().get(0).getTotal());
+        assertEquals(List.of(1L, 0L), ladder.getCurrencies().get(0).getCashflowCounts());
+    }
+
+    @Test
+    void testGetLadder_OnlyListedBooksAreIncluded() {
+        // Given
+        fixtures.trade(1, 1, 1, null, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.cashflow(10, AS_OF.plusDays(1), "100.00", null);
+        fixtures.trade(2, 2, 2, null, 1);
+        fixtures.leg(20, 2, 1L, 2);
+        fixtures.cashflow(20, AS_OF.plusDays(1), "7.00", null);
+
+        // When
+        CashflowLadderDTO book2 = cashflowLadderService.getLadder(List.of(2L), "1W", AS_OF);
+        CashflowLadderDTO noBooks = cashflowLadderService.getLadder(List.of(), "1W", AS_OF);
+
+        // Then
+        assertEquals(List.of(2L), book2.getBooks());
+        assertEquals(new BigDecimal("7.00"), book2.getCurrencies().get(0).getTotal());
+        assertTrue(noBooks.getCurrencies().isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package com.technicalchallenge.service.liquidity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LadderBucketsTest {
+
+    private static final LocalDate AS_OF = LocalDate.of(2026, 1, 15);
+
+    @Test
+    @DisplayName("Tenors become half-open buckets from the as-of date with an open bucket at the end")
+    public void testBucketLayout() {
+        // When
+        LadderBuckets buckets = LadderBuckets.parse("1w, 1M,1Y", AS_OF);
+
+        // Then
+        assertEquals(4, buckets.size());
+        assertEquals("0-1W", buckets.label(0));
+        assertEquals("1W-1M", buckets.label(1));
+        assertEquals("1M-1Y", buckets.label(2));
+        assertEquals("1Y+", buckets.label(3));
+        assertEquals(AS_OF, buckets.startDate(0));
+        assertEquals(LocalDate.of(2026, 1, 22), buckets.endDate(0));
+        assertEquals(LocalDate.of(2027, 1, 15), buckets.startDate(3));
+        assertNull(buckets.endDate(3));
+    }
+
+    @Test
+    @DisplayName("Value dates land in the bucket whose range contains them")
+    public void testBucketOf() {
+        // Given
+        LadderBuckets buckets = LadderBuckets.parse("1W,1M,1Y", AS_OF);
+
+        // Then
+        assertEquals(-1, buckets.bucketOf(AS_OF.minusDays(1).toEpochDay()));
+        assertEquals(0, buckets.bucketOf(AS_OF.toEpochDay()));
+        assertEquals(0, buckets.bucketOf(AS_OF.plusDays(6).toEpochDay()));
+        assertEquals(1, buckets.bucketOf(AS_OF.plusWeeks(1).toEpochDay()));
+        assertEquals(2, buckets.bucketOf(AS_OF.plusMonths(1).toEpochDay()));
+        assertEquals(3, buckets.bucketOf(AS_OF.plusYears(1).toEpochDay()));
+        assertEquals(3, buckets.bucketOf(AS_OF.plusYears(30).toEpochDay()));
+    }
+
+    @Test
+    @DisplayName("Blank spec uses the default tenors")
+    public void testDefaultTenors() {
+        // When
+        LadderBuckets buckets = LadderBuckets.parse(" ", AS_OF);
+
+        // Then
+        assertEquals(9, buckets.size());
+        assertEquals("10Y+", buckets.label(8));
+    }
+
+    @Test
+    @DisplayName("Malformed or non-increasing tenors are rejected")
+    public void testInvalidTenors() {
+        // Then
+        assertThrows(IllegalArgumentException.class, () -> LadderBuckets.parse("1W,X", AS_OF));
+        assertThrows(IllegalArgumentException.class, () -> LadderBuckets.parse("0M", AS_OF));
+        assertThrows(IllegalArgumentException.class, () -> LadderBuckets.parse("1Y,6M", AS_OF));
+        assertThrows(IllegalArgumentException.class, () -> LadderBuckets.parse("1M,4W", AS_OF));
+    }
+}
@@ -0,0 +1,121 @@
+package com.technicalchallenge.service.metrics;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1");
+        JdbcTemplate setup = new JdbcTemplate(h2);
+        setup.execute("CREATE TABLE IF NOT EXISTS book (id INT PRIMARY KEY, name VARCHAR(20))");
+        setup.execute("MERGE INTO book VALUES (1, 'FX'), (2, 'RATES'), (3, 'CREDIT')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlRequestStatistics statistics = SqlRequestStatistics.current();
+        if (statistics != null) {
+            statistics.stop();
+        }
+    }
+
+    @Test
+    void testFingerprint_NormalisesLiteralsAndInLists() {
+        // When
+        String fingerprint = SlowQueryLog.fingerprint(
+                "/* <criteria> */ select t1_0.id from trade t1_0\n where t1_0.book_id in (?, ?,?) "
+                        + "and t1_0.name = 'O''Brien' and t1_0.version > 12 fetch first ? rows only");
+
+        // Then
+        assertEquals("select t1_0.id from trade t1_0 where t1_0.book_id in (?) and t1_0.name = ? "
+                + "and t1_0.version > ? fetch first ? rows only", fingerprint);
+    }
+
+    @Test
+    void testRecord_AggregatesSlowStatementsOfARequest() {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 10, true, Runnable::run);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(SqlCountingDataSource.wrap(h2, slowQueryLog));
+        SqlRequestStatistics.start();
+
+        // When
+        jdbcTemplate.queryForList("SELECT name FROM book WHERE id IN (?, ?)", String.class, 1, 2);
+        jdbcTemplate.queryForList("SELECT name FROM book WHERE id IN (?, ?, ?)", String.class, 1, 2, 3);
+        jdbcTemplate.update("UPDATE book SET name = ? WHERE id = ?", "FX", 1);
+
+        // Then
+        assertEquals(2, slowQueryLog.size());
+        SlowQueryLog.Entry select = slowQueryLog.top(10).stream()
+                .filter(entry -> entry.getFingerprint().startsWith("select"))
+                .findFirst().orElseThrow();
+        Map<String, Object> snapshot = select.snapshot(true);
+        assertEquals("select name from book where id in (?)", snapshot.get("fingerprint"));
+        assertEquals(2L, snapshot.get("count"));
+        assertEquals(3L, snapshot.get("maxRows"));
+        assertEquals(List.of("[Integer, Integer]", "[Integer, Integer, Integer]"), snapshot.get("parameterShapes"));
+        assertTrue(select.getPlan().contains("/* PUBLIC.PRIMARY_KEY"), select.getPlan());
+        assertEquals(select, slowQueryLog.get(select.getId()).orElseThrow());
+    }
+
+    @Test
+    void testRecord_IgnoresFastStatementsAndThoseOutsideARequest() {
+        // Given
+        SlowQueryLog fast = new SlowQueryLog(60_000, 10, true, Runnable::run);
+        SlowQueryLog everything = new SlowQueryLog(0, 10, true, Runnable::run);
+
+        // When
+        new JdbcTemplate(SqlCountingDataSource.wrap(h2, everything)).queryForList("SELECT id FROM book");
+        SqlRequestStatistics.start();
+        new JdbcTemplate(SqlCountingDataSource.wrap(h2, fast)).queryForList("SELECT id FROM book");
+
+        // Then
+        assertEquals(0, everything.size());
+        assertEquals(0, fast.size());
+    }
+
+    @Test
+    void testRecord_EntryIdIsAPrefixOfTheFingerprintHash() {
+        // Given
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 10, false, Runnable::run);
+
+        // When
+        slowQueryLog.record("SELECT name FROM book WHERE id = 1", null, 1, 1000, null);
+        slowQueryLog.record("SELECT name FROM book WHERE name = 'FX'", null, 1, 1000, null);
+
+        // Then
+        SlowQueryLog.Entry byId = slowQueryLog.top(10).stream()
+                .filter(entry -> entry.getFingerprint().equals("select name from book where id = ?"))
+                .findFirst().orElseThrow();
+        assertTrue(byId.getId().matches("[0-9a-f]{16}"), byId.getId());
+        assertEquals(SlowQueryLog.id("select name from book where id = ?"), byId.getId());
+        assertEquals(2, slowQueryLog.top(10).stream().map(SlowQueryLog.Entry::getId).distinct().count());
+    }
+
+    @Test
+    void testShutdown_StopsTheExplainExecutor() {
+        // Given
+        ExecutorService explainExecutor = Executors.newSingleThreadExecutor();
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 10, true, explainExecutor);
+
+        // When
+        slowQueryLog.shutdown();
+
+        // Then
+        assertTrue(explainExecutor.isShutdown());
+    }
+}
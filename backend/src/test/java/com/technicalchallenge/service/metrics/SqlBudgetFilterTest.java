@@ -0,0 +1,103 @@
+package com.technicalchallenge.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlBudgetFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sqlbudget;DB_CLOSE_DELAY=-1");
+        dataSource = SqlCountingDataSource.wrap(h2);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS book (id INT PRIMARY KEY)");
+        jdbcTemplate.execute("MERGE INTO book VALUES (1), (2), (3)");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testDoFilter_CountsStatementsAndRowsOfTheRequest() throws Exception {
+        // Given
+        SqlBudgetFilter filter = new SqlBudgetFilter(registryProvider(), true, 200, "", 20);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books");
+            jdbcTemplate.queryForList("SELECT id FROM book", Integer.class);
+            jdbcTemplate.queryForObject("SELECT id FROM book WHERE id = ?", Integer.class, 2);
+            res.getWriter().write("[]");
+        });
+
+        // Then
+        String serverTiming = response.getHeader(SqlBudgetFilter.SERVER_TIMING);
+        assertNotNull(serverTiming);
+        assertTrue(serverTiming.startsWith("sql;dur="));
+        assertTrue(serverTiming.endsWith("desc=\"statements=2 rows=4\""));
+        assertEquals(2, meterRegistry.get("sql.request.statements").tag("uri", "/api/books").summary().totalAmount());
+        assertNull(SqlRequestStatistics.current());
+    }
+
+    @Test
+    void testDoFilter_OverBudgetAndRepeatedStatementsAreCounted() throws Exception {
+        // Given
+        SqlBudgetFilter filter = new SqlBudgetFilter(registryProvider(), true, 200, "GET /api/books/{id} = 2", 3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/books/{id}");
+            for (int id = 1; id <= 3; id++) {
+                jdbcTemplate.queryForObject("SELECT id FROM book WHERE id = ?", Integer.class, id);
+            }
+        });
+
+        // Then
+        assertTrue(response.getHeader(SqlBudgetFilter.SERVER_TIMING).contains("statements=3"));
+        assertEquals(1, meterRegistry.get("sql.request.budget.exceeded").tag("uri", "/api/books/{id}").counter().count());
+        assertEquals(1, meterRegistry.get("sql.request.repeated").tag("uri", "/api/books/{id}").counter().count());
+    }
+
+    @Test
+    void testGetConnection_NotWrappedOutsideARequest() throws Exception {
+        // Given
+        assertNull(SqlRequestStatistics.current());
+
+        // When
+        boolean wrapped;
+        try (Connection connection = dataSource.getConnection()) {
+            wrapped = Proxy.isProxyClass(connection.getClass());
+        }
+
+        // Then
+        assertFalse(wrapped);
+    }
+
+    private ObjectProvider<MeterRegistry> registryProvider() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        return beanFactory.getBeanProvider(MeterRegistry.class);
+    }
+}
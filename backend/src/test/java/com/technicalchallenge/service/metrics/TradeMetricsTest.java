@@ -0,0 +1,146 @@
+package com.technicalchallenge.service.metrics;
+
+import com.technicalchallenge.exception.TradeValidationException;
+import com.technicalchallenge.exception.TradeVersionConflictException;
+import com.technicalchallenge.service.validation.ValidationResult;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TradeMetrics tradeMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tradeMetrics = new TradeMetrics(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRecordLifecycle_TimedPerOperationTradeTypeAndOutcome() {
+        // Given
+        long elapsed = TimeUnit.MILLISECONDS.toNanos(12);
+
+        // When
+        tradeMetrics.recordLifecycle("create", "Interest Rate Swap", null, elapsed);
+        tradeMetrics.recordLifecycle("create", "Interest Rate Swap", null, elapsed);
+        tradeMetrics.recordLifecycle("create", null, new TradeValidationException("Invalid trade: ", null), elapsed);
+        tradeMetrics.recordLifecycle("amend", "Interest Rate Swap", new TradeVersionConflictException("Trade 100001 is at version 3"), elapsed);
+
+        // Then
+        Timer booked = meterRegistry.get("trade.lifecycle").tag("operation", "create")
+                .tag("tradeType", "Interest Rate Swap").tag("outcome", TradeMetrics.SUCCESS).timer();
+        assertEquals(2, booked.count());
+        assertEquals(24, booked.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, meterRegistry.get("trade.lifecycle").tag("tradeType", "unknown")
+                .tag("outcome", TradeMetrics.REJECTED).timer().count());
+        assertEquals(1, meterRegistry.get("trade.lifecycle").tag("operation", "amend")
+                .tag("outcome", TradeMetrics.CONFLICT).timer().count());
+    }
+
+    @Test
+    void testRecordLifecycleOnCompletion_SuccessIsRecordedOnceCommitted() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        tradeMetrics.recordLifecycleOnCompletion("create", "Interest Rate Swap", null, System.nanoTime());
+
+        // Then
+        assertNull(meterRegistry.find("trade.lifecycle").timer());
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(1, meterRegistry.get("trade.lifecycle").tag("operation", "create")
+                .tag("tradeType", "Interest Rate Swap").tag("outcome", TradeMetrics.SUCCESS).timer().count());
+    }
+
+    @Test
+    void testRecordLifecycleOnCompletion_RollbackIsRecordedAsError() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        tradeMetrics.recordLifecycleOnCompletion("amend", "Interest Rate Swap", null, System.nanoTime());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        assertEquals(1, meterRegistry.get("trade.lifecycle").tag("operation", "amend")
+                .tag("outcome", TradeMetrics.ERROR).timer().count());
+        assertNull(meterRegistry.find("trade.lifecycle").tag("outcome", TradeMetrics.SUCCESS).timer());
+    }
+
+    @Test
+    void testRecordLifecycleOnCompletion_FailureIsRecordedStraightAway() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        tradeMetrics.recordLifecycleOnCompletion("amend", "Interest Rate Swap",
+                new TradeVersionConflictException("Trade 100001 is at version 3"), System.nanoTime());
+
+        // Then
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        assertEquals(1, meterRegistry.get("trade.lifecycle").tag("outcome", TradeMetrics.CONFLICT).timer().count());
+    }
+
+    @Test
+    void testRecordLifecycleOnCompletion_OutsideATransactionIsRecordedStraightAway() {
+        // When
+        tradeMetrics.recordLifecycleOnCompletion("cancel", null, null, System.nanoTime());
+
+        // Then
+        assertEquals(1, meterRegistry.get("trade.lifecycle").tag("operation", "cancel")
+                .tag("outcome", TradeMetrics.SUCCESS).timer().count());
+    }
+
+    @Test
+    void testOutcome_UnexpectedFailureIsError() {
+        assertEquals(TradeMetrics.ERROR, TradeMetrics.outcome(new IllegalStateException("boom")));
+    }
+
+    @Test
+    void testRecordLookup_LookupsAndValidationFailuresAreCounted() {
+        // Given
+        ValidationResult result = new ValidationResult();
+        result.addError("tradeLegs", "Trade legs must have exactly 2 legs");
+        result.addError("book", "Book must be active");
+
+        // When
+        tradeMetrics.recordLookup("book", true);
+        tradeMetrics.recordLookup("book", false);
+        tradeMetrics.recordLookup("book", false);
+        tradeMetrics.recordValidationFailure("CREATE", result);
+        tradeMetrics.recordPrivilegeFailure("AMEND");
+        tradeMetrics.recordCashflowGeneration("Fixed", 8, null, 1000);
+
+        // Then
+        assertEquals(2, meterRegistry.get("trade.reference.lookups").tag("entity", "book")
+                .tag("result", "missing").counter().count());
+        assertEquals(1, meterRegistry.get("trade.validation.failures").tag("operation", "CREATE")
+                .tag("field", "book").counter().count());
+        assertEquals(1, meterRegistry.get("trade.validation.failures").tag("check", "privileges").counter().count());
+        assertEquals(8, meterRegistry.get("trade.cashflows.generated").tag("legType", "Fixed").counter().count());
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+}
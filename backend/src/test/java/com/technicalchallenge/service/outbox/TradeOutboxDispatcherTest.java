@@ -0,0 +1,133 @@
+package com.technicalchallenge.service.outbox;
+
+import com.technicalchallenge.model.OutboxEvent;
+import com.technicalchallenge.model.OutboxStatus;
+import com.technicalchallenge.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TradeOutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private final List<List<Long>> published = new CopyOnWriteArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private TradeOutboxDispatcher dispatcher(TradeFeedSink sink, int maxAttempts) {
+        return new TradeOutboxDispatcher(outboxEventRepository, sink, meterRegistry, true, 100, 4, maxAttempts, 1000, 60000);
+    }
+
+    private OutboxEvent outboxEvent(long id, long tradeId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setTradeId(tradeId);
+        event.setEventType("CREATED");
+        event.setPayload("{}");
+        event.setStatus(OutboxStatus.PENDING);
+        event.setCreatedDate(LocalDateTime.now());
+        event.setNextAttemptAt(LocalDateTime.now());
+        return event;
+    }
+
+    @Test
+    @DisplayName("Batch is published per trade in outbox order and marked dispatched")
+    void testBatchPublishedPerTradeInOrder() {
+        // Given
+        when(outboxEventRepository.findDispatchBatch(any(), any())).thenReturn(List.of(
+                outboxEvent(1, 10001), outboxEvent(2, 10002), outboxEvent(3, 10001), outboxEvent(4, 10002)));
+        TradeOutboxDispatcher dispatcher = dispatcher(events -> published.add(events.stream().map(OutboxEvent::getId).toList()), 10);
+
+        // When
+        int loaded = dispatcher.drainBatch();
+
+        // Then
+        assertEquals(4, loaded);
+        assertEquals(2, published.size());
+        assertTrue(published.contains(List.of(1L, 3L)));
+        assertTrue(published.contains(List.of(2L, 4L)));
+        verify(outboxEventRepository).markDispatched(eq(List.of(1L, 3L)), any());
+        verify(outboxEventRepository).markDispatched(eq(List.of(2L, 4L)), any());
+        assertEquals(4.0, meterRegistry.counter("trade.outbox.dispatched").count());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Failed publish reschedules the head event with backoff and leaves the trade undelivered")
+    void testFailedPublishSchedulesRetryWithBackoff() {
+        // Given
+        OutboxEvent head = outboxEvent(1, 10001);
+        when(outboxEventRepository.findDispatchBatch(any(), any())).thenReturn(List.of(head, outboxEvent(2, 10001)));
+        TradeOutboxDispatcher dispatcher = dispatcher(events -> {
+            throw new IOException("Downstream unavailable");
+        }, 10);
+
+        // When
+        dispatcher.drainBatch();
+
+        // Then
+        assertEquals(1, head.getAttempts());
+        assertEquals(OutboxStatus.PENDING, head.getStatus());
+        assertEquals("Downstream unavailable", head.getLastError());
+        assertTrue(head.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(outboxEventRepository).save(head);
+        verify(outboxEventRepository, never()).markDispatched(any(), any());
+        assertEquals(1.0, meterRegistry.counter("trade.outbox.retried").count());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Event is parked as FAILED once it runs out of attempts")
+    void testEventParkedAfterMaxAttempts() {
+        // Given
+        OutboxEvent head = outboxEvent(1, 10001);
+        head.setAttempts(2);
+        when(outboxEventRepository.findDispatchBatch(any(), any())).thenReturn(List.of(head));
+        TradeOutboxDispatcher dispatcher = dispatcher(events -> {
+            throw new IOException("Rejected");
+        }, 3);
+
+        // When
+        dispatcher.drainBatch();
+
+        // Then
+        assertEquals(OutboxStatus.FAILED, head.getStatus());
+        assertEquals(1.0, meterRegistry.counter("trade.outbox.failed").count());
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("Backoff doubles per attempt and is capped")
+    void testBackoffIsExponentialAndCapped() {
+        // Given
+        TradeOutboxDispatcher dispatcher = dispatcher(events -> { }, 10);
+
+        // When / Then
+        assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(4), dispatcher.backoff(3));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(12));
+        dispatcher.shutdown();
+    }
+}
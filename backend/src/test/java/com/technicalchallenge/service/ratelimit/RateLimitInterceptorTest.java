@@ -0,0 +1,120 @@
+package com.technicalchallenge.service.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.UserProfile;
+import com.technicalchallenge.security.MyUserPrincipal;
+import com.technicalchallenge.service.admission.AdmissionClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitInterceptorTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Mock
+    private UserRateLimiter userRateLimiter;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testPreHandle_UserAndProfileComeFromTheApplicationUser() throws Exception {
+        // Given
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(userRateLimiter, OBJECT_MAPPER);
+        // The granted role differs from the profile, so only the principal can have supplied TRADER_SALES
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                principal("simon", "TRADER_SALES"), null, List.of(new SimpleGrantedAuthority("ROLE_SUPPORT"))));
+        when(userRateLimiter.tryAcquire("simon", "TRADER_SALES", AdmissionClass.BOOKING, "POST /api/trades"))
+                .thenReturn(0L);
+
+        // When
+        boolean proceed = interceptor.preHandle(request("POST", "/api/trades", "/api/trades"),
+                new MockHttpServletResponse(), null);
+
+        // Then
+        assertTrue(proceed);
+        verify(userRateLimiter).tryAcquire("simon", "TRADER_SALES", AdmissionClass.BOOKING, "POST /api/trades");
+    }
+
+    @Test
+    void testPreHandle_RequestOverTheLimitGets429WithRetryAfter() throws Exception {
+        // Given
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(userRateLimiter, OBJECT_MAPPER);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                principal("simon", "TRADER_SALES"), null, List.of(new SimpleGrantedAuthority("ROLE_TRADER_SALES"))));
+        when(userRateLimiter.tryAcquire("simon", "TRADER_SALES", AdmissionClass.SEARCH, "GET /api/trades/{id}"))
+                .thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        boolean proceed = interceptor.preHandle(request("GET", "/api/trades/100001", "/api/trades/{id}"), response, null);
+
+        // Then
+        assertFalse(proceed);
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertEquals("application/json", response.getContentType());
+        JsonNode body = OBJECT_MAPPER.readTree(response.getContentAsByteArray());
+        assertEquals(429, body.get("statusCode").asInt());
+        assertEquals("Too Many Requests", body.get("error").asText());
+        assertEquals("Rate limit exceeded for GET /api/trades/{id}, please retry in 2s", body.get("message").asText());
+        assertTrue(body.hasNonNull("timestamp"));
+    }
+
+    @Test
+    void testPreHandle_AnonymousRequestIsNotLimited() throws Exception {
+        // Given
+        RateLimitInterceptor interceptor = new RateLimitInterceptor(userRateLimiter, OBJECT_MAPPER);
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymous",
+                List.of(new SimpleGrantedAuthority("ROLE_ANONYMOUS"))));
+
+        // When
+        boolean proceed = interceptor.preHandle(request("GET", "/api/trades", "/api/trades"),
+                new MockHttpServletResponse(), null);
+
+        // Then
+        assertTrue(proceed);
+        verify(userRateLimiter, never()).tryAcquire(anyString(), anyString(), any(), anyString());
+    }
+
+    private static MyUserPrincipal principal(String loginId, String userType) {
+        UserProfile profile = new UserProfile();
+        profile.setUserType(userType);
+        ApplicationUser user = new ApplicationUser();
+        user.setLoginId(loginId);
+        user.setUserProfile(profile);
+        return new MyUserPrincipal(user);
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package com.technicalchallenge.service.ratelimit;
+
+import com.technicalchallenge.service.admission.AdmissionClass;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRateLimiterTest {
+
+    private SimpleMeterRegistry registry;
+    private DefaultListableBeanFactory beans;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("meterRegistry", registry);
+    }
+
+    @Test
+    void testTryAcquire_BucketAdmitsItsBurstThenGivesTheWait() {
+        // Given
+        long interval = TimeUnit.MILLISECONDS.toNanos(100);
+        TokenBucket bucket = new TokenBucket(interval, 3, 0);
+
+        // When
+        long first = bucket.tryAcquire(0);
+        long second = bucket.tryAcquire(0);
+        long third = bucket.tryAcquire(0);
+        long fourth = bucket.tryAcquire(0);
+        long refilled = bucket.tryAcquire(interval);
+
+        // Then
+        assertEquals(0, first + second + third);
+        assertEquals(interval, fourth);
+        assertEquals(0, refilled);
+        assertFalse(bucket.isFull(interval));
+        assertTrue(bucket.isFull(4 * interval));
+    }
+
+    @Test
+    void testTryAcquire_LimitsArePerUserEndpointAndProfile() {
+        // Given
+        UserRateLimiter limiter = limiter("*.search=1/2;SUPPORT.search=1/1", 100);
+
+        // When
+        long simonFirst = limiter.tryAcquire("simon", "TRADER_SALES", AdmissionClass.SEARCH, "GET /api/trades/rsql");
+        long simonSecond = limiter.tryAcquire("simon", "TRADER_SALES", AdmissionClass.SEARCH, "GET /api/trades/rsql");
+        long simonThird = limiter.tryAcquire("simon", "TRADER_SALES", AdmissionClass.SEARCH, "GET /api/trades/rsql");
+        long simonOther = limiter.tryAcquire("simon", "TRADER_SALES", AdmissionClass.SEARCH, "GET /api/trades");
+        long supportFirst = limiter.tryAcquire("ashley", "SUPPORT", AdmissionClass.SEARCH, "GET /api/trades/rsql");
+        long supportSecond = limiter.tryAcquire("ashley", "SUPPORT", AdmissionClass.SEARCH, "GET /api/trades/rsql");
+        long booking = limiter.tryAcquire("simon", "TRADER_SALES", AdmissionClass.BOOKING, "POST /api/trades");
+
+        // Then
+        assertEquals(0, simonFirst + simonSecond + simonOther + supportFirst + booking);
+        assertTrue(simonThird > 0);
+        assertTrue(supportSecond > 0);
+        assertEquals(1.0, registry.get("ratelimit.rejected")
+                .tags("profile", "trader_sales", "class", "search").counter().count());
+        assertEquals(1.0, registry.get("ratelimit.rejected")
+                .tags("profile", "support", "class", "search").counter().count());
+    }
+
+    @Test
+    void testTryAcquire_BucketsAreHeldUpToMaxBuckets() {
+        // Given
+        UserRateLimiter limiter = limiter("*.search=1/5", 10);
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire("user" + i, "MO", AdmissionClass.SEARCH, "GET /api/trades");
+        }
+
+        // Then
+        assertTrue(limiter.size() <= 10, "buckets " + limiter.size());
+        assertTrue(registry.get("ratelimit.evictions").counter().count() >= 40);
+    }
+
+    @Test
+    void testTryAcquire_BucketsNearestToFullAreDroppedFirst() {
+        // Given
+        UserRateLimiter limiter = limiter("*.search=1/5", 3);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("drained", "MO", AdmissionClass.SEARCH, "GET /api/trades");
+        }
+        limiter.tryAcquire("light", "MO", AdmissionClass.SEARCH, "GET /api/trades");
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("busy", "MO", AdmissionClass.SEARCH, "GET /api/trades");
+        }
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("newcomer", "MO", AdmissionClass.SEARCH, "GET /api/trades");
+        }
+
+        // Then
+        assertEquals(3, limiter.size());
+        assertFalse(limiter.holds("light", "GET /api/trades"));
+        assertTrue(limiter.holds("drained", "GET /api/trades"));
+        assertTrue(limiter.holds("busy", "GET /api/trades"));
+        assertTrue(limiter.holds("newcomer", "GET /api/trades"));
+        assertTrue(limiter.tryAcquire("drained", "MO", AdmissionClass.SEARCH, "GET /api/trades") > 0);
+    }
+
+    private UserRateLimiter limiter(String limits, int maxBuckets) {
+        return new UserRateLimiter(beans.getBeanProvider(MeterRegistry.class), true, limits, maxBuckets);
+    }
+}
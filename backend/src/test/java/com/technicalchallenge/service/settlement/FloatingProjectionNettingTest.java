@@ -0,0 +1,135 @@
+package com.technicalchallenge.service.settlement;
+
+import com.technicalchallenge.dto.IndexFixingDTO;
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.model.Trade;
+import com.technicalchallenge.service.TradeService;
+import com.technicalchallenge.service.curve.IndexCurveService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+Books a fixed against floating swap, uploads fixings for its floating index and checks that the settlement nets
+follow the floating cashflows re-projected from them, against the H2 database loaded from
+src/test/resources/data.sql. The uploaded curve would change the projections of later tests, so the context is
+discarded afterwards.
+ */
+@SpringBootTest
+@DirtiesContext
+class FloatingProjectionNettingTest {
+
+    private static final long BIG_BANK_ID = 1000L;
+    private static final long LIBOR_ID = 1000L;
+    // Away from the schedules of the seeded trades, so no other cashflow nets with this trade's
+    private final LocalDate startDate = LocalDate.now().plusDays(17);
+
+    @Autowired
+    private TradeService tradeService;
+
+    @Autowired
+    private IndexCurveService indexCurveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testUploadFixings_NetsFollowTheReprojectedFloatingCashflows() {
+        // Given
+        Trade trade = tradeService.createTrade(swap());
+        Long tradeId = trade.getTradeId();
+        await(() -> storedNets(tradeId).equals(cashflowNets(tradeId)), "booked trade was not netted");
+        Map<LocalDate, BigDecimal> bookedNets = storedNets(tradeId);
+        IndexFixingDTO fixing = new IndexFixingDTO();
+        fixing.setFixingDate(startDate);
+        fixing.setRate(4.0);
+
+        // When
+        indexCurveService.uploadFixings(LIBOR_ID, List.of(fixing));
+
+        // Then
+        await(() -> !cashflowNets(tradeId).equals(bookedNets), "floating cashflows were not re-projected");
+        await(() -> storedNets(tradeId).equals(cashflowNets(tradeId)), "nets do not follow the re-projected cashflows");
+        assertEquals(bookedNets.keySet(), storedNets(tradeId).keySet());
+    }
+
+    // Receive minus pay of the trade's live cashflows per value date, as the nets should hold them
+    private Map<LocalDate, BigDecimal> cashflowNets(Long tradeId) {
+        Map<LocalDate, BigDecimal> nets = new TreeMap<>();
+        jdbcTemplate.query("""
+                        SELECT c.value_date, CASE WHEN p.pay_rec = 'Pay' THEN -c.payment_value ELSE c.payment_value END
+                        FROM cashflow c
+                        JOIN trade_leg l ON l.leg_id = c.leg_id
+                        JOIN trade t ON t.id = l.trade_id
+                        JOIN pay_rec p ON p.id = COALESCE(c.pay_rec_id, l.pay_rec_id)
+                        WHERE t.trade_id = ? AND t.active = TRUE AND l.active = TRUE AND c.active = TRUE
+                        AND c.value_date >= CURRENT_DATE""",
+                rs -> {
+                    nets.merge(rs.getDate(1).toLocalDate(), rs.getBigDecimal(2), BigDecimal::add);
+                }, tradeId);
+        return nets;
+    }
+
+    // The stored USD nets with BigBank on the trade's value dates
+    private Map<LocalDate, BigDecimal> storedNets(Long tradeId) {
+        Map<LocalDate, BigDecimal> nets = new TreeMap<>();
+        for (LocalDate valueDate : cashflowNets(tradeId).keySet()) {
+            jdbcTemplate.query("SELECT net_amount FROM settlement_net WHERE counterparty_id = ? AND currency = 'USD' "
+                            + "AND value_date = ?",
+                    rs -> {
+                        nets.put(valueDate, rs.getBigDecimal(1));
+                    }, BIG_BANK_ID, Date.valueOf(valueDate));
+        }
+        return nets;
+    }
+
+    private static void await(BooleanSupplier condition, String message) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.onSpinWait();
+        }
+    }
+
+    private TradeDTO swap() {
+        TradeLegDTO fixed = new TradeLegDTO();
+        fixed.setNotional(BigDecimal.valueOf(10000000.0));
+        fixed.setRate(3.5);
+        fixed.setCurrency("USD");
+        fixed.setLegType("Fixed");
+        fixed.setPayReceiveFlag("Pay");
+
+        TradeLegDTO floating = new TradeLegDTO();
+        floating.setNotional(BigDecimal.valueOf(10000000.0));
+        floating.setCurrency("USD");
+        floating.setIndexName("LIBOR");
+        floating.setLegType("Floating");
+        floating.setPayReceiveFlag("Receive");
+
+        TradeDTO tradeDTO = new TradeDTO();
+        tradeDTO.setTradeDate(LocalDate.now());
+        tradeDTO.setTradeStartDate(startDate);
+        tradeDTO.setTradeMaturityDate(startDate.plusYears(1));
+        tradeDTO.setTradeLegs(List.of(fixed, floating));
+        tradeDTO.setCounterpartyName("BigBank");
+        tradeDTO.setBookName("FX-BOOK-1");
+        tradeDTO.setTraderUserName("joey");
+        tradeDTO.setTraderUserId(1005L);
+        tradeDTO.setInputterUserName("ashley");
+        tradeDTO.setTradeInputterUserId(1004L);
+        return tradeDTO;
+    }
+}
@@ -0,0 +1,73 @@
+package com.technicalchallenge.service.settlement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SettlementNetterTest {
+
+    private static final long DAY = LocalDate.of(2026, 3, 16).toEpochDay();
+
+    @Test
+    @DisplayName("Opposite pay and receive cashflows on the same key net into one settlement")
+    public void testNetsOppositeFlows() {
+        // Given
+        SettlementNetter netter = new SettlementNetter();
+
+        // When
+        netter.add(1L, 1000L, "BigBank", "USD", DAY, 1_250_000L, true);
+        netter.add(2L, 1000L, "BigBank", "USD", DAY, 1_000_000L, false);
+        netter.add(3L, 1000L, "BigBank", "USD", DAY, 100_000L, false);
+
+        // Then
+        assertEquals(1, netter.getNets().size());
+        assertEquals(3, netter.getCashflowCount());
+        SettlementNetter.Net net = netter.getNet(new SettlementNetter.Key(1000L, "USD", DAY));
+        assertEquals(-150_000L, net.getNetCents());
+        assertEquals(1_250_000L, net.getGrossPayCents());
+        assertEquals(1_100_000L, net.getGrossReceiveCents());
+        assertEquals("Pay", net.getDirection());
+        assertEquals(3, net.size());
+        assertEquals("1,2,3", net.getCashflowIdList());
+    }
+
+    @Test
+    @DisplayName("Counterparty, currency and value date each split the nets")
+    public void testGroupsByFullKey() {
+        // Given
+        SettlementNetter netter = new SettlementNetter();
+
+        // When
+        netter.add(1L, 1000L, "BigBank", "USD", DAY, 500L, false);
+        netter.add(2L, 1001L, "MegaFund", "USD", DAY, 500L, false);
+        netter.add(3L, 1000L, "BigBank", "EUR", DAY, 500L, false);
+        netter.add(4L, 1000L, "BigBank", "USD", DAY + 1, 500L, true);
+
+        // Then
+        assertEquals(4, netter.getNets().size());
+        assertEquals("Pay", netter.getNet(new SettlementNetter.Key(1000L, "USD", DAY + 1)).getDirection());
+    }
+
+    @Test
+    @DisplayName("Fully offsetting flows net to a flat settlement that still lists its cashflows")
+    public void testFlatNet() {
+        // Given
+        SettlementNetter netter = new SettlementNetter();
+        for (long id = 1; id <= 10; id++) {
+            netter.add(id, 1000L, "BigBank", "GBP", DAY, 700L, id % 2 == 0);
+        }
+
+        // When
+        SettlementNetter.Net net = netter.getNet(new SettlementNetter.Key(1000L, "GBP", DAY));
+
+        // Then
+        assertEquals(0L, net.getNetCents());
+        assertEquals("Flat", net.getDirection());
+        assertEquals(10, net.size());
+        assertEquals(10L, net.getCashflowId(9));
+        assertEquals("1,2,3,4,5,6,7,8,9,10", net.getCashflowIdList());
+    }
+}
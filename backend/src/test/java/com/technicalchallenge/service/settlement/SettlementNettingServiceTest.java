@@ -0,0 +1,218 @@
+package com.technicalchallenge.service.settlement;
+
+import com.technicalchallenge.dto.SettlementNettingResultDTO;
+import com.technicalchallenge.repository.SettlementNetRepository;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EntitySchemaTest
+@ExtendWith(MockitoExtension.class)
+class SettlementNettingServiceTest {
+
+    // Re-netting only touches nets from today onwards, so the dates follow the clock
+    private final LocalDate today = LocalDate.now();
+
+    @Mock
+    private SettlementNetRepository settlementNetRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    private SettlementNettingService settlementNettingService;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.book(1, "FX-BOOK-1");
+        fixtures.tradeStatus(1, "NEW");
+        fixtures.tradeStatus(2, "CANCELLED");
+        fixtures.counterparty(1000, "BigBank");
+        fixtures.counterparty(2000, "OtherBank");
+        fixtures.currency(1, "USD");
+        fixtures.currency(2, "EUR");
+        fixtures.payRec(1, "Pay");
+        fixtures.payRec(2, "Receive");
+        settlementNettingService = new SettlementNettingService(dataSource,
+                new DataSourceTransactionManager(dataSource), settlementNetRepository, true, 100, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        settlementNettingService.shutdown();
+        fixtures.clear();
+    }
+
+    @Test
+    void testNetWindow_NetsLiveCashflowsPerCounterpartyCurrencyAndDate() {
+        // Given
+        LocalDate valueDate = today.plusDays(5);
+        fixtures.trade(1, 100001, 1, 1000L, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.leg(11, 1, 1L, 1);
+        fixtures.leg(12, 1, 2L, 1);
+        fixtures.cashflow(10, valueDate, "400.00", null);
+        fixtures.cashflow(11, valueDate, "250.00", null);
+        fixtures.cashflow(12, valueDate, "100.00", null);
+        fixtures.cashflow(10, valueDate.plusDays(30), "1.00", null);
+        fixtures.trade(2, 100002, 1, 1000L, 2);
+        fixtures.leg(20, 2, 1L, 2);
+        fixtures.cashflow(20, valueDate, "2.00", null);
+        fixtures.trade(3, 100003, 1, null, 1);
+        fixtures.leg(30, 3, 1L, 2);
+        fixtures.cashflow(30, valueDate, "4.00", null);
+
+        // When
+        SettlementNettingResultDTO result = settlementNettingService.netWindow(today, today.plusDays(10));
+
+        // Then
+        assertEquals(2, result.getNetCount());
+        assertEquals(3L, result.getCashflowCount());
+        Map<String, Object> usd = net(1000L, "USD", valueDate);
+        assertEquals("BigBank", usd.get("counterparty_name"));
+        assertEquals(new BigDecimal("150.00"), usd.get("net_amount"));
+        assertEquals(new BigDecimal("250.00"), usd.get("gross_pay"));
+        assertEquals(new BigDecimal("400.00"), usd.get("gross_receive"));
+        assertEquals("Receive", usd.get("direction"));
+        assertEquals(2, usd.get("cashflow_count"));
+        Map<String, Object> eur = net(1000L, "EUR", valueDate);
+        assertEquals(new BigDecimal("-100.00"), eur.get("net_amount"));
+        assertEquals("Pay", eur.get("direction"));
+    }
+
+    @Test
+    void testNetWindow_ReplacesOnlyTheStoredNetsInsideTheWindow() {
+        // Given
+        storedNet(2000L, "USD", today.plusDays(1), "999.00");
+        storedNet(2000L, "USD", today.plusDays(20), "888.00");
+        fixtures.trade(1, 100001, 1, 1000L, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.cashflow(10, today.plusDays(2), "10.00", null);
+
+        // When
+        settlementNettingService.netWindow(today, today.plusDays(10));
+
+        // Then
+        assertNull(net(2000L, "USD", today.plusDays(1)));
+        assertEquals(new BigDecimal("888.00"), net(2000L, "USD", today.plusDays(20)).get("net_amount"));
+        assertEquals(new BigDecimal("10.00"), net(1000L, "USD", today.plusDays(2)).get("net_amount"));
+    }
+
+    @Test
+    void testNetWindow_WindowEndingBeforeItStartsIsRejected() {
+        // When / Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> settlementNettingService.netWindow(today, today.minusDays(1)));
+        assertEquals("Netting window needs a from date on or before the to date", exception.getMessage());
+    }
+
+    @Test
+    void testRenetTrade_MovesTheNetsOfAnAmendedTrade() {
+        // Given
+        fixtures.trade(1, 100001, 1, 1000L, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.cashflow(10, today.plusDays(1), "100.00", null);
+        fixtures.trade(2, 100002, 1, 1000L, 1);
+        fixtures.leg(20, 2, 2L, 2);
+        fixtures.cashflow(20, today.plusDays(1), "50.00", null);
+        settlementNettingService.netWindow(today, today.plusDays(30));
+        // The amendment books a new version with the cashflow moved and deactivates the old one
+        jdbcTemplate.update("UPDATE trade SET active = FALSE WHERE id = 1");
+        fixtures.trade(3, 100001, 1, 1000L, 1);
+        fixtures.leg(30, 3, 1L, 2);
+        fixtures.cashflow(30, today.plusDays(8), "100.00", null);
+
+        // When
+        int renetted = settlementNettingService.renetTrade(100001L);
+
+        // Then
+        assertEquals(2, renetted);
+        assertNull(net(1000L, "USD", today.plusDays(1)));
+        assertEquals(new BigDecimal("100.00"), net(1000L, "USD", today.plusDays(8)).get("net_amount"));
+        assertEquals(new BigDecimal("50.00"), net(1000L, "EUR", today.plusDays(1)).get("net_amount"));
+    }
+
+    @Test
+    void testRenetTrades_RecomputesANetSharedByTwoTradesOnce() {
+        // Given
+        fixtures.trade(1, 100001, 1, 1000L, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.cashflow(10, today.plusDays(3), "100.00", null);
+        fixtures.trade(2, 100002, 1, 1000L, 1);
+        fixtures.leg(20, 2, 1L, 1);
+        fixtures.cashflow(20, today.plusDays(3), "30.00", null);
+        settlementNettingService.netWindow(today, today.plusDays(30));
+        fixtures.cashflow(20, today.plusDays(3), "20.00", null);
+
+        // When
+        int renetted = settlementNettingService.renetTrades(List.of(100001L, 100002L));
+
+        // Then
+        assertEquals(1, renetted);
+        Map<String, Object> usd = net(1000L, "USD", today.plusDays(3));
+        assertEquals(new BigDecimal("50.00"), usd.get("net_amount"));
+        assertEquals(3, usd.get("cashflow_count"));
+    }
+
+    @Test
+    void testRenetTrade_LeavesSettledNetsAlone() {
+        // Given
+        fixtures.trade(1, 100001, 1, 1000L, 1);
+        fixtures.leg(10, 1, 1L, 2);
+        fixtures.cashflow(10, today.minusDays(2), "70.00", null);
+        fixtures.cashflow(10, today.plusDays(2), "80.00", null);
+        settlementNettingService.netWindow(today.minusDays(10), today.plusDays(10));
+        jdbcTemplate.update("UPDATE trade SET trade_status_id = 2 WHERE id = 1");
+
+        // When
+        int renetted = settlementNettingService.renetTrade(100001L);
+
+        // Then
+        assertEquals(1, renetted);
+        assertNull(net(1000L, "USD", today.plusDays(2)));
+        assertEquals(new BigDecimal("70.00"), net(1000L, "USD", today.minusDays(2)).get("net_amount"));
+    }
+
+    @Test
+    void testRenetTrade_UnknownTradeRecomputesNothing() {
+        // When / Then
+        assertEquals(0, settlementNettingService.renetTrade(999999L));
+    }
+
+    private void storedNet(long counterpartyId, String currency, LocalDate valueDate, String amount) {
+        jdbcTemplate.update("INSERT INTO settlement_net (counterparty_id, counterparty_name, currency, value_date, "
+                        + "net_amount, gross_pay, gross_receive, direction, cashflow_count, cashflow_ids, netted_at) "
+                        + "VALUES (?, 'Stale', ?, ?, ?, 0, ?, 'Receive', 1, '1', CURRENT_TIMESTAMP)",
+                counterpartyId, currency, Date.valueOf(valueDate), new BigDecimal(amount), new BigDecimal(amount));
+    }
+
+    private Map<String, Object> net(long counterpartyId, String currency, LocalDate valueDate) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT * FROM settlement_net "
+                + "WHERE counterparty_id = ? AND currency = ? AND value_date = ?",
+                counterpartyId, currency, Date.valueOf(valueDate));
+        assertTrue(rows.size() <= 1);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
@@ -0,0 +1,115 @@
+package com.technicalchallenge.service.tracing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracerTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldRecordNestedSpansOfATrace() {
+        // Given
+        Tracer tracer = new Tracer(true, 1.0, 100);
+
+        // When
+        try (Tracer.Scope root = tracer.startTrace("controller", "TradeController.createTrade")) {
+            try (Tracer.Scope service = Tracer.span("service", "TradeService.saveTrade")) {
+                try (Tracer.Scope repository = Tracer.span("repository", "TradeRepository.save")) {
+                    repository.error(new IllegalStateException("boom"));
+                }
+            }
+        }
+
+        // Then
+        assertFalse(Tracer.isTracing());
+        List<List<TraceSpan>> traces = tracer.getRing().traces();
+        assertEquals(1, traces.size());
+        List<TraceSpan> trace = traces.get(0);
+        assertEquals(List.of("TradeController.createTrade", "TradeService.saveTrade", "TradeRepository.save"),
+                trace.stream().map(TraceSpan::getName).toList());
+        assertTrue(trace.get(0).isRoot());
+        assertEquals(trace.get(0).getSpanId(), trace.get(1).getParentId());
+        assertEquals(trace.get(1).getSpanId(), trace.get(2).getParentId());
+        assertEquals("java.lang.IllegalStateException", trace.get(2).getError());
+        assertNull(trace.get(0).getError());
+    }
+
+    @Test
+    void shouldNotRecordSpansOutsideATrace() {
+        // Given
+        Tracer tracer = new Tracer(true, 1.0, 100);
+        Runnable task = () -> { };
+
+        // When
+        try (Tracer.Scope ignored = Tracer.span("repository", "TradeRepository.save")) {
+            assertFalse(Tracer.isTracing());
+        }
+
+        // Then
+        assertSame(task, Tracer.wrap("task", task));
+        assertEquals(0, tracer.getRing().getRecordedCount());
+        assertFalse(new Tracer(false, 1.0, 100).sample());
+        assertFalse(new Tracer(true, 0.0, 100).sample());
+    }
+
+    @Test
+    void shouldFollowTaskHandedToWorker() throws Exception {
+        // Given
+        Tracer tracer = new Tracer(true, 1.0, 100);
+
+        // When
+        try (Tracer.Scope ignored = tracer.startTrace("controller", "TradeController.importTrades")) {
+            executor.submit(Tracer.wrap("TradeImportService.prepare", () -> {
+                try (Tracer.Scope repository = Tracer.span("repository", "BookRepository.findByBookNameIn")) {
+                    return null;
+                }
+            })).get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Then
+        List<TraceSpan> trace = tracer.getRing().traces().get(0);
+        assertEquals(3, trace.size());
+        TraceSpan async = trace.get(1);
+        assertEquals("async", async.getLayer());
+        assertEquals(trace.get(0).getSpanId(), async.getParentId());
+        assertEquals(async.getSpanId(), trace.get(2).getParentId());
+        assertFalse(async.getThread().equals(trace.get(0).getThread()));
+    }
+
+    @Test
+    void shouldKeepOnlyMostRecentSpans() {
+        // Given
+        SpanRing ring = new SpanRing(3);
+
+        // When
+        for (long traceId = 1; traceId <= 5; traceId++) {
+            ring.record(new TraceSpan(traceId, traceId, 0, "controller", "T" + traceId, "main", traceId, 1, null));
+        }
+
+        // Then
+        assertEquals(5, ring.getRecordedCount());
+        assertEquals(List.of("T5", "T4", "T3"), ring.traces().stream().map(trace -> trace.get(0).getName()).toList());
+        assertTrue(ring.trace(1).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new SpanRing(0));
+    }
+}
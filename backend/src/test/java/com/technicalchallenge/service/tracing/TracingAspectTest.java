@@ -0,0 +1,67 @@
+package com.technicalchallenge.service.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TracingAspectTest {
+
+    @Test
+    void shouldRecordErrorOfFailingCall() {
+        // Given
+        Tracer tracer = new Tracer(true, 1.0, 100);
+        StubController controller = proxy(tracer);
+
+        // When
+        assertThrows(IllegalStateException.class, controller::fail);
+
+        // Then
+        assertFalse(Tracer.isTracing());
+        List<TraceSpan> trace = tracer.getRing().traces().get(0);
+        assertEquals(1, trace.size());
+        assertEquals("StubController.fail", trace.get(0).getName());
+        assertEquals("java.lang.IllegalStateException", trace.get(0).getError());
+    }
+
+    @Test
+    void shouldRecordSuccessfulCallWithoutError() {
+        // Given
+        Tracer tracer = new Tracer(true, 1.0, 100);
+        StubController controller = proxy(tracer);
+
+        // When
+        String result = controller.succeed();
+
+        // Then
+        assertEquals("ok", result);
+        TraceSpan span = tracer.getRing().traces().get(0).get(0);
+        assertEquals("StubController.succeed", span.getName());
+        assertNull(span.getError());
+    }
+
+    private static StubController proxy(Tracer tracer) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new StubController());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new TracingAspect(tracer));
+        return factory.getProxy();
+    }
+
+    @RestController
+    static class StubController {
+
+        public String succeed() {
+            return "ok";
+        }
+
+        public String fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+}
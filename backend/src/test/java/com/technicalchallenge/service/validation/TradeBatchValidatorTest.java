@@ -0,0 +1,158 @@
+package com.technicalchallenge.service.validation;
+
+import com.technicalchallenge.dto.TradeDTO;
+import com.technicalchallenge.dto.TradeLegDTO;
+import com.technicalchallenge.model.ApplicationUser;
+import com.technicalchallenge.model.Book;
+import com.technicalchallenge.model.Counterparty;
+import com.technicalchallenge.model.UserProfile;
+import com.technicalchallenge.repository.ApplicationUserRepository;
+import com.technicalchallenge.repository.BookRepository;
+import com.technicalchallenge.repository.CounterpartyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TradeBatchValidatorTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private CounterpartyRepository counterpartyRepository;
+
+    @Mock
+    private ApplicationUserRepository applicationUserRepository;
+
+    private TradeBatchValidator tradeBatchValidator;
+
+    @BeforeEach
+    void setUp() {
+        TradeValidator tradeValidator = new TradeValidator(bookRepository, counterpartyRepository, new TradeLegValidator());
+        UserPrivilegeValidator userPrivilegeValidator = new UserPrivilegeValidator(applicationUserRepository);
+        tradeBatchValidator = new TradeBatchValidator(bookRepository, counterpartyRepository, applicationUserRepository,
+                tradeValidator, userPrivilegeValidator);
+    }
+
+    @Test
+    void testValidateTrades_FetchesReferenceDataOnceForTheBatch() {
+        // Given
+        List<TradeDTO> trades = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            trades.add(trade(i % 2 == 0 ? "FX-BOOK-1" : "RATES-BOOK-1", "BigBank", "simon"));
+        }
+        when(bookRepository.findByBookNameIn(anyCollection())).thenReturn(List.of(book("FX-BOOK-1"), book("RATES-BOOK-1")));
+        when(counterpartyRepository.findByNameIn(anyCollection())).thenReturn(List.of(counterparty("BigBank")));
+        when(applicationUserRepository.findByLoginIdInWithProfile(anyCollection())).thenReturn(List.of(user("simon", "TRADER_SALES")));
+
+        // When
+        List<ValidationResult> results = tradeBatchValidator.validateTrades(trades, "CREATE");
+
+        // Then
+        assertEquals(500, results.size());
+        assertTrue(results.stream().allMatch(ValidationResult::isValid));
+        verify(bookRepository, times(1)).findByBookNameIn(List.of("FX-BOOK-1", "RATES-BOOK-1"));
+        verify(counterpartyRepository, times(1)).findByNameIn(List.of("BigBank"));
+        verify(applicationUserRepository, times(1)).findByLoginIdInWithProfile(List.of("simon"));
+        verifyNoMoreInteractions(bookRepository, counterpartyRepository, applicationUserRepository);
+    }
+
+    @Test
+    void testValidateTrades_ResultsFollowTradeOrder() {
+        // Given
+        TradeDTO unknownBook = trade("NOPE", "BigBank", "simon");
+        TradeDTO valid = trade("FX-BOOK-1", "BigBank", "simon");
+        TradeDTO notTheirTrade = trade("FX-BOOK-1", "BigBank", "simon");
+        notTheirTrade.setTraderUserName("ashley");
+        when(bookRepository.findByBookNameIn(anyCollection())).thenReturn(List.of(book("FX-BOOK-1")));
+        when(counterpartyRepository.findByNameIn(anyCollection())).thenReturn(List.of(counterparty("BigBank")));
+        when(applicationUserRepository.findByLoginIdInWithProfile(anyCollection())).thenReturn(List.of(user("simon", "TRADER_SALES")));
+
+        // When
+        List<ValidationResult> results = tradeBatchValidator.validateTrades(List.of(unknownBook, valid, notTheirTrade), "CREATE");
+
+        // Then
+        assertEquals(List.of("Book not found: NOPE"), List.copyOf(results.get(0).getErrors().get("book")));
+        assertTrue(results.get(1).isValid());
+        assertEquals(List.of(TradeBatchValidator.PRIVILEGE_ERROR),
+                List.copyOf(results.get(2).getErrors().get("inputterUserName")));
+        assertEquals(1, results.get(2).getErrors().size());
+    }
+
+    @Test
+    void testValidateTrades_WithoutOperationChecksBusinessRulesOnly() {
+        // Given
+        TradeDTO trade = trade("FX-BOOK-1", "BigBank", "nobody");
+        trade.setTradeMaturityDate(trade.getTradeStartDate().minusDays(1));
+        when(bookRepository.findByBookNameIn(anyCollection())).thenReturn(List.of(book("FX-BOOK-1")));
+        when(counterpartyRepository.findByNameIn(anyCollection())).thenReturn(List.of(counterparty("BigBank")));
+
+        // When
+        List<ValidationResult> results = tradeBatchValidator.validateTrades(List.of(trade), null);
+
+        // Then
+        assertFalse(results.get(0).isValid());
+        assertTrue(results.get(0).getErrors().containsEntry("tradeMaturityDate", "Maturity date cannot be before start date"));
+        verify(applicationUserRepository, times(0)).findByLoginIdInWithProfile(any());
+    }
+
+    private static TradeDTO trade(String book, String counterparty, String user) {
+        TradeDTO trade = new TradeDTO();
+        trade.setTradeDate(LocalDate.now());
+        trade.setTradeStartDate(LocalDate.now());
+        trade.setTradeMaturityDate(LocalDate.now().plusYears(1));
+        trade.setBookName(book);
+        trade.setCounterpartyName(counterparty);
+        trade.setInputterUserName(user);
+        trade.setTraderUserName(user);
+
+        TradeLegDTO pay = new TradeLegDTO();
+        pay.setLegType("Fixed");
+        pay.setPayReceiveFlag("Pay");
+        pay.setRate(3.5);
+        TradeLegDTO receive = new TradeLegDTO();
+        receive.setLegType("Floating");
+        receive.setPayReceiveFlag("Receive");
+        receive.setIndexName("LIBOR");
+        trade.setTradeLegs(List.of(pay, receive));
+        return trade;
+    }
+
+    private static Book book(String name) {
+        Book book = new Book();
+        book.setBookName(name);
+        book.setActive(true);
+        return book;
+    }
+
+    private static Counterparty counterparty(String name) {
+        Counterparty counterparty = new Counterparty();
+        counterparty.setName(name);
+        counterparty.setActive(true);
+        return counterparty;
+    }
+
+    private static ApplicationUser user(String loginId, String userType) {
+        UserProfile profile = new UserProfile();
+        profile.setUserType(userType);
+        ApplicationUser user = new ApplicationUser();
+        user.setLoginId(loginId);
+        user.setUserProfile(profile);
+        return user;
+    }
+}
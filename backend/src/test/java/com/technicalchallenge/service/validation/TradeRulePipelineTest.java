@@ -0,0 +1,125 @@
+package com.technicalchallenge.service.validation;
+
+import com.technicalchallenge.dto.TradeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TradeRulePipelineTest {
+
+    private static final Set<String> ALL = Set.of(TradeRule.CORE, "extra");
+
+    private final List<String> evaluated = new ArrayList<>();
+
+    @Test
+    @DisplayName("Rules run after their dependencies and otherwise cheapest first, in declaration order")
+    void testCompiledOrder() {
+
+        // Given
+        List<TradeRule> rules = List.of(
+                rule("book", RuleCost.LOOKUP, Set.of(), false),
+                rule("dates", RuleCost.FIELD, Set.of(), false),
+                rule("legs", RuleCost.FIELD, Set.of("legCount"), false),
+                rule("legCount", RuleCost.FIELD, Set.of(), false),
+                rule("desk", RuleCost.FIELD, Set.of("book"), false));
+
+        // When
+        TradeRulePipeline pipeline = TradeRulePipeline.compile(rules, null);
+
+        // Then
+        assertEquals(List.of("dates", "legCount", "legs", "book", "desk"), pipeline.getRuleNames());
+    }
+
+    @Test
+    @DisplayName("Rules whose dependency failed are skipped and fail-fast stops at the first rejection")
+    void testDependenciesAndFailFast() {
+
+        // Given
+        TradeRulePipeline pipeline = TradeRulePipeline.compile(List.of(
+                rule("legCount", RuleCost.FIELD, Set.of(), true),
+                rule("legs", RuleCost.FIELD, Set.of("legCount"), false),
+                rule("book", RuleCost.LOOKUP, Set.of(), true)), null);
+
+        // When
+        ValidationResult all = pipeline.validate(context(), ALL, false);
+        List<String> evaluatedWithoutFailFast = List.copyOf(evaluated);
+        evaluated.clear();
+        ValidationResult first = pipeline.validate(context(), ALL, true);
+
+        // Then
+        assertEquals(List.of("legCount", "book"), evaluatedWithoutFailFast);
+        assertEquals(2, all.getErrors().size());
+        assertEquals(List.of("legCount"), evaluated);
+        assertEquals(1, first.getErrors().size());
+    }
+
+    @Test
+    @DisplayName("Only rules of the enabled rule sets run")
+    void testRuleSets() {
+
+        // Given
+        TradeRulePipeline pipeline = TradeRulePipeline.compile(List.of(
+                rule("dates", RuleCost.FIELD, Set.of(), false),
+                TradeRule.of("backdating", "extra", RuleCost.FIELD, Set.of(), (context, result) -> evaluated.add("backdating"))),
+                null);
+
+        // When
+        pipeline.validate(context(), Set.of(TradeRule.CORE), false);
+
+        // Then
+        assertEquals(List.of("dates"), evaluated);
+    }
+
+    @Test
+    @DisplayName("Timings and rejections are recorded per rule")
+    void testMetrics() {
+
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TradeRulePipeline pipeline = TradeRulePipeline.compile(List.of(
+                rule("dates", RuleCost.FIELD, Set.of(), false),
+                rule("book", RuleCost.LOOKUP, Set.of(), true)), meterRegistry);
+
+        // When
+        pipeline.validate(context(), ALL, false);
+        pipeline.validate(context(), ALL, false);
+
+        // Then
+        assertEquals(2, meterRegistry.get("trade.validation.rule").tag("rule", "dates").timer().count());
+        assertEquals(0, meterRegistry.get("trade.validation.rule.rejections").tag("rule", "dates").counter().count());
+        assertEquals(2, meterRegistry.get("trade.validation.rule.rejections").tag("rule", "book").counter().count());
+    }
+
+    @Test
+    @DisplayName("Unknown and cyclic dependencies are rejected when compiling")
+    void testInvalidDependencies() {
+        assertThrows(IllegalStateException.class, () -> TradeRulePipeline.compile(List.of(
+                rule("legs", RuleCost.FIELD, Set.of("legCount"), false)), null));
+        assertThrows(IllegalStateException.class, () -> TradeRulePipeline.compile(List.of(
+                rule("a", RuleCost.FIELD, Set.of("b"), false),
+                rule("b", RuleCost.FIELD, Set.of("a"), false)), null));
+        assertThrows(IllegalStateException.class, () -> TradeRulePipeline.compile(List.of(
+                rule("a", RuleCost.FIELD, Set.of(), false),
+                rule("a", RuleCost.LOOKUP, Set.of(), false)), null));
+    }
+
+    private TradeRule rule(String name, RuleCost cost, Set<String> dependencies, boolean rejects) {
+        return TradeRule.of(name, TradeRule.CORE, cost, dependencies, (context, result) -> {
+            evaluated.add(name);
+            if (rejects) {
+                result.addError(name, name + " failed");
+            }
+        });
+    }
+
+    private static TradeRuleContext context() {
+        return new TradeRuleContext(new TradeDTO(), name -> Optional.empty(), name -> Optional.empty());
+    }
+}
@@ -6,6 +6,8 @@ import com.technicalchallenge.model.Book;
 import com.technicalchallenge.model.Counterparty;
 import com.technicalchallenge.repository.BookRepository;
 import com.technicalchallenge.repository.CounterpartyRepository;
+import com.technicalchallenge.service.hierarchy.OrgHierarchy;
+import com.technicalchallenge.service.hierarchy.OrgHierarchyIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,6 +34,9 @@ public class TradeValidatorTest {
     @Mock
     private TradeLegValidator tradeLegValidator;
 
+    @Mock
+    private OrgHierarchyIndex orgHierarchyIndex;
+
     private TradeValidator tradeValidator;
     private Book book;
     private Counterparty counterparty;
@@ -285,4 +290,35 @@ public class TradeValidatorTest {
         assertEquals(1,result.getErrors().size());
         assertTrue(result.getErrors().containsEntry("counterparty", "Counterparty must be active"));
     }
+
+    @Test
+    @DisplayName("Desk without the backdating rule set accepts an old trade date")
+    void testDeskRuleSetsApplyToTradesOfThatDesk() {
+
+        // Given
+        TradeValidator deskValidator = new TradeValidator(bookRepository, counterpartyRepository, tradeLegValidator,
+                List.of(), orgHierarchyIndex, null, "core,backdating", "Rates=core; FX=core,backdating", false);
+        TradeDTO tradeDTO = new TradeDTO();
+        tradeDTO.setTradeDate(LocalDate.now().minusDays(45));
+        tradeDTO.setTradeStartDate(LocalDate.now().minusDays(43));
+        tradeDTO.setTradeMaturityDate(LocalDate.now().plusYears(1));
+        tradeDTO.setTradeLegs(List.of(new TradeLegDTO(),  new TradeLegDTO()));
+        tradeDTO.setBookName("Rates_book");
+
+        book.setId(1000L);
+        book.setActive(true);
+
+        when(tradeLegValidator.validateTradeLegConsistency(tradeDTO.getTradeLegs())).thenReturn(new ValidationResult());
+        when(bookRepository.findByBookName("Rates_book")).thenReturn(Optional.of(book));
+        when(orgHierarchyIndex.getHierarchy()).thenReturn(OrgHierarchy.builder()
+                .desk(1, "Rates").subDesk(10, 1L).costCenter(100, 10L).book(1000, 100L).build());
+
+        // When
+        ValidationResult deskResult = deskValidator.validateTradeBusinessRules(tradeDTO);
+        ValidationResult defaultResult = tradeValidator.validateTradeBusinessRules(tradeDTO);
+
+        // Then
+        assertTrue(deskResult.isValid());
+        assertTrue(defaultResult.getErrors().containsEntry("tradeDate", "Trade date cannot be more than 30 days in the past"));
+    }
 }
@@ -0,0 +1,61 @@
+package com.technicalchallenge.service.valuation;
+
+import com.technicalchallenge.service.curve.IndexCurve;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiscountCurveTest {
+
+    private static final double TOLERANCE = 1e-12;
+    private static final LocalDate VALUATION_DATE = LocalDate.of(2026, 1, 1);
+
+    @Test
+    @DisplayName("Flat rate discounts continuously on ACT/365F")
+    public void testFlatRateDiscountFactor() {
+        // Given
+        DiscountCurve curve = new DiscountCurve(VALUATION_DATE, null, 5.0);
+
+        // When
+        double oneYear = curve.discountFactor(VALUATION_DATE.plusDays(365));
+        double halfYear = curve.discountFactor(VALUATION_DATE.plusDays(182));
+
+        // Then
+        assertFalse(curve.isCurveBacked());
+        assertEquals(Math.exp(-0.05), oneYear, TOLERANCE);
+        assertEquals(Math.exp(-0.05 * 182 / 365.0), halfYear, TOLERANCE);
+    }
+
+    @Test
+    @DisplayName("Cashflows on or before the valuation date are not discounted")
+    public void testNoDiscountingUpToValuationDate() {
+        // Given
+        DiscountCurve curve = new DiscountCurve(VALUATION_DATE, null, 5.0);
+
+        // Then
+        assertEquals(1.0, curve.discountFactor(VALUATION_DATE), TOLERANCE);
+        assertEquals(1.0, curve.discountFactor(VALUATION_DATE.minusDays(10)), TOLERANCE);
+    }
+
+    @Test
+    @DisplayName("Curve rates at each cashflow date take precedence over the flat rate")
+    public void testCurveBackedDiscountFactor() {
+        // Given
+        IndexCurve index = new IndexCurve("LIBOR",
+                new long[]{VALUATION_DATE.toEpochDay(), VALUATION_DATE.plusDays(730).toEpochDay()},
+                new double[]{2.0, 4.0});
+        DiscountCurve curve = new DiscountCurve(VALUATION_DATE, index, 5.0);
+
+        // When
+        double oneYear = curve.discountFactor(VALUATION_DATE.plusDays(365));
+        double twoYears = curve.discountFactor(VALUATION_DATE.plusDays(730));
+
+        // Then
+        assertTrue(curve.isCurveBacked());
+        assertEquals(Math.exp(-0.03), oneYear, TOLERANCE);
+        assertEquals(Math.exp(-0.04 * 2), twoYears, TOLERANCE);
+    }
+}
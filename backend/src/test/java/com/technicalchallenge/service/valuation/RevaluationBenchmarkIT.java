@@ -0,0 +1,119 @@
+package com.technicalchallenge.service.valuation;
+
+import com.technicalchallenge.model.ValuationRun;
+import com.technicalchallenge.model.ValuationRunStatus;
+import com.technicalchallenge.repository.BookValuationRepository;
+import com.technicalchallenge.repository.TradeValuationRepository;
+import com.technicalchallenge.repository.ValuationRunRepository;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import com.technicalchallenge.service.curve.IndexCurveService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/*
+Times full revaluation runs over bench.cashflows future cashflows spread over bench.books books on an in-memory H2
+database with the entity schema, forty cashflows to a trade. Not part of the normal build; run it on its own, e.g.
+    mvn test -Dtest=RevaluationBenchmarkIT -Dsurefire.failIfNoSpecifiedTests=false -Dbench.cashflows=1000000
+ */
+@EntitySchemaTest
+public class RevaluationBenchmarkIT {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevaluationBenchmarkIT.class);
+
+    private static final int WARMUP_ROUNDS = Integer.getInteger("bench.warmup", 1);
+    private static final int ROUNDS = Integer.getInteger("bench.rounds", 3);
+    private static final LocalDate VALUATION_DATE = LocalDate.of(2026, 1, 2);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    @Test
+    void timeRevaluationRuns() {
+        int cashflows = Integer.getInteger("bench.cashflows", 1_000_000);
+        int books = Integer.getInteger("bench.books", 2);
+        int trades = Math.max(books, cashflows / 40);
+
+        fixtures.tradeStatus(1, "LIVE");
+        fixtures.payRec(1, "Pay");
+        fixtures.payRec(2, "Receive");
+        // DATABASE_TO_LOWER folds x to lower case, so SYSTEM_RANGE's X column is renamed to match
+        jdbcTemplate.update("INSERT INTO book (id, book_name, active, version) "
+                + "SELECT x, 'BOOK-' || x, TRUE, 1 FROM SYSTEM_RANGE(1, ?) r(x)", books);
+        jdbcTemplate.update("INSERT INTO trade (id, trade_id, version, book_id, trade_status_id, active) "
+                + "SELECT x, x, 1, MOD(x, ?) + 1, 1, TRUE FROM SYSTEM_RANGE(1, ?) r(x)", books, trades);
+        jdbcTemplate.update("INSERT INTO trade_leg (leg_id, trade_id, pay_rec_id, active) "
+                + "SELECT x, (x + 1) / 2, MOD(x, 2) + 1, TRUE FROM SYSTEM_RANGE(1, ?) r(x)", trades * 2);
+        jdbcTemplate.update("INSERT INTO cashflow (leg_id, value_date, payment_value, pay_rec_id, active) "
+                + "SELECT MOD(x, ?) + 1, DATEADD('DAY', MOD(x, 3650), CAST(? AS DATE)), 1000 + MOD(x, 997), NULL, TRUE "
+                + "FROM SYSTEM_RANGE(1, ?) r(x)", trades * 2, Date.valueOf(VALUATION_DATE), cashflows);
+
+        ValuationRunRepository valuationRunRepository = mock(ValuationRunRepository.class);
+        AtomicLong runIds = new AtomicLong();
+        when(valuationRunRepository.save(any())).thenAnswer(invocation -> {
+            ValuationRun run = invocation.getArgument(0);
+            if (run.getId() == null) {
+                run.setId(runIds.incrementAndGet());
+            }
+            return run;
+        });
+        IndexCurveService indexCurveService = mock(IndexCurveService.class);
+        when(indexCurveService.getCurve(any())).thenReturn(Optional.empty());
+        RevaluationService revaluationService = new RevaluationService(dataSource, valuationRunRepository,
+                mock(BookValuationRepository.class), mock(TradeValuationRepository.class), indexCurveService,
+                new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry(), true,
+                Integer.getInteger("bench.parallelism", 4), 1000, 500, "LIBOR", 5.0);
+
+        double[] millis = new double[ROUNDS];
+        try {
+            for (int round = -WARMUP_ROUNDS; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                ValuationRun run = revaluationService.startRun(VALUATION_DATE).orElseThrow();
+                while (revaluationService.isRunning()) {
+                    Thread.onSpinWait();
+                }
+                long elapsed = System.nanoTime() - start;
+                assertEquals(ValuationRunStatus.COMPLETED, run.getStatus(), run.getErrorMessage());
+                assertEquals(cashflows, run.getCashflowCount().longValue());
+                if (round >= 0) {
+                    millis[round] = elapsed / 1e6;
+                }
+            }
+        } finally {
+            revaluationService.shutdown();
+            fixtures.clear();
+        }
+
+        Arrays.sort(millis);
+        double median = millis[ROUNDS / 2];
+        logger.info(String.format(Locale.ROOT, "Revaluation of %,d cashflows over %,d trades in %d books: "
+                        + "median %.0f ms of %d runs (%.0f cashflows/s), fastest %.0f ms, slowest %.0f ms",
+                cashflows, trades, books, median, ROUNDS, cashflows / (median / 1000), millis[0], millis[ROUNDS - 1]));
+        assertTrue(median > 0);
+    }
+}
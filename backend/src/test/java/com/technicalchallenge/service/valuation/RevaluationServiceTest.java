@@ -0,0 +1,250 @@
+package com.technicalchallenge.service.valuation;
+
+import com.technicalchallenge.model.ValuationRun;
+import com.technicalchallenge.model.ValuationRunStatus;
+import com.technicalchallenge.repository.BookValuationRepository;
+import com.technicalchallenge.repository.TradeValuationRepository;
+import com.technicalchallenge.repository.ValuationRunRepository;
+import com.technicalchallenge.service.EntitySchemaTest;
+import com.technicalchallenge.service.TradeFixtures;
+import com.technicalchallenge.service.curve.IndexCurveService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@EntitySchemaTest
+@ExtendWith(MockitoExtension.class)
+class RevaluationServiceTest {
+
+    private static final LocalDate VALUATION_DATE = LocalDate.of(2026, 1, 2);
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private ValuationRunRepository valuationRunRepository;
+
+    @Mock
+    private BookValuationRepository bookValuationRepository;
+
+    @Mock
+    private TradeValuationRepository tradeValuationRepository;
+
+    @Mock
+    private IndexCurveService indexCurveService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TradeFixtures fixtures;
+
+    private RevaluationService revaluationService;
+
+    @BeforeEach
+    void setUp() {
+        fixtures.book(1, "FX-BOOK-1");
+        fixtures.book(2, "RATES-BOOK-1");
+        fixtures.tradeStatus(1, "LIVE");
+        fixtures.tradeStatus(2, "CANCELLED");
+        fixtures.payRec(1, "Pay");
+        fixtures.payRec(2, "Receive");
+
+        AtomicLong runIds = new AtomicLong();
+        when(valuationRunRepository.save(any())).thenAnswer(invocation -> {
+            ValuationRun run = invocation.getArgument(0);
+            if (run.getId() == null) {
+                run.setId(runIds.incrementAndGet());
+            }
+            return run;
+        });
+        when(indexCurveService.getCurve("LIBOR")).thenReturn(Optional.empty());
+
+        // A flat rate of zero discounts nothing, so present values are the plain signed sums
+        revaluationService = new RevaluationService(dataSource, valuationRunRepository, bookValuationRepository,
+                tradeValuationRepository, indexCurveService, new DataSourceTransactionManager(dataSource),
+                new SimpleMeterRegistry(), true, 2, 100, BATCH_SIZE, "LIBOR", 0.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        revaluationService.shutdown();
+        fixtures.clear();
+    }
+
+    @Test
+    void testRun_PresentValueIsSignedByPayReceiveAndGroupedPerTrade() {
+        // Given
+        trade(10, 1, 1);
+        leg(100, 10, 1);
+        leg(101, 10, 2);
+        cashflow(101, VALUATION_DATE.plusMonths(3), "1000.00", null);
+        cashflow(101, VALUATION_DATE.plusMonths(6), "500.00", null);
+        cashflow(100, VALUATION_DATE.plusMonths(6), "300.00", null);
+        // A cashflow's own pay/receive flag wins over its leg's
+        cashflow(101, VALUATION_DATE.plusMonths(9), "50.00", 1L);
+        // Already paid, so not valued
+        cashflow(101, VALUATION_DATE.minusDays(1), "9999.00", null);
+        trade(11, 1, 1);
+        leg(110, 11, 1);
+        cashflow(110, VALUATION_DATE, "250.00", null);
+
+        // When
+        ValuationRun run = runAndWait();
+
+        // Then
+        assertEquals(ValuationRunStatus.COMPLETED, run.getStatus());
+        Map<String, Object> trade10 = tradeValuation(run.getId(), 10);
+        assertEquals(new BigDecimal("1150.00"), trade10.get("present_value"));
+        assertEquals(4, trade10.get("cashflow_count"));
+        Map<String, Object> trade11 = tradeValuation(run.getId(), 11);
+        assertEquals(new BigDecimal("-250.00"), trade11.get("present_value"));
+        assertEquals(1, trade11.get("cashflow_count"));
+        Map<String, Object> book = jdbcTemplate.queryForMap(
+                "SELECT present_value, trade_count, cashflow_count FROM book_valuation WHERE run_id = ?", run.getId());
+        assertEquals(new BigDecimal("900.00"), book.get("present_value"));
+        assertEquals(2, book.get("trade_count"));
+        assertEquals(5L, book.get("cashflow_count"));
+        assertEquals(2L, run.getTradeCount().longValue());
+        assertEquals(5L, run.getCashflowCount().longValue());
+    }
+
+    @Test
+    void testRun_CancelledAndInactiveTradesAreNotValued() {
+        // Given
+        trade(10, 1, 1);
+        leg(100, 10, 2);
+        cashflow(100, VALUATION_DATE.plusMonths(1), "100.00", null);
+        trade(11, 1, 2);
+        leg(110, 11, 2);
+        cashflow(110, VALUATION_DATE.plusMonths(1), "100.00", null);
+        trade(12, 1, 1);
+        jdbcTemplate.update("UPDATE trade SET active = FALSE WHERE trade_id = 12");
+        leg(120, 12, 2);
+        cashflow(120, VALUATION_DATE.plusMonths(1), "100.00", null);
+
+        // When
+        ValuationRun run = runAndWait();
+
+        // Then
+        assertEquals(List.of(10L), jdbcTemplate.queryForList(
+                "SELECT trade_id FROM trade_valuation WHERE run_id = ?", Long.class, run.getId()));
+    }
+
+    @Test
+    void testRun_FlushesEveryTradeWhenTradesOverrunTheBatchSize() {
+        // Given
+        int trades = BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < trades; i++) {
+            trade(10 + i, 1, 1);
+            leg(100 + i, 10 + i, 2);
+            cashflow(100 + i, VALUATION_DATE.plusMonths(1), "100.00", null);
+        }
+
+        // When
+        ValuationRun run = runAndWait();
+
+        // Then
+        assertEquals(trades, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT trade_id) FROM trade_valuation WHERE run_id = ?", Integer.class, run.getId()));
+        assertEquals(trades, jdbcTemplate.queryForObject(
+                "SELECT trade_count FROM book_valuation WHERE run_id = ?", Integer.class, run.getId()));
+    }
+
+    @Test
+    void testRun_RerunForTheSameDateReplacesEarlierRows() {
+        // Given
+        trade(10, 1, 1);
+        leg(100, 10, 2);
+        cashflow(100, VALUATION_DATE.plusMonths(1), "100.00", null);
+        ValuationRun first = runAndWait();
+        cashflow(100, VALUATION_DATE.plusMonths(2), "100.00", null);
+
+        // When
+        ValuationRun second = runAndWait();
+
+        // Then
+        assertEquals(ValuationRunStatus.COMPLETED, second.getStatus());
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(List.of(second.getId()), jdbcTemplate.queryForList(
+                "SELECT run_id FROM trade_valuation WHERE valuation_date = ?", Long.class, Date.valueOf(VALUATION_DATE)));
+        assertEquals(List.of(second.getId()), jdbcTemplate.queryForList(
+                "SELECT run_id FROM book_valuation WHERE valuation_date = ?", Long.class, Date.valueOf(VALUATION_DATE)));
+        assertEquals(new BigDecimal("200.00"), tradeValuation(second.getId(), 10).get("present_value"));
+    }
+
+    @Test
+    void testRun_FailedBookFailsTheRunAndKeepsEarlierResults() {
+        // Given
+        trade(10, 1, 1);
+        leg(100, 10, 2);
+        cashflow(100, VALUATION_DATE.plusMonths(1), "100.00", null);
+        ValuationRun first = runAndWait();
+        trade(20, 2, 1);
+        leg(200, 20, 2);
+        // Too large for the present value column, so writing the book's valuations fails
+        cashflow(200, VALUATION_DATE.plusMonths(1), "100000000000000000000.00", null);
+
+        // When
+        ValuationRun second = runAndWait();
+
+        // Then
+        assertEquals(ValuationRunStatus.FAILED, second.getStatus());
+        assertEquals("1 of 2 books failed to revalue", second.getErrorMessage());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM trade_valuation WHERE run_id = ?", Integer.class, second.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM book_valuation WHERE run_id = ?", Integer.class, second.getId()));
+        assertEquals(new BigDecimal("100.00"), tradeValuation(first.getId(), 10).get("present_value"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM book_valuation WHERE run_id = ?", Integer.class, first.getId()));
+    }
+
+    private ValuationRun runAndWait() {
+        ValuationRun run = revaluationService.startRun(VALUATION_DATE).orElseThrow();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (revaluationService.isRunning()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Revaluation did not finish");
+            Thread.onSpinWait();
+        }
+        return run;
+    }
+
+    private Map<String, Object> tradeValuation(Long runId, long tradeId) {
+        return jdbcTemplate.queryForMap("SELECT present_value, cashflow_count FROM trade_valuation "
+                + "WHERE run_id = ? AND trade_id = ?", runId, tradeId);
+    }
+
+    private void trade(long tradeId, long bookId, long statusId) {
+        fixtures.trade(tradeId, tradeId, bookId, null, statusId);
+    }
+
+    private void leg(long legId, long tradeId, long payRecId) {
+        fixtures.leg(legId, tradeId, null, payRecId);
+    }
+
+    private void cashflow(long legId, LocalDate valueDate, String amount, Long payRecId) {
+        fixtures.cashflow(legId, valueDate, amount, payRecId);
+    }
+}
@@ -66,4 +66,10 @@ INSERT INTO cashflow (id, payment_value, value_date, rate, leg_id, pay_rec_id, p
 -- Sample Additional Info
 INSERT INTO additional_info (id, entity_type, entity_id, field_name, field_value, field_type, active, created_date, last_modified_date,
                              deactivated_date, version) VALUES
-    (1000,'TRADE',100001, 'SETTLEMENT_INSTRUCTIONS', 'Settle via JPM New York, Account: 123456789, Further Credit ABC Corp Trading Account', 'STRING', true ,'2024-06-02T11:15:00', '2024-06-02T11:15:00', null, 1)
\ No newline at end of file
+    (1000,'TRADE',100001, 'SETTLEMENT_INSTRUCTIONS', 'Settle via JPM New York, Account: 123456789, Further Credit ABC Corp Trading Account', 'STRING', true ,'2024-06-02T11:15:00', '2024-06-02T11:15:00', null, 1);
+
+-- Move generated ids past the seeded ones so new trades, legs and cashflows never collide with them
+ALTER TABLE trade ALTER COLUMN id RESTART WITH 10000;
+ALTER TABLE trade_leg ALTER COLUMN leg_id RESTART WITH 10000;
+ALTER TABLE cashflow ALTER COLUMN id RESTART WITH 10000;
+ALTER TABLE additional_info ALTER COLUMN id RESTART WITH 10000;